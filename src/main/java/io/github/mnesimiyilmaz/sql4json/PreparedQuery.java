@@ -9,6 +9,12 @@ import io.github.mnesimiyilmaz.sql4json.parser.QueryParser;
 import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -70,6 +76,144 @@ public final class PreparedQuery {
         return codec.serialize(result);
     }
 
+    /**
+     * Execute this prepared query against UTF-8 encoded JSON bytes. With the default codec the bytes are parsed
+     * directly, without decoding the document into a {@link String} first; the codec's {@code maxInputLength} is then
+     * measured in bytes. Other codecs receive the bytes through {@link JsonCodec#parse(byte[])}.
+     *
+     * @param utf8JsonData UTF-8 encoded JSON to execute against
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if an error occurs during execution
+     *     or JSON parsing, including when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public String execute(byte[] utf8JsonData) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeStreaming(
+                    definition, utf8JsonData == null ? null : ByteBuffer.wrap(utf8JsonData), settings);
+        }
+        JsonValue result = executor.execute(definition, codec.parse(utf8JsonData), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute this prepared query against the UTF-8 encoded JSON between the buffer's position and limit. The buffer's
+     * position is not modified. See {@link #execute(byte[])} for codec handling.
+     *
+     * @param utf8JsonData buffer holding UTF-8 encoded JSON to execute against
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if an error occurs during execution
+     *     or JSON parsing, including when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public String execute(ByteBuffer utf8JsonData) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeStreaming(definition, utf8JsonData, settings);
+        }
+        JsonValue result = executor.execute(definition, codec.parse(utf8JsonData), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute this prepared query against a UTF-8 JSON file. With the default codec the file is memory-mapped and
+     * streamed element by element (see {@link SQL4Json#query(String, Path, Sql4jsonSettings)}); other codecs receive
+     * the file's bytes through {@link JsonCodec#parse(byte[])}.
+     *
+     * @param jsonFile UTF-8 encoded JSON file to execute against
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if the file cannot be read or an
+     *     error occurs during execution or JSON parsing
+     * @since 1.4.0
+     */
+    public String execute(Path jsonFile) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeStreaming(definition, jsonFile, settings);
+        }
+        JsonValue result = executor.execute(definition, codec.parse(SQL4Json.readFile(jsonFile)), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute this prepared query against UTF-8 JSON pulled incrementally from a stream. With the default codec the
+     * elements of a root array flow into the pipeline as they arrive (see {@link SQL4Json#query(String, InputStream,
+     * Sql4jsonSettings)}); other codecs receive all bytes through {@link JsonCodec#parse(byte[])}. The stream is not
+     * closed.
+     *
+     * @param in UTF-8 encoded JSON input
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if reading fails or an error occurs
+     *     during execution or JSON parsing
+     * @since 1.4.0
+     */
+    public String execute(InputStream in) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeStreaming(definition, in, settings);
+        }
+        JsonValue result = executor.execute(definition, codec.parse(SQL4Json.readAll(in)), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Channel counterpart of {@link #execute(InputStream)}. The channel must be in blocking mode; it is not closed.
+     *
+     * @param channel UTF-8 encoded JSON input
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if reading fails or an error occurs
+     *     during execution or JSON parsing
+     * @since 1.4.0
+     */
+    public String execute(ReadableByteChannel channel) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeStreaming(definition, channel, settings);
+        }
+        JsonValue result =
+                executor.execute(definition, codec.parse(SQL4Json.readAll(Channels.newInputStream(channel))), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute this prepared query against newline-delimited JSON (NDJSON / JSON Lines): each non-blank line is one row.
+     * See {@link SQL4Json#queryNdjson(String, String, Sql4jsonSettings)} for the format.
+     *
+     * @param ndjson newline-delimited JSON text, one record per line
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if a line is malformed or an error
+     *     occurs during execution
+     * @since 1.4.0
+     */
+    public String executeNdjson(String ndjson) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeNdjsonStreaming(definition, ndjson, settings);
+        }
+        JsonValue result = executor.execute(definition, SQL4Json.parseNdjson(ndjson, codec), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute this prepared query against UTF-8 newline-delimited JSON pulled incrementally from a stream. With the
+     * default codec only the line being parsed is buffered. The stream is not closed.
+     *
+     * @param in UTF-8 encoded NDJSON input
+     * @return result serialized as a JSON string
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException if reading fails, a line is
+     *     malformed or an error occurs during execution
+     * @since 1.4.0
+     */
+    public String executeNdjson(InputStream in) {
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return executor.executeNdjsonStreaming(definition, in, settings);
+        }
+        JsonValue data = SQL4Json.parseNdjson(new String(SQL4Json.readAll(in), StandardCharsets.UTF_8), codec);
+        return codec.serialize(executor.execute(definition, data, settings));
+    }
+
     /**
      * Execute this prepared query against a {@link JsonValue}. Execution limits are governed by the
      * {@link Sql4jsonSettings} bound at construction time.
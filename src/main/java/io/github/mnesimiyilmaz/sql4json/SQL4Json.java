@@ -6,11 +6,18 @@ import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonException;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonParseException;
 import io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec;
+import io.github.mnesimiyilmaz.sql4json.json.JsonArrayValue;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryDefinition;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryParser;
 import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -154,6 +161,349 @@ public final class SQL4Json {
         return EXECUTOR.execute(QueryParser.parse(sql, settings), data, settings);
     }
 
+    /**
+     * Execute a SQL query against a UTF-8 JSON file, returning the result as a JSON string. Equivalent to
+     * {@link #query(String, Path, Sql4jsonSettings) query(sql, jsonFile, Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param jsonFile UTF-8 encoded JSON file to query against
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if the file cannot be read or an error occurs during parsing or execution
+     * @since 1.4.0
+     */
+    public static String query(String sql, Path jsonFile) {
+        return query(sql, jsonFile, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against a UTF-8 JSON file with explicit settings, returning the result as a JSON string.
+     *
+     * <p>With the default codec the file is memory-mapped and its top-level array is streamed element by element, so
+     * files larger than 2 GiB can be queried and the heap only holds in-flight elements (plus whatever ORDER BY, GROUP
+     * BY and similar stages must materialize). In this mode {@code maxInputLength} limits each array element rather
+     * than the whole file. Other codecs receive the file's bytes through {@link JsonCodec#parse(byte[])}.
+     *
+     * @param sql SQL SELECT query
+     * @param jsonFile UTF-8 encoded JSON file to query against
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if the file cannot be read or an error occurs during parsing or execution,
+     *     including when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static String query(String sql, Path jsonFile, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(jsonFile);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeStreaming(QueryParser.parse(sql, settings), jsonFile, settings);
+        }
+        JsonValue result =
+                EXECUTOR.execute(QueryParser.parse(sql, settings), codec.parse(readFile(jsonFile)), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute a SQL query against a UTF-8 JSON file, returning the result as a {@link JsonValue}. Equivalent to
+     * {@link #queryAsJsonValue(String, Path, Sql4jsonSettings) queryAsJsonValue(sql, jsonFile,
+     * Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param jsonFile UTF-8 encoded JSON file to query against
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if the file cannot be read or an error occurs during parsing or execution
+     * @since 1.4.0
+     */
+    public static JsonValue queryAsJsonValue(String sql, Path jsonFile) {
+        return queryAsJsonValue(sql, jsonFile, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against a UTF-8 JSON file with explicit settings, returning the result as a
+     * {@link JsonValue}. Input handling matches {@link #query(String, Path, Sql4jsonSettings)}.
+     *
+     * @param sql SQL SELECT query
+     * @param jsonFile UTF-8 encoded JSON file to query against
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if the file cannot be read or an error occurs during parsing or execution,
+     *     including when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static JsonValue queryAsJsonValue(String sql, Path jsonFile, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(jsonFile);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeStreamingAsJsonValue(sql, jsonFile, settings);
+        }
+        return EXECUTOR.execute(QueryParser.parse(sql, settings), codec.parse(readFile(jsonFile)), settings);
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 JSON read from a stream, returning the result as a JSON string. Equivalent to
+     * {@link #query(String, InputStream, Sql4jsonSettings) query(sql, in, Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded JSON input; not closed
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails or an error occurs during parsing or execution
+     * @since 1.4.0
+     */
+    public static String query(String sql, InputStream in) {
+        return query(sql, in, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 JSON read from a stream with explicit settings, returning the result as a JSON
+     * string.
+     *
+     * <p>With the default codec the input is consumed incrementally: elements of a root array are parsed as they arrive
+     * through a bounded buffer and flow straight into the query pipeline, so WHERE / SELECT / LIMIT queries run in
+     * memory proportional to the largest element rather than the input. {@code maxInputLength} then limits each
+     * element. A root object or non-root {@code FROM} path reads the whole document (bounded by
+     * {@code maxInputLength}). Other codecs receive all bytes through {@link JsonCodec#parse(byte[])}. The stream is
+     * not closed.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded JSON input; not closed
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails or an error occurs during parsing or execution, including
+     *     when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static String query(String sql, InputStream in, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(in);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeStreaming(QueryParser.parse(sql, settings), in, settings);
+        }
+        JsonValue result = EXECUTOR.execute(QueryParser.parse(sql, settings), codec.parse(readAll(in)), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 JSON read from a stream, returning the result as a {@link JsonValue}.
+     * Equivalent to {@link #queryAsJsonValue(String, InputStream, Sql4jsonSettings) queryAsJsonValue(sql, in,
+     * Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded JSON input; not closed
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails or an error occurs during parsing or execution
+     * @since 1.4.0
+     */
+    public static JsonValue queryAsJsonValue(String sql, InputStream in) {
+        return queryAsJsonValue(sql, in, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 JSON read from a stream with explicit settings, returning the result as a
+     * {@link JsonValue}. Input handling matches {@link #query(String, InputStream, Sql4jsonSettings)}.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded JSON input; not closed
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails or an error occurs during parsing or execution, including
+     *     when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static JsonValue queryAsJsonValue(String sql, InputStream in, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(in);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeStreamingAsJsonValue(sql, in, settings);
+        }
+        return EXECUTOR.execute(QueryParser.parse(sql, settings), codec.parse(readAll(in)), settings);
+    }
+
+    /**
+     * Execute a SQL query against newline-delimited JSON (NDJSON / JSON Lines), returning the result as a JSON string.
+     * Equivalent to {@link #queryNdjson(String, String, Sql4jsonSettings) queryNdjson(sql, ndjson,
+     * Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param ndjson newline-delimited JSON text, one record per line
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if a line is malformed or an error occurs during execution
+     * @since 1.4.0
+     */
+    public static String queryNdjson(String sql, String ndjson) {
+        return queryNdjson(sql, ndjson, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against newline-delimited JSON (NDJSON / JSON Lines) with explicit settings, returning the
+     * result as a JSON string.
+     *
+     * <p>Each non-blank line holds one JSON value and becomes one row; {@code \r\n} line endings and a trailing newline
+     * are accepted. The input behaves like a root array of its records, so queries read {@code FROM $r}. With the
+     * default codec lines are located with a newline scan and parsed one at a time, and {@code maxInputLength} applies
+     * to each line; other codecs parse each line through {@link JsonCodec#parse(String)}.
+     *
+     * @param sql SQL SELECT query
+     * @param ndjson newline-delimited JSON text, one record per line
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if a line is malformed or an error occurs during execution, including when a
+     *     configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static String queryNdjson(String sql, String ndjson, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(ndjson);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeNdjsonStreaming(QueryParser.parse(sql, settings), ndjson, settings);
+        }
+        JsonValue result = EXECUTOR.execute(QueryParser.parse(sql, settings), parseNdjson(ndjson, codec), settings);
+        return codec.serialize(result);
+    }
+
+    /**
+     * Execute a SQL query against newline-delimited JSON, returning the result as a {@link JsonValue}. Equivalent to
+     * {@link #queryNdjsonAsJsonValue(String, String, Sql4jsonSettings) queryNdjsonAsJsonValue(sql, ndjson,
+     * Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param ndjson newline-delimited JSON text, one record per line
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if a line is malformed or an error occurs during execution
+     * @since 1.4.0
+     */
+    public static JsonValue queryNdjsonAsJsonValue(String sql, String ndjson) {
+        return queryNdjsonAsJsonValue(sql, ndjson, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against newline-delimited JSON with explicit settings, returning the result as a
+     * {@link JsonValue}. Input handling matches {@link #queryNdjson(String, String, Sql4jsonSettings)}.
+     *
+     * @param sql SQL SELECT query
+     * @param ndjson newline-delimited JSON text, one record per line
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if a line is malformed or an error occurs during execution, including when a
+     *     configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static JsonValue queryNdjsonAsJsonValue(String sql, String ndjson, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(ndjson);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeNdjsonStreamingAsJsonValue(sql, ndjson, settings);
+        }
+        return EXECUTOR.execute(QueryParser.parse(sql, settings), parseNdjson(ndjson, codec), settings);
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 newline-delimited JSON read from a stream, returning the result as a JSON
+     * string. Equivalent to {@link #queryNdjson(String, InputStream, Sql4jsonSettings) queryNdjson(sql, in,
+     * Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded NDJSON input; not closed
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails, a line is malformed or an error occurs during execution
+     * @since 1.4.0
+     */
+    public static String queryNdjson(String sql, InputStream in) {
+        return queryNdjson(sql, in, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 newline-delimited JSON read from a stream with explicit settings, returning the
+     * result as a JSON string. With the default codec the stream is read incrementally and only the line being parsed
+     * is buffered, so lazy-stage queries (WHERE / SELECT / LIMIT) run in memory proportional to the longest line. See
+     * {@link #queryNdjson(String, String, Sql4jsonSettings)} for the format. The stream is not closed.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded NDJSON input; not closed
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result serialized as a JSON string
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails, a line is malformed or an error occurs during execution,
+     *     including when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static String queryNdjson(String sql, InputStream in, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(in);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeNdjsonStreaming(QueryParser.parse(sql, settings), in, settings);
+        }
+        JsonValue data = parseNdjson(new String(readAll(in), StandardCharsets.UTF_8), codec);
+        return codec.serialize(EXECUTOR.execute(QueryParser.parse(sql, settings), data, settings));
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 newline-delimited JSON read from a stream, returning the result as a
+     * {@link JsonValue}. Equivalent to {@link #queryNdjsonAsJsonValue(String, InputStream, Sql4jsonSettings)
+     * queryNdjsonAsJsonValue(sql, in, Sql4jsonSettings.defaults())}.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded NDJSON input; not closed
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails, a line is malformed or an error occurs during execution
+     * @since 1.4.0
+     */
+    public static JsonValue queryNdjsonAsJsonValue(String sql, InputStream in) {
+        return queryNdjsonAsJsonValue(sql, in, Sql4jsonSettings.defaults());
+    }
+
+    /**
+     * Execute a SQL query against UTF-8 newline-delimited JSON read from a stream with explicit settings, returning the
+     * result as a {@link JsonValue}. Input handling matches {@link #queryNdjson(String, InputStream,
+     * Sql4jsonSettings)}.
+     *
+     * @param sql SQL SELECT query
+     * @param in UTF-8 encoded NDJSON input; not closed
+     * @param settings settings controlling limits, codec, cache, and security behaviour
+     * @return result as a {@code JsonValue}
+     * @throws SQL4JsonParseException if the SQL has syntax errors or exceeds the configured SQL length limit
+     * @throws SQL4JsonExecutionException if reading fails, a line is malformed or an error occurs during execution,
+     *     including when a configured limit from {@link Sql4jsonSettings} is exceeded
+     * @since 1.4.0
+     */
+    public static JsonValue queryNdjsonAsJsonValue(String sql, InputStream in, Sql4jsonSettings settings) {
+        validateQuery(sql);
+        validateData(in);
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        JsonCodec codec = settings.codec();
+        if (codec instanceof DefaultJsonCodec) {
+            return EXECUTOR.executeNdjsonStreamingAsJsonValue(sql, in, settings);
+        }
+        JsonValue data = parseNdjson(new String(readAll(in), StandardCharsets.UTF_8), codec);
+        return EXECUTOR.execute(QueryParser.parse(sql, settings), data, settings);
+    }
+
     /**
      * Execute a SQL query against a {@link JsonValue}, returning the result as a JsonValue. Parsing and execution
      * limits are governed by {@link Sql4jsonSettings#defaults()}. Equivalent to {@link #queryAsJsonValue(String,
@@ -506,9 +856,36 @@ public final class SQL4Json {
         }
     }
 
-    private static void validateData(String jsonData) {
+    private static void validateData(Object jsonData) {
         if (jsonData == null) {
             throw new SQL4JsonException("Input data must not be null");
         }
     }
+
+    // Custom codecs see one line at a time; the records are gathered into the array the input stands for.
+    static JsonValue parseNdjson(String ndjson, JsonCodec codec) {
+        List<JsonValue> records = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isBlank()) {
+                records.add(codec.parse(line));
+            }
+        }
+        return new JsonArrayValue(records);
+    }
+
+    static byte[] readAll(InputStream in) {
+        try {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new SQL4JsonExecutionException("Failed to read JSON input: " + e.getMessage(), e);
+        }
+    }
+
+    static byte[] readFile(Path jsonFile) {
+        try {
+            return Files.readAllBytes(jsonFile);
+        } catch (IOException e) {
+            throw new SQL4JsonExecutionException("Failed to read JSON file: " + e.getMessage(), e);
+        }
+    }
 }
@@ -11,6 +11,7 @@ import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Stateful query engine with bound JSON data, an optional result cache, and bound {@link Sql4jsonSettings} that governs
@@ -42,7 +43,7 @@ public final class SQL4JsonEngine {
 
     private static final QueryExecutor EXECUTOR = new QueryExecutor();
 
-    private final String rawJson; // non-null when tree was released (string-based)
+    private final Supplier<JsonValue> rawData; // non-null when tree was released; re-parses the raw String/byte input
     private final JsonValue data; // non-null when tree is kept (JsonValue-based)
     private final List<FlatRow> preFlattenedRows; // empty if data is not a top-level array
     private final QueryResultCache cache; // null if caching not configured
@@ -51,14 +52,14 @@ public final class SQL4JsonEngine {
     private final Sql4jsonSettings settings;
 
     SQL4JsonEngine(
-            String rawJson,
+            Supplier<JsonValue> rawData,
             JsonValue data,
             List<FlatRow> preFlattenedRows,
             QueryResultCache cache,
             JsonCodec codec,
             Map<String, JsonValue> namedSources,
             Sql4jsonSettings settings) {
-        this.rawJson = rawJson;
+        this.rawData = rawData;
         this.data = data;
         this.preFlattenedRows = preFlattenedRows;
         this.cache = cache;
@@ -127,16 +128,16 @@ public final class SQL4JsonEngine {
     }
 
     /**
-     * Resolve data for query execution. When the tree was released (string-based Engine), re-parse from raw JSON only
-     * if the query actually needs the tree (subqueries or non-root FROM). For normal queries with pre-flattened rows,
-     * returns null.
+     * Resolve data for query execution. When the tree was released (String/byte-based Engine), re-parse from raw JSON
+     * only if the query actually needs the tree (subqueries or non-root FROM). For normal queries with pre-flattened
+     * rows, returns null.
      */
     private JsonValue resolveData(QueryDefinition definition) {
         if (data != null) return data;
         // Tree was released — only re-parse if the query needs the original tree
         if (definition.fromSubQuery() != null
                 || (definition.rootPath() != null && !definition.rootPath().equals("$r"))) {
-            return codec.parse(rawJson);
+            return rawData.get();
         }
         return null;
     }
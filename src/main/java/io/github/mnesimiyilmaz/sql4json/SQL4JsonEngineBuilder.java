@@ -5,6 +5,7 @@ import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
 import io.github.mnesimiyilmaz.sql4json.engine.FlatRow;
 import io.github.mnesimiyilmaz.sql4json.engine.RowSchema;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonException;
+import io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec;
 import io.github.mnesimiyilmaz.sql4json.json.JsonArrayValue;
 import io.github.mnesimiyilmaz.sql4json.json.JsonFlattener;
 import io.github.mnesimiyilmaz.sql4json.json.JsonObjectValue;
@@ -14,6 +15,7 @@ import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
 import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Fluent builder for {@link SQL4JsonEngine}.
@@ -43,8 +45,9 @@ public final class SQL4JsonEngineBuilder {
 
     private Sql4jsonSettings settings = Sql4jsonSettings.defaults();
     private String rawJson; // from data(String)
+    private byte[] rawBytes; // from data(byte[])
     private JsonValue directData; // from data(JsonValue)
-    private Map<String, String> rawNamedSources; // from data(String, String)
+    private Map<String, Function<JsonCodec, JsonValue>> rawNamedSources; // from data(String, String|byte[])
     private Map<String, JsonValue> directNamedSources; // from data(String, JsonValue)
 
     SQL4JsonEngineBuilder() {}
@@ -76,6 +79,30 @@ public final class SQL4JsonEngineBuilder {
             throw new SQL4JsonException("Input data must not be null");
         }
         this.rawJson = jsonString;
+        this.rawBytes = null;
+        this.directData = null;
+        return this;
+    }
+
+    /**
+     * Bind UTF-8 encoded JSON bytes as the unnamed (root) data source, referenced as {@code $r} in queries. Parsing is
+     * deferred to {@link #build()} and goes through {@link JsonCodec#parse(byte[])}; the default codec reads the bytes
+     * directly without decoding them into a {@link String}. The array is not copied — it must not be modified after
+     * being passed in, since the engine may re-parse it for subquery or non-root {@code FROM} queries. With
+     * {@link io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings#lazyDocuments()} on the default codec,
+     * the engine keeps the tape-backed document instead of pre-flattening its rows, and flattens them per query.
+     *
+     * @param utf8Json UTF-8 encoded JSON to bind as the root data source
+     * @return this builder
+     * @throws SQL4JsonException if {@code utf8Json} is null
+     * @since 1.4.0
+     */
+    public SQL4JsonEngineBuilder data(byte[] utf8Json) {
+        if (utf8Json == null) {
+            throw new SQL4JsonException("Input data must not be null");
+        }
+        this.rawBytes = utf8Json;
+        this.rawJson = null;
         this.directData = null;
         return this;
     }
@@ -93,6 +120,7 @@ public final class SQL4JsonEngineBuilder {
         }
         this.directData = jsonValue;
         this.rawJson = null;
+        this.rawBytes = null;
         return this;
     }
 
@@ -109,7 +137,24 @@ public final class SQL4JsonEngineBuilder {
     public SQL4JsonEngineBuilder data(String name, String jsonString) {
         validateNamedSource(name, jsonString);
         if (rawNamedSources == null) rawNamedSources = new LinkedHashMap<>();
-        rawNamedSources.put(name, jsonString);
+        rawNamedSources.put(name, codec -> codec.parse(jsonString));
+        return this;
+    }
+
+    /**
+     * Bind a named UTF-8 encoded JSON source for use in JOIN queries. Parsing is deferred to {@link #build()} and goes
+     * through {@link JsonCodec#parse(byte[])}.
+     *
+     * @param name table identifier used in FROM/JOIN clauses
+     * @param utf8Json UTF-8 encoded JSON for this named source
+     * @return this builder
+     * @throws SQL4JsonException if {@code name} or {@code utf8Json} is null (or name is blank)
+     * @since 1.4.0
+     */
+    public SQL4JsonEngineBuilder data(String name, byte[] utf8Json) {
+        validateNamedSource(name, utf8Json);
+        if (rawNamedSources == null) rawNamedSources = new LinkedHashMap<>();
+        rawNamedSources.put(name, codec -> codec.parse(utf8Json));
         return this;
     }
 
@@ -142,7 +187,7 @@ public final class SQL4JsonEngineBuilder {
      * Build the configured {@link SQL4JsonEngine}. At least one data source must be bound. All JSON strings are parsed
      * here using the codec from the bound {@link Sql4jsonSettings}. JSON-codec limits from {@link Sql4jsonSettings}
      * (e.g. maximum input length and nesting depth configured via {@code DefaultJsonCodecSettings}) are enforced at
-     * this point for any raw JSON strings supplied via {@link #data(String)} or {@link #data(String, String)}.
+     * this point for any raw JSON supplied via {@link #data(String)}, {@link #data(byte[])} or the named variants.
      *
      * @return the configured engine
      * @throws SQL4JsonException if no data source has been configured
@@ -150,7 +195,7 @@ public final class SQL4JsonEngineBuilder {
      *     a configured JSON codec limit from {@link Sql4jsonSettings} is exceeded
      */
     public SQL4JsonEngine build() {
-        boolean hasUnnamed = rawJson != null || directData != null;
+        boolean hasUnnamed = rawJson != null || rawBytes != null || directData != null;
         boolean hasNamed = (rawNamedSources != null && !rawNamedSources.isEmpty())
                 || (directNamedSources != null && !directNamedSources.isEmpty());
         if (!hasUnnamed && !hasNamed) {
@@ -161,12 +206,24 @@ public final class SQL4JsonEngineBuilder {
         JsonValue resolvedData = resolvePrimaryData(codec);
         Map<String, JsonValue> resolvedNamedSources = hasNamed ? resolveNamedSources(codec) : null;
 
-        List<FlatRow> preFlattenedRows = resolvedData != null ? preFlattenRows(resolvedData) : List.of();
+        // A lazy tape already is the compact form of the data: keep it and flatten rows per query instead
+        boolean keepsTape = rawBytes != null
+                && codec instanceof DefaultJsonCodec dc
+                && dc.settings().lazyDocuments();
+        List<FlatRow> preFlattenedRows = resolvedData != null && !keepsTape ? preFlattenRows(resolvedData) : List.of();
         QueryResultCache resolvedCache = resolveCache();
 
-        if (!preFlattenedRows.isEmpty() && rawJson != null) {
+        if (!preFlattenedRows.isEmpty() && (rawJson != null || rawBytes != null)) {
+            String json = rawJson;
+            byte[] bytes = rawBytes;
             return new SQL4JsonEngine(
-                    rawJson, null, preFlattenedRows, resolvedCache, codec, resolvedNamedSources, settings);
+                    () -> json != null ? codec.parse(json) : codec.parse(bytes),
+                    null,
+                    preFlattenedRows,
+                    resolvedCache,
+                    codec,
+                    resolvedNamedSources,
+                    settings);
         }
         return new SQL4JsonEngine(
                 null, resolvedData, preFlattenedRows, resolvedCache, codec, resolvedNamedSources, settings);
@@ -175,13 +232,14 @@ public final class SQL4JsonEngineBuilder {
     private JsonValue resolvePrimaryData(JsonCodec codec) {
         if (directData != null) return directData;
         if (rawJson != null) return codec.parse(rawJson);
+        if (rawBytes != null) return codec.parse(rawBytes);
         return null;
     }
 
     private Map<String, JsonValue> resolveNamedSources(JsonCodec codec) {
         Map<String, JsonValue> merged = new LinkedHashMap<>();
         if (rawNamedSources != null) {
-            rawNamedSources.forEach((n, j) -> merged.put(n, codec.parse(j)));
+            rawNamedSources.forEach((n, parser) -> merged.put(n, parser.apply(codec)));
         }
         if (directNamedSources != null) {
             merged.putAll(directNamedSources);
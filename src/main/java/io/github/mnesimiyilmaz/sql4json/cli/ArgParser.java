@@ -25,7 +25,8 @@ final class ArgParser {
      * @param args raw command-line arguments
      * @return populated {@link ParsedArgs}
      * @throws UsageException for missing values, unknown flags, duplicate single-value flags, malformed {@code --data}
-     *     / {@code -p} arguments, and the {@code -f}/{@code --data} mutual exclusion
+     *     / {@code -p} / {@code --format} arguments, and the {@code -f}/{@code --data} and {@code --format
+     *     ndjson}/{@code --data} mutual exclusions
      */
     static ParsedArgs parse(String[] args) {
         State state = new State();
@@ -36,6 +37,9 @@ final class ArgParser {
         if (state.filePath != null && !state.dataSources.isEmpty()) {
             throw new UsageException("-f/--file and --data are mutually exclusive");
         }
+        if ("ndjson".equals(state.format) && !state.dataSources.isEmpty()) {
+            throw new UsageException("--format ndjson cannot be combined with --data");
+        }
         return state.toParsedArgs();
     }
 
@@ -48,6 +52,7 @@ final class ArgParser {
         String querySource;
         String filePath;
         String outputPath;
+        String format;
         final Map<String, String> dataSources = new LinkedHashMap<>();
         final Map<String, Object> namedParams = new LinkedHashMap<>();
         boolean pretty;
@@ -77,6 +82,10 @@ final class ArgParser {
                     outputPath = requireUniqueValue(args, i, outputPath, "-o", "-o/--output");
                     yield i + 2;
                 }
+                case "--format" -> {
+                    format = requireFormat(requireUniqueValue(args, i, format, "--format", "--format"));
+                    yield i + 2;
+                }
                 case "--pretty" -> {
                     pretty = setUniqueFlag(pretty, "--pretty");
                     yield i + 1;
@@ -94,7 +103,16 @@ final class ArgParser {
         }
 
         ParsedArgs toParsedArgs() {
-            return new ParsedArgs(querySource, filePath, outputPath, dataSources, namedParams, pretty, help, version);
+            return new ParsedArgs(
+                    querySource,
+                    filePath,
+                    outputPath,
+                    dataSources,
+                    namedParams,
+                    "ndjson".equals(format),
+                    pretty,
+                    help,
+                    version);
         }
 
         private static String requireUniqueValue(String[] args, int idx, String existing, String flag, String label) {
@@ -112,6 +130,13 @@ final class ArgParser {
             return true;
         }
 
+        private static String requireFormat(String value) {
+            if (!value.equals("json") && !value.equals("ndjson")) {
+                throw new UsageException("--format expects json or ndjson, got '" + value + "'");
+            }
+            return value;
+        }
+
         private static UsageException unexpectedArgument(String arg) {
             return arg.startsWith("-")
                     ? new UsageException("Unknown flag: " + arg)
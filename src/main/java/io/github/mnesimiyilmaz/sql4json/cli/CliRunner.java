@@ -6,7 +6,10 @@ import io.github.mnesimiyilmaz.sql4json.SQL4Json;
 import io.github.mnesimiyilmaz.sql4json.SQL4JsonEngine;
 import io.github.mnesimiyilmaz.sql4json.SQL4JsonEngineBuilder;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonException;
+import io.github.mnesimiyilmaz.sql4json.json.JsonArrayValue;
 import io.github.mnesimiyilmaz.sql4json.json.JsonSerializer;
+import io.github.mnesimiyilmaz.sql4json.json.StreamingJsonParser;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
 import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
 import java.io.IOException;
@@ -45,6 +48,8 @@ public final class CliRunner {
 
               -q, --query <sql|@path>     SQL to run; @path reads from a file. Required.
               -f, --file <path>           JSON input file. Omit to read from stdin.
+                  --format <json|ndjson>  Input format (default: json). ndjson reads one
+                                          JSON value per line. Cannot be combined with --data.
               -o, --output <path>         Write result here. Omit for stdout.
                   --data <name>=<path>    Repeatable. Named source for JOIN queries.
                                           Cannot be combined with -f.
@@ -134,14 +139,36 @@ public final class CliRunner {
     }
 
     private static JsonValue executeSingleSource(ParsedArgs parsed, String sql, InputStream in) throws IOException {
-        String json = readInput(parsed.filePath(), in);
+        if (parsed.ndjson()) {
+            return executeNdjson(parsed, sql, in);
+        }
         if (parsed.namedParams().isEmpty()) {
-            return SQL4Json.queryAsJsonValue(sql, json);
+            // Files are memory-mapped and stdin is read incrementally — neither is loaded into the heap up front.
+            return parsed.filePath() != null
+                    ? SQL4Json.queryAsJsonValue(sql, Path.of(parsed.filePath()))
+                    : SQL4Json.queryAsJsonValue(sql, in);
         }
+        String json = readInput(parsed.filePath(), in);
         JsonValue data = Sql4jsonSettings.defaults().codec().parse(json);
         return SQL4Json.prepare(sql).execute(data, buildParams(parsed.namedParams()));
     }
 
+    private static JsonValue executeNdjson(ParsedArgs parsed, String sql, InputStream in) throws IOException {
+        if (parsed.namedParams().isEmpty()) {
+            if (parsed.filePath() == null) {
+                return SQL4Json.queryNdjsonAsJsonValue(sql, in);
+            }
+            try (InputStream file = Files.newInputStream(Path.of(parsed.filePath()))) {
+                return SQL4Json.queryNdjsonAsJsonValue(sql, file);
+            }
+        }
+        String ndjson = readInput(parsed.filePath(), in);
+        JsonValue data =
+                new JsonArrayValue(StreamingJsonParser.streamLines(ndjson, null, DefaultJsonCodecSettings.defaults())
+                        .toList());
+        return SQL4Json.prepare(sql).execute(data, buildParams(parsed.namedParams()));
+    }
+
     private static JsonValue executeMultiSource(ParsedArgs parsed, String sql) throws IOException {
         Map<String, String> sources = new LinkedHashMap<>();
         for (var entry : parsed.dataSources().entrySet()) {
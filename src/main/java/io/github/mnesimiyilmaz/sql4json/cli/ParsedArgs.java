@@ -15,6 +15,7 @@ import java.util.Map;
  * @param dataSources ordered map {@code name → path} from {@code --data}; empty if none. Mutually exclusive with
  *     {@link #filePath}
  * @param namedParams ordered map {@code name → bound Java value} from {@code -p/--param}; empty if none
+ * @param ndjson {@code true} when {@code --format ndjson} was supplied: input is newline-delimited JSON
  * @param pretty {@code true} when {@code --pretty} was supplied
  * @param help {@code true} when {@code -h/--help} was supplied (short-circuits every other flag including missing
  *     {@code -q})
@@ -27,6 +28,7 @@ record ParsedArgs(
         String outputPath,
         Map<String, String> dataSources,
         Map<String, Object> namedParams,
+        boolean ndjson,
         boolean pretty,
         boolean help,
         boolean version) {}
@@ -0,0 +1,81 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.AggregateFnCall;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.List;
+
+/**
+ * One GROUP BY group as seen by aggregate evaluation: a representative row for non-aggregate sub-expressions, and the
+ * value of each aggregate call over the whole group. Either backed by the group's rows ({@link Rows}) or by incremental
+ * per-group state that never retained them.
+ *
+ * @since 1.4.0
+ */
+public interface AggregatedGroup {
+
+    /**
+     * Returns the group's first row, used for group-by keys, {@code SELECT *} and other non-aggregate expressions.
+     *
+     * @return the representative row
+     */
+    RowAccessor representative();
+
+    /**
+     * Returns the value of {@code call} over the group.
+     *
+     * @param call the aggregate call
+     * @param registry function registry for function lookup
+     * @return the aggregate result
+     */
+    SqlValue aggregate(AggregateFnCall call, FunctionRegistry registry);
+
+    /**
+     * Wraps the rows of a group.
+     *
+     * @param rows the group's rows in input order; must not be empty
+     * @return a group that aggregates by scanning {@code rows}
+     */
+    static Rows of(List<? extends RowAccessor> rows) {
+        return new Rows(List.copyOf(rows));
+    }
+
+    /**
+     * Group backed by its retained rows; each aggregate call re-scans them.
+     *
+     * @param rows the group's rows in input order
+     */
+    record Rows(List<RowAccessor> rows) implements AggregatedGroup {
+
+        @Override
+        public RowAccessor representative() {
+            return rows.getFirst();
+        }
+
+        @Override
+        public SqlValue aggregate(AggregateFnCall call, FunctionRegistry registry) {
+            Expression inner = call.inner();
+            String name = call.name();
+            List<SqlValue> values;
+            if (inner == null) {
+                // COUNT(*): one placeholder per row — aggregate counts the list size
+                values = rows.stream().<SqlValue>map(r -> SqlNull.INSTANCE).toList();
+            } else {
+                values = rows.stream()
+                        .map(row -> ExpressionEvaluator.evaluate(inner, row, registry))
+                        .toList();
+                // For COUNT(col), filter out NULLs per SQL standard
+                if ("count".equalsIgnoreCase(name)) {
+                    values = values.stream().filter(v -> !v.isNull()).toList();
+                }
+            }
+            return registry.getAggregate(name)
+                    .orElseThrow(() -> new SQL4JsonExecutionException("Unknown aggregate function: " + name))
+                    .apply()
+                    .apply(values);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+
+/**
+ * Plan-time binding of a {@link Expression.ColumnRef}: the path's {@link FieldKey}, built once when the reference is
+ * created, and its ordinal in the {@link RowSchema} of the rows being read.
+ *
+ * <p>Stages see their input schema only when rows arrive, so the ordinal is bound on the first {@link FlatRow} of each
+ * schema and reused for every following row that shares it — a reference check and an array read, with no
+ * {@code FieldKey} allocation or schema hash lookup per row. Rows of another schema rebind; lazy {@link Row}s, which
+ * have no schema, are read through the pre-built key.
+ *
+ * <p>The bound schema and ordinal are published together as one immutable pair, so a binding shared by concurrent
+ * executions of a cached query at worst rebinds.
+ *
+ * @since 1.4.0
+ */
+public final class ColumnBinding {
+
+    private final FieldKey key;
+    private Slot slot; // last schema bound; replaced, never mutated
+
+    private record Slot(RowSchema schema, int ordinal) {}
+
+    ColumnBinding(String path) {
+        this.key = FieldKey.of(path);
+    }
+
+    /**
+     * Returns the pre-built key of the bound path.
+     *
+     * @return the field key
+     */
+    public FieldKey key() {
+        return key;
+    }
+
+    /**
+     * Reads the bound column from {@code row}.
+     *
+     * @param row the row to read
+     * @return the value, or {@link SqlNull#INSTANCE} when the row has no such column
+     */
+    public SqlValue get(RowAccessor row) {
+        if (row instanceof FlatRow flat) {
+            RowSchema schema = flat.schema();
+            Slot s = slot;
+            if (s == null || s.schema() != schema) {
+                s = new Slot(schema, schema.indexOf(key));
+                slot = s;
+            }
+            return s.ordinal() < 0 ? SqlNull.INSTANCE : flat.get(s.ordinal());
+        }
+        return row.get(key);
+    }
+
+    /** Bindings of the same path are equal, so binding never affects {@link Expression} equality. */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ColumnBinding other && key.equals(other.key));
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key.getKey();
+    }
+}
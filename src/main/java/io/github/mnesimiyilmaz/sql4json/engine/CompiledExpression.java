@@ -0,0 +1,22 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+
+/**
+ * A scalar {@link Expression} compiled by {@link ExpressionCompiler} into a tree of closures. Evaluating it gives the
+ * same value (and the same errors) as {@link ExpressionEvaluator#evaluate} on the source expression.
+ *
+ * @since 1.4.0
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+
+    /**
+     * Evaluates the expression against one row.
+     *
+     * @param row the row to read
+     * @return the computed SQL value
+     */
+    SqlValue evaluate(RowAccessor row);
+}
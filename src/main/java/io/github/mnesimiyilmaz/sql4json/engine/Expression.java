@@ -4,6 +4,7 @@ package io.github.mnesimiyilmaz.sql4json.engine;
 import io.github.mnesimiyilmaz.sql4json.parser.ParameterPositionKind;
 import io.github.mnesimiyilmaz.sql4json.registry.CriteriaNode;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -29,8 +30,18 @@ public sealed interface Expression
      * Column/field reference: {@code name}, {@code address.city}
      *
      * @param path dot-separated path to the JSON field
+     * @param binding the path's pre-built key and bound ordinal; equal for equal paths
      */
-    record ColumnRef(String path) implements Expression {}
+    record ColumnRef(String path, ColumnBinding binding) implements Expression {
+        /**
+         * Creates a reference with a fresh binding.
+         *
+         * @param path dot-separated path to the JSON field
+         */
+        public ColumnRef(String path) {
+            this(path, new ColumnBinding(path));
+        }
+    }
 
     /**
      * Scalar function call: {@code UPPER(name)}, {@code NULLIF(col, 0)}. Arguments are Expressions — enabling nesting:
@@ -168,7 +179,7 @@ public sealed interface Expression
      */
     default void collectReferencedFields(Set<String> fields) {
         switch (this) {
-            case ColumnRef(var path) -> fields.add(path);
+            case ColumnRef(var path, var binding) -> fields.add(path);
             case ScalarFnCall(var name, var args) -> args.forEach(a -> a.collectReferencedFields(fields));
             case AggregateFnCall(var name, var inner) when inner != null -> inner.collectReferencedFields(fields);
             case AggregateFnCall ignored -> {
@@ -214,7 +225,7 @@ public sealed interface Expression
      */
     default String innermostColumnPath() {
         return switch (this) {
-            case ColumnRef(var path) -> path;
+            case ColumnRef(var path, var binding) -> path;
             case ScalarFnCall(var name, var args) ->
                 args.isEmpty() ? null : args.getFirst().innermostColumnPath();
             case AggregateFnCall(var name, var inner) -> inner != null ? inner.innermostColumnPath() : null;
@@ -253,6 +264,47 @@ public sealed interface Expression
         };
     }
 
+    /**
+     * Collects every AggregateFnCall of this expression tree that is evaluated in aggregate context — the calls
+     * {@link #containsAggregate()} finds.
+     *
+     * @param calls mutable collection to add the calls to
+     * @since 1.4.0
+     */
+    default void collectAggregateCalls(Collection<AggregateFnCall> calls) {
+        switch (this) {
+            case AggregateFnCall call -> calls.add(call);
+            case ScalarFnCall(var name, var args) -> args.forEach(a -> a.collectAggregateCalls(calls));
+            case SimpleCaseWhen(var subject, var clauses, var elseExpr) -> {
+                subject.collectAggregateCalls(calls);
+                for (var wc : clauses) {
+                    wc.value().collectAggregateCalls(calls);
+                    wc.result().collectAggregateCalls(calls);
+                }
+                if (elseExpr != null) elseExpr.collectAggregateCalls(calls);
+            }
+            case SearchedCaseWhen(var clauses, var elseExpr) -> {
+                for (var wc : clauses) wc.result().collectAggregateCalls(calls);
+                if (elseExpr != null) elseExpr.collectAggregateCalls(calls);
+            }
+            case ColumnRef ignored -> {
+                /* no aggregates */
+            }
+            case LiteralVal ignored -> {
+                /* no aggregates */
+            }
+            case WindowFnCall ignored -> {
+                /* evaluated per row by WindowStage */
+            }
+            case NowRef() -> {
+                /* no aggregates */
+            }
+            case ParameterRef ignored -> {
+                /* no aggregates */
+            }
+        }
+    }
+
     /**
      * Returns true if this expression tree contains a WindowFnCall. Note: window functions nested inside aggregates is
      * not legal SQL, so AggregateFnCall returns false unconditionally.
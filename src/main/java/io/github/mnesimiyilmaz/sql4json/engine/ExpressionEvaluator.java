@@ -38,7 +38,7 @@ public final class ExpressionEvaluator {
      */
     public static SqlValue evaluate(Expression expr, RowAccessor row, FunctionRegistry registry) {
         return switch (expr) {
-            case ColumnRef(var path) -> row.get(FieldKey.of(path));
+            case ColumnRef ref -> ref.binding().get(row);
             case LiteralVal(var value) -> value;
             case ScalarFnCall(var name, var args) -> {
                 // Evaluate first arg as primary value, rest as extra args
@@ -97,26 +97,22 @@ public final class ExpressionEvaluator {
      */
     public static SqlValue evaluateAggregate(
             Expression expr, List<? extends RowAccessor> group, FunctionRegistry registry) {
+        return evaluateAggregate(expr, AggregatedGroup.of(group), registry);
+    }
+
+    /**
+     * Evaluate an expression that may contain an aggregate, against a group. Each AggregateFnCall is answered by the
+     * group; any outer scalar functions are applied to the result.
+     *
+     * @param expr the expression tree (may contain aggregate calls)
+     * @param group the group to aggregate over
+     * @param registry function registry for function lookup
+     * @return the computed aggregate SQL value
+     * @since 1.4.0
+     */
+    public static SqlValue evaluateAggregate(Expression expr, AggregatedGroup group, FunctionRegistry registry) {
         return switch (expr) {
-            case AggregateFnCall(var name, var inner) -> {
-                List<SqlValue> values;
-                if (inner == null) {
-                    // COUNT(*): one placeholder per row — aggregate counts the list size
-                    values = group.stream().<SqlValue>map(r -> SqlNull.INSTANCE).toList();
-                } else {
-                    values = group.stream()
-                            .map(row -> evaluate(inner, row, registry))
-                            .toList();
-                    // For COUNT(col), filter out NULLs per SQL standard
-                    if ("count".equalsIgnoreCase(name)) {
-                        values = values.stream().filter(v -> !v.isNull()).toList();
-                    }
-                }
-                yield registry.getAggregate(name)
-                        .orElseThrow(() -> new SQL4JsonExecutionException("Unknown aggregate function: " + name))
-                        .apply()
-                        .apply(values);
-            }
+            case AggregateFnCall call -> group.aggregate(call, registry);
             case ScalarFnCall(var name, var args) -> {
                 List<SqlValue> evaluatedArgs = new ArrayList<>(args.size());
                 for (Expression arg : args) {
@@ -129,9 +125,9 @@ public final class ExpressionEvaluator {
                         .apply()
                         .apply(primary, extraArgs);
             }
-            case ColumnRef ignored -> evaluate(expr, group.getFirst(), registry);
-            case LiteralVal ignored -> evaluate(expr, group.getFirst(), registry);
-            case Expression.WindowFnCall wfc -> resolveWindowResult(wfc, group.getFirst());
+            case ColumnRef ignored -> evaluate(expr, group.representative(), registry);
+            case LiteralVal ignored -> evaluate(expr, group.representative(), registry);
+            case Expression.WindowFnCall wfc -> resolveWindowResult(wfc, group.representative());
             case SimpleCaseWhen(var subject, var clauses, var elseExpr) ->
                 aggregateSimpleCase(subject, clauses, elseExpr, group, registry);
             case SearchedCaseWhen(var clauses, var elseExpr) ->
@@ -146,10 +142,10 @@ public final class ExpressionEvaluator {
      * Evaluate an expression in aggregate context: if it contains an aggregate, delegate to evaluateAggregate;
      * otherwise evaluate against the first row.
      */
-    private static SqlValue evalExpr(Expression expr, List<? extends RowAccessor> group, FunctionRegistry registry) {
+    private static SqlValue evalExpr(Expression expr, AggregatedGroup group, FunctionRegistry registry) {
         return expr.containsAggregate()
                 ? evaluateAggregate(expr, group, registry)
-                : evaluate(expr, group.getFirst(), registry);
+                : evaluate(expr, group.representative(), registry);
     }
 
     private static SqlValue resolveWindowResult(Expression.WindowFnCall wfc, RowAccessor row) {
@@ -167,7 +163,7 @@ public final class ExpressionEvaluator {
             Expression subject,
             List<Expression.WhenClause.ValueWhen> clauses,
             Expression elseExpr,
-            List<? extends RowAccessor> group,
+            AggregatedGroup group,
             FunctionRegistry registry) {
         SqlValue subjectVal = evalExpr(subject, group, registry);
         for (var wc : clauses) {
@@ -182,10 +178,10 @@ public final class ExpressionEvaluator {
     private static SqlValue aggregateSearchedCase(
             List<Expression.WhenClause.SearchWhen> clauses,
             Expression elseExpr,
-            List<? extends RowAccessor> group,
+            AggregatedGroup group,
             FunctionRegistry registry) {
         for (var wc : clauses) {
-            if (wc.condition().test(group.getFirst())) {
+            if (wc.condition().test(group.representative())) {
                 return evalExpr(wc.result(), group, registry);
             }
         }
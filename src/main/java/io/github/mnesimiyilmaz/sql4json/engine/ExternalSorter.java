@@ -0,0 +1,263 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.sorting.NormalizedKeyEncoder;
+import io.github.mnesimiyilmaz.sql4json.sorting.SortKeys;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stable sort of a row stream by a list of key expressions that spills to disk past a memory threshold (external merge
+ * sort). Each row's keys are evaluated once, as it arrives. While the estimated size of the buffered rows and keys
+ * stays within {@link ExecutionSettings#spillThresholdBytes()} they are held in memory; past it, the buffer is sorted
+ * and written to a {@link SpillFile} as a run, keys first, and buffering starts over.
+ *
+ * <p>Once the input ends, the runs and the in-memory remainder are merged lazily as the returned stream is consumed.
+ * Ties go to the earlier run, so rows with equal keys keep their input order. Runs are merged at most
+ * {@value #MERGE_WIDTH} at a time; with more, the earliest are merged into one run first. Because the keys travel with
+ * the rows, sorting aggregated rows by aggregate expressions does not need the groups that spill files drop. With
+ * {@link ExecutionSettings#normalizedSortKeys()}, rows are compared by {@link NormalizedKeyEncoder} keys. A sorter
+ * created without key expressions sorts rows whose keys the caller evaluated, through {@link #sortKeyed}.
+ *
+ * @since 1.4.0
+ */
+public final class ExternalSorter {
+
+    private static final int MERGE_WIDTH = 64;
+    private static final long ENTRY_BYTES = 48; // entry, key array and list slot
+
+    private final CompiledExpression[] keys;
+    private final boolean[] descending;
+    private final boolean normalized;
+    private final Comparator<Entry> entryOrder;
+    private final RowSchema keySchema;
+    private final long threshold;
+    private final boolean canSpill;
+    private final Path directory;
+
+    /**
+     * Creates a sorter.
+     *
+     * @param keys the sort key expressions, most significant first
+     * @param descending per key, whether it sorts in descending order
+     * @param settings execution settings supplying the spill threshold and directory
+     */
+    public ExternalSorter(List<CompiledExpression> keys, boolean[] descending, ExecutionSettings settings) {
+        this(keys, descending, settings, true);
+    }
+
+    private ExternalSorter(
+            List<CompiledExpression> keys, boolean[] descending, ExecutionSettings settings, boolean evaluatesKeys) {
+        if (evaluatesKeys && keys.size() != descending.length) {
+            throw new IllegalArgumentException("Expected one direction per sort key");
+        }
+        this.keys = keys.toArray(CompiledExpression[]::new);
+        this.descending = descending.clone();
+        this.normalized = settings.normalizedSortKeys();
+        Comparator<SqlValue[]> keyOrder = SortKeys.comparator(descending);
+        this.entryOrder = (a, b) -> a.normalized() != null && b.normalized() != null
+                ? Arrays.compareUnsigned(a.normalized(), b.normalized())
+                : keyOrder.compare(a.key(), b.key());
+        var columns = new ArrayList<FieldKey>(descending.length);
+        for (int i = 0; i < descending.length; i++) columns.add(FieldKey.of("#sort" + i));
+        this.keySchema = RowSchema.of(columns);
+        this.threshold = settings.spillThresholdBytes();
+        this.canSpill = settings.canSpill();
+        this.directory = settings.spillDirectory();
+    }
+
+    /**
+     * Creates a sorter of rows whose keys are evaluated by the caller and passed to {@link #sortKeyed}.
+     *
+     * @param descending per key, whether it sorts in descending order
+     * @param settings execution settings supplying the spill threshold and directory
+     */
+    public ExternalSorter(boolean[] descending, ExecutionSettings settings) {
+        this(List.of(), descending, settings, false);
+    }
+
+    /**
+     * A row paired with its sort keys.
+     *
+     * @param key one value per sort key, most significant first
+     * @param row the row
+     */
+    public record KeyedRow(SqlValue[] key, RowAccessor row) {}
+
+    /** A row with its keys, and their normalized encoding when enabled and exact. */
+    private record Entry(SqlValue[] key, byte[] normalized, RowAccessor row) {}
+
+    private static Entry entry(SqlValue[] key, RowAccessor row, NormalizedKeyEncoder encoder) {
+        return new Entry(key, encoder != null ? encoder.encode(key) : null, row);
+    }
+
+    /**
+     * Consumes {@code input} and returns its rows in key order. Spilled runs are read as the returned stream is
+     * consumed; closing the stream deletes the runs not yet read.
+     *
+     * @param input the rows
+     * @return the sorted rows, lazily
+     */
+    public Stream<RowAccessor> sort(Iterator<RowAccessor> input) {
+        if (keys.length != descending.length) {
+            throw new IllegalStateException("This sorter sorts rows keyed by the caller");
+        }
+        return sortKeyed(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return input.hasNext();
+            }
+
+            @Override
+            public KeyedRow next() {
+                RowAccessor row = input.next();
+                SqlValue[] key = new SqlValue[keys.length];
+                for (int i = 0; i < key.length; i++) key[i] = keys[i].evaluate(row);
+                return new KeyedRow(key, row);
+            }
+        });
+    }
+
+    /**
+     * Consumes rows with their already evaluated keys and returns the rows in key order, as {@link #sort} does.
+     *
+     * @param input the rows with one key value per sort key
+     * @return the sorted rows, lazily
+     */
+    public Stream<RowAccessor> sortKeyed(Iterator<KeyedRow> input) {
+        List<SpillFile> runs = new ArrayList<>();
+        List<Entry> buffer = new ArrayList<>();
+        NormalizedKeyEncoder encoder = normalized ? new NormalizedKeyEncoder(descending) : null;
+        long bytes = 0;
+        Merge merge;
+        try {
+            while (input.hasNext()) {
+                KeyedRow keyed = input.next();
+                SqlValue[] key = keyed.key();
+                long entryBytes = ENTRY_BYTES + SpillFile.estimatedBytes(keyed.row()) + 8L * key.length;
+                for (SqlValue value : key) entryBytes += SpillFile.estimatedBytes(value);
+                buffer.add(entry(key, keyed.row(), encoder));
+                if (canSpill && (bytes += entryBytes) > threshold) {
+                    runs.add(writeRun(buffer));
+                    buffer = new ArrayList<>();
+                    bytes = 0;
+                }
+            }
+            buffer.sort(entryOrder);
+            if (runs.isEmpty()) return buffer.stream().map(Entry::row);
+            while (runs.size() + 1 > MERGE_WIDTH) {
+                SpillFile merged = SpillFile.create(directory);
+                runs.addFirst(merged);
+                List<SpillFile> first = runs.subList(1, MERGE_WIDTH + 1);
+                write(merged, new Merge(cursors(first, List.of(), encoder)));
+                first.clear();
+            }
+            merge = new Merge(cursors(runs, buffer, encoder));
+        } catch (RuntimeException e) {
+            closeAll(runs);
+            throw e;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge, Spliterator.ORDERED), false)
+                .map(Entry::row)
+                .onClose(() -> closeAll(runs));
+    }
+
+    private SpillFile writeRun(List<Entry> buffer) {
+        buffer.sort(entryOrder);
+        SpillFile run = SpillFile.create(directory);
+        try {
+            write(run, buffer.iterator());
+        } catch (RuntimeException e) {
+            run.close();
+            throw e;
+        }
+        return run;
+    }
+
+    // Each entry is written as its key, a flat row over the key schema, followed by the row itself.
+    private void write(SpillFile run, Iterator<Entry> entries) {
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            Object[] values = new Object[descending.length];
+            for (int i = 0; i < values.length; i++) values[i] = entry.key()[i].isNull() ? null : entry.key()[i];
+            run.write(FlatRow.of(keySchema, values));
+            run.write(entry.row());
+        }
+    }
+
+    private List<Iterator<Entry>> cursors(List<SpillFile> runs, List<Entry> remainder, NormalizedKeyEncoder encoder) {
+        var cursors = new ArrayList<Iterator<Entry>>(runs.size() + 1);
+        for (SpillFile run : runs) cursors.add(entries(run.read(), encoder));
+        cursors.add(remainder.iterator());
+        return cursors;
+    }
+
+    // Normalized keys are not spilled: they are re-encoded from the key values as runs are read.
+    private Iterator<Entry> entries(Iterator<RowAccessor> rows, NormalizedKeyEncoder encoder) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                FlatRow keyRow = (FlatRow) rows.next();
+                SqlValue[] key = new SqlValue[descending.length];
+                for (int i = 0; i < key.length; i++) key[i] = keyRow.get(i);
+                return entry(key, rows.next(), encoder);
+            }
+        };
+    }
+
+    private static void closeAll(Collection<SpillFile> files) {
+        RuntimeException failure = null;
+        for (SpillFile file : files) {
+            try {
+                file.close();
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /** K-way merge of sorted cursors; on equal keys the cursor with the lower index goes first. */
+    private final class Merge implements Iterator<Entry> {
+        private record Head(Entry entry, int cursor) {}
+
+        private final List<Iterator<Entry>> cursors;
+        private final PriorityQueue<Head> heads;
+
+        Merge(List<Iterator<Entry>> cursors) {
+            this.cursors = cursors;
+            this.heads = new PriorityQueue<>(Math.max(1, cursors.size()), (a, b) -> {
+                int c = entryOrder.compare(a.entry(), b.entry());
+                return c != 0 ? c : Integer.compare(a.cursor(), b.cursor());
+            });
+            for (int i = 0; i < cursors.size(); i++) advance(i);
+        }
+
+        private void advance(int cursor) {
+            Iterator<Entry> it = cursors.get(cursor);
+            if (it.hasNext()) heads.add(new Head(it.next(), cursor));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Entry next() {
+            Head head = heads.poll();
+            if (head == null) throw new NoSuchElementException();
+            advance(head.cursor());
+            return head.entry();
+        }
+    }
+}
@@ -28,15 +28,14 @@ public final class FlatRow implements RowAccessor {
     private final RowSchema schema;
     private final Object[] values;
     private final boolean aggregated;
-    private final List<RowAccessor> sourceGroup;
+    private final AggregatedGroup group;
     private final JsonValue original;
 
-    private FlatRow(
-            RowSchema schema, Object[] values, boolean aggregated, List<RowAccessor> sourceGroup, JsonValue original) {
+    private FlatRow(RowSchema schema, Object[] values, boolean aggregated, AggregatedGroup group, JsonValue original) {
         this.schema = schema;
         this.values = values;
         this.aggregated = aggregated;
-        this.sourceGroup = sourceGroup;
+        this.group = group;
         this.original = original;
     }
 
@@ -61,7 +60,21 @@ public final class FlatRow implements RowAccessor {
      * @return a new aggregated {@code FlatRow}
      */
     public static FlatRow aggregated(RowSchema schema, Object[] values, List<? extends RowAccessor> sourceGroup) {
-        return new FlatRow(schema, values, true, List.copyOf(sourceGroup), null);
+        return new FlatRow(schema, values, true, AggregatedGroup.of(sourceGroup), null);
+    }
+
+    /**
+     * Wraps a value array as an aggregated row, retaining the group for post-HAVING aggregate re-evaluation. The source
+     * rows are exposed through {@link #sourceGroup()} only when {@code group} retains them.
+     *
+     * @param schema the schema
+     * @param values the value array
+     * @param group the group that aggregated to this row
+     * @return a new aggregated {@code FlatRow}
+     * @since 1.4.0
+     */
+    public static FlatRow aggregated(RowSchema schema, Object[] values, AggregatedGroup group) {
+        return new FlatRow(schema, values, true, group, null);
     }
 
     /**
@@ -96,6 +109,20 @@ public final class FlatRow implements RowAccessor {
         return new FlatRow(schema, vals, false, null, orig);
     }
 
+    /**
+     * Rebuilds a row read back from a {@link SpillFile}. The aggregated group, if the written row had one, is not
+     * restored.
+     *
+     * @param schema the schema
+     * @param values the value array
+     * @param aggregated whether the written row was a GROUP BY output row
+     * @param original the retained original value, or {@code null}
+     * @return a new {@code FlatRow}
+     */
+    static FlatRow restored(RowSchema schema, Object[] values, boolean aggregated, JsonValue original) {
+        return new FlatRow(schema, values, aggregated, null, original);
+    }
+
     @Override
     public RowSchema schema() {
         return schema;
@@ -135,7 +162,12 @@ public final class FlatRow implements RowAccessor {
 
     @Override
     public Optional<List<RowAccessor>> sourceGroup() {
-        return Optional.ofNullable(sourceGroup);
+        return group instanceof AggregatedGroup.Rows rows ? Optional.of(rows.rows()) : Optional.empty();
+    }
+
+    @Override
+    public Optional<AggregatedGroup> aggregatedGroup() {
+        return Optional.ofNullable(group);
     }
 
     @Override
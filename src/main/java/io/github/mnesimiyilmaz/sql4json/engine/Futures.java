@@ -0,0 +1,51 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Joins the tasks a query hands to its executor. The {@link CompletionException} wrapper is removed, so a failing task
+ * surfaces the same exception as the work run inline; lists of futures are joined in submission order, so when several
+ * tasks fail the earliest one's error is the one rethrown.
+ */
+public final class Futures {
+
+    private Futures() {}
+
+    /**
+     * Waits for {@code future} and returns its result.
+     *
+     * @param future the task to wait for
+     * @param <T> result type
+     * @return the task's result
+     * @throws RuntimeException the unchecked exception the task failed with
+     * @throws Error the error the task failed with
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for each of {@code futures} in order, as {@link #join(CompletableFuture)} does.
+     *
+     * @param futures the tasks to wait for, in submission order
+     * @param <T> result type
+     * @return the tasks' results, in the same order
+     */
+    public static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+}
@@ -18,7 +18,7 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Hash JOIN executor for INNER, LEFT, and RIGHT joins. Builds a hash map from one side, probes from the other.
+ * Hash JOIN executor for INNER, LEFT, and RIGHT joins. Builds a hash table from one side, probes from the other.
  *
  * <p>As of 1.2.0 the executor operates on {@link FlatRow} end-to-end. Inputs and outputs are {@code List<FlatRow>}
  * sharing a {@link RowSchema} computed once per join step by the caller via {@link RowSchema#concat(RowSchema)}. The
@@ -64,13 +64,12 @@ final class JoinExecutor {
         List<FlatRow> buildSide = buildFromRight ? right : left;
         List<FlatRow> probeSide = buildFromRight ? left : right;
 
-        Map<JoinKey, List<FlatRow>> hashMap = buildHashMap(buildSide, conditions, buildFromRight);
+        HashTable table = buildHashTable(buildSide, conditions, buildFromRight);
+        List<FieldKey> probePaths = keyPaths(conditions, !buildFromRight);
 
         var result = new ArrayList<FlatRow>();
         for (FlatRow probeRow : probeSide) {
-            JoinKey key = extractKey(probeRow, conditions, !buildFromRight);
-            List<FlatRow> matches = hashMap.getOrDefault(key, List.of());
-            for (FlatRow match : matches) {
+            for (FlatRow match : table.matches(probeRow, probePaths)) {
                 checkRowLimit(result.size(), maxRows);
                 FlatRow leftRow = buildFromRight ? probeRow : match;
                 FlatRow rightRow = buildFromRight ? match : probeRow;
@@ -86,13 +85,13 @@ final class JoinExecutor {
             List<JoinEquality> conditions,
             RowSchema mergedSchema,
             int maxRows) {
-        Map<JoinKey, List<FlatRow>> rightMap = buildHashMap(right, conditions, true);
+        HashTable rightTable = buildHashTable(right, conditions, true);
+        List<FieldKey> leftPaths = keyPaths(conditions, false);
 
         var result = new ArrayList<FlatRow>();
         for (FlatRow leftRow : left) {
-            JoinKey key = extractKey(leftRow, conditions, false);
-            List<FlatRow> matches = rightMap.get(key);
-            if (matches != null && !matches.isEmpty()) {
+            List<FlatRow> matches = rightTable.matches(leftRow, leftPaths);
+            if (!matches.isEmpty()) {
                 for (FlatRow match : matches) {
                     checkRowLimit(result.size(), maxRows);
                     result.add(mergeRows(leftRow, match, mergedSchema));
@@ -111,31 +110,52 @@ final class JoinExecutor {
         }
     }
 
-    private static Map<JoinKey, List<FlatRow>> buildHashMap(
-            List<FlatRow> rows, List<JoinEquality> conditions, boolean useRightPaths) {
-        var map = new HashMap<JoinKey, List<FlatRow>>();
+    private static HashTable buildHashTable(List<FlatRow> rows, List<JoinEquality> conditions, boolean useRightPaths) {
+        var table = new HashTable();
+        List<FieldKey> paths = keyPaths(conditions, useRightPaths);
         for (FlatRow row : rows) {
-            JoinKey key = extractKey(row, conditions, useRightPaths);
-            map.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+            table.writeKey(row, paths);
+            int id = table.keys.findOrAdd();
+            if (id == table.rowsById.size()) table.rowsById.add(new ArrayList<>());
+            table.rowsById.get(id).add(row);
         }
-        return map;
+        return table;
     }
 
     /**
-     * Extract key values from a row for the given conditions.
+     * Resolve the key column of each condition once per join side.
      *
-     * @param row the row to extract values from
      * @param conditions the equality conditions
      * @param useRightPaths {@code true} → use rightPath from each equality; {@code false} → use leftPath
-     * @return the composite key
+     * @return the key columns, in condition order
      */
-    private static JoinKey extractKey(FlatRow row, List<JoinEquality> conditions, boolean useRightPaths) {
-        var values = new ArrayList<SqlValue>(conditions.size());
+    private static List<FieldKey> keyPaths(List<JoinEquality> conditions, boolean useRightPaths) {
+        var paths = new ArrayList<FieldKey>(conditions.size());
         for (JoinEquality eq : conditions) {
-            String path = useRightPaths ? eq.rightPath() : eq.leftPath();
-            values.add(row.get(FieldKey.of(path)));
+            paths.add(FieldKey.of(useRightPaths ? eq.rightPath() : eq.leftPath()));
+        }
+        return paths;
+    }
+
+    /**
+     * Build-side rows grouped by join key. Keys live in a {@link KeyTable} with {@link KeyTable.Equality#NUMERIC}
+     * equality — the semantics of {@link JoinKey}, where integer 1 matches double 1.0 — so neither side allocates a key
+     * object per row.
+     */
+    private static final class HashTable {
+        final KeyTable keys = new KeyTable(KeyTable.Equality.NUMERIC);
+        final List<List<FlatRow>> rowsById = new ArrayList<>();
+
+        void writeKey(FlatRow row, List<FieldKey> paths) {
+            keys.clearKey();
+            for (FieldKey path : paths) keys.addKey(row.get(path));
+        }
+
+        List<FlatRow> matches(FlatRow row, List<FieldKey> paths) {
+            writeKey(row, paths);
+            int id = keys.find();
+            return id >= 0 ? rowsById.get(id) : List.of();
         }
-        return JoinKey.of(values);
     }
 
     private static FlatRow mergeRows(FlatRow left, FlatRow right, RowSchema mergedSchema) {
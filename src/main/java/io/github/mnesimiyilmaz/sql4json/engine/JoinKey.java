@@ -5,7 +5,10 @@ import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.List;
 
-/** Composite key for hash JOIN lookups. Normalizes numeric values to double so that integer 1 matches double 1.0. */
+/**
+ * Composite key for hash JOIN lookups. Normalizes numeric values to double so that integer 1 matches double 1.0.
+ * {@link JoinExecutor} hashes keys with the same semantics in a {@link KeyTable}.
+ */
 record JoinKey(List<SqlValue> values) {
 
     JoinKey {
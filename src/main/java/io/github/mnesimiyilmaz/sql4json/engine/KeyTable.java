@@ -0,0 +1,282 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table that assigns dense ids ({@code 0, 1, 2, …} in insertion order) to composite keys of
+ * {@link SqlValue}s, without allocating a key object per probe. Callers keep their per-key payloads in lists indexed by
+ * id.
+ *
+ * <p>A key is written into the table's probe buffer with {@link #clearKey()} / {@link #addKey(SqlValue)} and then
+ * looked up with {@link #find()} or {@link #findOrAdd()}. Each key column is encoded as a fixed-width slot — a type tag
+ * plus 64 primitive bits (the long value, the double's bits, a boolean) — and stored packed in primitive arrays;
+ * strings, dates and exact decimals keep a reference next to their hash. Numeric and boolean keys therefore live
+ * entirely in {@code byte[]} / {@code long[]} storage, and a single-column key is one slot.
+ *
+ * <p>Which values count as equal is chosen per table by {@link Equality}. Not thread-safe.
+ *
+ * @since 1.4.0
+ */
+public final class KeyTable {
+
+    /** Equality of key values. */
+    public enum Equality {
+        /** Record equality of the values, as {@code GroupKey}: {@code 1} and {@code 1.0} are different keys. */
+        EXACT,
+        /** Numbers compare by their double value, as {@code JoinKey}: {@code 1} and {@code 1.0} are the same key. */
+        NUMERIC,
+        /**
+         * {@link io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator} equality, as DISTINCT: numbers compare by
+         * double value, except longs beyond double precision, which compare exactly.
+         */
+        COMPARABLE
+    }
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte DECIMAL = 5; // EXACT only; the other modes encode decimals as DOUBLE
+    private static final byte STRING = 6;
+    private static final byte DATE = 7;
+    private static final byte DATETIME = 8;
+
+    private final Equality equality;
+
+    // Probe buffer: the key being looked up
+    private byte[] probeTags = new byte[4];
+    private long[] probeBits = new long[4];
+    private Object[] probeRefs = new Object[4];
+    private int probeLength;
+    private boolean probeHasRefs;
+
+    // Packed key storage: key id i occupies slots [keyStart[i], keyStart[i + 1])
+    private byte[] tags = new byte[64];
+    private long[] bits = new long[64];
+    private Object[] refs; // allocated on the first reference-typed slot
+    private int used;
+    private int[] keyStart = new int[17];
+    private int[] keyHash = new int[16];
+    private int size;
+
+    // Open-addressing index of id + 1 (0 = empty), linear probing, load factor at most 1/2
+    private int[] index = new int[32];
+    private int mask = 31;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param equality which key values are considered equal
+     */
+    public KeyTable(Equality equality) {
+        this.equality = equality;
+    }
+
+    /**
+     * Returns the number of distinct keys added.
+     *
+     * @return the key count; ids range over {@code [0, size())}
+     */
+    public int size() {
+        return size;
+    }
+
+    /** Starts a new probe key. */
+    public void clearKey() {
+        probeLength = 0;
+        probeHasRefs = false;
+    }
+
+    /**
+     * Appends one column value to the probe key.
+     *
+     * @param value the column value
+     */
+    public void addKey(SqlValue value) {
+        if (probeLength == probeTags.length) {
+            int n = probeLength * 2;
+            probeTags = Arrays.copyOf(probeTags, n);
+            probeBits = Arrays.copyOf(probeBits, n);
+            probeRefs = Arrays.copyOf(probeRefs, n);
+        }
+        int i = probeLength++;
+        probeRefs[i] = null;
+        switch (value) {
+            case SqlNull ignored -> set(i, NULL, 0);
+            case SqlBoolean(var b) -> set(i, b ? TRUE : FALSE, 0);
+            case SqlLong(var l) -> setLong(i, l);
+            case SqlDouble(var d) -> set(i, DOUBLE, Double.doubleToLongBits(d));
+            case SqlDecimal(var d) -> {
+                if (equality == Equality.EXACT) setRef(i, DECIMAL, d);
+                else set(i, DOUBLE, Double.doubleToLongBits(d.doubleValue()));
+            }
+            case SqlString(var s) -> setRef(i, STRING, s);
+            case SqlDate(var d) -> setRef(i, DATE, d);
+            case SqlDateTime(var d) -> setRef(i, DATETIME, d);
+        }
+    }
+
+    private void setLong(int i, long l) {
+        double d = l;
+        boolean asDouble =
+                switch (equality) {
+                    case EXACT -> false;
+                    case NUMERIC -> true;
+                    // (long) 2^63 saturates to Long.MAX_VALUE, so the round trip also rejects it
+                    case COMPARABLE -> d != 0x1p63 && (long) d == l;
+                };
+        if (asDouble) set(i, DOUBLE, Double.doubleToLongBits(d));
+        else set(i, LONG, l);
+    }
+
+    private void set(int i, byte tag, long value) {
+        probeTags[i] = tag;
+        probeBits[i] = value;
+    }
+
+    private void setRef(int i, byte tag, Object ref) {
+        probeTags[i] = tag;
+        probeBits[i] = ref.hashCode();
+        probeRefs[i] = ref;
+        probeHasRefs = true;
+    }
+
+    /**
+     * Returns the hash of the probe key, e.g. for partitioning keys that are not added.
+     *
+     * @return the probe key's hash; equal to {@link #hash(int)} of the key once added
+     */
+    public int probeHash() {
+        long h = probeLength;
+        for (int i = 0; i < probeLength; i++) {
+            h = (h + probeTags[i]) * 0x9E3779B97F4A7C15L + probeBits[i];
+        }
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Looks up the probe key.
+     *
+     * @return the key's id, or {@code -1} when it has not been added
+     */
+    public int find() {
+        int hash = probeHash();
+        for (int pos = hash & mask; ; pos = (pos + 1) & mask) {
+            int entry = index[pos];
+            if (entry == 0) return -1;
+            if (keyHash[entry - 1] == hash && probeEquals(entry - 1)) return entry - 1;
+        }
+    }
+
+    /**
+     * Looks up the probe key, adding it when absent. A newly added key gets id {@code size() - 1}.
+     *
+     * @return the key's id
+     */
+    public int findOrAdd() {
+        return findOrAdd(probeHash());
+    }
+
+    /**
+     * Looks up key {@code id} of {@code other}, adding it when absent. Both tables must use the same equality.
+     *
+     * @param other the table holding the key
+     * @param id the key's id in {@code other}
+     * @return the key's id in this table
+     */
+    public int findOrAddFrom(KeyTable other, int id) {
+        clearKey();
+        int from = other.keyStart[id];
+        int length = other.keyStart[id + 1] - from;
+        while (probeTags.length < length) {
+            probeTags = Arrays.copyOf(probeTags, probeTags.length * 2);
+            probeBits = Arrays.copyOf(probeBits, probeTags.length);
+            probeRefs = Arrays.copyOf(probeRefs, probeTags.length);
+        }
+        System.arraycopy(other.tags, from, probeTags, 0, length);
+        System.arraycopy(other.bits, from, probeBits, 0, length);
+        if (other.refs != null) {
+            System.arraycopy(other.refs, from, probeRefs, 0, length);
+            probeHasRefs = true;
+        } else {
+            Arrays.fill(probeRefs, 0, length, null);
+        }
+        probeLength = length;
+        return findOrAdd(other.keyHash[id]);
+    }
+
+    /**
+     * Returns the hash of key {@code id}, e.g. for partitioning keys across tables.
+     *
+     * @param id the key id
+     * @return the key's hash
+     */
+    public int hash(int id) {
+        return keyHash[id];
+    }
+
+    private int findOrAdd(int hash) {
+        int pos = hash & mask;
+        for (; ; pos = (pos + 1) & mask) {
+            int entry = index[pos];
+            if (entry == 0) break;
+            if (keyHash[entry - 1] == hash && probeEquals(entry - 1)) return entry - 1;
+        }
+        int id = store(hash);
+        index[pos] = id + 1;
+        if (size * 2 > index.length) rehash();
+        return id;
+    }
+
+    private int store(int hash) {
+        if (used + probeLength > tags.length) {
+            int n = Math.max(tags.length * 2, used + probeLength);
+            tags = Arrays.copyOf(tags, n);
+            bits = Arrays.copyOf(bits, n);
+            if (refs != null) refs = Arrays.copyOf(refs, n);
+        }
+        if (probeHasRefs && refs == null) refs = new Object[tags.length];
+        System.arraycopy(probeTags, 0, tags, used, probeLength);
+        System.arraycopy(probeBits, 0, bits, used, probeLength);
+        if (refs != null) System.arraycopy(probeRefs, 0, refs, used, probeLength);
+        if (size + 1 == keyHash.length) {
+            keyHash = Arrays.copyOf(keyHash, keyHash.length * 2);
+            keyStart = Arrays.copyOf(keyStart, keyHash.length + 1);
+        }
+        keyHash[size] = hash;
+        keyStart[size] = used;
+        used += probeLength;
+        keyStart[size + 1] = used;
+        return size++;
+    }
+
+    private void rehash() {
+        int[] grown = new int[index.length * 2];
+        int m = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int pos = keyHash[id] & m;
+            while (grown[pos] != 0) pos = (pos + 1) & m;
+            grown[pos] = id + 1;
+        }
+        index = grown;
+        mask = m;
+    }
+
+    private boolean probeEquals(int id) {
+        int from = keyStart[id];
+        if (keyStart[id + 1] - from != probeLength) return false;
+        for (int i = 0; i < probeLength; i++) {
+            if (tags[from + i] != probeTags[i] || bits[from + i] != probeBits[i]) return false;
+        }
+        if (!probeHasRefs) return true;
+        for (int i = 0; i < probeLength; i++) {
+            Object ref = probeRefs[i];
+            if (ref != null && !ref.equals(refs[from + i])) return false;
+        }
+        return true;
+    }
+}
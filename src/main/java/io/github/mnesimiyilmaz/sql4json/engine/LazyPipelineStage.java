@@ -7,4 +7,15 @@ public non-sealed interface LazyPipelineStage extends PipelineStage {
     default boolean isLazy() {
         return true;
     }
+
+    /**
+     * Returns {@code true} if this stage treats every row on its own — no ordering, counting or state shared between
+     * rows — so that disjoint morsels of its input may be processed concurrently and concatenated in order.
+     *
+     * @return {@code true} if the stage is row-local; {@code false} by default
+     * @since 1.4.0
+     */
+    default boolean isRowLocal() {
+        return false;
+    }
 }
@@ -0,0 +1,116 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a row-local transformation over morsels of an input stream on an executor while preserving row order. The
+ * calling thread pulls the input and cuts it into morsels of {@link ExecutionSettings#morselSize()} rows; each morsel
+ * is transformed as one task, and results are handed out in morsel order. At most {@code 2 × parallelism} morsels are
+ * in flight, so a lazily consumed stream holds a bounded window of rows rather than the whole input.
+ *
+ * <p>Errors surface in input order: a failure reading the input or transforming a morsel is rethrown only after every
+ * row of the morsels before it has been delivered. A morsel with nothing queued ahead of it and nothing left behind it
+ * is transformed on the calling thread, so single-morsel inputs never leave it.
+ *
+ * <p>Single-use and not thread-safe; only the morsel tasks run concurrently.
+ */
+final class MorselIterator implements Iterator<RowAccessor> {
+
+    private final Iterator<RowAccessor> source;
+    private final UnaryOperator<List<RowAccessor>> transform;
+    private final Executor executor;
+    private final int window;
+    private final int morselSize;
+    private final ArrayDeque<CompletableFuture<List<RowAccessor>>> pending = new ArrayDeque<>();
+    private List<RowAccessor> current = List.of();
+    private int index;
+    private RuntimeException sourceFailure;
+
+    MorselIterator(
+            Iterator<RowAccessor> source, UnaryOperator<List<RowAccessor>> transform, ExecutionSettings settings) {
+        this.source = source;
+        this.transform = transform;
+        this.executor = settings.executor() != null ? settings.executor() : ForkJoinPool.commonPool();
+        this.window = settings.parallelism() * 2;
+        this.morselSize = settings.morselSize();
+    }
+
+    /**
+     * Applies {@code stages} to {@code input} morsel by morsel. Each stage must be row-local.
+     *
+     * @param input the rows entering the first stage
+     * @param stages consecutive row-local stages
+     * @param settings execution settings supplying parallelism, executor and morsel size
+     * @return the rows leaving the last stage, in input order
+     */
+    static Stream<RowAccessor> apply(
+            Stream<RowAccessor> input, List<LazyPipelineStage> stages, ExecutionSettings settings) {
+        UnaryOperator<List<RowAccessor>> transform = morsel -> {
+            Stream<RowAccessor> rows = morsel.stream();
+            for (LazyPipelineStage stage : stages) {
+                rows = stage.apply(rows);
+            }
+            return rows.toList();
+        };
+        var iterator = new MorselIterator(input.iterator(), transform, settings);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(input::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index == current.size()) {
+            fill();
+            CompletableFuture<List<RowAccessor>> head = pending.poll();
+            if (head == null) {
+                if (sourceFailure != null) {
+                    RuntimeException failure = sourceFailure;
+                    sourceFailure = null;
+                    throw failure;
+                }
+                return false;
+            }
+            current = Futures.join(head);
+            index = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public RowAccessor next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.get(index++);
+    }
+
+    private void fill() {
+        while (pending.size() < window && sourceFailure == null) {
+            List<RowAccessor> morsel = new ArrayList<>(morselSize);
+            boolean exhausted = false;
+            try {
+                while (morsel.size() < morselSize && source.hasNext()) {
+                    morsel.add(source.next());
+                }
+                exhausted = !source.hasNext();
+            } catch (RuntimeException e) {
+                sourceFailure = e;
+            }
+            if (morsel.isEmpty()) return;
+            if (pending.isEmpty() && (exhausted || sourceFailure != null)) {
+                // Last morsel and nothing queued ahead of it: no point handing it to another thread.
+                pending.add(CompletableFuture.completedFuture(transform.apply(morsel)));
+            } else {
+                pending.add(CompletableFuture.supplyAsync(() -> transform.apply(morsel), executor));
+            }
+            if (exhausted) return;
+        }
+    }
+}
@@ -12,7 +12,8 @@ import java.util.stream.Stream;
  */
 public sealed interface PipelineStage permits LazyPipelineStage, MaterializingPipelineStage {
     /**
-     * Applies this pipeline stage to the input row stream.
+     * Applies this pipeline stage to the input row stream. Closing the returned stream closes {@code input}, so that
+     * spill files held anywhere upstream are deleted when a query result is closed before it is read to the end.
      *
      * @param input the incoming row stream
      * @return the transformed row stream
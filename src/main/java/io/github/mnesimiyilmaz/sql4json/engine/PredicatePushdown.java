@@ -0,0 +1,96 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.registry.AndNode;
+import io.github.mnesimiyilmaz.sql4json.registry.ConditionContext;
+import io.github.mnesimiyilmaz.sql4json.registry.ConditionContext.ConditionType;
+import io.github.mnesimiyilmaz.sql4json.registry.CriteriaNode;
+import io.github.mnesimiyilmaz.sql4json.registry.OrNode;
+import io.github.mnesimiyilmaz.sql4json.registry.SingleConditionNode;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Selects the part of a WHERE clause the streaming parsers can evaluate while scanning elements, before a row is built
+ * for them. Pushable leaves are simple scalar tests on a column — comparisons, {@code IS [NOT] NULL} and {@code [NOT]
+ * IN}. An AND keeps whichever sides are pushable; an OR is pushed only when both sides are.
+ *
+ * <p>The result is implied by the original clause, so it can only let extra elements through — {@code WhereStage} still
+ * evaluates the full clause on the survivors.
+ */
+final class PredicatePushdown {
+
+    private static final Set<ConditionType> PUSHABLE_TYPES = EnumSet.of(
+            ConditionType.COMPARISON,
+            ConditionType.IS_NULL,
+            ConditionType.IS_NOT_NULL,
+            ConditionType.IN,
+            ConditionType.NOT_IN);
+
+    private PredicatePushdown() {}
+
+    /**
+     * Returns the pushable part of {@code where}.
+     *
+     * @param where the WHERE clause
+     * @return criteria implied by {@code where}, or {@code null} when nothing can be pushed
+     */
+    static CriteriaNode pushable(CriteriaNode where) {
+        return switch (where) {
+            case AndNode(var left, var right) -> {
+                CriteriaNode l = pushable(left);
+                CriteriaNode r = pushable(right);
+                if (l == null) yield r;
+                yield r == null ? l : new AndNode(l, r);
+            }
+            case OrNode(var left, var right) -> {
+                CriteriaNode l = pushable(left);
+                CriteriaNode r = l == null ? null : pushable(right);
+                yield r == null ? null : new OrNode(l, r);
+            }
+            case SingleConditionNode single when isPushable(single.cc()) -> single;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the column paths read by pushable criteria.
+     *
+     * @param pushed criteria returned by {@link #pushable(CriteriaNode)}
+     * @return the referenced column paths
+     */
+    static Set<String> referencedFields(CriteriaNode pushed) {
+        Set<String> fields = new LinkedHashSet<>();
+        collectFields(pushed, fields);
+        return fields;
+    }
+
+    private static void collectFields(CriteriaNode node, Set<String> fields) {
+        switch (node) {
+            case AndNode(var left, var right) -> {
+                collectFields(left, fields);
+                collectFields(right, fields);
+            }
+            case OrNode(var left, var right) -> {
+                collectFields(left, fields);
+                collectFields(right, fields);
+            }
+            case SingleConditionNode single -> {
+                ConditionContext cc = single.cc();
+                cc.lhsExpression().collectReferencedFields(fields);
+                if (cc.rhsExpression() != null) {
+                    cc.rhsExpression().collectReferencedFields(fields);
+                }
+                if (cc.valueExpressions() != null) {
+                    cc.valueExpressions().forEach(e -> e.collectReferencedFields(fields));
+                }
+            }
+            default -> throw new IllegalStateException("Not a pushed criteria node: " + node);
+        }
+    }
+
+    private static boolean isPushable(ConditionContext cc) {
+        return PUSHABLE_TYPES.contains(cc.type()) && cc.lhsExpression() instanceof Expression.ColumnRef;
+    }
+}
@@ -5,13 +5,22 @@ import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.json.*;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryDefinition;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryParser;
+import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
+import io.github.mnesimiyilmaz.sql4json.registry.AdaptiveCriteria;
+import io.github.mnesimiyilmaz.sql4json.registry.CriteriaNode;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
 import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
 import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -201,16 +210,123 @@ public final class QueryExecutor {
      * @return the query result serialized as a JSON string
      */
     public String executeStreaming(QueryDefinition query, String jsonString, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) ->
+                        StreamingJsonParser.streamArray(jsonString, rootPath, codec, projection),
+                settings);
+    }
+
+    /**
+     * Execute a pre-parsed query against UTF-8 encoded JSON bytes using streaming. The bytes between the buffer's
+     * position and limit are scanned directly — no {@link String} copy of the document is made.
+     *
+     * @param query the parsed query definition to execute
+     * @param utf8Json the buffer holding UTF-8 encoded JSON
+     * @param settings the settings controlling execution behaviour
+     * @return the query result serialized as a JSON string
+     */
+    public String executeStreaming(QueryDefinition query, ByteBuffer utf8Json, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) -> StreamingJsonParser.streamArray(utf8Json, rootPath, codec, projection),
+                settings);
+    }
+
+    /**
+     * Execute a pre-parsed query against a UTF-8 JSON file using streaming. The file is memory-mapped and scanned
+     * element by element, so inputs larger than 2 GiB work and only in-flight elements occupy the heap.
+     *
+     * @param query the parsed query definition to execute
+     * @param jsonFile the UTF-8 encoded JSON file to query against
+     * @param settings the settings controlling execution behaviour
+     * @return the query result serialized as a JSON string
+     */
+    public String executeStreaming(QueryDefinition query, Path jsonFile, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) -> StreamingJsonParser.streamArray(jsonFile, rootPath, codec, projection),
+                settings);
+    }
+
+    /**
+     * Execute a pre-parsed query against UTF-8 JSON pulled incrementally from {@code in}. Elements of a root array flow
+     * into the pipeline as they arrive through a bounded buffer, so lazy-stage queries (WHERE / SELECT / LIMIT) run in
+     * memory proportional to the largest element. The stream is not closed.
+     *
+     * @param query the parsed query definition to execute
+     * @param in the UTF-8 encoded JSON input
+     * @param settings the settings controlling execution behaviour
+     * @return the query result serialized as a JSON string
+     */
+    public String executeStreaming(QueryDefinition query, InputStream in, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) -> StreamingJsonParser.streamArray(in, rootPath, codec, projection),
+                settings);
+    }
+
+    /**
+     * Channel counterpart of {@link #executeStreaming(QueryDefinition, InputStream, Sql4jsonSettings)}. The channel
+     * must be in blocking mode; it is not closed.
+     *
+     * @param query the parsed query definition to execute
+     * @param channel the UTF-8 encoded JSON input
+     * @param settings the settings controlling execution behaviour
+     * @return the query result serialized as a JSON string
+     */
+    public String executeStreaming(QueryDefinition query, ReadableByteChannel channel, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) -> StreamingJsonParser.streamArray(channel, rootPath, codec, projection),
+                settings);
+    }
+
+    /**
+     * Execute a pre-parsed query against newline-delimited JSON (NDJSON / JSON Lines) using streaming. Each non-blank
+     * line is one row; the input behaves like a root array of its lines.
+     *
+     * @param query the parsed query definition to execute
+     * @param ndjson the newline-delimited JSON text
+     * @param settings the settings controlling execution behaviour
+     * @return the query result serialized as a JSON string
+     */
+    public String executeNdjsonStreaming(QueryDefinition query, String ndjson, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) -> StreamingJsonParser.streamLines(ndjson, rootPath, codec, projection),
+                settings);
+    }
+
+    /**
+     * Execute a pre-parsed query against UTF-8 newline-delimited JSON pulled incrementally from {@code in}. Only the
+     * line being parsed is buffered. The stream is not closed.
+     *
+     * @param query the parsed query definition to execute
+     * @param in the UTF-8 encoded NDJSON input
+     * @param settings the settings controlling execution behaviour
+     * @return the query result serialized as a JSON string
+     */
+    public String executeNdjsonStreaming(QueryDefinition query, InputStream in, Sql4jsonSettings settings) {
+        return executeStreaming(
+                query,
+                (rootPath, codec, projection) -> StreamingJsonParser.streamLines(in, rootPath, codec, projection),
+                settings);
+    }
+
+    private String executeStreaming(QueryDefinition query, ElementSource source, Sql4jsonSettings settings) {
         Objects.requireNonNull(settings, SETTINGS_PARAM);
         FieldKey.Interner interner = new FieldKey.Interner();
-        Stream<RowAccessor> rows = resolveStreamingRows(query, jsonString, settings, interner, 0);
+        Stream<RowAccessor> rows = resolveStreamingRows(query, source, settings, interner, 0);
         QueryPipeline pipeline = QueryPipeline.build(query, functionRegistry, settings);
-        Stream<RowAccessor> result = pipeline.executeAsStream(rows);
-        return StreamingSerializer.serialize(
-                result,
-                query.selectedColumns(),
-                functionRegistry,
-                settings.limits().maxRowsPerQuery());
+        // Closing the result deletes spill files that a LIMIT or a failure left unread
+        try (Stream<RowAccessor> result = pipeline.executeAsStream(rows)) {
+            return StreamingSerializer.serialize(
+                    result,
+                    query.selectedColumns(),
+                    functionRegistry,
+                    settings.limits().maxRowsPerQuery());
+        }
     }
 
     /**
@@ -224,17 +340,94 @@ public final class QueryExecutor {
      */
     public JsonValue executeStreamingAsJsonValue(String sql, String jsonString, Sql4jsonSettings settings) {
         Objects.requireNonNull(settings, SETTINGS_PARAM);
-        return executeStreamingAsJsonValueInternal(QueryParser.parse(sql, settings), jsonString, settings, 0);
+        return executeStreamingAsJsonValueInternal(
+                QueryParser.parse(sql, settings),
+                (rootPath, codec, projection) ->
+                        StreamingJsonParser.streamArray(jsonString, rootPath, codec, projection),
+                settings,
+                0);
+    }
+
+    /**
+     * Execute a query against a UTF-8 JSON file using streaming over a memory mapping. Returns JsonValue (collects
+     * streamed results into JsonArrayValue).
+     *
+     * @param sql the SQL query string
+     * @param jsonFile the UTF-8 encoded JSON file to query against
+     * @param settings the settings controlling execution behaviour
+     * @return the query result as a {@link JsonValue}
+     */
+    public JsonValue executeStreamingAsJsonValue(String sql, Path jsonFile, Sql4jsonSettings settings) {
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        return executeStreamingAsJsonValueInternal(
+                QueryParser.parse(sql, settings),
+                (rootPath, codec, projection) -> StreamingJsonParser.streamArray(jsonFile, rootPath, codec, projection),
+                settings,
+                0);
+    }
+
+    /**
+     * Execute a query against UTF-8 JSON pulled incrementally from {@code in}. Returns JsonValue (collects streamed
+     * results into JsonArrayValue). The stream is not closed.
+     *
+     * @param sql the SQL query string
+     * @param in the UTF-8 encoded JSON input
+     * @param settings the settings controlling execution behaviour
+     * @return the query result as a {@link JsonValue}
+     */
+    public JsonValue executeStreamingAsJsonValue(String sql, InputStream in, Sql4jsonSettings settings) {
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        return executeStreamingAsJsonValueInternal(
+                QueryParser.parse(sql, settings),
+                (rootPath, codec, projection) -> StreamingJsonParser.streamArray(in, rootPath, codec, projection),
+                settings,
+                0);
+    }
+
+    /**
+     * Execute a query against newline-delimited JSON using streaming. Returns JsonValue (collects streamed results into
+     * JsonArrayValue).
+     *
+     * @param sql the SQL query string
+     * @param ndjson the newline-delimited JSON text
+     * @param settings the settings controlling execution behaviour
+     * @return the query result as a {@link JsonValue}
+     */
+    public JsonValue executeNdjsonStreamingAsJsonValue(String sql, String ndjson, Sql4jsonSettings settings) {
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        return executeStreamingAsJsonValueInternal(
+                QueryParser.parse(sql, settings),
+                (rootPath, codec, projection) -> StreamingJsonParser.streamLines(ndjson, rootPath, codec, projection),
+                settings,
+                0);
+    }
+
+    /**
+     * Execute a query against UTF-8 newline-delimited JSON pulled incrementally from {@code in}. Returns JsonValue
+     * (collects streamed results into JsonArrayValue). The stream is not closed.
+     *
+     * @param sql the SQL query string
+     * @param in the UTF-8 encoded NDJSON input
+     * @param settings the settings controlling execution behaviour
+     * @return the query result as a {@link JsonValue}
+     */
+    public JsonValue executeNdjsonStreamingAsJsonValue(String sql, InputStream in, Sql4jsonSettings settings) {
+        Objects.requireNonNull(settings, SETTINGS_PARAM);
+        return executeStreamingAsJsonValueInternal(
+                QueryParser.parse(sql, settings),
+                (rootPath, codec, projection) -> StreamingJsonParser.streamLines(in, rootPath, codec, projection),
+                settings,
+                0);
     }
 
     private JsonValue executeStreamingAsJsonValueInternal(
-            QueryDefinition query, String jsonString, Sql4jsonSettings settings, int currentDepth) {
+            QueryDefinition query, ElementSource source, Sql4jsonSettings settings, int currentDepth) {
         int maxDepth = settings.limits().maxSubqueryDepth();
         if (currentDepth > maxDepth) {
             throw new SQL4JsonExecutionException("Subquery depth exceeds configured maximum (" + maxDepth + ")");
         }
         FieldKey.Interner interner = new FieldKey.Interner();
-        Stream<RowAccessor> rows = resolveStreamingRows(query, jsonString, settings, interner, currentDepth);
+        Stream<RowAccessor> rows = resolveStreamingRows(query, source, settings, interner, currentDepth);
         QueryPipeline pipeline = QueryPipeline.build(query, functionRegistry, settings);
         List<RowAccessor> result = pipeline.execute(rows);
         return JsonUnflattener.unflatten(result, query.selectedColumns(), functionRegistry);
@@ -242,7 +435,7 @@ public final class QueryExecutor {
 
     private Stream<RowAccessor> resolveStreamingRows(
             QueryDefinition query,
-            String jsonString,
+            ElementSource source,
             Sql4jsonSettings settings,
             FieldKey.Interner interner,
             int currentDepth) {
@@ -251,13 +444,75 @@ public final class QueryExecutor {
         if (query.fromSubQuery() != null) {
             QueryDefinition innerQuery =
                     QueryParser.parse(query.fromSubQuery(), settings, query.subqueryPositionalOffset());
-            JsonValue innerResult =
-                    executeStreamingAsJsonValueInternal(innerQuery, jsonString, settings, currentDepth + 1);
+            JsonValue innerResult = executeStreamingAsJsonValueInternal(innerQuery, source, settings, currentDepth + 1);
             return JsonFlattener.streamLazy(innerResult, null, interner).map(r -> r);
         }
         DefaultJsonCodecSettings parserSettings =
                 (settings.codec() instanceof DefaultJsonCodec dc) ? dc.settings() : DefaultJsonCodecSettings.defaults();
-        return StreamingJsonParser.streamArray(jsonString, query.rootPath(), parserSettings)
+        return source.stream(
+                        query.rootPath(),
+                        parserSettings,
+                        withPushedFilter(query, projectionOf(query), parserSettings, interner))
                 .map(element -> Row.lazy(element, interner));
     }
+
+    /**
+     * Attaches the pushable part of the WHERE clause to {@code projection} so the parser drops non-matching elements
+     * before building them. Skipped for aliased and JOIN queries (qualified paths) and for non-deterministic clauses,
+     * which must see a single evaluation per row. Under parallel parsing the filter runs on parse threads, each with
+     * its own interner.
+     */
+    private static FieldProjection withPushedFilter(
+            QueryDefinition query,
+            FieldProjection projection,
+            DefaultJsonCodecSettings parserSettings,
+            FieldKey.Interner interner) {
+        if (query.whereClause() == null
+                || query.rootAlias() != null
+                || query.joins() != null
+                || query.containsNonDeterministic()) {
+            return projection;
+        }
+        CriteriaNode pushable = PredicatePushdown.pushable(query.whereClause());
+        if (pushable == null) {
+            return projection;
+        }
+        Set<String> fields = PredicatePushdown.referencedFields(pushable);
+        CriteriaNode pushed = AdaptiveCriteria.of(pushable);
+        Predicate<JsonValue> filter;
+        if (parserSettings.parseParallelism() > 1) {
+            ThreadLocal<FieldKey.Interner> interners = ThreadLocal.withInitial(FieldKey.Interner::new);
+            filter = element -> pushed.test(Row.lazy(element, interners.get()));
+        } else {
+            filter = element -> pushed.test(Row.lazy(element, interner));
+        }
+        // When the filter reads every projected member, one parse serves both the test and the row.
+        if (!projection.isAll() && fields.containsAll(query.referencedFields())) {
+            return projection.withFilter(filter);
+        }
+        return projection.withFilter(FieldProjection.of(fields), filter);
+    }
+
+    /**
+     * Object members the parser must build for {@code query}. {@code SELECT *} needs whole rows; aliased and JOIN
+     * queries address fields through qualified paths, so they are not narrowed either.
+     */
+    private static FieldProjection projectionOf(QueryDefinition query) {
+        if (query.rootAlias() != null
+                || query.joins() != null
+                || query.selectedColumns().stream().anyMatch(SelectColumnDef::isAsterisk)) {
+            return FieldProjection.ALL;
+        }
+        return FieldProjection.of(query.referencedFields());
+    }
+
+    /**
+     * Raw input of a streaming query: yields the elements found at a root path. Abstracts over the input representation
+     * (String, UTF-8 bytes, NDJSON lines) so FROM-subquery recursion re-reads the same source. Members outside
+     * {@code projection} may be left out of the elements.
+     */
+    @FunctionalInterface
+    private interface ElementSource {
+        Stream<JsonValue> stream(String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection);
+    }
 }
@@ -1,12 +1,20 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.engine;
 
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.AggregateFnCall;
 import io.github.mnesimiyilmaz.sql4json.engine.stage.*;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryDefinition;
+import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
+import io.github.mnesimiyilmaz.sql4json.registry.AndNode;
+import io.github.mnesimiyilmaz.sql4json.registry.CriteriaNode;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.registry.OrNode;
+import io.github.mnesimiyilmaz.sql4json.registry.SingleConditionNode;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
 import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 /**
@@ -17,10 +25,12 @@ final class QueryPipeline {
 
     private final List<PipelineStage> stages;
     private final int maxRows;
+    private final ExecutionSettings execution;
 
-    private QueryPipeline(List<PipelineStage> stages, int maxRows) {
+    private QueryPipeline(List<PipelineStage> stages, int maxRows, ExecutionSettings execution) {
         this.stages = stages;
         this.maxRows = maxRows;
+        this.execution = execution;
     }
 
     static QueryPipeline build(QueryDefinition query, FunctionRegistry functionRegistry, Sql4jsonSettings settings) {
@@ -30,7 +40,13 @@ final class QueryPipeline {
             stages.add(new WhereStage(query.whereClause()));
         }
         if (query.groupBy() != null) {
-            stages.add(new GroupByStage(query.groupBy(), query.selectedColumns(), functionRegistry, maxRows));
+            stages.add(new GroupByStage(
+                    query.groupBy(),
+                    query.selectedColumns(),
+                    aggregateCalls(query),
+                    functionRegistry,
+                    maxRows,
+                    settings.execution()));
         }
         if (query.havingClause() != null) {
             stages.add(new HavingStage(query.havingClause()));
@@ -44,17 +60,23 @@ final class QueryPipeline {
                     query.selectedColumns(),
                     query.referencedColumns(),
                     functionRegistry,
-                    maxRows));
+                    maxRows,
+                    settings.execution()));
         }
         // ORDER BY + LIMIT fast path: fold into a bounded max-heap (top-N) so we
         // don't sort the entire input just to take k rows. Plain ORDER BY (no LIMIT)
         // and plain LIMIT (no ORDER BY) keep their original standalone stages.
         if (query.orderBy() != null && query.limit() != null) {
             stages.add(new TopNOrderByStage(
-                    query.orderBy(), resolveOffset(query), query.limit(), functionRegistry, maxRows));
+                    query.orderBy(),
+                    resolveOffset(query),
+                    query.limit(),
+                    functionRegistry,
+                    maxRows,
+                    settings.execution()));
         } else {
             if (query.orderBy() != null) {
-                stages.add(new OrderByStage(query.orderBy(), functionRegistry, maxRows));
+                stages.add(new OrderByStage(query.orderBy(), functionRegistry, maxRows, settings.execution()));
             }
             if (query.limit() != null) {
                 stages.add(new LimitStage(query.limit(), resolveOffset(query)));
@@ -62,9 +84,46 @@ final class QueryPipeline {
         }
         stages.add(new SelectStage(query.selectedColumns()));
         if (query.distinct()) {
-            stages.add(new DistinctStage(maxRows));
+            stages.add(new DistinctStage(maxRows, settings.execution()));
         }
-        return new QueryPipeline(stages, maxRows);
+        return new QueryPipeline(stages, maxRows, settings.execution());
+    }
+
+    /**
+     * Every aggregate call evaluated against the groups — in SELECT, HAVING and ORDER BY — or {@code null} when a
+     * HAVING node is opaque, in which case GROUP BY retains the rows so any call can still be answered.
+     */
+    private static List<AggregateFnCall> aggregateCalls(QueryDefinition query) {
+        var calls = new ArrayList<AggregateFnCall>();
+        for (SelectColumnDef col : query.selectedColumns()) {
+            if (col.expression() != null) col.expression().collectAggregateCalls(calls);
+        }
+        if (query.orderBy() != null) {
+            query.orderBy().forEach(col -> col.expression().collectAggregateCalls(calls));
+        }
+        if (query.havingClause() != null && !collectAggregateCalls(query.havingClause(), calls)) {
+            return null;
+        }
+        return calls;
+    }
+
+    private static boolean collectAggregateCalls(CriteriaNode node, List<AggregateFnCall> calls) {
+        return switch (node) {
+            case AndNode(var left, var right) ->
+                collectAggregateCalls(left, calls) && collectAggregateCalls(right, calls);
+            case OrNode(var left, var right) ->
+                collectAggregateCalls(left, calls) && collectAggregateCalls(right, calls);
+            case SingleConditionNode(var cc, var resolved) -> {
+                Stream.of(cc.lhsExpression(), cc.rhsExpression(), cc.lowerBoundExpr(), cc.upperBoundExpr())
+                        .filter(Objects::nonNull)
+                        .forEach(e -> e.collectAggregateCalls(calls));
+                if (cc.valueExpressions() != null) {
+                    cc.valueExpressions().forEach(e -> e.collectAggregateCalls(calls));
+                }
+                yield true;
+            }
+            default -> false;
+        };
     }
 
     private static int resolveOffset(QueryDefinition query) {
@@ -72,18 +131,33 @@ final class QueryPipeline {
     }
 
     List<RowAccessor> execute(Stream<RowAccessor> input) {
-        Stream<RowAccessor> current = input;
-        for (PipelineStage stage : stages) {
-            current = stage.apply(current);
+        try (Stream<RowAccessor> result = executeAsStream(input)) {
+            return StreamMaterializer.toList(result, maxRows, "PIPELINE");
         }
-        return StreamMaterializer.toList(current, maxRows, "PIPELINE");
     }
 
     Stream<RowAccessor> executeAsStream(Stream<RowAccessor> input) {
         Stream<RowAccessor> current = input;
+        if (!execution.isParallel()) {
+            for (PipelineStage stage : stages) {
+                current = stage.apply(current);
+            }
+            return current;
+        }
+        // Runs of row-local stages are fused and run per morsel on the executor; every other stage
+        // consumes the order-preserving merge of their output.
+        List<LazyPipelineStage> run = new ArrayList<>();
         for (PipelineStage stage : stages) {
+            if (stage instanceof LazyPipelineStage lazy && lazy.isRowLocal()) {
+                run.add(lazy);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                current = MorselIterator.apply(current, List.copyOf(run), execution);
+                run.clear();
+            }
             current = stage.apply(current);
         }
-        return current;
+        return run.isEmpty() ? current : MorselIterator.apply(current, List.copyOf(run), execution);
     }
 }
@@ -98,6 +98,16 @@ public final class Row implements RowAccessor {
         return Optional.empty();
     }
 
+    /**
+     * Lazy rows do not source from GROUP BY aggregation; this always returns empty.
+     *
+     * @return always empty
+     */
+    @Override
+    public Optional<AggregatedGroup> aggregatedGroup() {
+        return Optional.empty();
+    }
+
     /**
      * Lazy rows do not carry window-function results. {@code WindowStage} emits {@link FlatRow} directly; window-result
      * lookups against a lazy row always return {@code null} so callers can distinguish "no window stage ran" from "no
@@ -151,7 +161,11 @@ public final class Row implements RowAccessor {
      */
     public Row ensureFullyFlattened() {
         if (!fullyFlattened && original != null) {
-            JsonFlattener.flattenInto(original, cache, interner);
+            // Rows of one source share an interner; parallel morsels (array predicates in WHERE) may
+            // flatten sibling rows concurrently.
+            synchronized (interner) {
+                JsonFlattener.flattenInto(original, cache, interner);
+            }
             fullyFlattened = true;
         }
         return this;
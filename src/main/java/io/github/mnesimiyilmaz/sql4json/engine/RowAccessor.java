@@ -35,12 +35,22 @@ public sealed interface RowAccessor permits Row, FlatRow {
     boolean isAggregated();
 
     /**
-     * Returns the source group of rows that produced this aggregated row, or empty for non-aggregated rows.
+     * Returns the source group of rows that produced this aggregated row, or empty for non-aggregated rows and for
+     * groups aggregated without retaining their rows.
      *
      * @return the source group, or empty
      */
     Optional<List<RowAccessor>> sourceGroup();
 
+    /**
+     * Returns the group that produced this aggregated row, or empty for non-aggregated rows. Aggregate expressions
+     * outside SELECT (HAVING, ORDER BY) are evaluated against it.
+     *
+     * @return the aggregated group, or empty
+     * @since 1.4.0
+     */
+    Optional<AggregatedGroup> aggregatedGroup();
+
     /**
      * Returns the precomputed window function value for the given call, or {@code null} if no value has been stored.
      *
@@ -0,0 +1,456 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.json.*;
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Temporary file of rows in a compact binary format, for operators that spill state to disk. Rows are appended with
+ * {@link #write(RowAccessor)} and read back once, in write order, with {@link #read()}; the file is deleted once read
+ * to the end or on {@link #close()}.
+ *
+ * <p>Each value is a one-byte type tag followed by a varint, the raw double bits, or length-prefixed UTF-8. Row
+ * structure is not repeated per row: schemas, field keys and JSON member names live in per-file dictionaries held in
+ * memory, and rows refer to them by index — which also keeps window slots and other in-memory-only schema state intact.
+ * A lazy {@link Row} is written as its original JSON value and read back as a lazy row over it; a {@link FlatRow} keeps
+ * its values, aggregated flag and original value, but not its aggregated group.
+ *
+ * <p>Not thread-safe.
+ *
+ * @since 1.4.0
+ */
+public final class SpillFile implements AutoCloseable {
+
+    private static final int LAZY_ROW = 0;
+    private static final int EAGER_ROW = 1;
+    private static final int FLAT_ROW = 2;
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int DECIMAL = 5;
+    private static final int STRING = 6;
+    private static final int DATE = 7;
+    private static final int DATETIME = 8;
+    private static final int ARRAY = 9;
+    private static final int OBJECT = 10;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Dictionary<RowSchema> schemas = new Dictionary<>(new IdentityHashMap<>());
+    private final Dictionary<FieldKey> fieldKeys = new Dictionary<>(new HashMap<>());
+    private final Dictionary<String> names = new Dictionary<>(new HashMap<>());
+    private final FieldKey.Interner interner = new FieldKey.Interner();
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long rows;
+
+    private SpillFile(Path path, DataOutputStream out) {
+        this.path = path;
+        this.out = out;
+    }
+
+    /**
+     * Creates an empty spill file.
+     *
+     * @param directory directory to create the file in, or {@code null} for the system temporary directory
+     * @return the new file, open for writing
+     */
+    public static SpillFile create(Path directory) {
+        try {
+            Path path = directory != null
+                    ? Files.createTempFile(directory, "sql4json-spill-", ".bin")
+                    : Files.createTempFile("sql4json-spill-", ".bin");
+            return new SpillFile(
+                    path, new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)));
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Returns the number of rows written.
+     *
+     * @return the row count
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param row the row to write
+     */
+    public void write(RowAccessor row) {
+        try {
+            switch (row) {
+                case Row r
+                when r.originalValue().isPresent() -> {
+                    out.writeByte(LAZY_ROW);
+                    writeJson(r.originalValue().get());
+                }
+                case Row r -> {
+                    out.writeByte(EAGER_ROW);
+                    List<Map.Entry<FieldKey, SqlValue>> entries = r.entries().toList();
+                    writeVarint(entries.size());
+                    for (var e : entries) {
+                        writeVarint(fieldKeys.idOf(e.getKey()));
+                        writeValue(e.getValue());
+                    }
+                }
+                case FlatRow f -> {
+                    out.writeByte(FLAT_ROW);
+                    RowSchema schema = f.schema();
+                    writeVarint(schemas.idOf(schema));
+                    JsonValue original = f.originalValue().orElse(null);
+                    out.writeByte((f.isAggregated() ? 1 : 0) | (original != null ? 2 : 0));
+                    for (int i = 0; i < schema.size(); i++) writeValue(f.get(i));
+                    if (original != null) writeJson(original);
+                }
+            }
+            rows++;
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Ends writing and returns the rows in write order. The file is deleted after the last row is read.
+     *
+     * @return an iterator over the written rows; may be consumed once
+     */
+    public Iterator<RowAccessor> read() {
+        try {
+            out.close();
+            out = null;
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw failure(e);
+        }
+        return new Iterator<>() {
+            private long remaining = rows;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public RowAccessor next() {
+                if (remaining == 0) throw new NoSuchElementException();
+                try {
+                    RowAccessor row = readRow();
+                    if (--remaining == 0) close();
+                    return row;
+                } catch (IOException e) {
+                    throw failure(e);
+                }
+            }
+        };
+    }
+
+    /** Closes the file and deletes it. Idempotent. */
+    @Override
+    public void close() {
+        try {
+            if (out != null) out.close();
+            if (in != null) in.close();
+            out = null;
+            in = null;
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Estimates the heap retained by a row, for spill thresholds. Counts the row, its values and a retained original
+     * JSON value; shared schemas and interned keys are not counted.
+     *
+     * @param row the row
+     * @return the estimated size in bytes
+     */
+    public static long estimatedBytes(RowAccessor row) {
+        long bytes = 64;
+        if (row instanceof FlatRow f) {
+            for (int i = 0; i < f.schema().size(); i++) bytes += 8 + estimatedBytes(f.get(i));
+        } else {
+            // Lazy rows are counted fully flattened, as retained GROUP BY / DISTINCT rows are
+            bytes += row.entries()
+                    .mapToLong(e -> 48 + estimatedBytes(e.getValue()))
+                    .sum();
+        }
+        Optional<JsonValue> original = row.originalValue();
+        if (original.isPresent()) bytes += estimatedBytes(original.get());
+        return bytes;
+    }
+
+    static long estimatedBytes(SqlValue value) {
+        return switch (value) {
+            case SqlNull ignored -> 0;
+            case SqlBoolean ignored -> 0;
+            case SqlLong ignored -> 16;
+            case SqlDouble ignored -> 16;
+            case SqlDecimal ignored -> 64;
+            case SqlString(var s) -> 56 + s.length();
+            case SqlDate ignored -> 40;
+            case SqlDateTime ignored -> 72;
+        };
+    }
+
+    private static long estimatedBytes(JsonValue value) {
+        return switch (value) {
+            case JsonObjectValue(var fields) -> {
+                long bytes = 64;
+                for (var e : fields.entrySet()) bytes += 40 + e.getKey().length() + estimatedBytes(e.getValue());
+                yield bytes;
+            }
+            case JsonArrayValue(var elements) -> {
+                long bytes = 32;
+                for (JsonValue element : elements) bytes += 8 + estimatedBytes(element);
+                yield bytes;
+            }
+            case JsonStringValue(var s) -> 56 + s.length();
+            case JsonDecimalValue ignored -> 64;
+            case JsonNumberValue ignored -> 16;
+            case JsonBooleanValue ignored -> 0;
+            case JsonNullValue ignored -> 0;
+        };
+    }
+
+    private RowAccessor readRow() throws IOException {
+        return switch (in.readByte()) {
+            case LAZY_ROW -> Row.lazy(readJson(), interner);
+            case EAGER_ROW -> {
+                int n = readVarint();
+                var data = HashMap.<FieldKey, SqlValue>newHashMap(n);
+                for (int i = 0; i < n; i++) data.put(fieldKeys.get(readVarint()), readValue());
+                yield Row.eager(data);
+            }
+            case FLAT_ROW -> {
+                RowSchema schema = schemas.get(readVarint());
+                int flags = in.readByte();
+                Object[] values = new Object[schema.size()];
+                for (int i = 0; i < values.length; i++) {
+                    SqlValue v = readValue();
+                    if (!(v instanceof SqlNull)) values[i] = v;
+                }
+                yield FlatRow.restored(schema, values, (flags & 1) != 0, (flags & 2) != 0 ? readJson() : null);
+            }
+            default -> throw new IOException("Corrupt spill file: " + path);
+        };
+    }
+
+    private void writeValue(SqlValue value) throws IOException {
+        switch (value) {
+            case SqlNull ignored -> out.writeByte(NULL);
+            case SqlBoolean(var b) -> out.writeByte(b ? TRUE : FALSE);
+            case SqlLong(var l) -> {
+                out.writeByte(LONG);
+                writeVarlong(l);
+            }
+            case SqlDouble(var d) -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case SqlDecimal(var d) -> {
+                out.writeByte(DECIMAL);
+                writeDecimal(d);
+            }
+            case SqlString(var s) -> {
+                out.writeByte(STRING);
+                writeString(s);
+            }
+            case SqlDate(var d) -> {
+                out.writeByte(DATE);
+                writeVarlong(d.toEpochDay());
+            }
+            case SqlDateTime(var d) -> {
+                out.writeByte(DATETIME);
+                writeVarlong(d.toLocalDate().toEpochDay());
+                writeVarlong(d.toLocalTime().toNanoOfDay());
+            }
+        }
+    }
+
+    private SqlValue readValue() throws IOException {
+        return switch (in.readByte()) {
+            case NULL -> SqlNull.INSTANCE;
+            case FALSE -> SqlBoolean.FALSE;
+            case TRUE -> SqlBoolean.TRUE;
+            case LONG -> SqlNumber.of(readVarlong());
+            case DOUBLE -> SqlNumber.of(in.readDouble());
+            case DECIMAL -> SqlNumber.of(readDecimal());
+            case STRING -> new SqlString(readString());
+            case DATE -> new SqlDate(LocalDate.ofEpochDay(readVarlong()));
+            case DATETIME ->
+                new SqlDateTime(
+                        LocalDateTime.of(LocalDate.ofEpochDay(readVarlong()), LocalTime.ofNanoOfDay(readVarlong())));
+            default -> throw new IOException("Corrupt spill file: " + path);
+        };
+    }
+
+    private void writeJson(JsonValue value) throws IOException {
+        switch (value) {
+            case JsonObjectValue(var fields) -> {
+                out.writeByte(OBJECT);
+                writeVarint(fields.size());
+                for (var e : fields.entrySet()) {
+                    writeVarint(names.idOf(e.getKey()));
+                    writeJson(e.getValue());
+                }
+            }
+            case JsonArrayValue(var elements) -> {
+                out.writeByte(ARRAY);
+                writeVarint(elements.size());
+                for (JsonValue element : elements) writeJson(element);
+            }
+            case JsonStringValue(var s) -> {
+                out.writeByte(STRING);
+                writeString(s);
+            }
+            case JsonLongValue(var l) -> {
+                out.writeByte(LONG);
+                writeVarlong(l);
+            }
+            case JsonDoubleValue(var d) -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case JsonDecimalValue(var d) -> {
+                out.writeByte(DECIMAL);
+                writeDecimal(d);
+            }
+            case JsonBooleanValue(var b) -> out.writeByte(b ? TRUE : FALSE);
+            case JsonNullValue ignored -> out.writeByte(NULL);
+        }
+    }
+
+    private JsonValue readJson() throws IOException {
+        return switch (in.readByte()) {
+            case OBJECT -> {
+                int n = readVarint();
+                var fields = LinkedHashMap.<String, JsonValue>newLinkedHashMap(n);
+                for (int i = 0; i < n; i++) fields.put(names.get(readVarint()), readJson());
+                yield new JsonObjectValue(fields);
+            }
+            case ARRAY -> {
+                int n = readVarint();
+                var elements = new ArrayList<JsonValue>(n);
+                for (int i = 0; i < n; i++) elements.add(readJson());
+                yield new JsonArrayValue(elements);
+            }
+            case STRING -> new JsonStringValue(readString());
+            case LONG -> new JsonLongValue(readVarlong());
+            case DOUBLE -> new JsonDoubleValue(in.readDouble());
+            case DECIMAL -> new JsonDecimalValue(readDecimal());
+            case TRUE -> JsonBooleanValue.TRUE;
+            case FALSE -> JsonBooleanValue.FALSE;
+            case NULL -> JsonNullValue.INSTANCE;
+            default -> throw new IOException("Corrupt spill file: " + path);
+        };
+    }
+
+    private void writeDecimal(BigDecimal d) throws IOException {
+        writeVarlong(d.scale());
+        byte[] unscaled = d.unscaledValue().toByteArray();
+        writeVarint(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private BigDecimal readDecimal() throws IOException {
+        int scale = (int) readVarlong();
+        byte[] unscaled = new byte[readVarint()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(utf8.length);
+        out.write(utf8);
+    }
+
+    private String readString() throws IOException {
+        byte[] utf8 = new byte[readVarint()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Unsigned LEB128; longs are zigzag-encoded first so small negatives stay short
+    private void writeVarint(int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private int readVarint() throws IOException {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readByte();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+
+    private void writeVarlong(long l) throws IOException {
+        long v = (l << 1) ^ (l >> 63);
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private long readVarlong() throws IOException {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return (v >>> 1) ^ -(v & 1);
+        }
+    }
+
+    private static SQL4JsonExecutionException failure(IOException e) {
+        return new SQL4JsonExecutionException("Failed to spill rows to disk: " + e.getMessage(), e);
+    }
+
+    /** Dense ids for values written by reference; lookups by id serve the reader. */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> ids;
+        private final List<T> values = new ArrayList<>();
+
+        Dictionary(Map<T, Integer> ids) {
+            this.ids = ids;
+        }
+
+        int idOf(T value) {
+            Integer id = ids.get(value);
+            if (id != null) return id;
+            ids.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        T get(int id) {
+            return values.get(id);
+        }
+    }
+}
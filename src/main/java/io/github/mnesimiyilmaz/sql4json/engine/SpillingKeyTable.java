@@ -0,0 +1,227 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.types.SqlLong;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One state per distinct key of a row stream, held in a {@link KeyTable} that spills to disk past a memory threshold
+ * (hybrid hash). While the estimated size of the states stays within {@link ExecutionSettings#spillThresholdBytes()},
+ * every new key gets a state in memory. Past it, rows of keys already in memory still update their state, and rows of
+ * new keys are appended to one of {@value #FANOUT} {@link SpillFile} partitions chosen by key hash.
+ *
+ * <p>Once the input ends, the in-memory states are returned first, then each partition is processed the same way in
+ * turn — re-partitioned on other hash bits if it is still too large — so at most about one threshold's worth of states
+ * is held at a time. Every row of a key reaches its state in input order, so the first row of each key is the one its
+ * state is created from, together with that row's position in the input; spilled rows are written after their position
+ * so it survives the round trip. Without spilling, states come out in the order their key first appeared; with it,
+ * callers that need that order sort the states by first position.
+ *
+ * @param <S> the per-key state
+ * @since 1.4.0
+ */
+public final class SpillingKeyTable<S> {
+
+    private static final int FANOUT = 16;
+    private static final long KEY_BYTES = 48; // key slots, hash, index entry and list slot
+    private static final RowSchema POSITION_SCHEMA = RowSchema.of(List.of(FieldKey.of("#position")));
+
+    /**
+     * What a {@link SpillingKeyTable} does with the rows of each key.
+     *
+     * @param <S> the per-key state
+     */
+    public interface Handler<S> {
+
+        /**
+         * Writes the key of {@code row} into the probe key of {@code keys}, starting with {@link KeyTable#clearKey()}.
+         *
+         * @param row the row
+         * @param keys the table to probe
+         */
+        void writeKey(RowAccessor row, KeyTable keys);
+
+        /**
+         * Creates the state of a new key from its first row. The row is then passed to {@link #update}.
+         *
+         * @param row the key's first row
+         * @param position the row's zero-based position in the input
+         * @return the new state
+         */
+        S create(RowAccessor row, long position);
+
+        /**
+         * Folds a row into its key's state.
+         *
+         * @param state the key's state
+         * @param row a row of the key
+         */
+        void update(S state, RowAccessor row);
+
+        /**
+         * Estimates the heap retained by a state, as counted against the spill threshold.
+         *
+         * @param state the state
+         * @return the estimated size in bytes
+         */
+        long estimatedBytes(S state);
+    }
+
+    private final KeyTable.Equality equality;
+    private final Handler<S> handler;
+    private final long threshold;
+    private final boolean canSpill;
+    private final Path directory;
+
+    /**
+     * Creates a table.
+     *
+     * @param equality which key values are considered equal
+     * @param handler creates and updates states
+     * @param settings execution settings supplying the spill threshold and directory
+     */
+    public SpillingKeyTable(KeyTable.Equality equality, Handler<S> handler, ExecutionSettings settings) {
+        this.equality = equality;
+        this.handler = handler;
+        this.threshold = settings.spillThresholdBytes();
+        this.canSpill = settings.canSpill();
+        this.directory = settings.spillDirectory();
+    }
+
+    /** States held in memory after one pass, and the partitions spilled during it (null where empty). */
+    private record Pass<T>(List<T> states, SpillFile[] partitions, int depth) {}
+
+    /**
+     * Consumes {@code input} and returns the state of every distinct key. Spilled partitions are processed as the
+     * returned stream is consumed; closing the stream deletes the spill files not yet read.
+     *
+     * @param input the rows
+     * @return the states, lazily
+     */
+    public Stream<S> process(Iterator<RowAccessor> input) {
+        var states = new States(run(input, false, 0));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(states, Spliterator.ORDERED), false)
+                .onClose(states::close);
+    }
+
+    // Spilled partitions hold each row after a one-column row carrying its input position.
+    private Pass<S> run(Iterator<RowAccessor> rows, boolean positioned, int depth) {
+        KeyTable keys = new KeyTable(equality);
+        List<S> states = new ArrayList<>(); // indexed by key id
+        SpillFile[] partitions = null;
+        long bytes = 0;
+        long position = -1;
+        try {
+            while (rows.hasNext()) {
+                RowAccessor row = rows.next();
+                if (positioned) {
+                    position = ((SqlLong) ((FlatRow) row).get(0)).value();
+                    row = rows.next();
+                } else {
+                    position++;
+                }
+                handler.writeKey(row, keys);
+                if (partitions == null) {
+                    int id = keys.findOrAdd();
+                    if (id == states.size()) {
+                        S state = handler.create(row, position);
+                        states.add(state);
+                        if (canSpill && (bytes += KEY_BYTES + handler.estimatedBytes(state)) > threshold) {
+                            partitions = new SpillFile[FANOUT];
+                        }
+                    }
+                    handler.update(states.get(id), row);
+                } else {
+                    int id = keys.find();
+                    if (id >= 0) {
+                        handler.update(states.get(id), row);
+                    } else {
+                        int p = partitionOf(keys.probeHash(), depth);
+                        if (partitions[p] == null) partitions[p] = SpillFile.create(directory);
+                        partitions[p].write(FlatRow.of(POSITION_SCHEMA, new Object[] {SqlNumber.of(position)}));
+                        partitions[p].write(row);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            if (partitions != null) closeAll(Arrays.asList(partitions));
+            throw e;
+        }
+        return new Pass<>(states, partitions, depth);
+    }
+
+    // Each depth mixes the hash differently, so a partition that spills again splits on fresh bits.
+    private static int partitionOf(int hash, int depth) {
+        long mixed = (hash + depth * 0x632BE59BD9B4E019L) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 60);
+    }
+
+    private static void closeAll(Collection<SpillFile> files) {
+        RuntimeException failure = null;
+        for (SpillFile file : files) {
+            if (file == null) continue;
+            try {
+                file.close();
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /** Walks passes depth-first: a pass's states, then each of its partitions in partition order. */
+    private final class States implements Iterator<S> {
+        private final Deque<SpillFile> pending = new ArrayDeque<>();
+        private final Deque<Integer> pendingDepths = new ArrayDeque<>();
+        private Iterator<S> current;
+
+        States(Pass<S> first) {
+            enter(first);
+        }
+
+        private void enter(Pass<S> pass) {
+            current = pass.states().iterator();
+            if (pass.partitions() == null) return;
+            for (int p = FANOUT - 1; p >= 0; p--) {
+                if (pass.partitions()[p] == null) continue;
+                pending.push(pass.partitions()[p]);
+                pendingDepths.push(pass.depth() + 1);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (pending.isEmpty()) return false;
+                int depth = pendingDepths.pop();
+                try (SpillFile file = pending.pop()) {
+                    enter(run(file.read(), true, depth));
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public S next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        void close() {
+            pendingDepths.clear();
+            try {
+                closeAll(pending);
+            } finally {
+                pending.clear();
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 /**
@@ -16,9 +17,13 @@ import java.util.stream.Stream;
  *
  * <p>This class implements the {@code "<STAGE> row count exceeds configured maximum (<N>)"} error-message contract
  * defined by {@link io.github.mnesimiyilmaz.sql4json.settings.LimitsSettings#maxRowsPerQuery()}. The three current
- * users that delegate to this helper are {@code GroupByStage}, {@code OrderByStage}, and {@code WindowStage}. Other
- * enforcement points ({@code DistinctStage}, the {@code QueryPipeline} terminal, and {@code StreamingSerializer})
- * implement equivalent inline guards using the same message format rather than calling this helper.
+ * users that delegate to this helper are {@code GroupByStage}, {@code OrderByStage}, and {@code WindowStage}; the
+ * latter use {@link #capped} instead when they spill to disk. Other enforcement points ({@code DistinctStage}, the
+ * {@code QueryPipeline} terminal, and {@code StreamingSerializer}) implement equivalent inline guards using the same
+ * message format rather than calling this helper.
+ *
+ * <p>{@link #closingInput} ties the input of a stage that drains it into a stream of its own to that stream, so closing
+ * the query result reaches every spill file upstream.
  */
 public final class StreamMaterializer {
 
@@ -46,4 +51,55 @@ public final class StreamMaterializer {
         }
         return result;
     }
+
+    /**
+     * Wraps {@code it} so that requesting more than {@code maxRows} items throws, for stages that consume their input
+     * without collecting it into a list.
+     *
+     * @param it the iterator to wrap (must not be null)
+     * @param maxRows the inclusive upper bound on returned items (must be positive)
+     * @param stageName prefix used in the overflow exception message (e.g. {@code "ORDER BY"})
+     * @param <T> element type of the iterator
+     * @return an iterator returning the same items
+     * @since 1.4.0
+     */
+    public static <T> Iterator<T> capped(Iterator<T> it, int maxRows, String stageName) {
+        return new Iterator<>() {
+            private long count;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (count++ >= maxRows) {
+                    throw new SQL4JsonExecutionException(
+                            stageName + " row count exceeds configured maximum (" + maxRows + ")");
+                }
+                return it.next();
+            }
+        };
+    }
+
+    /**
+     * Applies {@code stage} to {@code input} so that closing the returned stream also closes {@code input}, and
+     * {@code input} is closed when {@code stage} throws. For stages that consume their input through its iterator and
+     * return a new stream, which — unlike {@code map} or {@code filter} — does not inherit the input's close handlers.
+     *
+     * @param input the stage input
+     * @param stage the stage body
+     * @param <T> element type of the streams
+     * @return the stage output, closing {@code input} when closed
+     * @since 1.4.0
+     */
+    public static <T> Stream<T> closingInput(Stream<T> input, UnaryOperator<Stream<T>> stage) {
+        try {
+            return stage.apply(input).onClose(input::close);
+        } catch (RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
 }
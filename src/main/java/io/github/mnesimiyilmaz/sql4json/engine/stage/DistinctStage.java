@@ -1,22 +1,40 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.engine.stage;
 
+import io.github.mnesimiyilmaz.sql4json.engine.ExternalSorter;
 import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
+import io.github.mnesimiyilmaz.sql4json.engine.FlatRow;
+import io.github.mnesimiyilmaz.sql4json.engine.KeyTable;
 import io.github.mnesimiyilmaz.sql4json.engine.MaterializingPipelineStage;
 import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.engine.RowSchema;
+import io.github.mnesimiyilmaz.sql4json.engine.SpillFile;
+import io.github.mnesimiyilmaz.sql4json.engine.SpillingKeyTable;
+import io.github.mnesimiyilmaz.sql4json.engine.StreamMaterializer;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
 import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
-import io.github.mnesimiyilmaz.sql4json.types.*;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Materializing pipeline stage that eliminates duplicate rows (SQL DISTINCT). Uses value-based equality via
- * {@link SqlValueComparator}.
+ * {@link SqlValueComparator}: each row's values, in field-name order, are hashed into a {@link KeyTable} with
+ * {@link KeyTable.Equality#COMPARABLE} equality, so no key object is allocated per row. The table is a
+ * {@link SpillingKeyTable}: past {@link ExecutionSettings#spillThresholdBytes()}, rows with unseen values are spilled
+ * to disk and de-duplicated partition by partition after the ones held in memory. Rows come out in the order their
+ * values first appeared, so a preceding ORDER BY still holds: when spilling is enabled, the distinct rows are sorted
+ * back by the input position of their first occurrence with an {@link ExternalSorter}, which spills in turn.
  */
 public final class DistinctStage implements MaterializingPipelineStage {
 
+    private static final boolean[] ASCENDING = {false};
+
     private final int maxRows;
+    private final ExecutionSettings execution;
 
     /**
      * Creates a new DistinctStage with the specified row limit.
@@ -24,65 +42,96 @@ public final class DistinctStage implements MaterializingPipelineStage {
      * @param maxRows maximum number of distinct rows before throwing
      */
     public DistinctStage(int maxRows) {
+        this(maxRows, ExecutionSettings.defaults());
+    }
+
+    /**
+     * Creates a new DistinctStage with the specified row limit and spill settings.
+     *
+     * @param maxRows maximum number of distinct rows before throwing
+     * @param execution execution settings supplying the spill threshold and directory
+     */
+    public DistinctStage(int maxRows, ExecutionSettings execution) {
         this.maxRows = maxRows;
+        this.execution = execution;
     }
 
     @Override
     public Stream<RowAccessor> apply(Stream<RowAccessor> input) {
-        Map<DistinctKey, RowAccessor> seen = new LinkedHashMap<>();
-        input.forEach(row -> {
-            DistinctKey key = DistinctKey.of(row);
-            seen.computeIfAbsent(key, k -> {
-                if (seen.size() >= maxRows) {
-                    throw new SQL4JsonExecutionException(
-                            "DISTINCT row count exceeds configured maximum (" + maxRows + ")");
-                }
-                return row;
-            });
-        });
-        return seen.values().stream();
+        return StreamMaterializer.closingInput(input, this::firstRows);
     }
 
-    private record DistinctKey(List<SqlValue> values) {
-        static DistinctKey of(RowAccessor row) {
-            List<SqlValue> vals = new ArrayList<>();
-            row.entries()
-                    .sorted(Map.Entry.comparingByKey(Comparator.comparing(FieldKey::getKey)))
-                    .forEach(e -> vals.add(e.getValue()));
-            return new DistinctKey(vals);
+    private Stream<RowAccessor> firstRows(Stream<RowAccessor> input) {
+        Stream<FirstRow> firstRows = new SpillingKeyTable<>(KeyTable.Equality.COMPARABLE, new FirstRows(), execution)
+                .process(input.iterator());
+        if (!execution.canSpill()) return firstRows.map(FirstRow::row);
+        // Spilled partitions come out after the rows held in memory: restore first-seen order
+        Iterator<ExternalSorter.KeyedRow> keyed = firstRows
+                .map(first -> new ExternalSorter.KeyedRow(new SqlValue[] {SqlNumber.of(first.position())}, first.row()))
+                .iterator();
+        try {
+            return new ExternalSorter(ASCENDING, execution).sortKeyed(keyed).onClose(firstRows::close);
+        } catch (RuntimeException e) {
+            firstRows.close();
+            throw e;
         }
+    }
+
+    /** The first row of a distinct value list and its input position. */
+    private record FirstRow(RowAccessor row, long position) {}
+
+    /** Keeps the first row of each distinct value list; later duplicates are dropped. */
+    private final class FirstRows implements SpillingKeyTable.Handler<FirstRow> {
+        private final FieldOrder fieldOrder = new FieldOrder();
+        private long count;
 
         @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof DistinctKey(List<SqlValue> valueList))) return false;
-            if (values.size() != valueList.size()) return false;
-            for (int i = 0; i < values.size(); i++) {
-                if (SqlValueComparator.compare(values.get(i), valueList.get(i)) != 0) {
-                    return false;
-                }
-            }
-            return true;
+        public void writeKey(RowAccessor row, KeyTable keys) {
+            keys.clearKey();
+            fieldOrder.writeValues(row, keys);
         }
 
         @Override
-        public int hashCode() {
-            int hash = 1;
-            for (SqlValue v : values) {
-                hash = 31 * hash + sqlValueHash(v);
+        public FirstRow create(RowAccessor row, long position) {
+            if (count++ >= maxRows) {
+                throw new SQL4JsonExecutionException("DISTINCT row count exceeds configured maximum (" + maxRows + ")");
             }
-            return hash;
+            return new FirstRow(row, position);
+        }
+
+        @Override
+        public void update(FirstRow state, RowAccessor row) {
+            // Duplicates carry nothing to keep
+        }
+
+        @Override
+        public long estimatedBytes(FirstRow state) {
+            return SpillFile.estimatedBytes(state.row());
         }
+    }
+
+    /** Writes a row's values in field-name order; the order of a {@link FlatRow} schema is computed once. */
+    private static final class FieldOrder {
+        private static final Comparator<Map.Entry<FieldKey, SqlValue>> BY_NAME =
+                Map.Entry.comparingByKey(Comparator.comparing(FieldKey::getKey));
 
-        private static int sqlValueHash(SqlValue v) {
-            return switch (v) {
-                case SqlNull ignored -> 0;
-                case SqlNumber n -> Double.hashCode(n.doubleValue());
-                case SqlString(var value) -> value.hashCode();
-                case SqlBoolean(var value) -> Boolean.hashCode(value);
-                case SqlDate(var value) -> value.hashCode();
-                case SqlDateTime(var value) -> value.hashCode();
-            };
+        private RowSchema schema;
+        private int[] ordinals;
+
+        void writeValues(RowAccessor row, KeyTable keys) {
+            if (row instanceof FlatRow flat) {
+                if (flat.schema() != schema) {
+                    schema = flat.schema();
+                    ordinals = IntStream.range(0, schema.size())
+                            .boxed()
+                            .sorted(Comparator.comparing(i -> schema.columnAt(i).getKey()))
+                            .mapToInt(Integer::intValue)
+                            .toArray();
+                }
+                for (int ordinal : ordinals) keys.addKey(flat.get(ordinal));
+            } else {
+                row.entries().sorted(BY_NAME).forEach(e -> keys.addKey(e.getValue()));
+            }
         }
     }
 }
@@ -2,34 +2,47 @@
 package io.github.mnesimiyilmaz.sql4json.engine.stage;
 
 import io.github.mnesimiyilmaz.sql4json.engine.*;
+import io.github.mnesimiyilmaz.sql4json.grouping.AggregatePlan;
 import io.github.mnesimiyilmaz.sql4json.grouping.GroupAggregator;
-import io.github.mnesimiyilmaz.sql4json.grouping.GroupKey;
+import io.github.mnesimiyilmaz.sql4json.grouping.GroupState;
+import io.github.mnesimiyilmaz.sql4json.grouping.ParallelAggregation;
 import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
-import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Materializing pipeline stage that groups rows by expression values (SQL GROUP BY) and produces one aggregated row per
  * group via {@link GroupAggregator}.
  *
- * <p>Inputs may be lazy {@link Row} (from streaming flatten + WHERE) or {@link FlatRow} (from JOIN). Lazy rows are
- * fully flattened on entry so {@code SELECT *} reconstruction has every key available; flat rows already expose every
- * column via their schema.
+ * <p>Group keys are hashed into a {@link KeyTable} without allocating a key per row, and groups come out in the order
+ * their first row arrived. When every aggregate call evaluated downstream is known up front, the input is consumed in
+ * one pass into one {@link GroupState} per group: each row updates its group's accumulators and is dropped, so memory
+ * grows with the number of groups rather than the number of rows. Otherwise every row is retained and groups are
+ * aggregated by scanning them.
+ *
+ * <p>Sequential incremental aggregation goes through a {@link SpillingKeyTable}: with a finite
+ * {@link ExecutionSettings#spillThresholdBytes()}, rows of groups that do not fit are spilled to disk and aggregated
+ * partition by partition, and those groups come out after the ones held in memory.
+ *
+ * <p>Inputs may be lazy {@link Row} (from streaming flatten + WHERE) or {@link FlatRow} (from JOIN). Lazy rows that
+ * represent a group are fully flattened so {@code SELECT *} reconstruction has every key available; flat rows already
+ * expose every column via their schema.
  */
 public final class GroupByStage implements MaterializingPipelineStage {
 
-    private final List<Expression> groupByExpressions;
+    private final CompiledExpression[] groupByExpressions;
     private final List<SelectColumnDef> selectedColumns;
     private final FunctionRegistry functionRegistry;
     private final int maxRows;
+    private final AggregatePlan plan; // null: retain the rows of each group
+    private final ExecutionSettings execution;
 
     /**
-     * Creates a new GroupByStage with the specified grouping configuration.
+     * Creates a new GroupByStage that retains the rows of each group.
      *
      * @param groupByExpressions expressions to group by
      * @param selectedColumns SELECT column definitions (used for aggregation)
@@ -41,19 +54,90 @@ public final class GroupByStage implements MaterializingPipelineStage {
             List<SelectColumnDef> selectedColumns,
             FunctionRegistry functionRegistry,
             int maxRows) {
-        this.groupByExpressions = groupByExpressions;
+        this(groupByExpressions, selectedColumns, null, functionRegistry, maxRows, ExecutionSettings.defaults());
+    }
+
+    /**
+     * Creates a new GroupByStage that aggregates incrementally when the aggregate calls are known.
+     *
+     * @param groupByExpressions expressions to group by
+     * @param selectedColumns SELECT column definitions (used for aggregation)
+     * @param aggregateCalls every aggregate call evaluated against the groups — in SELECT, HAVING and ORDER BY — or
+     *     {@code null} when they cannot all be enumerated, which retains the rows of each group
+     * @param functionRegistry function registry for expression evaluation
+     * @param maxRows maximum number of input rows before throwing
+     * @param execution execution settings; when parallel, incremental aggregation runs on morsels
+     */
+    public GroupByStage(
+            List<Expression> groupByExpressions,
+            List<SelectColumnDef> selectedColumns,
+            Collection<Expression.AggregateFnCall> aggregateCalls,
+            FunctionRegistry functionRegistry,
+            int maxRows,
+            ExecutionSettings execution) {
+        this.groupByExpressions = ExpressionCompiler.compileAll(groupByExpressions, functionRegistry);
         this.selectedColumns = selectedColumns;
         this.functionRegistry = functionRegistry;
         this.maxRows = maxRows;
+        this.plan = aggregateCalls != null ? AggregatePlan.of(aggregateCalls, functionRegistry) : null;
+        this.execution = execution;
     }
 
     @Override
     public Stream<RowAccessor> apply(Stream<RowAccessor> input) {
+        return StreamMaterializer.closingInput(
+                input, rows -> plan != null ? aggregateIncrementally(rows) : aggregateRetained(rows));
+    }
+
+    private Stream<RowAccessor> aggregateIncrementally(Stream<RowAccessor> input) {
+        // A spilling aggregation runs on the calling thread: partitions are re-read one at a time
+        Stream<GroupState> groups = execution.isParallel() && !execution.canSpill()
+                ? new ParallelAggregation(
+                                this::writeGroupKey, GroupByStage::ensureFlattenedIfLazy, plan, execution, maxRows)
+                        .aggregate(input.iterator()).stream()
+                : new SpillingKeyTable<>(KeyTable.Equality.EXACT, new Grouping(), execution)
+                        .process(StreamMaterializer.capped(input.iterator(), maxRows, "GROUP BY"));
+        // Closing the result deletes the spilled partitions not yet re-aggregated
+        return groups.<RowAccessor>map(state -> GroupAggregator.aggregate(state, selectedColumns, functionRegistry))
+                .onClose(groups::close);
+    }
+
+    /** Group states of the sequential, possibly spilling, aggregation. */
+    private final class Grouping implements SpillingKeyTable.Handler<GroupState> {
+        @Override
+        public void writeKey(RowAccessor row, KeyTable keys) {
+            writeGroupKey(row, keys);
+        }
+
+        @Override
+        public GroupState create(RowAccessor row, long position) {
+            return new GroupState(plan, ensureFlattenedIfLazy(row));
+        }
+
+        @Override
+        public void update(GroupState state, RowAccessor row) {
+            state.accumulate(row);
+        }
+
+        @Override
+        public long estimatedBytes(GroupState state) {
+            return state.estimatedBytes();
+        }
+    }
+
+    // The row cap still applies, so a query that failed on a large input keeps failing the same way
+    private Stream<RowAccessor> aggregateRetained(Stream<RowAccessor> input) {
         List<RowAccessor> materialized =
                 StreamMaterializer.toList(input.map(GroupByStage::ensureFlattenedIfLazy), maxRows, "GROUP BY");
-        Map<GroupKey, List<RowAccessor>> groups =
-                materialized.stream().collect(Collectors.groupingBy(this::extractGroupKey));
-        return groups.values().stream().map(rows -> GroupAggregator.aggregate(rows, selectedColumns, functionRegistry));
+        KeyTable keys = new KeyTable(KeyTable.Equality.EXACT);
+        List<List<RowAccessor>> groups = new ArrayList<>();
+        for (RowAccessor row : materialized) {
+            writeGroupKey(row, keys);
+            int id = keys.findOrAdd();
+            if (id == groups.size()) groups.add(new ArrayList<>());
+            groups.get(id).add(row);
+        }
+        return groups.stream().map(rows -> GroupAggregator.aggregate(rows, selectedColumns, functionRegistry));
     }
 
     /**
@@ -63,11 +147,10 @@ public final class GroupByStage implements MaterializingPipelineStage {
         return row instanceof Row r ? r.ensureFullyFlattened() : row;
     }
 
-    private GroupKey extractGroupKey(RowAccessor row) {
-        var keyValues = new ArrayList<SqlValue>(groupByExpressions.size());
-        for (Expression expr : groupByExpressions) {
-            keyValues.add(ExpressionEvaluator.evaluate(expr, row, functionRegistry));
+    private void writeGroupKey(RowAccessor row, KeyTable keys) {
+        keys.clearKey();
+        for (CompiledExpression expr : groupByExpressions) {
+            keys.addKey(expr.evaluate(row));
         }
-        return new GroupKey(keyValues);
     }
 }
@@ -1,24 +1,49 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.engine.stage;
 
-import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
+import io.github.mnesimiyilmaz.sql4json.engine.ExternalSorter;
+import io.github.mnesimiyilmaz.sql4json.engine.Futures;
 import io.github.mnesimiyilmaz.sql4json.engine.MaterializingPipelineStage;
 import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
 import io.github.mnesimiyilmaz.sql4json.engine.StreamMaterializer;
 import io.github.mnesimiyilmaz.sql4json.parser.OrderByColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
-import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
-import java.util.Comparator;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.sorting.NormalizedKeyEncoder;
+import io.github.mnesimiyilmaz.sql4json.sorting.SortKeys;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Pipeline stage that sorts rows according to ORDER BY column definitions. This is a materializing stage — all rows are
- * collected before sorting.
+ * collected before sorting. Each row's sort keys are evaluated once into {@link SortKeys} and the row indices are
+ * sorted on them, so aggregate keys are not re-evaluated per comparison. With
+ * {@link ExecutionSettings#normalizedSortKeys()}, each row's keys are further encoded into one byte string by a
+ * {@link NormalizedKeyEncoder}. When {@link ExecutionSettings#canSpill()}, the sort goes through an
+ * {@link ExternalSorter} instead, which writes sorted runs to disk past the spill threshold and merges them as the
+ * output is consumed.
+ *
+ * <p>When {@link ExecutionSettings#isParallel()} and the input spans at least two morsels, the rows are cut into up to
+ * {@link ExecutionSettings#parallelism()} contiguous ranges whose keys are evaluated and sorted on the executor, and
+ * the sorted ranges are merged; ties keep input order, so the result matches the sequential sort.
  */
 public final class OrderByStage implements MaterializingPipelineStage {
 
-    private final Comparator<RowAccessor> comparator;
+    private final List<CompiledExpression> keys;
+    private final boolean[] descending;
+    private final boolean normalized;
+    private final ExternalSorter sorter;
+    private final Executor executor;
+    private final int parallelism;
+    private final int morselSize;
     private final int maxRows;
 
     /**
@@ -29,29 +54,122 @@ public final class OrderByStage implements MaterializingPipelineStage {
      * @param maxRows the maximum number of rows allowed before throwing
      */
     public OrderByStage(List<OrderByColumnDef> columns, FunctionRegistry functionRegistry, int maxRows) {
-        this.comparator = columns.stream()
-                .map(col -> columnComparator(col, functionRegistry))
-                .reduce(Comparator::thenComparing)
-                .orElse((a, b) -> 0);
+        this(columns, functionRegistry, maxRows, ExecutionSettings.defaults());
+    }
+
+    /**
+     * Creates a new OrderByStage that sorts externally when {@code execution} allows spilling.
+     *
+     * @param columns the ORDER BY column definitions specifying sort expressions and directions
+     * @param functionRegistry the function registry for evaluating expressions
+     * @param maxRows the maximum number of rows allowed before throwing
+     * @param execution execution settings supplying parallelism, the spill threshold and directory
+     */
+    public OrderByStage(
+            List<OrderByColumnDef> columns,
+            FunctionRegistry functionRegistry,
+            int maxRows,
+            ExecutionSettings execution) {
+        this.keys = compileKeys(columns, functionRegistry);
+        this.descending = descending(columns);
+        this.normalized = execution.normalizedSortKeys();
+        this.sorter = execution.canSpill() ? new ExternalSorter(keys, descending, execution) : null;
+        this.executor = execution.executor() != null ? execution.executor() : ForkJoinPool.commonPool();
+        this.parallelism = execution.parallelism();
+        this.morselSize = execution.morselSize();
         this.maxRows = maxRows;
     }
 
+    static List<CompiledExpression> compileKeys(List<OrderByColumnDef> columns, FunctionRegistry functionRegistry) {
+        return columns.stream()
+                .map(col -> ExpressionCompiler.compileGroupAware(col.expression(), functionRegistry))
+                .toList();
+    }
+
+    static boolean[] descending(List<OrderByColumnDef> columns) {
+        boolean[] descending = new boolean[columns.size()];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = "DESC".equalsIgnoreCase(columns.get(i).direction());
+        }
+        return descending;
+    }
+
     @Override
     public Stream<RowAccessor> apply(Stream<RowAccessor> input) {
+        return StreamMaterializer.closingInput(input, this::sort);
+    }
+
+    private Stream<RowAccessor> sort(Stream<RowAccessor> input) {
+        if (sorter != null) {
+            return sorter.sort(StreamMaterializer.capped(input.iterator(), maxRows, "ORDER BY"));
+        }
         List<RowAccessor> materialized = StreamMaterializer.toList(input, maxRows, "ORDER BY");
-        materialized.sort(comparator);
-        return materialized.stream();
-    }
-
-    static Comparator<RowAccessor> columnComparator(OrderByColumnDef col, FunctionRegistry functionRegistry) {
-        var expr = col.expression();
-        Comparator<RowAccessor> cmp = Comparator.comparing(
-                (RowAccessor row) -> expr.containsAggregate()
-                        ? row.sourceGroup()
-                                .map(group -> ExpressionEvaluator.evaluateAggregate(expr, group, functionRegistry))
-                                .orElseGet(() -> ExpressionEvaluator.evaluate(expr, row, functionRegistry))
-                        : ExpressionEvaluator.evaluate(expr, row, functionRegistry),
-                SqlValueComparator::compare);
-        return "DESC".equalsIgnoreCase(col.direction()) ? cmp.reversed() : cmp;
+        int parts = Math.max(1, Math.min(parallelism, materialized.size() / morselSize));
+        SortKeys sortKeys = sortKeys(materialized, parts);
+        int[] order = parts > 1 ? sortKeys.sortedIndices(parts, executor) : sortKeys.sortedIndices();
+        return IntStream.of(order).mapToObj(materialized::get);
+    }
+
+    // Decorate: one pass per key over the rows, column by column, each of the parts' row ranges on its own task.
+    private SortKeys sortKeys(List<RowAccessor> rows, int parts) {
+        SqlValue[][] columns = new SqlValue[keys.size()][rows.size()];
+        forEachRange(rows.size(), parts, (part, from, to) -> {
+            for (int c = 0; c < columns.length; c++) {
+                CompiledExpression key = keys.get(c);
+                SqlValue[] column = columns[c];
+                for (int i = from; i < to; i++) column[i] = key.evaluate(rows.get(i));
+            }
+        });
+        if (normalized) {
+            byte[][] encoded = normalize(columns, parts);
+            if (encoded != null) return SortKeys.normalized(encoded);
+        }
+        return SortKeys.of(columns, descending);
+    }
+
+    // One encoded tuple per row, or null when some row's keys have no exact encoding.
+    private byte[][] normalize(SqlValue[][] columns, int parts) {
+        byte[][] encoded = new byte[columns[0].length][];
+        boolean[] exact = new boolean[parts];
+        forEachRange(encoded.length, parts, (part, from, to) -> {
+            var encoder = new NormalizedKeyEncoder(descending);
+            SqlValue[] tuple = new SqlValue[columns.length];
+            for (int i = from; i < to; i++) {
+                for (int c = 0; c < tuple.length; c++) tuple[c] = columns[c][i];
+                if ((encoded[i] = encoder.encode(tuple)) == null) return;
+            }
+            exact[part] = true;
+        });
+        for (boolean e : exact) if (!e) return null;
+        return encoded;
+    }
+
+    /** Work on the rows {@code [from, to)}, the {@code part}-th of the ranges. */
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(int part, int from, int to);
+    }
+
+    // Runs task over parts contiguous ranges of [0, size): the last on the calling thread, the others on the executor.
+    private void forEachRange(int size, int parts, RangeTask task) {
+        if (parts < 2) {
+            task.run(0, 0, size);
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(parts - 1);
+        for (int p = 0; p < parts - 1; p++) {
+            int part = p;
+            int from = (int) ((long) size * p / parts);
+            int to = (int) ((long) size * (p + 1) / parts);
+            futures.add(CompletableFuture.runAsync(() -> task.run(part, from, to), executor));
+        }
+        RuntimeException inline = null;
+        try {
+            task.run(parts - 1, (int) ((long) size * (parts - 1) / parts), size);
+        } catch (RuntimeException e) {
+            inline = e;
+        }
+        Futures.joinAll(futures);
+        if (inline != null) throw inline;
     }
 }
@@ -88,4 +88,9 @@ public final class SelectStage implements LazyPipelineStage {
         // column needed by a computed expression like {@code CONCAT(name, ' - ', dept)}.
         return FlatRow.materialize(lazy, projectionSchema);
     }
+
+    @Override
+    public boolean isRowLocal() {
+        return true;
+    }
 }
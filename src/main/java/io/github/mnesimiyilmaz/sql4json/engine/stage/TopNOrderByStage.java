@@ -1,12 +1,21 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.engine.stage;
 
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.Futures;
 import io.github.mnesimiyilmaz.sql4json.engine.MaterializingPipelineStage;
 import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.engine.StreamMaterializer;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.parser.OrderByColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.sorting.SortKeys;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
@@ -17,15 +26,27 @@ import java.util.stream.Stream;
  * once; only the smallest (k+m) rows under the comparator are retained, then the heap is drained into a sorted list and
  * the offset/limit slice is emitted.
  *
+ * <p>Each row's ORDER BY keys are evaluated once, on arrival, and kept with the row in the heap. Rows with equal keys
+ * rank by input position, so the result is the slice a stable full sort would give.
+ *
+ * <p>When {@link ExecutionSettings#isParallel()}, the input is cut into morsels that are keyed and reduced to their own
+ * top {@code k + m} rows on the executor, with up to twice {@link ExecutionSettings#parallelism()} morsels in flight;
+ * the calling thread merges each morsel's survivors into the final heap. Ties still rank by input position, so the
+ * result matches sequential execution.
+ *
  * <p>Row-count enforcement counts <em>input</em> rows, not retained rows, so that {@code maxRowsPerQuery} still bounds
  * adversarial inputs.
  */
 public final class TopNOrderByStage implements MaterializingPipelineStage {
 
-    private final Comparator<RowAccessor> comparator;
+    private final List<CompiledExpression> keys;
+    private final Comparator<Keyed> comparator;
     private final int offset;
     private final int limit;
     private final int maxRows;
+    private final Executor executor;
+    private final int window;
+    private final int morselSize;
 
     /**
      * Creates a TopNOrderByStage.
@@ -38,17 +59,46 @@ public final class TopNOrderByStage implements MaterializingPipelineStage {
      */
     public TopNOrderByStage(
             List<OrderByColumnDef> columns, int offset, int limit, FunctionRegistry functionRegistry, int maxRows) {
-        this.comparator = columns.stream()
-                .map(col -> OrderByStage.columnComparator(col, functionRegistry))
-                .reduce(Comparator::thenComparing)
-                .orElse((a, b) -> 0);
+        this(columns, offset, limit, functionRegistry, maxRows, ExecutionSettings.defaults());
+    }
+
+    /**
+     * Creates a TopNOrderByStage that keys and reduces morsels in parallel when {@code execution} is parallel.
+     *
+     * @param columns ORDER BY column definitions
+     * @param offset the OFFSET value
+     * @param limit the LIMIT value
+     * @param functionRegistry function registry for expression evaluation
+     * @param maxRows maximum input rows before throwing
+     * @param execution execution settings supplying parallelism, executor and morsel size
+     */
+    public TopNOrderByStage(
+            List<OrderByColumnDef> columns,
+            int offset,
+            int limit,
+            FunctionRegistry functionRegistry,
+            int maxRows,
+            ExecutionSettings execution) {
+        this.keys = OrderByStage.compileKeys(columns, functionRegistry);
+        this.comparator = Comparator.comparing(Keyed::key, SortKeys.comparator(OrderByStage.descending(columns)))
+                .thenComparingLong(Keyed::position);
         this.offset = offset;
         this.limit = limit;
         this.maxRows = maxRows;
+        this.executor = execution.executor() != null ? execution.executor() : ForkJoinPool.commonPool();
+        this.window = execution.isParallel() ? execution.parallelism() * 2 : 0;
+        this.morselSize = execution.morselSize();
     }
 
+    /** A row with its ORDER BY keys, evaluated once on arrival, and its input position. */
+    private record Keyed(SqlValue[] key, long position, RowAccessor row) {}
+
     @Override
     public Stream<RowAccessor> apply(Stream<RowAccessor> input) {
+        return StreamMaterializer.closingInput(input, this::topN);
+    }
+
+    private Stream<RowAccessor> topN(Stream<RowAccessor> input) {
         if (limit <= 0) {
             input.forEach(r -> {
                 /* drain */
@@ -62,21 +112,16 @@ public final class TopNOrderByStage implements MaterializingPipelineStage {
 
         // Max-heap under the ORDER BY comparator: largest-so-far at the head,
         // so we can evict it when a smaller candidate arrives.
-        PriorityQueue<RowAccessor> heap = new PriorityQueue<>(Math.min(capacity, 1024), comparator.reversed());
+        PriorityQueue<Keyed> heap = new PriorityQueue<>(Math.min(capacity, 1024), comparator.reversed());
 
-        long seen = 0;
         Iterator<RowAccessor> it = input.iterator();
-        while (it.hasNext()) {
-            if (seen >= maxRows) {
-                throw new SQL4JsonExecutionException("ORDER BY row count exceeds configured maximum (" + maxRows + ")");
-            }
-            RowAccessor row = it.next();
-            seen++;
-            if (heap.size() < capacity) {
-                heap.offer(row);
-            } else if (comparator.compare(row, heap.peek()) < 0) {
-                heap.poll();
-                heap.offer(row);
+        if (window > 0) {
+            collectParallel(it, heap, capacity);
+        } else {
+            long seen = 0;
+            while (it.hasNext()) {
+                if (seen >= maxRows) throw rowLimitExceeded();
+                offer(heap, key(it.next(), seen++), capacity);
             }
         }
 
@@ -84,7 +129,7 @@ public final class TopNOrderByStage implements MaterializingPipelineStage {
         // because of the reversed comparator, so reverse at the end).
         List<RowAccessor> sorted = new ArrayList<>(heap.size());
         while (!heap.isEmpty()) {
-            sorted.add(heap.poll());
+            sorted.add(heap.poll().row());
         }
         Collections.reverse(sorted);
 
@@ -92,4 +137,64 @@ public final class TopNOrderByStage implements MaterializingPipelineStage {
         int to = (int) Math.min((long) from + (long) limit, sorted.size());
         return sorted.subList(from, to).stream();
     }
+
+    private Keyed key(RowAccessor row, long position) {
+        SqlValue[] key = new SqlValue[keys.size()];
+        for (int i = 0; i < key.length; i++) key[i] = keys.get(i).evaluate(row);
+        return new Keyed(key, position, row);
+    }
+
+    private void offer(PriorityQueue<Keyed> heap, Keyed keyed, int capacity) {
+        if (heap.size() < capacity) {
+            heap.offer(keyed);
+        } else if (comparator.compare(keyed, heap.peek()) < 0) {
+            heap.poll();
+            heap.offer(keyed);
+        }
+    }
+
+    private SQL4JsonExecutionException rowLimitExceeded() {
+        return new SQL4JsonExecutionException("ORDER BY row count exceeds configured maximum (" + maxRows + ")");
+    }
+
+    // Reads morsels on the calling thread and reduces each to its top rows on the executor, a window at a time.
+    private void collectParallel(Iterator<RowAccessor> it, PriorityQueue<Keyed> heap, int capacity) {
+        long position = 0;
+        RuntimeException sourceFailure = null;
+        boolean exhausted = false;
+        while (!exhausted && sourceFailure == null) {
+            List<CompletableFuture<Collection<Keyed>>> batch = new ArrayList<>(window);
+            while (batch.size() < window && !exhausted && sourceFailure == null) {
+                List<RowAccessor> morsel = new ArrayList<>(morselSize);
+                try {
+                    while (morsel.size() < morselSize && it.hasNext()) {
+                        if (position + morsel.size() >= maxRows) throw rowLimitExceeded();
+                        morsel.add(it.next());
+                    }
+                    exhausted = !it.hasNext();
+                } catch (RuntimeException e) {
+                    sourceFailure = e;
+                }
+                if (morsel.isEmpty()) break;
+                long first = position;
+                position += morsel.size();
+                if (first == 0 && (exhausted || sourceFailure != null)) {
+                    // Single-morsel input: nothing to overlap with, reduce on the calling thread
+                    batch.add(CompletableFuture.completedFuture(reduceMorsel(morsel, first, capacity)));
+                } else {
+                    batch.add(CompletableFuture.supplyAsync(() -> reduceMorsel(morsel, first, capacity), executor));
+                }
+            }
+            for (Collection<Keyed> survivors : Futures.joinAll(batch)) {
+                for (Keyed keyed : survivors) offer(heap, keyed, capacity);
+            }
+        }
+        if (sourceFailure != null) throw sourceFailure;
+    }
+
+    private Collection<Keyed> reduceMorsel(List<RowAccessor> morsel, long firstPosition, int capacity) {
+        PriorityQueue<Keyed> local = new PriorityQueue<>(Math.min(capacity, morsel.size()), comparator.reversed());
+        for (int i = 0; i < morsel.size(); i++) offer(local, key(morsel.get(i), firstPosition + i), capacity);
+        return local;
+    }
 }
@@ -3,6 +3,7 @@ package io.github.mnesimiyilmaz.sql4json.engine.stage;
 
 import io.github.mnesimiyilmaz.sql4json.engine.LazyPipelineStage;
 import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.registry.AdaptiveCriteria;
 import io.github.mnesimiyilmaz.sql4json.registry.CriteriaNode;
 import java.util.stream.Stream;
 
@@ -14,14 +15,19 @@ public final class WhereStage implements LazyPipelineStage {
     /**
      * Creates a WhereStage with the specified condition.
      *
-     * @param criteria the WHERE condition to apply
+     * @param criteria the WHERE condition to apply; AND / OR chains are evaluated in adaptive order
      */
     public WhereStage(CriteriaNode criteria) {
-        this.criteria = criteria;
+        this.criteria = AdaptiveCriteria.of(criteria);
     }
 
     @Override
     public Stream<RowAccessor> apply(Stream<RowAccessor> input) {
         return input.filter(criteria::test);
     }
+
+    @Override
+    public boolean isRowLocal() {
+        return true;
+    }
 }
@@ -6,6 +6,7 @@ import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.parser.OrderByColumnDef;
 import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
 import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
 import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
 import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
@@ -13,6 +14,7 @@ import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Materializing pipeline stage that evaluates window functions. Position in pipeline: after HAVING, before ORDER BY.
@@ -29,16 +31,24 @@ import java.util.stream.Stream;
  * <p>Wrapped windows like {@code ROUND(... OVER (...))} get a synthetic column key and resolve through
  * {@link RowAccessor#getWindowResult(Expression.WindowFnCall)} → {@link RowSchema#windowSlot(Expression.WindowFnCall)}.
  *
+ * <p>When {@link ExecutionSettings#canSpill()} and every window shares at least one PARTITION BY expression, rows that
+ * are not GROUP BY output are first sorted on the shared expressions by an {@link ExternalSorter} — and on the ORDER BY
+ * of the window too when there is only one — so that only one shared partition is held in memory at a time. Results are
+ * the same, but rows come out grouped by partition instead of in input order.
+ *
  * @since 1.2.0
  */
 public final class WindowStage implements MaterializingPipelineStage {
 
     private final List<Expression.WindowFnCall> windowCalls;
     private final Map<Expression.WindowFnCall, FieldKey> aliasKeysByCall;
-    private final Set<FieldKey> referencedColumns;
+    private final RowSchema referencedSchema;
     private final boolean selectsAsterisk;
     private final FunctionRegistry functionRegistry;
+    private final IdentityHashMap<Expression, CompiledExpression> compiled = new IdentityHashMap<>();
     private final int maxRows;
+    private final List<CompiledExpression> spillPartitionBy;
+    private final ExternalSorter sorter;
 
     /**
      * Creates a WindowStage for the given window function call list.
@@ -61,12 +71,80 @@ public final class WindowStage implements MaterializingPipelineStage {
             Set<FieldKey> referencedColumns,
             FunctionRegistry functionRegistry,
             int maxRows) {
+        this(windowCalls, selectedColumns, referencedColumns, functionRegistry, maxRows, ExecutionSettings.defaults());
+    }
+
+    /**
+     * Creates a WindowStage that sorts its input externally, partition by partition, when {@code execution} allows
+     * spilling.
+     *
+     * @param windowCalls every {@link Expression.WindowFnCall} the parser saw, in source order
+     * @param selectedColumns SELECT column definitions
+     * @param referencedColumns the union of all field paths referenced by the query
+     * @param functionRegistry function registry for expression evaluation
+     * @param maxRows maximum rows to materialise before throwing
+     * @param execution execution settings supplying the spill threshold and directory
+     * @since 1.4.0
+     */
+    public WindowStage(
+            List<Expression.WindowFnCall> windowCalls,
+            List<SelectColumnDef> selectedColumns,
+            Set<FieldKey> referencedColumns,
+            FunctionRegistry functionRegistry,
+            int maxRows,
+            ExecutionSettings execution) {
         this.windowCalls = List.copyOf(windowCalls);
         this.aliasKeysByCall = buildAliasMap(selectedColumns);
-        this.referencedColumns = Set.copyOf(referencedColumns);
+        var schemaBuilder = new RowSchema.Builder();
+        referencedColumns.forEach(schemaBuilder::add);
+        this.referencedSchema = schemaBuilder.build();
         this.selectsAsterisk = selectedColumns.stream().anyMatch(SelectColumnDef::isAsterisk);
         this.functionRegistry = functionRegistry;
         this.maxRows = maxRows;
+        for (Expression.WindowFnCall wfc : this.windowCalls) {
+            wfc.args().forEach(this::precompile);
+            wfc.spec().partitionBy().forEach(this::precompile);
+            wfc.spec().orderBy().forEach(col -> precompile(col.expression()));
+        }
+        Set<WindowSpec> specs = new LinkedHashSet<>();
+        this.windowCalls.forEach(wfc -> specs.add(wfc.spec()));
+        List<Expression> shared = sharedPartitionBy(specs);
+        if (execution.canSpill() && !shared.isEmpty()) {
+            this.spillPartitionBy = shared.stream().map(this::compiled).toList();
+            var keys = new ArrayList<>(spillPartitionBy);
+            var directions = new ArrayList<Boolean>(Collections.nCopies(shared.size(), false));
+            if (specs.size() == 1) {
+                for (OrderByColumnDef col : specs.iterator().next().orderBy()) {
+                    keys.add(compiled(col.expression()));
+                    directions.add("DESC".equalsIgnoreCase(col.direction()));
+                }
+            }
+            boolean[] descending = new boolean[directions.size()];
+            for (int i = 0; i < descending.length; i++) descending[i] = directions.get(i);
+            this.sorter = new ExternalSorter(keys, descending, execution);
+        } else {
+            this.spillPartitionBy = List.of();
+            this.sorter = null;
+        }
+    }
+
+    // PARTITION BY expressions common to every window: each of their partitions is a union of whole partitions of
+    // every window, so each can be evaluated on its own.
+    private static List<Expression> sharedPartitionBy(Set<WindowSpec> specs) {
+        if (specs.isEmpty()) return List.of();
+        List<Expression> shared = new ArrayList<>(specs.iterator().next().partitionBy());
+        for (WindowSpec spec : specs) shared.retainAll(spec.partitionBy());
+        return List.copyOf(new LinkedHashSet<>(shared));
+    }
+
+    private void precompile(Expression expr) {
+        compiled.computeIfAbsent(expr, e -> ExpressionCompiler.compile(e, functionRegistry));
+    }
+
+    // Every argument, partition and order expression is compiled up front, keyed by identity; read-only afterwards.
+    private CompiledExpression compiled(Expression expr) {
+        CompiledExpression c = compiled.get(expr);
+        return c != null ? c : ExpressionCompiler.compile(expr, functionRegistry);
     }
 
     private static Map<Expression.WindowFnCall, FieldKey> buildAliasMap(List<SelectColumnDef> columns) {
@@ -85,15 +163,115 @@ public final class WindowStage implements MaterializingPipelineStage {
 
     @Override
     public Stream<RowAccessor> apply(Stream<RowAccessor> input) {
-        List<RowAccessor> allRows = StreamMaterializer.toList(input, maxRows, "WINDOW");
-        if (allRows.isEmpty()) return Stream.empty();
+        return StreamMaterializer.closingInput(input, this::windowed);
+    }
+
+    private Stream<RowAccessor> windowed(Stream<RowAccessor> input) {
+        if (sorter == null) {
+            return evaluate(StreamMaterializer.toList(input, maxRows, "WINDOW"), new WindowSchemas()).stream();
+        }
+        Iterator<RowAccessor> it = StreamMaterializer.capped(input.iterator(), maxRows, "WINDOW");
+        if (!it.hasNext()) return Stream.empty();
+        RowAccessor first = it.next();
+        if (first.isAggregated()) {
+            // Spill files drop aggregated groups, which later stages may still evaluate aggregates over
+            List<RowAccessor> allRows = new ArrayList<>();
+            allRows.add(first);
+            it.forEachRemaining(allRows::add);
+            return evaluate(allRows, new WindowSchemas()).stream();
+        }
+        Stream<RowAccessor> sorted = sorter.sort(new Iterator<>() {
+            private boolean firstTaken;
+
+            @Override
+            public boolean hasNext() {
+                return !firstTaken || it.hasNext();
+            }
+
+            @Override
+            public RowAccessor next() {
+                if (firstTaken) return it.next();
+                firstTaken = true;
+                return first;
+            }
+        });
+        var partitions = new SharedPartitions(sorted.iterator());
+        var schemas = new WindowSchemas();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(partitions, Spliterator.ORDERED), false)
+                .flatMap(partition -> evaluate(partition, schemas).stream())
+                .onClose(sorted::close);
+    }
+
+    /** Consecutive runs of sorted rows with equal shared PARTITION BY values. */
+    private final class SharedPartitions implements Iterator<List<RowAccessor>> {
+        private final Iterator<RowAccessor> rows;
+        private RowAccessor next;
+        private SqlValue[] nextKey;
+
+        SharedPartitions(Iterator<RowAccessor> rows) {
+            this.rows = rows;
+            advance();
+        }
+
+        private void advance() {
+            if (rows.hasNext()) {
+                next = rows.next();
+                nextKey = new SqlValue[spillPartitionBy.size()];
+                for (int i = 0; i < nextKey.length; i++)
+                    nextKey[i] = spillPartitionBy.get(i).evaluate(next);
+            } else {
+                next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public List<RowAccessor> next() {
+            if (next == null) throw new NoSuchElementException();
+            SqlValue[] key = nextKey;
+            List<RowAccessor> partition = new ArrayList<>();
+            do {
+                partition.add(next);
+                advance();
+            } while (next != null && sameValues(key, nextKey));
+            return partition;
+        }
+
+        private static boolean sameValues(SqlValue[] a, SqlValue[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (SqlValueComparator.compare(a[i], b[i]) != 0) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Reuses the window-aware schema while consecutive partitions share a base schema. */
+    private final class WindowSchemas {
+        private RowSchema base;
+        private RowSchema window;
+
+        RowSchema of(RowSchema baseSchema) {
+            if (baseSchema != base) {
+                base = baseSchema;
+                window = baseSchema.withWindowSlots(new ArrayList<>(new LinkedHashSet<>(windowCalls)), aliasKeysByCall);
+            }
+            return window;
+        }
+    }
+
+    private List<RowAccessor> evaluate(List<RowAccessor> allRows, WindowSchemas schemas) {
+        if (allRows.isEmpty()) return List.of();
 
         RowSchema baseSchema = collectBaseSchema(allRows);
 
         // Append window-result slots, mapping alias FieldKeys to slots so plain-
         // windowed SELECT columns resolve via the schema index naturally.
         Set<Expression.WindowFnCall> distinctCalls = new LinkedHashSet<>(windowCalls);
-        RowSchema schema = baseSchema.withWindowSlots(new ArrayList<>(distinctCalls), aliasKeysByCall);
+        RowSchema schema = schemas.of(baseSchema);
 
         Object[][] working = prefillWorkingBuffers(allRows, schema, baseSchema);
 
@@ -104,7 +282,7 @@ public final class WindowStage implements MaterializingPipelineStage {
             processWindowSpec(entry.getKey(), entry.getValue(), allRows, working, schema);
         }
 
-        return wrapWorkingBuffers(allRows, schema, working).stream();
+        return wrapWorkingBuffers(allRows, schema, working);
     }
 
     // Per-row Object[] working buffers, pre-filled with input column values at the
@@ -162,7 +340,9 @@ public final class WindowStage implements MaterializingPipelineStage {
     // in ExpressionEvaluator (which is illegal per-row).
     private static FlatRow wrapBuffer(RowAccessor src, RowSchema schema, Object[] vals) {
         if (src.isAggregated()) {
-            return FlatRow.aggregated(schema, vals, src.sourceGroup().orElseGet(Collections::emptyList));
+            return src.aggregatedGroup()
+                    .map(group -> FlatRow.aggregated(schema, vals, group))
+                    .orElseGet(() -> FlatRow.aggregated(schema, vals, List.of()));
         }
         return FlatRow.of(schema, vals);
     }
@@ -186,9 +366,7 @@ public final class WindowStage implements MaterializingPipelineStage {
             return flat.schema();
         }
         if (!selectsAsterisk) {
-            var schemaBuilder = new RowSchema.Builder();
-            referencedColumns.forEach(schemaBuilder::add);
-            return schemaBuilder.build();
+            return referencedSchema;
         }
         var schemaBuilder = new RowSchema.Builder();
         for (RowAccessor r : allRows) {
@@ -205,12 +383,16 @@ public final class WindowStage implements MaterializingPipelineStage {
             for (int i = 0; i < rows.size(); i++) all.add(i);
             return List.of(all);
         }
+        CompiledExpression[] keyExprs =
+                spec.partitionBy().stream().map(this::compiled).toArray(CompiledExpression[]::new);
         Map<List<SqlValue>, List<Integer>> partitions = new LinkedHashMap<>();
         for (int i = 0; i < rows.size(); i++) {
             RowAccessor row = rows.get(i);
-            List<SqlValue> key = spec.partitionBy().stream()
-                    .map(expr -> ExpressionEvaluator.evaluate(expr, row, functionRegistry))
-                    .toList();
+            SqlValue[] values = new SqlValue[keyExprs.length];
+            for (int k = 0; k < values.length; k++) {
+                values[k] = keyExprs[k].evaluate(row);
+            }
+            List<SqlValue> key = Arrays.asList(values);
             partitions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
         }
         return new ArrayList<>(partitions.values());
@@ -219,10 +401,9 @@ public final class WindowStage implements MaterializingPipelineStage {
     private void sortIndices(List<Integer> partition, List<OrderByColumnDef> orderBy, List<RowAccessor> rows) {
         Comparator<Integer> cmp = orderBy.stream()
                 .map(col -> {
+                    CompiledExpression expr = compiled(col.expression());
                     Comparator<Integer> c = Comparator.comparing(
-                            (Integer idx) ->
-                                    ExpressionEvaluator.evaluate(col.expression(), rows.get(idx), functionRegistry),
-                            SqlValueComparator::compare);
+                            (Integer idx) -> expr.evaluate(rows.get(idx)), SqlValueComparator::compare);
                     return "DESC".equalsIgnoreCase(col.direction()) ? c.reversed() : c;
                 })
                 .reduce(Comparator::thenComparing)
@@ -301,8 +482,7 @@ public final class WindowStage implements MaterializingPipelineStage {
         if (wfc.args().isEmpty()) {
             throw new SQL4JsonExecutionException("NTILE requires a bucket count argument");
         }
-        SqlValue arg =
-                ExpressionEvaluator.evaluate(wfc.args().getFirst(), rows.get(partition.getFirst()), functionRegistry);
+        SqlValue arg = compiled(wfc.args().getFirst()).evaluate(rows.get(partition.getFirst()));
         int buckets = (int) ((SqlNumber) arg).longValue();
 
         for (int i = 0; i < partition.size(); i++) {
@@ -326,11 +506,9 @@ public final class WindowStage implements MaterializingPipelineStage {
             Object[][] working,
             int slot) {
         int offset = resolveOffset(wfc);
-        Expression argExpr = wfc.args().getFirst();
+        CompiledExpression argExpr = compiled(wfc.args().getFirst());
         for (int i = 0; i < partition.size(); i++) {
-            SqlValue value = i - offset >= 0
-                    ? ExpressionEvaluator.evaluate(argExpr, rows.get(partition.get(i - offset)), functionRegistry)
-                    : SqlNull.INSTANCE;
+            SqlValue value = i - offset >= 0 ? argExpr.evaluate(rows.get(partition.get(i - offset))) : SqlNull.INSTANCE;
             working[partition.get(i)][slot] = value instanceof SqlNull ? null : value;
         }
     }
@@ -342,10 +520,10 @@ public final class WindowStage implements MaterializingPipelineStage {
             Object[][] working,
             int slot) {
         int offset = resolveOffset(wfc);
-        Expression argExpr = wfc.args().getFirst();
+        CompiledExpression argExpr = compiled(wfc.args().getFirst());
         for (int i = 0; i < partition.size(); i++) {
             SqlValue value = i + offset < partition.size()
-                    ? ExpressionEvaluator.evaluate(argExpr, rows.get(partition.get(i + offset)), functionRegistry)
+                    ? argExpr.evaluate(rows.get(partition.get(i + offset)))
                     : SqlNull.INSTANCE;
             working[partition.get(i)][slot] = value instanceof SqlNull ? null : value;
         }
@@ -353,7 +531,7 @@ public final class WindowStage implements MaterializingPipelineStage {
 
     private int resolveOffset(Expression.WindowFnCall wfc) {
         if (wfc.args().size() > 1) {
-            SqlValue offsetVal = ExpressionEvaluator.evaluate(wfc.args().get(1), Row.eager(Map.of()), functionRegistry);
+            SqlValue offsetVal = compiled(wfc.args().get(1)).evaluate(Row.eager(Map.of()));
             return (int) ((SqlNumber) offsetVal).longValue();
         }
         return 1;
@@ -370,9 +548,9 @@ public final class WindowStage implements MaterializingPipelineStage {
         if (wfc.args().isEmpty()) {
             values = partition.stream().<SqlValue>map(idx -> SqlNull.INSTANCE).toList();
         } else {
-            Expression argExpr = wfc.args().getFirst();
+            CompiledExpression argExpr = compiled(wfc.args().getFirst());
             values = partition.stream()
-                    .map(idx -> ExpressionEvaluator.evaluate(argExpr, rows.get(idx), functionRegistry))
+                    .map(idx -> argExpr.evaluate(rows.get(idx)))
                     .toList();
         }
         SqlValue aggregated = functionRegistry
@@ -389,8 +567,9 @@ public final class WindowStage implements MaterializingPipelineStage {
         RowAccessor a = rows.get(idxA);
         RowAccessor b = rows.get(idxB);
         for (OrderByColumnDef col : spec.orderBy()) {
-            SqlValue va = ExpressionEvaluator.evaluate(col.expression(), a, functionRegistry);
-            SqlValue vb = ExpressionEvaluator.evaluate(col.expression(), b, functionRegistry);
+            CompiledExpression expr = compiled(col.expression());
+            SqlValue va = expr.evaluate(a);
+            SqlValue vb = expr.evaluate(b);
             if (SqlValueComparator.compare(va, vb) != 0) return false;
         }
         return true;
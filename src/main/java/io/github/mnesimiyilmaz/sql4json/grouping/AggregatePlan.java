@@ -0,0 +1,94 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.grouping;
+
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.AggregateFnCall;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
+import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.registry.AggregateFunction;
+import io.github.mnesimiyilmaz.sql4json.registry.AggregateFunction.Accumulator;
+import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * The distinct aggregate calls of one query, compiled once and shared by every {@link GroupState}. Per row, each call's
+ * inner expression is evaluated and fed to the call's accumulator — {@code COUNT(*)} feeds one placeholder per row and
+ * {@code COUNT(expr)} skips NULLs, exactly as the list-based evaluation does.
+ *
+ * <p>Immutable after construction; safe to share across threads.
+ */
+public final class AggregatePlan {
+
+    private final Map<AggregateFnCall, Integer> slots = new HashMap<>();
+    private final String[] names;
+    private final CompiledExpression[] inners; // null for COUNT(*)
+    private final boolean[] skipNulls; // COUNT(expr)
+    private final AggregateFunction[] functions; // null when the name is unknown
+
+    private AggregatePlan(Collection<AggregateFnCall> calls, FunctionRegistry registry) {
+        var distinct = new LinkedHashSet<>(calls);
+        int n = distinct.size();
+        this.names = new String[n];
+        this.inners = new CompiledExpression[n];
+        this.skipNulls = new boolean[n];
+        this.functions = new AggregateFunction[n];
+        int i = 0;
+        for (AggregateFnCall call : distinct) {
+            slots.put(call, i);
+            names[i] = call.name();
+            inners[i] = call.inner() != null ? ExpressionCompiler.compile(call.inner(), registry) : null;
+            skipNulls[i] = call.inner() != null && "count".equalsIgnoreCase(call.name());
+            // An unknown name fails only when its value is requested, as in the list-based evaluation
+            functions[i] = registry.getAggregate(call.name()).orElse(null);
+            i++;
+        }
+    }
+
+    /**
+     * Compiles the given aggregate calls; duplicates share one accumulator.
+     *
+     * @param calls every aggregate call evaluated against the groups
+     * @param registry function registry for function and expression lookup
+     * @return the plan
+     */
+    public static AggregatePlan of(Collection<AggregateFnCall> calls, FunctionRegistry registry) {
+        return new AggregatePlan(calls, registry);
+    }
+
+    Accumulator[] newAccumulators() {
+        Accumulator[] accumulators = new Accumulator[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            if (functions[i] != null) accumulators[i] = functions[i].init();
+        }
+        return accumulators;
+    }
+
+    void accumulate(Accumulator[] accumulators, RowAccessor row) {
+        for (int i = 0; i < accumulators.length; i++) {
+            SqlValue v = inners[i] != null ? inners[i].evaluate(row) : SqlNull.INSTANCE;
+            if (accumulators[i] == null || (skipNulls[i] && v.isNull())) continue;
+            accumulators[i].accumulate(v);
+        }
+    }
+
+    int slot(AggregateFnCall call) {
+        Integer slot = slots.get(call);
+        if (slot == null) {
+            throw new IllegalStateException("Aggregate " + call.name() + " was not planned for this group");
+        }
+        return slot;
+    }
+
+    SqlValue finish(int slot, Accumulator accumulator) {
+        if (accumulator == null) {
+            throw new SQL4JsonExecutionException("Unknown aggregate function: " + names[slot]);
+        }
+        return accumulator.finish();
+    }
+}
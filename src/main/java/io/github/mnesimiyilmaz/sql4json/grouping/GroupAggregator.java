@@ -1,6 +1,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.grouping;
 
+import io.github.mnesimiyilmaz.sql4json.engine.AggregatedGroup;
 import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
 import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
 import io.github.mnesimiyilmaz.sql4json.engine.FlatRow;
@@ -40,6 +41,20 @@ public final class GroupAggregator {
             List<? extends RowAccessor> group,
             List<SelectColumnDef> selectedColumns,
             FunctionRegistry functionRegistry) {
+        return aggregate(AggregatedGroup.of(group), selectedColumns, functionRegistry);
+    }
+
+    /**
+     * Aggregates one group according to the given SELECT column definitions.
+     *
+     * @param group the group, retained rows or incremental state
+     * @param selectedColumns SELECT column definitions (aggregates and group-by keys)
+     * @param functionRegistry function registry for expression evaluation
+     * @return a single aggregated {@link FlatRow}
+     * @since 1.4.0
+     */
+    public static FlatRow aggregate(
+            AggregatedGroup group, List<SelectColumnDef> selectedColumns, FunctionRegistry functionRegistry) {
         RowSchema schema = buildSchema(selectedColumns, group);
         Object[] values = new Object[schema.size()];
         populateValues(schema, values, selectedColumns, group, functionRegistry);
@@ -48,12 +63,12 @@ public final class GroupAggregator {
 
     // Schema: one column per non-window SELECT entry; SELECT * expands to the
     // representative row's keys (same convention as the legacy Row.eager path).
-    private static RowSchema buildSchema(List<SelectColumnDef> selectedColumns, List<? extends RowAccessor> group) {
+    private static RowSchema buildSchema(List<SelectColumnDef> selectedColumns, AggregatedGroup group) {
         var schemaBuilder = new RowSchema.Builder();
         for (SelectColumnDef col : selectedColumns) {
             if (col.containsWindow()) continue;
             if (col.isAsterisk()) {
-                group.getFirst().keys().forEach(schemaBuilder::add);
+                group.representative().keys().forEach(schemaBuilder::add);
             } else {
                 schemaBuilder.add(columnKey(col));
             }
@@ -65,7 +80,7 @@ public final class GroupAggregator {
             RowSchema schema,
             Object[] values,
             List<SelectColumnDef> selectedColumns,
-            List<? extends RowAccessor> group,
+            AggregatedGroup group,
             FunctionRegistry functionRegistry) {
         for (SelectColumnDef col : selectedColumns) {
             if (col.containsWindow()) continue; // computed later by WindowStage
@@ -89,8 +104,8 @@ public final class GroupAggregator {
         return FieldKey.of(colPath != null ? colPath : col.aliasOrName());
     }
 
-    private static void populateAsterisk(RowSchema schema, Object[] values, List<? extends RowAccessor> group) {
-        group.getFirst().entries().forEach(e -> {
+    private static void populateAsterisk(RowSchema schema, Object[] values, AggregatedGroup group) {
+        group.representative().entries().forEach(e -> {
             int ord = schema.indexOf(e.getKey());
             if (ord >= 0 && !(e.getValue() instanceof SqlNull)) {
                 values[ord] = e.getValue();
@@ -102,7 +117,7 @@ public final class GroupAggregator {
             RowSchema schema,
             Object[] values,
             SelectColumnDef col,
-            List<? extends RowAccessor> group,
+            AggregatedGroup group,
             FunctionRegistry functionRegistry) {
         SqlValue agg = ExpressionEvaluator.evaluateAggregate(col.expression(), group, functionRegistry);
         int ord = schema.indexOf(FieldKey.of(col.aliasOrName()));
@@ -113,9 +128,9 @@ public final class GroupAggregator {
             RowSchema schema,
             Object[] values,
             SelectColumnDef col,
-            List<? extends RowAccessor> group,
+            AggregatedGroup group,
             FunctionRegistry functionRegistry) {
-        SqlValue v = ExpressionEvaluator.evaluate(col.expression(), group.getFirst(), functionRegistry);
+        SqlValue v = ExpressionEvaluator.evaluate(col.expression(), group.representative(), functionRegistry);
         int ord = schema.indexOf(columnKey(col));
         if (!(v instanceof SqlNull)) values[ord] = v;
     }
@@ -0,0 +1,78 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.grouping;
+
+import io.github.mnesimiyilmaz.sql4json.engine.AggregatedGroup;
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.AggregateFnCall;
+import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.engine.SpillFile;
+import io.github.mnesimiyilmaz.sql4json.registry.AggregateFunction.Accumulator;
+import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+
+/**
+ * Incremental state of one GROUP BY group: the group's first row plus one accumulator per planned aggregate call. Rows
+ * are folded in as they stream past and then dropped, so a group costs the same memory whatever its size.
+ *
+ * <p>Not thread-safe; parallel workers keep separate states and {@link #merge(GroupState)} them.
+ */
+public final class GroupState implements AggregatedGroup {
+
+    private final AggregatePlan plan;
+    private final RowAccessor representative;
+    private final Accumulator[] accumulators;
+    private SqlValue[] results; // finished values, filled on first request
+
+    /**
+     * Creates an empty state for the group whose first row is {@code representative}. The row is not accumulated.
+     *
+     * @param plan the query's aggregate plan
+     * @param representative the group's first row
+     */
+    public GroupState(AggregatePlan plan, RowAccessor representative) {
+        this.plan = plan;
+        this.representative = representative;
+        this.accumulators = plan.newAccumulators();
+    }
+
+    /**
+     * Folds one row of the group into every accumulator.
+     *
+     * @param row a row of the group
+     */
+    public void accumulate(RowAccessor row) {
+        plan.accumulate(accumulators, row);
+    }
+
+    /**
+     * Folds in the state of {@code other}, whose rows come after this state's rows in input order.
+     *
+     * @param other state of the same group under the same plan
+     */
+    public void merge(GroupState other) {
+        for (int i = 0; i < accumulators.length; i++) {
+            if (accumulators[i] != null) accumulators[i].merge(other.accumulators[i]);
+        }
+    }
+
+    /**
+     * Estimates the heap retained by this state, for spill thresholds.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        return 48 + SpillFile.estimatedBytes(representative) + 48L * accumulators.length;
+    }
+
+    @Override
+    public RowAccessor representative() {
+        return representative;
+    }
+
+    @Override
+    public SqlValue aggregate(AggregateFnCall call, FunctionRegistry registry) {
+        int slot = plan.slot(call);
+        if (results == null) results = new SqlValue[accumulators.length];
+        if (results[slot] == null) results[slot] = plan.finish(slot, accumulators[slot]);
+        return results[slot];
+    }
+}
@@ -0,0 +1,197 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.grouping;
+
+import io.github.mnesimiyilmaz.sql4json.engine.Futures;
+import io.github.mnesimiyilmaz.sql4json.engine.KeyTable;
+import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Parallel form of the single-pass GROUP BY. The calling thread cuts the input into morsels; each morsel is aggregated
+ * into its own hash table of {@link GroupState}s on the executor, already split into radix partitions by key hash.
+ * Batches of finished morsels are then merged into the global table one partition per task, so no single thread merges
+ * every group.
+ *
+ * <p>Results match sequential aggregation: partial states are merged in morsel order, so each group keeps its first row
+ * as representative and MIN / MAX keep the first of equal values; groups are finally returned in the order of their
+ * first row, which is the sequential output order. Floating-point SUM / AVG may differ from sequential results in the
+ * last digits, because partial sums are added in a different order.
+ *
+ * <p>Memory stays proportional to the number of groups: at most {@code 2 × parallelism} partial tables exist at a time.
+ * Errors surface in input order.
+ */
+public final class ParallelAggregation {
+
+    private final BiConsumer<RowAccessor, KeyTable> keyWriter;
+    private final UnaryOperator<RowAccessor> representativeOf;
+    private final AggregatePlan plan;
+    private final Executor executor;
+    private final int partitions;
+    private final int window;
+    private final int morselSize;
+    private final int maxRows;
+
+    /**
+     * Creates a parallel aggregation.
+     *
+     * @param keyWriter writes a row's group key into a table's probe key; called concurrently
+     * @param representativeOf prepares a group's first row for retention; called concurrently
+     * @param plan the query's aggregate plan
+     * @param settings execution settings supplying parallelism, executor and morsel size
+     * @param maxRows maximum number of input rows before throwing
+     */
+    public ParallelAggregation(
+            BiConsumer<RowAccessor, KeyTable> keyWriter,
+            UnaryOperator<RowAccessor> representativeOf,
+            AggregatePlan plan,
+            ExecutionSettings settings,
+            int maxRows) {
+        this.keyWriter = keyWriter;
+        this.representativeOf = representativeOf;
+        this.plan = plan;
+        this.executor = settings.executor() != null ? settings.executor() : ForkJoinPool.commonPool();
+        this.partitions = settings.parallelism();
+        this.window = settings.parallelism() * 2;
+        this.morselSize = settings.morselSize();
+        this.maxRows = maxRows;
+    }
+
+    /** Groups keyed by a {@link KeyTable}; each group's state and first-row position are indexed by key id. */
+    private static final class Groups {
+        final KeyTable keys = new KeyTable(KeyTable.Equality.EXACT);
+        final List<GroupState> states = new ArrayList<>();
+        long[] firstRows = new long[16];
+
+        void add(GroupState state, long firstRow) {
+            if (states.size() == firstRows.length) firstRows = Arrays.copyOf(firstRows, firstRows.length * 2);
+            firstRows[states.size()] = firstRow;
+            states.add(state);
+        }
+    }
+
+    /** One morsel's groups, with their key ids split by partition. */
+    private record Partial(Groups groups, int[][] idsByPartition) {}
+
+    /**
+     * Aggregates every row of {@code input}.
+     *
+     * @param input the rows to group
+     * @return the groups, in the order of their first row
+     */
+    public List<GroupState> aggregate(Iterator<RowAccessor> input) {
+        List<Groups> global = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) global.add(new Groups());
+        long position = 0;
+        RuntimeException sourceFailure = null;
+        boolean exhausted = false;
+        while (!exhausted && sourceFailure == null) {
+            List<CompletableFuture<Partial>> batch = new ArrayList<>(window);
+            while (batch.size() < window && !exhausted && sourceFailure == null) {
+                List<RowAccessor> morsel = new ArrayList<>(morselSize);
+                try {
+                    while (morsel.size() < morselSize && input.hasNext()) {
+                        if (position + morsel.size() >= maxRows) {
+                            throw new SQL4JsonExecutionException(
+                                    "GROUP BY row count exceeds configured maximum (" + maxRows + ")");
+                        }
+                        morsel.add(input.next());
+                    }
+                    exhausted = !input.hasNext();
+                } catch (RuntimeException e) {
+                    sourceFailure = e;
+                }
+                if (morsel.isEmpty()) break;
+                long first = position;
+                position += morsel.size();
+                if (first == 0 && (exhausted || sourceFailure != null)) {
+                    // Single-morsel input: nothing to overlap with, aggregate on the calling thread
+                    batch.add(CompletableFuture.completedFuture(aggregateMorsel(morsel, first)));
+                } else {
+                    batch.add(CompletableFuture.supplyAsync(() -> aggregateMorsel(morsel, first), executor));
+                }
+            }
+            mergeBatch(global, Futures.joinAll(batch));
+        }
+        if (sourceFailure != null) throw sourceFailure;
+        return inFirstSeenOrder(global);
+    }
+
+    private Partial aggregateMorsel(List<RowAccessor> morsel, long firstRow) {
+        Groups local = new Groups();
+        for (int i = 0; i < morsel.size(); i++) {
+            RowAccessor row = morsel.get(i);
+            keyWriter.accept(row, local.keys);
+            int id = local.keys.findOrAdd();
+            if (id == local.states.size()) local.add(new GroupState(plan, representativeOf.apply(row)), firstRow + i);
+            local.states.get(id).accumulate(row);
+        }
+        int[] counts = new int[partitions];
+        int[] partitionOf = new int[local.states.size()];
+        for (int id = 0; id < partitionOf.length; id++) counts[partitionOf[id] = partitionOf(local.keys.hash(id))]++;
+        int[][] ids = new int[partitions][];
+        for (int p = 0; p < partitions; p++) ids[p] = new int[counts[p]];
+        Arrays.fill(counts, 0);
+        for (int id = 0; id < partitionOf.length; id++) ids[partitionOf[id]][counts[partitionOf[id]]++] = id;
+        return new Partial(local, ids);
+    }
+
+    // Partition on the high bits of a mixed hash: the partition's own table indexes by the low bits.
+    private int partitionOf(int hash) {
+        long mixed = (hash & 0xffffffffL) * 0x9E3779B97F4A7C15L;
+        return (int) ((mixed >>> 40) % partitions);
+    }
+
+    private void mergeBatch(List<Groups> global, List<Partial> partials) {
+        if (partials.isEmpty()) return;
+        if (partials.size() == 1) {
+            // A lone partial merges with plain inserts; not worth a task per partition
+            for (int p = 0; p < partitions; p++) mergePartition(global.get(p), partials, p);
+            return;
+        }
+        List<CompletableFuture<Void>> merges = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            merges.add(CompletableFuture.runAsync(
+                    () -> mergePartition(global.get(partition), partials, partition), executor));
+        }
+        Futures.joinAll(merges);
+    }
+
+    // Partials are in morsel order, so every merged state comes after the one it is merged into.
+    private static void mergePartition(Groups table, List<Partial> partials, int partition) {
+        for (Partial partial : partials) {
+            Groups local = partial.groups();
+            for (int id : partial.idsByPartition()[partition]) {
+                int target = table.keys.findOrAddFrom(local.keys, id);
+                if (target == table.states.size()) table.add(local.states.get(id), local.firstRows[id]);
+                else table.states.get(target).merge(local.states.get(id));
+            }
+        }
+    }
+
+    private static List<GroupState> inFirstSeenOrder(List<Groups> global) {
+        int total = 0;
+        for (Groups groups : global) total += groups.states.size();
+        // First-row positions are below maxRows, an int: pack position and slot into one sortable long
+        long[] order = new long[total];
+        GroupState[] states = new GroupState[total];
+        int n = 0;
+        for (Groups groups : global) {
+            for (int id = 0; id < groups.states.size(); id++, n++) {
+                order[n] = groups.firstRows[id] << 32 | n;
+                states[n] = groups.states.get(id);
+            }
+        }
+        Arrays.parallelSort(order);
+        List<GroupState> ordered = new ArrayList<>(total);
+        for (long packed : order) ordered.add(states[(int) packed]);
+        return ordered;
+    }
+}
@@ -4,6 +4,7 @@ package io.github.mnesimiyilmaz.sql4json.json;
 import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
@@ -62,6 +63,21 @@ public final class DefaultJsonCodec implements JsonCodec {
         return JsonParser.parse(json, settings);
     }
 
+    /**
+     * Parses UTF-8 encoded bytes directly with {@link Utf8JsonParser}, without decoding them into a {@link String}
+     * first.
+     */
+    @Override
+    public JsonValue parse(byte[] utf8Json) {
+        return Utf8JsonParser.parse(utf8Json, settings);
+    }
+
+    /** Parses the buffer's remaining bytes directly with {@link Utf8JsonParser}; heap buffers are read in place. */
+    @Override
+    public JsonValue parse(ByteBuffer utf8Json) {
+        return Utf8JsonParser.parse(utf8Json, settings);
+    }
+
     @Override
     public String serialize(JsonValue value) {
         return JsonSerializer.serialize(value);
@@ -0,0 +1,150 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The object members a query reads from each row, as a tree of keys. Handed to the streaming parsers so members outside
+ * the tree are skipped structurally — no key, string, number or nested {@code JsonValue} is built for them — and parse
+ * cost follows the columns a query uses rather than the record width.
+ *
+ * <p>Paths use the same notation as column references: dot-separated keys, optionally ending a segment with an array
+ * index ({@code tags[0]}). A referenced path keeps its whole subtree; an indexed segment keeps the whole array. Arrays
+ * reached through a partial projection are kept in full, since row navigation never descends into them by key.
+ *
+ * <p>A projection may also carry an element filter ({@link #withFilter(FieldProjection, Predicate)}): each top-level
+ * element is first built with just the filter's fields and tested, and only elements that pass are built in full.
+ * Rejected elements never become rows, so selective queries pay mostly scan cost. The filter must be implied by the
+ * query's WHERE clause — it may let extra elements through, but must never drop one the WHERE clause would keep.
+ *
+ * <p>Immutable and thread-safe.
+ *
+ * @since 1.4.0
+ */
+public final class FieldProjection {
+
+    /** Keeps every member — the projection of {@code SELECT *} and of any query whose columns cannot be bounded. */
+    public static final FieldProjection ALL = new FieldProjection(null);
+
+    private final Map<String, FieldProjection> children; // null = keep the whole subtree
+    private final Predicate<JsonValue> filter; // element filter, top level only
+    private final FieldProjection filterFields; // what the filter reads; null = this projection
+
+    private FieldProjection(Map<String, FieldProjection> children) {
+        this(children, null, null);
+    }
+
+    private FieldProjection(
+            Map<String, FieldProjection> children, Predicate<JsonValue> filter, FieldProjection filterFields) {
+        this.children = children;
+        this.filter = filter;
+        this.filterFields = filterFields;
+    }
+
+    /**
+     * Builds the projection covering {@code paths}.
+     *
+     * @param paths referenced column paths, e.g. {@code "id"}, {@code "address.city"}, {@code "tags[0]"}
+     * @return the projection tree; an empty collection keeps no members
+     */
+    public static FieldProjection of(Collection<String> paths) {
+        Builder root = new Builder();
+        for (String path : paths) {
+            Builder node = root;
+            for (String segment : path.split("\\.")) {
+                if (node.all) break;
+                int bracket = segment.indexOf('[');
+                String key = bracket >= 0 ? segment.substring(0, bracket) : segment;
+                node = node.children.computeIfAbsent(key, k -> new Builder());
+                if (bracket >= 0) {
+                    node.all = true;
+                }
+            }
+            node.all = true;
+        }
+        return root.build();
+    }
+
+    /**
+     * Returns whether every member is kept.
+     *
+     * @return {@code true} for {@link #ALL} and for referenced subtrees
+     */
+    public boolean isAll() {
+        return children == null;
+    }
+
+    /**
+     * Projection for the value of member {@code key}, or {@code null} when the member is not referenced and can be
+     * skipped.
+     *
+     * @param key object member name
+     * @return the child projection, or {@code null} to skip the member
+     */
+    public FieldProjection child(String key) {
+        return children == null ? ALL : children.get(key);
+    }
+
+    /**
+     * Returns this projection with an element filter that reads only members already in this projection: each element
+     * is built once and dropped when {@code filter} rejects it.
+     *
+     * @param filter test applied to each built element
+     * @return the filtered projection
+     */
+    public FieldProjection withFilter(Predicate<JsonValue> filter) {
+        return new FieldProjection(children, Objects.requireNonNull(filter, "filter"), null);
+    }
+
+    /**
+     * Returns this projection with an element filter over {@code fields}: each element is first built with only
+     * {@code fields} and tested; elements that pass are then built again with this projection.
+     *
+     * @param fields the members {@code filter} reads
+     * @param filter test applied to the element built with {@code fields}
+     * @return the filtered projection
+     */
+    public FieldProjection withFilter(FieldProjection fields, Predicate<JsonValue> filter) {
+        Objects.requireNonNull(fields, "fields");
+        return new FieldProjection(children, Objects.requireNonNull(filter, "filter"), fields);
+    }
+
+    boolean hasFilter() {
+        return filter != null;
+    }
+
+    /**
+     * Builds one top-level element, applying the element filter if there is one. {@code parse} builds the element with
+     * the projection it is given.
+     *
+     * @return the element, or {@code null} when the filter rejects it
+     */
+    JsonValue parseElement(Function<FieldProjection, JsonValue> parse) {
+        if (filter == null) {
+            return parse.apply(this);
+        }
+        if (filterFields == null) {
+            JsonValue element = parse.apply(this);
+            return filter.test(element) ? element : null;
+        }
+        return filter.test(parse.apply(filterFields)) ? parse.apply(this) : null;
+    }
+
+    private static final class Builder {
+        final Map<String, Builder> children = new HashMap<>();
+        boolean all;
+
+        FieldProjection build() {
+            if (all) return ALL;
+            Map<String, FieldProjection> built = HashMap.newHashMap(children.size());
+            children.forEach((key, child) -> built.put(key, child.build()));
+            return new FieldProjection(Map.copyOf(built));
+        }
+    }
+}
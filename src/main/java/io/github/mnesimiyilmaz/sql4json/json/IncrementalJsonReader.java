@@ -0,0 +1,330 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pulls UTF-8 JSON from a blocking byte source through a bounded, compacting buffer and yields top-level array elements
+ * as soon as each one is complete. Only the element being scanned (plus unread look-ahead) is buffered, so WHERE /
+ * SELECT / LIMIT queries over a root array run in memory proportional to the largest element, not the input.
+ *
+ * <p>Element boundaries are tracked with a resumable scanner (nesting depth, in-string and escape state survive buffer
+ * refills), so a large element is scanned once no matter how many reads it takes to arrive. The buffer starts at
+ * {@link #INITIAL_BUFFER_SIZE} and grows only when a single element does not fit; {@code maxInputLength} caps each
+ * element.
+ *
+ * <p>A root object, or a non-root {@code FROM} path, needs the whole document: the remaining input is then read into
+ * memory (bounded by {@code maxInputLength}) and handed to the byte-array streaming path.
+ *
+ * <p>{@link #streamLines(String, FieldProjection)} reads newline-delimited JSON instead: record boundaries are plain
+ * {@code '\n'} bytes (JSON forbids raw newlines inside strings), so no structural scanning is needed at all.
+ *
+ * <p>Single-use and not thread-safe; the source is never closed — its owner remains responsible for it.
+ */
+final class IncrementalJsonReader {
+
+    static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    /** A blocking read in {@link java.io.InputStream#read(byte[], int, int)} form: returns -1 at end of input. */
+    @FunctionalInterface
+    interface ByteSource {
+        int read(byte[] dst, int off, int len) throws IOException;
+    }
+
+    private final ByteSource source;
+    private final DefaultJsonCodecSettings settings;
+    private byte[] buf;
+    private int pos; // first byte not yet consumed
+    private int scan; // resume point of the element scanner
+    private int limit; // end of valid data in buf
+    private long discarded; // input offset of buf[0], for error positions
+    private boolean eof;
+
+    IncrementalJsonReader(ByteSource source, DefaultJsonCodecSettings settings, int initialBufferSize) {
+        this.source = Objects.requireNonNull(source, "source");
+        this.settings = Objects.requireNonNull(settings, "settings");
+        this.buf = new byte[initialBufferSize];
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location. Mirrors {@link StreamingJsonParser#streamArray(String,
+     * String, DefaultJsonCodecSettings, FieldProjection)}.
+     *
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param projection object members to keep in each element
+     * @return lazy stream of JsonValue elements; reading happens as the stream is consumed
+     */
+    Stream<JsonValue> streamArray(String rootPath, FieldProjection projection) {
+        skipByteOrderMark();
+        skipWhitespace();
+        if (!available(pos)) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        byte first = buf[pos];
+        boolean rootArray = rootPath == null || rootPath.equals("$r");
+        if (!rootArray || first == '{') {
+            readRemaining();
+            return StreamingJsonParser.streamArray(buf, pos, limit - pos, rootPath, settings, projection);
+        }
+        if (first != '[') {
+            return Stream.empty();
+        }
+        pos++; // consume '['
+        skipWhitespace();
+        return StreamingJsonParser.elementStream(
+                new ElementIterator(available(pos) && buf[pos] == ']', projection), projection);
+    }
+
+    /**
+     * Stream the records of newline-delimited JSON (NDJSON / JSON Lines): one JSON value per line, blank lines and a
+     * trailing newline ignored, {@code \r\n} accepted. The input behaves like an array of its records, so a non-root
+     * path selects nothing — as it would on a root array.
+     *
+     * @param rootPath path like "$r" or null (root)
+     * @param projection object members to keep in each record
+     * @return lazy stream of one JsonValue per record; reading happens as the stream is consumed
+     */
+    Stream<JsonValue> streamLines(String rootPath, FieldProjection projection) {
+        if (rootPath != null && !rootPath.equals("$r")) {
+            return Stream.empty();
+        }
+        skipByteOrderMark();
+        Spliterator<JsonValue> spliterator = Spliterators.spliteratorUnknownSize(
+                new LineIterator(projection), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private final class ElementIterator implements Iterator<JsonValue> {
+
+        private final FieldProjection projection;
+        private boolean done;
+
+        ElementIterator(boolean empty, FieldProjection projection) {
+            this.done = empty;
+            this.projection = projection;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (done) throw new NoSuchElementException();
+
+            if (!available(pos)) {
+                throw error(pos, "Unexpected end of input in array");
+            }
+            int end = findElementEnd();
+            if (end - pos > settings.maxInputLength()) {
+                throw error(pos, "Element length exceeds configured maximum (" + settings.maxInputLength() + ")");
+            }
+            JsonValue element = Utf8JsonParser.parseRegion(buf, pos, end, settings, discarded, projection);
+
+            pos = end;
+            skipWhitespace();
+            if (!available(pos)) {
+                throw error(pos, "Unexpected end of input in array");
+            }
+            byte b = buf[pos];
+            if (b == ']') {
+                done = true;
+            } else if (b == ',') {
+                pos++;
+                skipWhitespace();
+                if (available(pos) && buf[pos] == ']') {
+                    throw error(pos, "Trailing comma in array");
+                }
+            } else {
+                throw error(pos, "Expected ',' or ']' after array element");
+            }
+            return element;
+        }
+    }
+
+    private final class LineIterator implements Iterator<JsonValue> {
+
+        private final FieldProjection projection;
+        private long line;
+        private JsonValue next;
+
+        LineIterator(FieldProjection projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && available(pos)) {
+                line++;
+                int end = findLineEnd();
+                if (end - pos > settings.maxInputLength()) {
+                    throw error(pos, "Line length exceeds configured maximum (" + settings.maxInputLength() + ")");
+                }
+                if (!isBlank(pos, end)) {
+                    next = parseLine(end);
+                }
+                pos = end < limit ? end + 1 : end; // consume the '\n' unless at end of input
+            }
+            return next != null;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            JsonValue value = next;
+            next = null;
+            return value;
+        }
+
+        private JsonValue parseLine(int end) {
+            try {
+                return Utf8JsonParser.parseRegion(buf, pos, end, settings, discarded, projection);
+            } catch (SQL4JsonExecutionException e) {
+                throw new SQL4JsonExecutionException(e.getMessage() + " (line " + line + ")", e);
+            }
+        }
+    }
+
+    /** Scans from {@code pos} to the next {@code '\n'} or end of input. Returns the exclusive end of the line. */
+    private int findLineEnd() {
+        scan = pos;
+        while (available(scan) && buf[scan] != '\n') {
+            scan++;
+        }
+        return scan;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buf[i];
+            if (b != ' ' && b != '\t' && b != '\r') return false;
+        }
+        return true;
+    }
+
+    /** Scans from {@code pos} to the end of one value, pulling more input as needed. Returns the exclusive end. */
+    private int findElementEnd() {
+        byte first = buf[pos];
+        boolean composite = first == '{' || first == '[';
+        boolean inString = first == '"';
+        boolean escaped = false;
+        int depth = 0;
+        scan = inString ? pos + 1 : pos;
+        while (true) {
+            if (!available(scan)) {
+                if (inString) throw error(scan, "Unterminated string");
+                if (composite) throw error(scan, "Unterminated object or array");
+                throw error(scan, "Unexpected end of input in array");
+            }
+            byte b = buf[scan];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    if (!composite) return scan + 1;
+                }
+            } else if (composite) {
+                if (b == '"') {
+                    inString = true;
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 0) return scan + 1;
+                }
+            } else if (b == ',' || b == ']' || b == '}' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                return scan;
+            }
+            scan++;
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (available(2) && buf[0] == (byte) 0xEF && buf[1] == (byte) 0xBB && buf[2] == (byte) 0xBF) {
+            pos = 3;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (available(pos)) {
+            byte b = buf[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') return;
+            pos++;
+        }
+    }
+
+    /**
+     * Returns whether {@code buf[index]} holds input, reading more as needed. {@code index} must be an index relative
+     * to the current buffer; since refills may compact the buffer, callers re-read {@code pos}/{@code scan} afterwards
+     * rather than caching indices across the call.
+     */
+    private boolean available(int index) {
+        int behind = index - pos;
+        while (pos + behind >= limit) {
+            if (!fill()) return false;
+        }
+        return true;
+    }
+
+    // Reads the rest of the input into the buffer for the whole-document fallback.
+    private void readRemaining() {
+        while (fill()) {
+            if (limit - pos > settings.maxInputLength()) {
+                throw new SQL4JsonExecutionException("Failed to parse JSON: input length exceeds configured maximum ("
+                        + settings.maxInputLength() + ")");
+            }
+        }
+    }
+
+    private boolean fill() {
+        if (eof) return false;
+        if (limit == buf.length) {
+            makeRoom();
+        }
+        int n;
+        try {
+            n = source.read(buf, limit, buf.length - limit);
+        } catch (IOException e) {
+            throw new SQL4JsonExecutionException("Failed to read JSON input: " + e.getMessage(), e);
+        }
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    // Drops consumed bytes, or grows the buffer when the pending element occupies most of it.
+    private void makeRoom() {
+        int keep = limit - pos;
+        long cap = (long) settings.maxInputLength() + 1;
+        if (pos > 0 && (keep <= buf.length / 2 || buf.length >= cap)) {
+            System.arraycopy(buf, pos, buf, 0, keep);
+            discarded += pos;
+            scan -= pos;
+            limit = keep;
+            pos = 0;
+            return;
+        }
+        if (buf.length >= cap) {
+            throw error(pos, "Element length exceeds configured maximum (" + settings.maxInputLength() + ")");
+        }
+        buf = Arrays.copyOf(buf, (int) Math.min(cap, Math.min((long) buf.length * 2, Integer.MAX_VALUE - 8)));
+    }
+
+    private SQL4JsonExecutionException error(int index, String message) {
+        return new SQL4JsonExecutionException(
+                "Failed to parse JSON at position " + (discarded + index) + ": " + message);
+    }
+}
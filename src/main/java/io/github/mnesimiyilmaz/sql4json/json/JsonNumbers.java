@@ -0,0 +1,274 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes number tokens already validated by {@link JsonParser} / {@link Utf8JsonParser} straight from the parser
+ * input, without building an intermediate {@code String}.
+ *
+ * <p>Integer tokens are classified as before: fewer than 19 digits always fits a {@code long} (small non-negative
+ * values come from a shared cache), exactly 19 digits fits unless it overflows, and anything wider becomes a
+ * {@link JsonDecimalValue}.
+ *
+ * <p>Fractional and exponent tokens become a {@link JsonDoubleValue}. Up to 19 significant digits are accumulated into
+ * a 64-bit mantissa {@code w} with a decimal exponent {@code q}; {@code w × 10^q} is then rounded to the nearest double
+ * by Clinger's exact fast path when both fit in a double, and by the Eisel–Lemire algorithm (a 64×128-bit product with
+ * a truncated power of five) otherwise. Tokens with more significant digits, and the rare products Eisel–Lemire cannot
+ * round with certainty, fall back to {@link Double#parseDouble}, so every result is the correctly rounded value.
+ */
+final class JsonNumbers {
+
+    private static final JsonLongValue[] SMALL_LONGS = new JsonLongValue[256];
+
+    static {
+        for (int i = 0; i < SMALL_LONGS.length; i++) {
+            SMALL_LONGS[i] = new JsonLongValue(i);
+        }
+    }
+
+    private static final int MAX_MANTISSA_DIGITS = 19;
+
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19,
+        1e20, 1e21, 1e22
+    };
+
+    private JsonNumbers() {}
+
+    /**
+     * Builds the value of the validated number token in {@code input[start, end)}.
+     *
+     * @param input UTF-8 parser input
+     * @param start first byte of the token
+     * @param end end of the token, exclusive
+     * @param fractional whether the token has a fraction or an exponent
+     * @return the number value
+     */
+    static JsonNumberValue parse(byte[] input, int start, int end, boolean fractional) {
+        int i = start;
+        boolean negative = input[i] == '-';
+        if (negative) i++;
+        if (!fractional) {
+            if (end - i <= MAX_MANTISSA_DIGITS) {
+                long value = 0;
+                for (int p = i; p < end; p++) {
+                    value = value * 10 + (input[p] - '0');
+                }
+                JsonNumberValue v = integerValue(negative, value, end - i);
+                if (v != null) return v;
+            }
+            return new JsonDecimalValue(
+                    new BigDecimal(new String(input, start, end - start, StandardCharsets.ISO_8859_1)));
+        }
+
+        long w = 0;
+        int digits = 0;
+        int q = 0;
+        for (; i < end && isDigit(input[i]); i++) {
+            if (w != 0 || input[i] != '0') {
+                if (++digits > MAX_MANTISSA_DIGITS) return slowDouble(input, start, end);
+                w = w * 10 + (input[i] - '0');
+            }
+        }
+        if (i < end && input[i] == '.') {
+            for (i++; i < end && isDigit(input[i]); i++) {
+                if (w != 0 || input[i] != '0') {
+                    if (++digits > MAX_MANTISSA_DIGITS) return slowDouble(input, start, end);
+                    w = w * 10 + (input[i] - '0');
+                }
+                q--;
+            }
+        }
+        if (i < end) { // exponent: at most four digits, checked by the parser
+            i++;
+            boolean negativeExponent = input[i] == '-';
+            if (input[i] == '-' || input[i] == '+') i++;
+            int e = 0;
+            for (; i < end; i++) {
+                e = e * 10 + (input[i] - '0');
+            }
+            q += negativeExponent ? -e : e;
+        }
+        double d = toDouble(w, q);
+        if (Double.isNaN(d)) return slowDouble(input, start, end);
+        return new JsonDoubleValue(negative ? -d : d);
+    }
+
+    /**
+     * Builds the value of the validated number token in {@code input[start, end)}.
+     *
+     * @param input parser input
+     * @param start first char of the token
+     * @param end end of the token, exclusive
+     * @param fractional whether the token has a fraction or an exponent
+     * @return the number value
+     */
+    static JsonNumberValue parse(String input, int start, int end, boolean fractional) {
+        int i = start;
+        boolean negative = input.charAt(i) == '-';
+        if (negative) i++;
+        if (!fractional) {
+            if (end - i <= MAX_MANTISSA_DIGITS) {
+                long value = 0;
+                for (int p = i; p < end; p++) {
+                    value = value * 10 + (input.charAt(p) - '0');
+                }
+                JsonNumberValue v = integerValue(negative, value, end - i);
+                if (v != null) return v;
+            }
+            return new JsonDecimalValue(new BigDecimal(input.substring(start, end)));
+        }
+
+        long w = 0;
+        int digits = 0;
+        int q = 0;
+        for (; i < end && isDigit(input.charAt(i)); i++) {
+            if (w != 0 || input.charAt(i) != '0') {
+                if (++digits > MAX_MANTISSA_DIGITS) return slowDouble(input.substring(start, end));
+                w = w * 10 + (input.charAt(i) - '0');
+            }
+        }
+        if (i < end && input.charAt(i) == '.') {
+            for (i++; i < end && isDigit(input.charAt(i)); i++) {
+                if (w != 0 || input.charAt(i) != '0') {
+                    if (++digits > MAX_MANTISSA_DIGITS) return slowDouble(input.substring(start, end));
+                    w = w * 10 + (input.charAt(i) - '0');
+                }
+                q--;
+            }
+        }
+        if (i < end) { // exponent: at most four digits, checked by the parser
+            i++;
+            boolean negativeExponent = input.charAt(i) == '-';
+            if (input.charAt(i) == '-' || input.charAt(i) == '+') i++;
+            int e = 0;
+            for (; i < end; i++) {
+                e = e * 10 + (input.charAt(i) - '0');
+            }
+            q += negativeExponent ? -e : e;
+        }
+        double d = toDouble(w, q);
+        if (Double.isNaN(d)) return slowDouble(input.substring(start, end));
+        return new JsonDoubleValue(negative ? -d : d);
+    }
+
+    // value holds the magnitude of a digits-long integer token, wrapped modulo 2^64; null when it overflows a long.
+    private static JsonNumberValue integerValue(boolean negative, long value, int digits) {
+        if (digits < MAX_MANTISSA_DIGITS) {
+            long l = negative ? -value : value;
+            if (l >= 0 && l < SMALL_LONGS.length) return SMALL_LONGS[(int) l];
+            return new JsonLongValue(l);
+        }
+        if (!negative) {
+            return value >= 0 ? new JsonLongValue(value) : null;
+        }
+        // Nineteen digits never reach 2^64, so the unsigned magnitude is exact; -2^63 negates to itself.
+        return Long.compareUnsigned(value, Long.MIN_VALUE) <= 0 ? new JsonLongValue(-value) : null;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static JsonDoubleValue slowDouble(byte[] input, int start, int end) {
+        return slowDouble(new String(input, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    private static JsonDoubleValue slowDouble(String raw) {
+        return new JsonDoubleValue(Double.parseDouble(raw));
+    }
+
+    /**
+     * Rounds {@code w × 10^q} ({@code w} unsigned) to the nearest double, ties to even.
+     *
+     * @return the magnitude, or {@code NaN} when the product is too close to a rounding boundary to decide here
+     */
+    static double toDouble(long w, int q) {
+        if (w == 0 || q < PowersOfFive.SMALLEST_POWER) return 0.0;
+        if (q > PowersOfFive.LARGEST_POWER) return Double.POSITIVE_INFINITY;
+        if (q >= -22 && q <= 22 && w >= 0 && w <= (1L << 53)) {
+            // Clinger: both operands are exact doubles, so one IEEE operation rounds correctly.
+            double d = w;
+            return q < 0 ? d / EXACT_POWERS_OF_TEN[-q] : d * EXACT_POWERS_OF_TEN[q];
+        }
+        return eiselLemire(w, q);
+    }
+
+    private static double eiselLemire(long w, int q) {
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = 2 * (q - PowersOfFive.SMALLEST_POWER);
+        long high = Math.unsignedMultiplyHigh(w, PowersOfFive.TABLE[index]);
+        long low = w * PowersOfFive.TABLE[index];
+        if ((high & 0x1FF) == 0x1FF) { // the truncated power may matter: add the low half of the 128-bit power
+            long secondHigh = Math.unsignedMultiplyHigh(w, PowersOfFive.TABLE[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) high++;
+            if (low == -1L && (q < -27 || q > 55)) return Double.NaN;
+        }
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - 52 - 3;
+        long mantissa = high >>> shift;
+        int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz + 1023;
+        if (power2 <= 0) { // subnormal
+            if (-power2 + 1 >= 64) return 0.0;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << 52) ? 0 : 1;
+            return Double.longBitsToDouble(((long) power2 << 52) | (mantissa & ((1L << 52) - 1)));
+        }
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1) {
+            // Exactly halfway between two doubles: round to even instead of up.
+            if ((mantissa << shift) == high) mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << 52)) {
+            mantissa = 1L << 52;
+            power2++;
+        }
+        mantissa &= ~(1L << 52);
+        if (power2 >= 0x7FF) return Double.POSITIVE_INFINITY;
+        return Double.longBitsToDouble(((long) power2 << 52) | mantissa);
+    }
+
+    /**
+     * 128-bit truncations of {@code 5^q} for {@code q} in [-342, 308], normalized so the top bit is set (negative
+     * powers rounded up), as {@code [high, low]} pairs. Computed once, on the first non-trivial fractional number.
+     */
+    private static final class PowersOfFive {
+
+        static final int SMALLEST_POWER = -342;
+        static final int LARGEST_POWER = 308;
+        static final long[] TABLE = new long[2 * (LARGEST_POWER - SMALLEST_POWER + 1)];
+
+        static {
+            BigInteger five = BigInteger.valueOf(5);
+            for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+                BigInteger c;
+                if (q >= 0) {
+                    BigInteger p = five.pow(q);
+                    int bits = p.bitLength();
+                    c = bits <= 128 ? p.shiftLeft(128 - bits) : p.shiftRight(bits - 128);
+                } else {
+                    BigInteger p = five.pow(-q);
+                    int z = p.bitLength();
+                    c = BigInteger.ONE
+                            .shiftLeft(q >= -27 ? z + 127 : 2 * z + 128)
+                            .divide(p)
+                            .add(BigInteger.ONE);
+                    if (c.bitLength() > 128) c = c.shiftRight(c.bitLength() - 128);
+                }
+                int index = 2 * (q - SMALLEST_POWER);
+                TABLE[index] = c.shiftRight(64).longValue();
+                TABLE[index + 1] = c.longValue();
+            }
+        }
+
+        private PowersOfFive() {}
+    }
+}
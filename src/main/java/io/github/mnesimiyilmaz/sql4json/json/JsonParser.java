@@ -3,8 +3,8 @@ package io.github.mnesimiyilmaz.sql4json.json;
 
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
-import java.math.BigDecimal;
 import java.util.*;
 
 /**
@@ -17,27 +17,12 @@ import java.util.*;
  */
 public final class JsonParser {
 
-    private static final JsonLongValue[] SMALL_LONGS;
-
-    /**
-     * Maximum number of distinct object shapes the per-parser shape registry will intern before bypassing further
-     * candidates. Bounds worst-case heterogeneous-JSON memory.
-     */
-    private static final int MAX_SHAPES = 256;
-
-    static {
-        SMALL_LONGS = new JsonLongValue[256];
-        for (int i = 0; i < 256; i++) {
-            SMALL_LONGS[i] = new JsonLongValue(i);
-        }
-    }
-
     private final String input;
-    private final int endPos;
+    private int endPos;
     private int pos;
     private int depth;
     private final HashMap<String, String> keyPool = new HashMap<>();
-    private final HashMap<Long, String[]> shapeRegistry = new HashMap<>();
+    private final ShapeRegistry shapes = new ShapeRegistry();
     private final DefaultJsonCodecSettings settings;
 
     private JsonParser(String input, DefaultJsonCodecSettings settings) {
@@ -68,7 +53,9 @@ public final class JsonParser {
                     + settings.maxInputLength() + ")");
         }
         JsonParser parser = new JsonParser(json, settings);
-        JsonValue result = parser.parseValue();
+        JsonValue result = ParallelElementIterator.applies(json.length(), settings) && parser.atArray()
+                ? parser.parseArrayInParallel()
+                : parser.parseValue();
         parser.skipWhitespace();
         if (parser.pos < parser.endPos) {
             throw parser.error("Unexpected content after JSON value");
@@ -87,9 +74,27 @@ public final class JsonParser {
     }
 
     static JsonValue parseRegion(String input, int start, int end, DefaultJsonCodecSettings settings) {
+        return parseRegion(input, start, end, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Parses a region keeping only the object members in {@code projection}; the others are skipped without building
+     * values for them, but validated as strictly as kept ones, so whether the region parses does not depend on the
+     * projection. Returns {@code null} when the projection's element filter rejects the value.
+     */
+    static JsonValue parseRegion(
+            String input, int start, int end, DefaultJsonCodecSettings settings, FieldProjection projection) {
         Objects.requireNonNull(settings, "settings");
+        if (projection.hasFilter()) {
+            return projection.parseElement(p -> parseProjected(input, start, end, settings, p));
+        }
+        return parseProjected(input, start, end, settings, projection);
+    }
+
+    private static JsonValue parseProjected(
+            String input, int start, int end, DefaultJsonCodecSettings settings, FieldProjection projection) {
         JsonParser parser = new JsonParser(input, start, end, settings);
-        JsonValue result = parser.parseValue();
+        JsonValue result = parser.parseValue(projection);
         parser.skipWhitespace();
         if (parser.pos < parser.endPos) {
             throw parser.error("Unexpected content after JSON value");
@@ -108,7 +113,7 @@ public final class JsonParser {
             throw error("Unexpected end of input");
         }
         return switch (peek()) {
-            case '{' -> parseObject();
+            case '{' -> parseObject(FieldProjection.ALL);
             case '[' -> parseArray();
             case '"' -> parseString();
             case 't', 'f' -> parseBoolean();
@@ -123,7 +128,19 @@ public final class JsonParser {
         };
     }
 
-    private JsonValue parseObject() {
+    // Only objects narrow the projection; arrays and scalars under a partial projection are parsed in full.
+    private JsonValue parseValue(FieldProjection projection) {
+        if (projection.isAll()) {
+            return parseValue();
+        }
+        skipWhitespace();
+        if (pos < endPos && peek() == '{') {
+            return parseObject(projection);
+        }
+        return parseValue();
+    }
+
+    private JsonValue parseObject(FieldProjection projection) {
         enterNested();
         advance(); // consume '{'
         skipWhitespace();
@@ -141,21 +158,30 @@ public final class JsonParser {
         String[] keys = new String[8];
         JsonValue[] values = new JsonValue[8];
         int size = 0;
+        boolean reject = settings.duplicateKeyPolicy() == DuplicateKeyPolicy.REJECT;
+        String[] skipped = null; // keys of skipped members, kept only to reject repeats
+        int skippedSize = 0;
         while (true) {
             String key = readObjectKey();
-            JsonValue value = parseValue();
-            int existingIdx = findKey(keys, size, key);
-            if (existingIdx >= 0) {
-                applyDuplicatePolicy(existingIdx, key, value, values);
+            FieldProjection member = projection.child(key);
+            if (member == null) {
+                skipValue();
+                if (reject) skipped = rejectRepeat(skipped, skippedSize++, key);
             } else {
-                if (size == keys.length) {
-                    int newCap = keys.length * 2;
-                    keys = Arrays.copyOf(keys, newCap);
-                    values = Arrays.copyOf(values, newCap);
+                JsonValue value = parseValue(member);
+                int existingIdx = findKey(keys, size, key);
+                if (existingIdx >= 0) {
+                    applyDuplicatePolicy(existingIdx, key, value, values);
+                } else {
+                    if (size == keys.length) {
+                        int newCap = keys.length * 2;
+                        keys = Arrays.copyOf(keys, newCap);
+                        values = Arrays.copyOf(values, newCap);
+                    }
+                    keys[size] = key;
+                    values[size] = value;
+                    size++;
                 }
-                keys[size] = key;
-                values[size] = value;
-                size++;
             }
             if (consumeObjectSeparator()) {
                 leaveNested();
@@ -212,14 +238,48 @@ public final class JsonParser {
     }
 
     // Always trim values to exact size for consistency with the interned key array.
-    // internShape replaces the prior slack-based opportunistic trim — every accepted
+    // ShapeRegistry.intern replaces the prior slack-based opportunistic trim — every accepted
     // shape is exact-fit on return.
     private JsonValue finalizeObject(String[] keys, JsonValue[] values, int size) {
         JsonValue[] trimmed = (values.length != size) ? Arrays.copyOf(values, size) : values;
-        String[] internedKeys = internShape(keys, size);
+        String[] internedKeys = shapes.intern(keys, size);
         return new JsonObjectValue(new CompactStringMap<>(internedKeys, trimmed, size));
     }
 
+    private boolean atArray() {
+        skipWhitespace();
+        return pos < endPos && peek() == '[';
+    }
+
+    // Root array under parseParallelism > 1: this thread finds element boundaries, and the elements are parsed in
+    // batches on the parse executor, each batch by a parser of its own. Same tree and limits as parseArray().
+    private JsonValue parseArrayInParallel() {
+        var scanner = new StreamingJsonParser.ArrayElementIterator(input, pos, settings, FieldProjection.ALL);
+        var elements =
+                new ParallelElementIterator(scanner, () -> new JsonParser(input, settings)::parseElement, settings);
+        var values = new ArrayList<JsonValue>();
+        while (elements.hasNext()) {
+            values.add(elements.next());
+            if (values.size() > settings.maxArrayElements()) {
+                throw error("Array element count exceeds configured maximum (" + settings.maxArrayElements() + ")");
+            }
+        }
+        pos = scanner.position() + 1; // consume ']'
+        return new JsonArrayValue(values.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(values));
+    }
+
+    // Parses one root-array element in [start, end), one nesting level below the array.
+    private JsonValue parseElement(int start, int end) {
+        pos = start;
+        endPos = end;
+        depth = 1;
+        JsonValue value = parseValue();
+        if (pos < endPos) {
+            throw error("Expected ',' or ']' after array element");
+        }
+        return value;
+    }
+
     private JsonValue parseArray() {
         enterNested();
         advance(); // consume '['
@@ -255,6 +315,118 @@ public final class JsonParser {
         }
     }
 
+    // ── Skipping (projection) ────────────────────────────────────────────
+
+    // Steps over one value without building it. Same grammar, limits, duplicate-key policy and error positions as
+    // parseValue(), so a document is accepted or rejected regardless of which members the query reads.
+    private void skipValue() {
+        skipWhitespace();
+        if (pos >= endPos) {
+            throw error("Unexpected end of input");
+        }
+        switch (peek()) {
+            case '{' -> skipObject();
+            case '[' -> skipArray();
+            case '"' -> skipString();
+            case 't', 'f' -> parseBoolean();
+            case 'n' -> parseNull();
+            default -> {
+                char c = peek();
+                if (c != '-' && (c < '0' || c > '9')) {
+                    throw error("Unexpected character: '" + c + "'");
+                }
+                scanNumber();
+            }
+        }
+    }
+
+    private void skipObject() {
+        enterNested();
+        advance(); // consume '{'
+        skipWhitespace();
+        if (pos < endPos && peek() == '}') {
+            advance();
+            leaveNested();
+            return;
+        }
+        // Keys are only kept when a repeat must be rejected; the other policies accept any object
+        boolean reject = settings.duplicateKeyPolicy() == DuplicateKeyPolicy.REJECT;
+        String[] keys = null;
+        int size = 0;
+        do {
+            String key = readObjectKey();
+            skipValue();
+            if (reject) keys = rejectRepeat(keys, size++, key);
+        } while (!consumeObjectSeparator());
+        leaveNested();
+    }
+
+    // Throws if key is among keys[0, size); otherwise stores it at keys[size], growing (or creating) the array.
+    private String[] rejectRepeat(String[] keys, int size, String key) {
+        if (keys == null) {
+            keys = new String[8];
+        } else if (findKey(keys, size, key) >= 0) {
+            throw error("Duplicate key '" + key + "' in object");
+        } else if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        keys[size] = key;
+        return keys;
+    }
+
+    private void skipArray() {
+        enterNested();
+        advance(); // consume '['
+        skipWhitespace();
+        if (pos < endPos && peek() == ']') {
+            advance();
+            leaveNested();
+            return;
+        }
+        int count = 0;
+        while (true) {
+            skipValue();
+            if (++count > settings.maxArrayElements()) {
+                throw error("Array element count exceeds configured maximum (" + settings.maxArrayElements() + ")");
+            }
+            skipWhitespace();
+            if (pos >= endPos) {
+                throw error("Unexpected end of input in array");
+            }
+            if (peek() == ']') {
+                advance();
+                leaveNested();
+                return;
+            }
+            expect(',');
+            skipWhitespace();
+            if (pos < endPos && peek() == ']') {
+                throw error("Trailing comma in array");
+            }
+        }
+    }
+
+    // Steps over a plain string without copying it; escaped, invalid and unterminated strings go through
+    // parseRawString(), which validates and reports them as parsing does.
+    private void skipString() {
+        int start = pos + 1;
+        for (int i = start; i < endPos; i++) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                if (i - start > settings.maxStringLength()) {
+                    pos = start;
+                    throw error("String value exceeds configured maximum length (" + settings.maxStringLength() + ")");
+                }
+                pos = i + 1;
+                return;
+            }
+            if (c == '\\' || c < 0x20) {
+                break;
+            }
+        }
+        parseRawString();
+    }
+
     private JsonValue parseString() {
         return new JsonStringValue(parseRawString());
     }
@@ -362,19 +534,20 @@ public final class JsonParser {
     }
 
     private JsonValue parseNumber() {
+        int start = pos;
+        boolean fractional = scanNumber();
+        return JsonNumbers.parse(input, start, pos, fractional);
+    }
+
+    // Validates the number token at pos and steps past it. Returns whether it has a fraction or an exponent.
+    private boolean scanNumber() {
         int start = pos;
         consumeOptionalMinus();
         consumeIntegerPart();
         boolean hasFraction = consumeFractionPart();
-        boolean hasExponent = consumeExponentPart();
-
-        String raw = input.substring(start, pos);
-        validateNumberToken(raw, hasExponent);
-
-        if (hasFraction || hasExponent) {
-            return new JsonDoubleValue(Double.parseDouble(raw));
-        }
-        return parseIntegerValue(raw);
+        int exponentDigits = consumeExponentPart();
+        validateNumberToken(pos - start, exponentDigits);
+        return hasFraction || exponentDigits >= 0;
     }
 
     private void consumeOptionalMinus() {
@@ -403,50 +576,28 @@ public final class JsonParser {
         return true;
     }
 
-    private boolean consumeExponentPart() {
-        if (pos >= endPos || (peek() != 'e' && peek() != 'E')) return false;
+    // Returns the number of exponent digits, or -1 when the token has no exponent.
+    private int consumeExponentPart() {
+        if (pos >= endPos || (peek() != 'e' && peek() != 'E')) return -1;
         pos++;
         if (pos < endPos && (peek() == '+' || peek() == '-')) pos++;
         if (pos >= endPos || peek() < '0' || peek() > '9') {
             throw error("Expected digit in exponent");
         }
+        int digitsStart = pos;
         while (pos < endPos && peek() >= '0' && peek() <= '9') pos++;
-        return true;
+        return pos - digitsStart;
     }
 
-    private void validateNumberToken(String raw, boolean hasExponent) {
-        if (raw.length() > settings.maxNumberLength()) {
+    private void validateNumberToken(int length, int exponentDigits) {
+        if (length > settings.maxNumberLength()) {
             throw error("Number token exceeds configured maximum length (" + settings.maxNumberLength() + ")");
         }
-        if (hasExponent) {
-            int eIdx = raw.indexOf('e');
-            if (eIdx < 0) eIdx = raw.indexOf('E');
-            String expStr = raw.substring(eIdx + 1);
-            if (expStr.startsWith("+") || expStr.startsWith("-")) expStr = expStr.substring(1);
-            if (expStr.length() > 4) { // exponent > 9999 is pathological for a data library
-                throw error("Number exponent magnitude too large");
-            }
+        if (exponentDigits > 4) { // exponent > 9999 is pathological for a data library
+            throw error("Number exponent magnitude too large");
         }
     }
 
-    private JsonNumberValue parseIntegerValue(String raw) {
-        int len = raw.length();
-        int effectiveLen = raw.startsWith("-") ? len - 1 : len;
-        if (effectiveLen < 19) {
-            long l = Long.parseLong(raw);
-            if (l >= 0 && l < SMALL_LONGS.length) return SMALL_LONGS[(int) l];
-            return new JsonLongValue(l);
-        }
-        if (effectiveLen == 19) {
-            try {
-                return new JsonLongValue(Long.parseLong(raw));
-            } catch (NumberFormatException e) {
-                return new JsonDecimalValue(new BigDecimal(raw));
-            }
-        }
-        return new JsonDecimalValue(new BigDecimal(raw));
-    }
-
     private JsonValue parseBoolean() {
         if (pos + 4 <= endPos && input.startsWith("true", pos)) {
             pos += 4;
@@ -481,44 +632,6 @@ public final class JsonParser {
         return key;
     }
 
-    /**
-     * Returns a shared exact-fit key array for the given prefix when the same shape has been seen before in this parse;
-     * otherwise interns the candidate. Replaces the legacy {@code slack > 25%} trim path — every accepted candidate is
-     * exact-fit on return so {@link CompactStringMap} sees consistent input. Bounded by {@link #MAX_SHAPES} to cap
-     * heterogeneous-JSON worst case.
-     *
-     * <p>Uses an inline 64-bit hash + a {@code HashMap<Long, String[]>} so the lookup does not allocate a per-call key
-     * wrapper. On the rare hash collision (different shapes hashing to the same long), the second shape overwrites the
-     * first; both remain functionally correct, only the cache-sharing benefit is lost for the conflicting shapes.
-     *
-     * @param candidate the key array buffer (may have trailing slack)
-     * @param size the number of valid keys in {@code candidate}
-     * @return an exact-fit array (shared on cache hit, fresh on miss)
-     */
-    private String[] internShape(String[] candidate, int size) {
-        if (shapeRegistry.size() >= MAX_SHAPES) {
-            // Bypass past the cap — preserve the exact-fit invariant.
-            return (size == candidate.length) ? candidate : Arrays.copyOf(candidate, size);
-        }
-        long hash = computeShapeHash(candidate, size);
-        String[] existing = shapeRegistry.get(hash);
-        if (existing != null && Arrays.equals(existing, 0, existing.length, candidate, 0, size)) {
-            return existing;
-        }
-        // Cache miss or rare hash collision (different shape, same hash).
-        String[] interned = (size == candidate.length) ? candidate : Arrays.copyOf(candidate, size);
-        shapeRegistry.put(hash, interned);
-        return interned;
-    }
-
-    private static long computeShapeHash(String[] keys, int size) {
-        long h = 1L;
-        for (int i = 0; i < size; i++) {
-            h = 31L * h + keys[i].hashCode();
-        }
-        return h;
-    }
-
     private void skipWhitespace() {
         while (pos < endPos) {
             char c = input.charAt(pos);
@@ -0,0 +1,347 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A parsed UTF-8 JSON document kept as a flat {@code long[]} tape over its source bytes, instead of a tree of
+ * {@link JsonValue} objects. Built by {@link Utf8JsonParser} when {@link DefaultJsonCodecSettings#lazyDocuments()} is
+ * set, with the same validation, limits and error messages as the tree parser.
+ *
+ * <p>The tape keeps its own copy of the bytes the document spans, so a caller reusing its input buffer afterwards does
+ * not change the values already handed out. Offsets on the tape are into the caller's buffer; {@code base} maps them
+ * onto the copy.
+ *
+ * <p>Each tape entry is a tag in the top byte and a payload below it:
+ *
+ * <ul>
+ *   <li>object / array: payload is the index just past the container's last entry; the next long holds the member or
+ *       element count;
+ *   <li>key: payload is an index into the interned key table, followed by the member's value;
+ *   <li>string / number: payload is the source offset of the first byte; the next long holds the end offset (the
+ *       closing quote of a string);
+ *   <li>{@code true} / {@code false} / {@code null}: no payload.
+ * </ul>
+ *
+ * <p>Objects and arrays are presented as {@link JsonObjectValue} / {@link JsonArrayValue} over read-only views of the
+ * tape, and strings and numbers are decoded only when a view hands them out — a query reading 3 fields of a 13-field
+ * row never materializes the other 10. Nothing is cached: long-lived documents (engine data) stay one {@code long[]},
+ * one {@code byte[]} and the key table, and views are short-lived garbage. The tape is immutable, so views may be used
+ * from several threads.
+ */
+final class JsonTape {
+
+    static final int OBJECT = 1;
+    static final int ARRAY = 2;
+    static final int KEY = 3;
+    static final int STRING = 4;
+    static final int ESCAPED_STRING = 5;
+    static final int INTEGER = 6;
+    static final int FRACTIONAL = 7;
+    static final int TRUE = 8;
+    static final int FALSE = 9;
+    static final int NULL = 10;
+
+    private static final int TAG_SHIFT = 56;
+    private static final long PAYLOAD = (1L << TAG_SHIFT) - 1;
+
+    private final byte[] source;
+    private final int base; // offset in the parsed buffer of source[0]
+    private final long[] tape;
+    private final String[] keys;
+    private final DefaultJsonCodecSettings settings;
+
+    private JsonTape(byte[] source, int base, long[] tape, String[] keys, DefaultJsonCodecSettings settings) {
+        this.source = source;
+        this.base = base;
+        this.tape = tape;
+        this.keys = keys;
+        this.settings = settings;
+    }
+
+    /**
+     * Returns the document's root value.
+     *
+     * @return the value at the start of the tape
+     */
+    JsonValue root() {
+        return value(0);
+    }
+
+    private int tag(int i) {
+        return (int) (tape[i] >>> TAG_SHIFT);
+    }
+
+    private int payload(int i) {
+        return (int) (tape[i] & PAYLOAD);
+    }
+
+    // Index of the entry following the value at i.
+    private int next(int i) {
+        return switch (tag(i)) {
+            case OBJECT, ARRAY -> payload(i);
+            case TRUE, FALSE, NULL -> i + 1;
+            default -> i + 2;
+        };
+    }
+
+    private JsonValue value(int i) {
+        return switch (tag(i)) {
+            case OBJECT ->
+                new JsonObjectValue(tape[i + 1] == 0 ? Collections.emptyMap() : new ObjectView(i, (int) tape[i + 1]));
+            case ARRAY ->
+                new JsonArrayValue(tape[i + 1] == 0 ? Collections.emptyList() : new ArrayView(i, (int) tape[i + 1]));
+            case STRING -> {
+                int start = payload(i);
+                yield new JsonStringValue(
+                        new String(source, start - base, (int) tape[i + 1] - start, StandardCharsets.UTF_8));
+            }
+            case ESCAPED_STRING ->
+                new JsonStringValue(Utf8JsonParser.decodeString(
+                        source, payload(i) - 1 - base, (int) tape[i + 1] + 1 - base, settings));
+            case INTEGER, FRACTIONAL ->
+                Utf8JsonParser.numberValue(source, payload(i) - base, (int) tape[i + 1] - base, tag(i) == FRACTIONAL);
+            case TRUE -> JsonBooleanValue.TRUE;
+            case FALSE -> JsonBooleanValue.FALSE;
+            case NULL -> JsonNullValue.INSTANCE;
+            default -> throw new IllegalStateException("Not a value entry: tag " + tag(i));
+        };
+    }
+
+    /** Appends tape entries while {@link Utf8JsonParser} validates the input. */
+    static final class Builder {
+
+        private long[] tape = new long[256];
+        private int size;
+        private String[] keys = new String[16];
+        private int keyCount;
+        private final HashMap<String, Integer> keyIds = new HashMap<>();
+
+        /** Opens a container; returns its entry index for {@link #close(int, int)}. */
+        int open(int tag) {
+            int at = size;
+            append((long) tag << TAG_SHIFT);
+            append(0);
+            return at;
+        }
+
+        void close(int at, int count) {
+            tape[at] |= size;
+            tape[at + 1] = count;
+        }
+
+        /** Appends an object key; returns its entry index. */
+        int key(String key) {
+            Integer id = keyIds.get(key);
+            if (id == null) {
+                if (keyCount == keys.length) {
+                    keys = Arrays.copyOf(keys, keyCount * 2);
+                }
+                id = keyCount;
+                keys[keyCount++] = key;
+                keyIds.put(key, id);
+            }
+            int at = size;
+            append(((long) KEY << TAG_SHIFT) | id);
+            return at;
+        }
+
+        void scalar(int tag, int start, int end) {
+            append(((long) tag << TAG_SHIFT) | start);
+            append(end);
+        }
+
+        void literal(int tag) {
+            append((long) tag << TAG_SHIFT);
+        }
+
+        /**
+         * Whether the key at {@code keyAt} repeats an earlier key of the object opened at {@code objectAt}; values in
+         * between are stepped over through their end offsets.
+         */
+        boolean repeatsKey(int objectAt, int keyAt) {
+            long key = tape[keyAt];
+            int i = objectAt + 2;
+            while (i < keyAt) {
+                if (tape[i] == key) return true;
+                int value = i + 1;
+                int tag = (int) (tape[value] >>> TAG_SHIFT);
+                i = switch (tag) {
+                    case OBJECT, ARRAY -> (int) (tape[value] & PAYLOAD);
+                    case TRUE, FALSE, NULL -> value + 1;
+                    default -> value + 2;
+                };
+            }
+            return false;
+        }
+
+        /** Builds the tape of the document held in {@code source[from, to)}, copying those bytes. */
+        JsonTape build(byte[] source, int from, int to, DefaultJsonCodecSettings settings) {
+            return new JsonTape(
+                    Arrays.copyOfRange(source, from, to),
+                    from,
+                    Arrays.copyOf(tape, size),
+                    Arrays.copyOf(keys, keyCount),
+                    settings);
+        }
+
+        private void append(long entry) {
+            if (size == tape.length) {
+                tape = Arrays.copyOf(tape, size * 2);
+            }
+            tape[size++] = entry;
+        }
+    }
+
+    /**
+     * Read-only view of one object. Member keys and value positions are collected when the view is created; values are
+     * decoded per lookup. Duplicate keys left on the tape under {@code FIRST_WINS} / {@code LAST_WINS} are resolved
+     * here exactly as the tree parser resolves them.
+     */
+    // NullableProblems: see CompactStringMap.
+    @SuppressWarnings("NullableProblems")
+    private final class ObjectView extends AbstractMap<String, JsonValue> {
+
+        private final String[] names;
+        private final int[] values;
+        private final int size;
+
+        ObjectView(int at, int count) {
+            names = new String[count];
+            values = new int[count];
+            boolean unique = settings.duplicateKeyPolicy() == DuplicateKeyPolicy.REJECT;
+            int n = 0;
+            for (int i = at + 2, m = 0; m < count; m++) {
+                String name = keys[payload(i)];
+                int existing = unique ? -1 : indexOf(name, n);
+                if (existing < 0) {
+                    names[n] = name;
+                    values[n++] = i + 1;
+                } else if (settings.duplicateKeyPolicy() == DuplicateKeyPolicy.LAST_WINS) {
+                    values[existing] = i + 1;
+                }
+                i = next(i + 1);
+            }
+            size = n;
+        }
+
+        private int indexOf(Object key, int n) {
+            for (int i = 0; i < n; i++) {
+                if (names[i].equals(key)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key, size) >= 0;
+        }
+
+        @Override
+        public JsonValue get(Object key) {
+            int idx = indexOf(key, size);
+            return idx >= 0 ? value(values[idx]) : null;
+        }
+
+        @Override
+        public JsonValue getOrDefault(Object key, JsonValue defaultValue) {
+            int idx = indexOf(key, size);
+            return idx >= 0 ? value(values[idx]) : defaultValue;
+        }
+
+        @Override
+        public Set<Entry<String, JsonValue>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<String, JsonValue>> iterator() {
+                    return new Iterator<>() {
+                        int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < size;
+                        }
+
+                        @Override
+                        public Entry<String, JsonValue> next() {
+                            if (i >= size) throw new NoSuchElementException();
+                            int idx = i++;
+                            return new SimpleImmutableEntry<>(names[idx], value(values[idx]));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /** Read-only view of one array. Element positions are located on the first random access. */
+    private final class ArrayView extends AbstractList<JsonValue> implements RandomAccess {
+
+        private final int first;
+        private final int size;
+        private volatile int[] positions;
+
+        ArrayView(int at, int count) {
+            this.first = at + 2;
+            this.size = count;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public JsonValue get(int index) {
+            Objects.checkIndex(index, size);
+            if (index == 0) {
+                return value(first);
+            }
+            int[] p = positions;
+            if (p == null) {
+                p = new int[size];
+                for (int i = 0, e = first; i < size; i++, e = next(e)) {
+                    p[i] = e;
+                }
+                positions = p;
+            }
+            return value(p[index]);
+        }
+
+        @Override
+        public Iterator<JsonValue> iterator() {
+            return new Iterator<>() {
+                int remaining = size;
+                int entry = first;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                public JsonValue next() {
+                    if (remaining == 0) throw new NoSuchElementException();
+                    JsonValue v = value(entry);
+                    entry = JsonTape.this.next(entry);
+                    remaining--;
+                    return v;
+                }
+            };
+        }
+    }
+}
@@ -1,7 +1,9 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.json;
 
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
 import io.github.mnesimiyilmaz.sql4json.engine.Expression;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
 import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
 import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
 import io.github.mnesimiyilmaz.sql4json.engine.Row;
@@ -16,6 +18,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Reconstructs nested {@link JsonValue} trees from flat rows produced by the query pipeline.
@@ -52,13 +55,37 @@ public final class JsonUnflattener {
      */
     public static JsonValue unflatten(
             List<RowAccessor> rows, List<SelectColumnDef> columns, FunctionRegistry functionRegistry) {
+        Function<RowAccessor, JsonValue> projector = rowProjector(columns, functionRegistry);
         List<JsonValue> results = new ArrayList<>(rows.size());
         for (RowAccessor row : rows) {
-            results.add(unflattenRow(row, columns, functionRegistry));
+            results.add(projector.apply(row));
         }
         return new JsonArrayValue(results);
     }
 
+    /**
+     * Returns {@link #unflattenRow} bound to one SELECT column list, with the column expressions compiled once by
+     * {@link ExpressionCompiler} — for callers that unflatten many rows against the same columns.
+     *
+     * @param columns the selected column definitions
+     * @param functionRegistry the function registry, or {@code null}
+     * @return a function unflattening one row
+     * @since 1.4.0
+     */
+    public static Function<RowAccessor, JsonValue> rowProjector(
+            List<SelectColumnDef> columns, FunctionRegistry functionRegistry) {
+        CompiledExpression[] compiled = new CompiledExpression[columns.size()];
+        if (functionRegistry != null) {
+            for (int i = 0; i < compiled.length; i++) {
+                Expression expr = columns.get(i).expression();
+                if (expr != null) compiled[i] = ExpressionCompiler.compile(expr, functionRegistry);
+            }
+        }
+        return row -> row.isAggregated()
+                ? reconstructFromAggregatedRow(row, columns, compiled)
+                : projectFromRow(row, columns, compiled);
+    }
+
     /**
      * Unflattens a single row through the SELECT column list. GROUP BY output is read as-is from the row (values are
      * pre-evaluated by {@link io.github.mnesimiyilmaz.sql4json.grouping.GroupAggregator}); other rows are projected via
@@ -71,10 +98,7 @@ public final class JsonUnflattener {
      */
     public static JsonValue unflattenRow(
             RowAccessor row, List<SelectColumnDef> columns, FunctionRegistry functionRegistry) {
-        if (row.isAggregated()) {
-            return reconstructFromAggregatedRow(row, columns, functionRegistry);
-        }
-        return projectFromRow(row, columns, functionRegistry);
+        return rowProjector(columns, functionRegistry).apply(row);
     }
 
     /**
@@ -83,7 +107,7 @@ public final class JsonUnflattener {
      * when available (so nested object/array structure is preserved).
      */
     private static JsonValue projectFromRow(
-            RowAccessor row, List<SelectColumnDef> columns, FunctionRegistry functionRegistry) {
+            RowAccessor row, List<SelectColumnDef> columns, CompiledExpression[] compiled) {
         JsonValue original = row.originalValue().orElse(null);
 
         // SELECT * → return original as-is when available; otherwise reconstruct nested
@@ -107,8 +131,9 @@ public final class JsonUnflattener {
                 (original != null && !row.hasWindowResults()) ? Row.lazy(original, new FieldKey.Interner()) : row;
 
         var root = new LinkedHashMap<String, Object>();
-        for (SelectColumnDef col : columns) {
-            JsonValue value = resolveColumnValue(col, row, evalRow, original, functionRegistry);
+        for (int i = 0; i < columns.size(); i++) {
+            SelectColumnDef col = columns.get(i);
+            JsonValue value = resolveColumnValue(col, row, evalRow, original, compiled[i]);
             if (col.alias() != null && col.alias().contains(".")) {
                 setNestedField(root, col.alias(), value);
             } else {
@@ -131,16 +156,16 @@ public final class JsonUnflattener {
             RowAccessor row,
             RowAccessor evalRow,
             JsonValue original,
-            FunctionRegistry functionRegistry) {
+            CompiledExpression compiled) {
         // Plain column with original — navigate to preserve nested structure.
         // ColumnRef can never contain a window, so no extra guard needed.
-        if (col.expression() instanceof Expression.ColumnRef(var path) && original != null) {
+        if (col.expression() instanceof Expression.ColumnRef(var path, var binding) && original != null) {
             return navigateToField(original, path);
         }
         // Literal / scalar fn / case / column-ref-without-original / window — evaluate.
         // WindowFnCall nodes inside the tree resolve via the row's RowSchema-indexed window slot.
-        if (functionRegistry != null) {
-            SqlValue result = ExpressionEvaluator.evaluate(col.expression(), evalRow, functionRegistry);
+        if (compiled != null) {
+            SqlValue result = compiled.evaluate(evalRow);
             return JsonToSqlConverter.toJsonValue(result);
         }
         // No registry, no original — fall back to raw flat-map lookup.
@@ -154,9 +179,10 @@ public final class JsonUnflattener {
      * Explicit dotted aliases are unflattened; other keys are kept flat.
      */
     private static JsonValue reconstructFromAggregatedRow(
-            RowAccessor row, List<SelectColumnDef> columns, FunctionRegistry functionRegistry) {
+            RowAccessor row, List<SelectColumnDef> columns, CompiledExpression[] compiled) {
         var root = new LinkedHashMap<String, Object>();
-        for (SelectColumnDef col : columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            SelectColumnDef col = columns.get(i);
             if (col.isAsterisk()) {
                 // SELECT * → reconstruct nested structure from flat field paths
                 row.entries()
@@ -165,11 +191,11 @@ public final class JsonUnflattener {
                 continue;
             }
             JsonValue jv;
-            if (col.containsWindow() && functionRegistry != null) {
+            if (col.containsWindow() && compiled[i] != null) {
                 // Window functions on GROUP BY output: WindowStage stored each WindowFnCall
                 // result in the row's RowSchema-indexed window slot; evaluate the column
                 // expression so any outer scalar/CASE wrapper is applied correctly.
-                SqlValue val = ExpressionEvaluator.evaluate(col.expression(), row, functionRegistry);
+                SqlValue val = compiled[i].evaluate(row);
                 jv = JsonToSqlConverter.toJsonValue(val);
             } else {
                 // Aggregate columns are stored under aliasOrName() by GroupAggregator.
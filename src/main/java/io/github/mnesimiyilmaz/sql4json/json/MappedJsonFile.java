@@ -0,0 +1,370 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A UTF-8 JSON file memory-mapped in fixed-size segments, addressed with {@code long} offsets so inputs larger than 2
+ * GiB can be scanned. The page cache performs the I/O; the heap only holds the element currently being parsed.
+ *
+ * <p>Element boundaries are found by byte scanning (the same technique as {@link StreamingJsonParser}'s array
+ * iterators); each element's bytes are then copied into a reusable scratch buffer and parsed with
+ * {@link Utf8JsonParser}. Because the document as a whole is never materialized, {@code maxInputLength} is enforced per
+ * element rather than for the whole file.
+ *
+ * <p>Non-root paths ({@code $r.data.items}) are resolved by scanning each wrapping object to its end, so the wrapper is
+ * never parsed into a tree but is accepted or rejected as a full parse would: repeated keys follow the codec's
+ * {@link DuplicateKeyPolicy}, and members off the path are validated with {@link Utf8JsonParser} without being built.
+ * The member followed is only stepped over while its object is scanned, and is validated as it is descended into or
+ * streamed.
+ *
+ * <p>The file channel is closed as soon as the segments are mapped — mappings stay valid independently of it.
+ */
+final class MappedJsonFile {
+
+    /** Segment size used by {@link StreamingJsonParser}: 1 GiB, comfortably below the 2 GiB mapping limit. */
+    static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final long length;
+    private final int segmentShift;
+    private final long segmentMask;
+
+    private MappedJsonFile(MappedByteBuffer[] segments, long length, long segmentSize) {
+        this.segments = segments;
+        this.length = length;
+        this.segmentShift = Long.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+    }
+
+    /**
+     * Maps {@code file} read-only in segments of {@code segmentSize} bytes.
+     *
+     * @param file the file to map
+     * @param segmentSize segment size in bytes; must be a power of two no larger than 1 GiB
+     * @return the mapped file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static MappedJsonFile map(Path file, long segmentSize) throws IOException {
+        if (Long.bitCount(segmentSize) != 1 || segmentSize > DEFAULT_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be a power of two <= 1 GiB, got " + segmentSize);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + segmentSize - 1) / segmentSize);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long offset = i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, size - offset));
+            }
+            return new MappedJsonFile(segments, size, segmentSize);
+        }
+    }
+
+    byte byteAt(long pos) {
+        return segments[(int) (pos >>> segmentShift)].get((int) (pos & segmentMask));
+    }
+
+    /** Copies {@code len} bytes starting at {@code from} into {@code dst[0, len)}, crossing segments as needed. */
+    void copy(long from, byte[] dst, int len) {
+        int copied = 0;
+        while (copied < len) {
+            long pos = from + copied;
+            MappedByteBuffer segment = segments[(int) (pos >>> segmentShift)];
+            int offset = (int) (pos & segmentMask);
+            int chunk = Math.min(len - copied, segment.limit() - offset);
+            segment.get(offset, dst, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location. Mirrors {@link StreamingJsonParser#streamArray(String,
+     * String, DefaultJsonCodecSettings)}: an object yields a single element, a primitive or missing path yields
+     * nothing.
+     *
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings; {@code maxInputLength} applies to each element
+     * @param projection object members to keep in each element
+     * @return lazy stream of JsonValue elements
+     */
+    Stream<JsonValue> streamArray(String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        Objects.requireNonNull(settings, "settings");
+        Scanner scanner = new Scanner(settings);
+        long start =
+                length >= 3 && byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF ? 3 : 0;
+        long pos = scanner.skipWhitespace(start);
+        if (pos >= length) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        boolean nested = rootPath != null && !rootPath.equals("$r");
+        if (nested) {
+            pos = scanner.locate(pos, rootPath.startsWith("$r.") ? rootPath.substring(3) : rootPath);
+            if (pos < 0) {
+                return Stream.empty();
+            }
+        }
+        byte first = byteAt(pos);
+        if (first == '{') {
+            return Stream.ofNullable(scanner.parse(pos, scanner.skipValue(pos), projection));
+        }
+        if (first != '[') {
+            if (nested) scanner.validate(pos);
+            return Stream.empty();
+        }
+        return StreamingJsonParser.elementStream(new ElementIterator(scanner, pos, projection), projection);
+    }
+
+    /** Boundary scanning and element parsing over the mapped bytes; owns the reusable scratch buffer. */
+    private final class Scanner {
+
+        private final DefaultJsonCodecSettings settings;
+        private byte[] scratch = new byte[8192];
+
+        Scanner(DefaultJsonCodecSettings settings) {
+            this.settings = settings;
+        }
+
+        JsonValue parse(long from, long to, FieldProjection projection) {
+            int len = load(from, to);
+            return Utf8JsonParser.parseRegion(scratch, 0, len, settings, from, projection);
+        }
+
+        /** Validates the value at {@code from} as {@link #parse} would, without building it; returns its end. */
+        long validate(long from) {
+            long to = skipValue(from);
+            Utf8JsonParser.validateRegion(scratch, 0, load(from, to), settings, from);
+            return to;
+        }
+
+        // Copies [from, to) into the scratch buffer and returns its length.
+        private int load(long from, long to) {
+            long len = to - from;
+            if (len > settings.maxInputLength()) {
+                throw error(from, "Element length exceeds configured maximum (" + settings.maxInputLength() + ")");
+            }
+            if (scratch.length < len) {
+                scratch = new byte[(int) Math.max(len, Math.min((long) scratch.length * 2, Integer.MAX_VALUE - 8))];
+            }
+            copy(from, scratch, (int) len);
+            return (int) len;
+        }
+
+        /**
+         * Walks dot-separated {@code path} through nested objects, scanning each to its end. Returns the offset of the
+         * target value, or -1 when a segment is missing or the value on the way is not an object.
+         */
+        long locate(long pos, String path) {
+            long p = pos;
+            boolean root = true;
+            for (String segment : path.split("\\.")) {
+                if (byteAt(p) != '{') {
+                    validate(p);
+                    return -1;
+                }
+                Member member = findMember(p, segment);
+                if (root) {
+                    long rest = skipWhitespace(member.objectEnd());
+                    if (rest < length) {
+                        throw error(rest, "Unexpected content after JSON value");
+                    }
+                    root = false;
+                }
+                if (member.value() < 0) return -1;
+                p = member.value();
+            }
+            return p;
+        }
+
+        /** The offset of the member value a lookup settled on (-1 if none), and the end of the object scanned. */
+        private record Member(long value, long objectEnd) {}
+
+        // Keys are checked after their value, and the chosen occurrence of name is stepped over unvalidated, as it is
+        // validated once it is descended into or streamed; every other value is validated here.
+        private Member findMember(long objectStart, String name) {
+            DuplicateKeyPolicy policy = settings.duplicateKeyPolicy();
+            Set<String> keys = policy == DuplicateKeyPolicy.REJECT ? new HashSet<>() : null;
+            long chosen = -1;
+            long p = skipWhitespace(objectStart + 1);
+            if (p < length && byteAt(p) == '}') return new Member(-1, p + 1);
+            while (true) {
+                if (p >= length || byteAt(p) != '"') {
+                    throw error(p, "Expected string key in object");
+                }
+                long keyEnd = skipString(p);
+                String key = parse(p, keyEnd, FieldProjection.ALL).asString().orElseThrow();
+                p = skipWhitespace(keyEnd);
+                if (p >= length || byteAt(p) != ':') {
+                    throw error(p, "Expected ':'");
+                }
+                p = skipWhitespace(p + 1);
+                if (p >= length) {
+                    throw error(p, "Unexpected end of input in object");
+                }
+                long value = p;
+                if (!key.equals(name)) {
+                    p = validate(value);
+                } else if (chosen < 0) {
+                    p = skipValue(value);
+                    chosen = value;
+                } else if (policy == DuplicateKeyPolicy.LAST_WINS) {
+                    validate(chosen);
+                    p = skipValue(value);
+                    chosen = value;
+                } else {
+                    p = validate(value);
+                }
+                if (keys != null && !keys.add(key)) {
+                    throw error(p, "Duplicate key '" + key + "' in object");
+                }
+                p = skipWhitespace(p);
+                if (p >= length) {
+                    throw error(p, "Unexpected end of input in object");
+                }
+                byte b = byteAt(p);
+                if (b == '}') return new Member(chosen, p + 1);
+                if (b != ',') {
+                    throw error(p, "Expected ',' or '}' after object member");
+                }
+                p = skipWhitespace(p + 1);
+                if (p < length && byteAt(p) == '}') {
+                    throw error(p, "Trailing comma in object");
+                }
+            }
+        }
+
+        long skipValue(long start) {
+            byte b = byteAt(start);
+            if (b == '{' || b == '[') {
+                return skipComposite(start);
+            }
+            if (b == '"') {
+                return skipString(start);
+            }
+            return skipBareValue(start);
+        }
+
+        private long skipComposite(long start) {
+            long p = start;
+            int depth = 0;
+            while (p < length) {
+                byte b = byteAt(p);
+                if (b == '"') {
+                    p = skipString(p);
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return p + 1;
+                    }
+                }
+                p++;
+            }
+            throw error(p, "Unterminated object or array");
+        }
+
+        private long skipString(long start) {
+            long p = start + 1; // skip opening '"'
+            while (p < length) {
+                byte b = byteAt(p);
+                if (b == '"') {
+                    return p + 1;
+                }
+                if (b == '\\') {
+                    p++; // skip backslash and the escaped byte
+                }
+                p++;
+            }
+            throw error(p, "Unterminated string");
+        }
+
+        // A bare value may legitimately end at EOF (top-level primitive); callers
+        // inside an array report the missing ']' themselves.
+        private long skipBareValue(long start) {
+            long p = start;
+            while (p < length) {
+                byte b = byteAt(p);
+                if (b == ',' || b == ']' || b == '}' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                    return p;
+                }
+                p++;
+            }
+            return p;
+        }
+
+        long skipWhitespace(long pos) {
+            long p = pos;
+            while (p < length) {
+                byte b = byteAt(p);
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') break;
+                p++;
+            }
+            return p;
+        }
+
+        private SQL4JsonExecutionException error(long pos, String message) {
+            return new SQL4JsonExecutionException("Failed to parse JSON at position " + pos + ": " + message);
+        }
+    }
+
+    private final class ElementIterator implements Iterator<JsonValue> {
+
+        private final Scanner scanner;
+        private final FieldProjection projection;
+        private long pos;
+        private boolean done;
+
+        ElementIterator(Scanner scanner, long arrayStart, FieldProjection projection) {
+            this.scanner = scanner;
+            this.projection = projection;
+            this.pos = scanner.skipWhitespace(arrayStart + 1); // skip '['
+            this.done = pos < length && byteAt(pos) == ']';
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (done) throw new NoSuchElementException();
+
+            if (pos >= length) {
+                throw scanner.error(pos, "Unexpected end of input in array");
+            }
+            long end = scanner.skipValue(pos);
+            JsonValue element = scanner.parse(pos, end, projection);
+
+            pos = scanner.skipWhitespace(end);
+            if (pos >= length) {
+                throw scanner.error(pos, "Unexpected end of input in array");
+            }
+            byte b = byteAt(pos);
+            if (b == ']') {
+                done = true;
+            } else if (b == ',') {
+                pos = scanner.skipWhitespace(pos + 1);
+                if (pos < length && byteAt(pos) == ']') {
+                    throw scanner.error(pos, "Trailing comma in array");
+                }
+            } else {
+                throw scanner.error(pos, "Expected ',' or ']' after array element");
+            }
+            return element;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import io.github.mnesimiyilmaz.sql4json.engine.Futures;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Parses the elements of a top-level array on an executor while preserving their order. The calling thread runs the
+ * structural pre-scan ({@link ElementScanner}: string and bracket tracking only, no values built) and cuts the elements
+ * into batches of roughly {@link #BATCH_SIZE} chars or bytes; each batch is parsed as one task by a
+ * {@link RegionParser} of its own, so parsers holding per-instance key and shape pools never run concurrently. At most
+ * {@code 2 × parseParallelism} batches are in flight, so a lazily consumed stream holds a bounded window of parsed
+ * elements rather than the whole array.
+ *
+ * <p>Errors surface in input order: a structural error found by the scan is reported only after every element before it
+ * has been delivered, so the first malformed element wins just as with sequential parsing.
+ *
+ * <p>Elements the region parser returns as {@code null} (rejected by a projection filter) are dropped. Single-use and
+ * not thread-safe; only the parse tasks run concurrently.
+ */
+final class ParallelElementIterator implements Iterator<JsonValue> {
+
+    /** Target input size of one parse batch; arrays below it are parsed on the calling thread. */
+    static final int BATCH_SIZE = 256 * 1024;
+
+    private static final int MAX_BATCH_ELEMENTS = 4096;
+
+    /** Finds element boundaries of a top-level array without building values. */
+    interface ElementScanner {
+        boolean hasNext();
+
+        /**
+         * Scans the next element and steps past the separator that follows it.
+         *
+         * @return the element's bounds, packed with {@link #bounds(int, int)}
+         */
+        long nextBounds();
+    }
+
+    /** Parses the element in {@code [start, end)}; returns {@code null} when a projection filter rejects it. */
+    @FunctionalInterface
+    interface RegionParser {
+        JsonValue parse(int start, int end);
+    }
+
+    private final ElementScanner scanner;
+    private final Supplier<RegionParser> parsers;
+    private final Executor executor;
+    private final int window;
+    private final ArrayDeque<CompletableFuture<List<JsonValue>>> pending = new ArrayDeque<>();
+    private List<JsonValue> current = List.of();
+    private int index;
+    private RuntimeException scanFailure;
+
+    ParallelElementIterator(ElementScanner scanner, Supplier<RegionParser> parsers, DefaultJsonCodecSettings settings) {
+        this.scanner = scanner;
+        this.parsers = parsers;
+        this.executor = settings.parseExecutor() != null ? settings.parseExecutor() : ForkJoinPool.commonPool();
+        this.window = settings.parseParallelism() * 2;
+    }
+
+    static long bounds(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * Whether {@code settings} ask for parallel parsing and an input of {@code length} chars or bytes is worth it.
+     *
+     * @param length input size
+     * @param settings codec settings
+     * @return {@code true} to parse with this iterator
+     */
+    static boolean applies(int length, DefaultJsonCodecSettings settings) {
+        return settings.parseParallelism() > 1 && length > BATCH_SIZE;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index == current.size()) {
+            fill();
+            CompletableFuture<List<JsonValue>> head = pending.poll();
+            if (head == null) {
+                if (scanFailure != null) {
+                    RuntimeException failure = scanFailure;
+                    scanFailure = null;
+                    throw failure;
+                }
+                return false;
+            }
+            current = Futures.join(head);
+            index = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public JsonValue next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.get(index++);
+    }
+
+    private void fill() {
+        while (pending.size() < window && scanFailure == null && scanner.hasNext()) {
+            long[] batch = new long[64];
+            int count = 0;
+            long size = 0;
+            try {
+                while (count < MAX_BATCH_ELEMENTS && size < BATCH_SIZE && scanner.hasNext()) {
+                    long b = scanner.nextBounds();
+                    if (count == batch.length) {
+                        batch = Arrays.copyOf(batch, count * 2);
+                    }
+                    batch[count++] = b;
+                    size += (int) b - (int) (b >>> 32);
+                }
+            } catch (RuntimeException e) {
+                scanFailure = e;
+            }
+            if (count == 0) return;
+            long[] bounds = batch;
+            int n = count;
+            if (pending.isEmpty() && (scanFailure != null || !scanner.hasNext())) {
+                // Last batch and nothing queued ahead of it: no point handing it to another thread.
+                pending.add(CompletableFuture.completedFuture(parseBatch(bounds, n)));
+            } else {
+                pending.add(CompletableFuture.supplyAsync(() -> parseBatch(bounds, n), executor));
+            }
+        }
+    }
+
+    private List<JsonValue> parseBatch(long[] bounds, int count) {
+        RegionParser parser = parsers.get();
+        List<JsonValue> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long b = bounds[i];
+            JsonValue element = parser.parse((int) (b >>> 32), (int) b);
+            if (element != null) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,58 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Per-parse registry of object key arrays ("shapes"). Objects that share the same key sequence share a single exact-fit
+ * {@code String[]}, so a homogeneous array of N rows holds one key array instead of N. Used by both {@link JsonParser}
+ * and {@link Utf8JsonParser}; one instance per parse, not thread-safe.
+ */
+final class ShapeRegistry {
+
+    /**
+     * Maximum number of distinct object shapes the registry will intern before bypassing further candidates. Bounds
+     * worst-case heterogeneous-JSON memory.
+     */
+    static final int MAX_SHAPES = 256;
+
+    private final HashMap<Long, String[]> shapes = new HashMap<>();
+
+    /**
+     * Returns a shared exact-fit key array for the given prefix when the same shape has been seen before in this parse;
+     * otherwise interns the candidate. Every accepted candidate is exact-fit on return so {@link CompactStringMap} sees
+     * consistent input. Bounded by {@link #MAX_SHAPES} to cap heterogeneous-JSON worst case.
+     *
+     * <p>Uses an inline 64-bit hash + a {@code HashMap<Long, String[]>} so the lookup does not allocate a per-call key
+     * wrapper. On the rare hash collision (different shapes hashing to the same long), the second shape overwrites the
+     * first; both remain functionally correct, only the cache-sharing benefit is lost for the conflicting shapes.
+     *
+     * @param candidate the key array buffer (may have trailing slack)
+     * @param size the number of valid keys in {@code candidate}
+     * @return an exact-fit array (shared on cache hit, fresh on miss)
+     */
+    String[] intern(String[] candidate, int size) {
+        if (shapes.size() >= MAX_SHAPES) {
+            // Bypass past the cap — preserve the exact-fit invariant.
+            return (size == candidate.length) ? candidate : Arrays.copyOf(candidate, size);
+        }
+        long hash = computeShapeHash(candidate, size);
+        String[] existing = shapes.get(hash);
+        if (existing != null && Arrays.equals(existing, 0, existing.length, candidate, 0, size)) {
+            return existing;
+        }
+        // Cache miss or rare hash collision (different shape, same hash).
+        String[] interned = (size == candidate.length) ? candidate : Arrays.copyOf(candidate, size);
+        shapes.put(hash, interned);
+        return interned;
+    }
+
+    private static long computeShapeHash(String[] keys, int size) {
+        long h = 1L;
+        for (int i = 0; i < size; i++) {
+            h = 31L * h + keys[i].hashCode();
+        }
+        return h;
+    }
+}
@@ -4,13 +4,25 @@ package io.github.mnesimiyilmaz.sql4json.json;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * Streams top-level array elements from a JSON string one at a time. Each element is parsed via
- * {@link JsonParser#parseRegion} — only one element lives in memory at a time.
+ * {@link JsonParser#parseRegion} — only one element lives in memory at a time. UTF-8 byte input is handled the same way
+ * through {@link Utf8JsonParser#parseRegion}, without decoding the document into a {@link String} first. Files are
+ * memory-mapped and scanned with {@code long} offsets via {@link MappedJsonFile}; streams and channels are read
+ * incrementally through a bounded buffer via {@link IncrementalJsonReader}.
+ *
+ * <p>Newline-delimited JSON (NDJSON / JSON Lines) is streamed by the {@code streamLines} methods: each non-blank line
+ * is one record, found with a plain newline scan and parsed on its own.
  */
 public final class StreamingJsonParser {
 
@@ -57,7 +69,24 @@ public final class StreamingJsonParser {
      * @return lazy stream of JsonValue elements
      */
     public static Stream<JsonValue> streamArray(String json, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamArray(json, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location, building each element with only the object members in
+     * {@code projection}.
+     *
+     * @param json the raw JSON string
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @param projection object members to keep in each element; others are skipped without being parsed
+     * @return lazy stream of JsonValue elements
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamArray(
+            String json, String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
         Objects.requireNonNull(settings, "settings");
+        Objects.requireNonNull(projection, "projection");
         if (json == null || json.isBlank()) {
             throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
         }
@@ -87,13 +116,339 @@ public final class StreamingJsonParser {
 
         // Non-array root: object → single-element stream; primitive/null → empty
         if (first == '{') {
-            return Stream.of(JsonParser.parse(json, settings));
+            return Stream.ofNullable(JsonParser.parseRegion(json, pos, json.length(), settings, projection));
         }
         if (first != '[') {
             return Stream.empty();
         }
 
-        return streamArrayElements(json, pos, settings);
+        return streamArrayElements(json, pos, settings, projection);
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location, reading UTF-8 encoded bytes directly.
+     *
+     * @param json the UTF-8 encoded JSON bytes
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.); {@code maxInputLength} is measured in bytes
+     * @return lazy stream of JsonValue elements
+     */
+    public static Stream<JsonValue> streamArray(byte[] json, String rootPath, DefaultJsonCodecSettings settings) {
+        if (json == null) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        return streamArray(json, 0, json.length, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location, reading the UTF-8 encoded bytes between the buffer's
+     * position and limit. The buffer's position is left untouched; heap buffers are read in place, direct buffers are
+     * copied once.
+     *
+     * @param json the buffer holding the UTF-8 encoded JSON
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.); {@code maxInputLength} is measured in bytes
+     * @return lazy stream of JsonValue elements
+     */
+    public static Stream<JsonValue> streamArray(ByteBuffer json, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamArray(json, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Byte-buffer counterpart of {@link #streamArray(String, String, DefaultJsonCodecSettings, FieldProjection)}.
+     *
+     * @param json the buffer holding the UTF-8 encoded JSON
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.); {@code maxInputLength} is measured in bytes
+     * @param projection object members to keep in each element; others are skipped without being parsed
+     * @return lazy stream of JsonValue elements
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamArray(
+            ByteBuffer json, String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        if (json == null) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        if (json.hasArray()) {
+            return streamArray(
+                    json.array(),
+                    json.arrayOffset() + json.position(),
+                    json.remaining(),
+                    rootPath,
+                    settings,
+                    projection);
+        }
+        byte[] copy = new byte[json.remaining()];
+        json.duplicate().get(copy);
+        return streamArray(copy, 0, copy.length, rootPath, settings, projection);
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location, reading a UTF-8 JSON file through a read-only memory
+     * mapping. Files larger than 2 GiB are supported. Since the document is never materialized, {@code maxInputLength}
+     * limits each array element rather than the file.
+     *
+     * @param file the UTF-8 encoded JSON file
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @return lazy stream of JsonValue elements
+     * @throws SQL4JsonExecutionException if the file cannot be read or its JSON is malformed
+     */
+    public static Stream<JsonValue> streamArray(Path file, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamArray(file, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Memory-mapped file counterpart of {@link #streamArray(String, String, DefaultJsonCodecSettings,
+     * FieldProjection)}.
+     *
+     * @param file the UTF-8 encoded JSON file
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @param projection object members to keep in each element; others are skipped without being parsed
+     * @return lazy stream of JsonValue elements
+     * @throws SQL4JsonExecutionException if the file cannot be read or its JSON is malformed
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamArray(
+            Path file, String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        return streamArray(file, rootPath, settings, projection, MappedJsonFile.DEFAULT_SEGMENT_SIZE);
+    }
+
+    static Stream<JsonValue> streamArray(
+            Path file, String rootPath, DefaultJsonCodecSettings settings, long segmentSize) {
+        return streamArray(file, rootPath, settings, FieldProjection.ALL, segmentSize);
+    }
+
+    static Stream<JsonValue> streamArray(
+            Path file,
+            String rootPath,
+            DefaultJsonCodecSettings settings,
+            FieldProjection projection,
+            long segmentSize) {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(settings, "settings");
+        MappedJsonFile mapped;
+        try {
+            mapped = MappedJsonFile.map(file, segmentSize);
+        } catch (IOException e) {
+            throw new SQL4JsonExecutionException("Failed to read JSON file: " + e.getMessage(), e);
+        }
+        return mapped.streamArray(rootPath, settings, projection);
+    }
+
+    /**
+     * Navigate to a path then stream the array at that location, pulling UTF-8 bytes from {@code in} as the returned
+     * stream is consumed. For a root array only the element in flight is buffered, and {@code maxInputLength} limits
+     * each element; a root object or non-root path buffers the whole document, bounded by {@code maxInputLength}. The
+     * stream is not closed.
+     *
+     * @param in the UTF-8 encoded JSON input
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @return lazy stream of JsonValue elements
+     * @throws SQL4JsonExecutionException if reading fails or the JSON is malformed
+     */
+    public static Stream<JsonValue> streamArray(InputStream in, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamArray(in, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Stream counterpart of {@link #streamArray(String, String, DefaultJsonCodecSettings, FieldProjection)}. The stream
+     * is not closed.
+     *
+     * @param in the UTF-8 encoded JSON input
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @param projection object members to keep in each element; others are skipped without being parsed
+     * @return lazy stream of JsonValue elements
+     * @throws SQL4JsonExecutionException if reading fails or the JSON is malformed
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamArray(
+            InputStream in, String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        Objects.requireNonNull(in, "in");
+        return new IncrementalJsonReader(in::read, settings, IncrementalJsonReader.INITIAL_BUFFER_SIZE)
+                .streamArray(rootPath, projection);
+    }
+
+    /**
+     * Channel counterpart of {@link #streamArray(InputStream, String, DefaultJsonCodecSettings)}. The channel must be
+     * in blocking mode; it is not closed.
+     *
+     * @param channel the UTF-8 encoded JSON input
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @return lazy stream of JsonValue elements
+     * @throws SQL4JsonExecutionException if reading fails or the JSON is malformed
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     */
+    public static Stream<JsonValue> streamArray(
+            ReadableByteChannel channel, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamArray(channel, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * Channel counterpart of {@link #streamArray(String, String, DefaultJsonCodecSettings, FieldProjection)}. The
+     * channel must be in blocking mode; it is not closed.
+     *
+     * @param channel the UTF-8 encoded JSON input
+     * @param rootPath path like "$r.data.items", "$r", or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @param projection object members to keep in each element; others are skipped without being parsed
+     * @return lazy stream of JsonValue elements
+     * @throws SQL4JsonExecutionException if reading fails or the JSON is malformed
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamArray(
+            ReadableByteChannel channel,
+            String rootPath,
+            DefaultJsonCodecSettings settings,
+            FieldProjection projection) {
+        Objects.requireNonNull(channel, "channel");
+        if (channel instanceof SelectableChannel selectable && !selectable.isBlocking()) {
+            throw new IllegalArgumentException("channel must be in blocking mode");
+        }
+        return new IncrementalJsonReader(
+                        (dst, off, len) -> channel.read(ByteBuffer.wrap(dst, off, len)),
+                        settings,
+                        IncrementalJsonReader.INITIAL_BUFFER_SIZE)
+                .streamArray(rootPath, projection);
+    }
+
+    /**
+     * Stream the records of newline-delimited JSON (NDJSON / JSON Lines) one at a time. Each non-blank line holds one
+     * JSON value; {@code \r\n} line endings and a trailing newline are accepted. The input behaves like an array of its
+     * records, so a non-root path selects nothing. {@code maxInputLength} applies to each line.
+     *
+     * @param ndjson the newline-delimited JSON text
+     * @param rootPath "$r" or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @return lazy stream of one JsonValue per record
+     * @throws SQL4JsonExecutionException if the input is null or a line is malformed
+     */
+    public static Stream<JsonValue> streamLines(String ndjson, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamLines(ndjson, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * As {@link #streamLines(String, String, DefaultJsonCodecSettings)}, building each record with only the object
+     * members in {@code projection}.
+     *
+     * @param ndjson the newline-delimited JSON text
+     * @param rootPath "$r" or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @param projection object members to keep in each record; others are skipped without being parsed
+     * @return lazy stream of one JsonValue per record
+     * @throws SQL4JsonExecutionException if the input is null or a line is malformed
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamLines(
+            String ndjson, String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        Objects.requireNonNull(settings, "settings");
+        Objects.requireNonNull(projection, "projection");
+        if (ndjson == null) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        if (rootPath != null && !rootPath.equals("$r")) {
+            return Stream.empty();
+        }
+        return elementStream(new LineIterator(ndjson, settings, projection), projection);
+    }
+
+    /**
+     * Stream the records of UTF-8 newline-delimited JSON pulled incrementally from {@code in}; see
+     * {@link #streamLines(String, String, DefaultJsonCodecSettings)}. Only the line being parsed is buffered. The
+     * stream is not closed.
+     *
+     * @param in the UTF-8 encoded NDJSON input
+     * @param rootPath "$r" or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @return lazy stream of one JsonValue per record
+     * @throws SQL4JsonExecutionException if reading fails or a line is malformed
+     */
+    public static Stream<JsonValue> streamLines(InputStream in, String rootPath, DefaultJsonCodecSettings settings) {
+        return streamLines(in, rootPath, settings, FieldProjection.ALL);
+    }
+
+    /**
+     * As {@link #streamLines(InputStream, String, DefaultJsonCodecSettings)}, building each record with only the object
+     * members in {@code projection}. The stream is not closed.
+     *
+     * @param in the UTF-8 encoded NDJSON input
+     * @param rootPath "$r" or null (root)
+     * @param settings codec/parser settings (security limits, etc.)
+     * @param projection object members to keep in each record; others are skipped without being parsed
+     * @return lazy stream of one JsonValue per record
+     * @throws SQL4JsonExecutionException if reading fails or a line is malformed
+     * @since 1.4.0
+     */
+    public static Stream<JsonValue> streamLines(
+            InputStream in, String rootPath, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        Objects.requireNonNull(in, "in");
+        return new IncrementalJsonReader(in::read, settings, IncrementalJsonReader.INITIAL_BUFFER_SIZE)
+                .streamLines(rootPath, projection);
+    }
+
+    static Stream<JsonValue> streamArray(
+            byte[] json,
+            int offset,
+            int length,
+            String rootPath,
+            DefaultJsonCodecSettings settings,
+            FieldProjection projection) {
+        Objects.requireNonNull(settings, "settings");
+        Objects.requireNonNull(projection, "projection");
+        if (length > settings.maxInputLength()) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input length exceeds configured maximum ("
+                    + settings.maxInputLength() + ")");
+        }
+        int end = offset + length;
+        int pos = skipWhitespace(json, Utf8JsonParser.skipByteOrderMark(json, offset, end), end);
+        if (pos >= end) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+
+        // Same trade-off as the String path: a non-root path parses the (usually
+        // small) wrapping structure in full to locate the target array.
+        if (rootPath != null && !rootPath.equals("$r")) {
+            JsonValue root = Utf8JsonParser.parse(json, offset, length, settings);
+            return streamFromJsonValue(JsonFlattener.navigateToPath(root, rootPath));
+        }
+
+        byte first = json[pos];
+        if (first == '{') {
+            return Stream.ofNullable(Utf8JsonParser.parseRegion(json, pos, end, settings, 0, projection));
+        }
+        if (first != '[') {
+            return Stream.empty();
+        }
+
+        Utf8ArrayElementIterator elements = new Utf8ArrayElementIterator(json, pos, end, settings, projection);
+        if (ParallelElementIterator.applies(length, settings)) {
+            return elementStream(
+                    new ParallelElementIterator(
+                            elements,
+                            () -> (s, e) -> Utf8JsonParser.parseRegion(json, s, e, settings, 0, projection),
+                            settings),
+                    projection);
+        }
+        return elementStream(elements, projection);
+    }
+
+    /**
+     * Wraps an element iterator in a sequential ordered stream. Iterators yield {@code null} for elements the
+     * projection's filter rejected; those are dropped here.
+     */
+    static Stream<JsonValue> elementStream(Iterator<JsonValue> iterator, FieldProjection projection) {
+        if (!projection.hasFilter()) {
+            Spliterator<JsonValue> spliterator =
+                    Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.stream(spliterator, false);
+        }
+        Spliterator<JsonValue> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).filter(Objects::nonNull);
     }
 
     private static Stream<JsonValue> streamFromJsonValue(JsonValue target) {
@@ -105,27 +460,36 @@ public final class StreamingJsonParser {
     }
 
     private static Stream<JsonValue> streamArrayElements(
-            String json, int arrayStart, DefaultJsonCodecSettings settings) {
-        Iterator<JsonValue> iterator = new ArrayElementIterator(json, arrayStart, settings);
-        Spliterator<JsonValue> spliterator =
-                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
-        return StreamSupport.stream(spliterator, false);
+            String json, int arrayStart, DefaultJsonCodecSettings settings, FieldProjection projection) {
+        ArrayElementIterator elements = new ArrayElementIterator(json, arrayStart, settings, projection);
+        if (ParallelElementIterator.applies(json.length(), settings)) {
+            return elementStream(
+                    new ParallelElementIterator(
+                            elements,
+                            () -> (s, e) -> JsonParser.parseRegion(json, s, e, settings, projection),
+                            settings),
+                    projection);
+        }
+        return elementStream(elements, projection);
     }
 
     /**
      * Iterator that yields one parsed JsonValue per array element. Uses position-skipping to find element boundaries
-     * without parsing.
+     * without parsing; as an {@link ParallelElementIterator.ElementScanner} it only reports those boundaries.
      */
-    private static final class ArrayElementIterator implements Iterator<JsonValue> {
+    static final class ArrayElementIterator implements Iterator<JsonValue>, ParallelElementIterator.ElementScanner {
 
         private final String json;
         private final DefaultJsonCodecSettings settings;
+        private final FieldProjection projection;
         private int pos;
         private boolean done;
 
-        ArrayElementIterator(String json, int arrayStart, DefaultJsonCodecSettings settings) {
+        ArrayElementIterator(
+                String json, int arrayStart, DefaultJsonCodecSettings settings, FieldProjection projection) {
             this.json = json;
             this.settings = Objects.requireNonNull(settings, "settings");
+            this.projection = projection;
             this.pos = arrayStart + 1; // skip '['
             this.done = false;
             advancePastWhitespace();
@@ -146,10 +510,31 @@ public final class StreamingJsonParser {
             advancePastWhitespace();
             int start = pos;
             int end = findElementEnd();
-            JsonValue element = JsonParser.parseRegion(json, start, end, settings);
+            JsonValue element = JsonParser.parseRegion(json, start, end, settings, projection);
+            pos = end;
+            consumeSeparator();
+            return element;
+        }
+
+        @Override
+        public long nextBounds() {
+            if (done) throw new NoSuchElementException();
 
-            // Advance past the element, skip whitespace, check comma or ']'
+            advancePastWhitespace();
+            int start = pos;
+            int end = findElementEnd();
             pos = end;
+            consumeSeparator();
+            return ParallelElementIterator.bounds(start, end);
+        }
+
+        /** Position of the closing {@code ']'} once every element has been returned. */
+        int position() {
+            return pos;
+        }
+
+        // Advance past the element, skip whitespace, check comma or ']'
+        private void consumeSeparator() {
             advancePastWhitespace();
             if (pos >= json.length()) {
                 throw new SQL4JsonExecutionException(
@@ -169,8 +554,6 @@ public final class StreamingJsonParser {
                 throw new SQL4JsonExecutionException(
                         "Failed to parse JSON at position " + pos + ": Expected ',' or ']' after array element");
             }
-
-            return element;
         }
 
         /** Find the end position of the current element starting at {@code pos}. */
@@ -260,6 +643,180 @@ public final class StreamingJsonParser {
         }
     }
 
+    /**
+     * Byte-level twin of {@link ArrayElementIterator}; structural characters are ASCII, so UTF-8 is safe to scan.
+     * Element ends are found through a {@link StructuralIndex} of the array.
+     */
+    static final class Utf8ArrayElementIterator implements Iterator<JsonValue>, ParallelElementIterator.ElementScanner {
+
+        private final byte[] json;
+        private final int end;
+        private final DefaultJsonCodecSettings settings;
+        private final FieldProjection projection;
+        private final StructuralIndex index;
+        private int cursor; // first index entry not before pos
+        private int pos;
+        private boolean done;
+
+        Utf8ArrayElementIterator(
+                byte[] json, int arrayStart, int end, DefaultJsonCodecSettings settings, FieldProjection projection) {
+            this.json = json;
+            this.end = end;
+            this.settings = settings;
+            this.projection = projection;
+            this.pos = skipWhitespace(json, arrayStart + 1, end); // skip '['
+            this.done = pos < end && json[pos] == ']';
+            this.index = StructuralIndex.build(json, pos, end);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (done) throw new NoSuchElementException();
+
+            pos = skipWhitespace(json, pos, end);
+            int elementEnd = findElementEnd();
+            JsonValue element = Utf8JsonParser.parseRegion(json, pos, elementEnd, settings, 0, projection);
+            consumeSeparator(elementEnd);
+            return element;
+        }
+
+        @Override
+        public long nextBounds() {
+            if (done) throw new NoSuchElementException();
+
+            pos = skipWhitespace(json, pos, end);
+            int start = pos;
+            int elementEnd = findElementEnd();
+            consumeSeparator(elementEnd);
+            return ParallelElementIterator.bounds(start, elementEnd);
+        }
+
+        /** Position of the closing {@code ']'} once every element has been returned. */
+        int position() {
+            return pos;
+        }
+
+        private void consumeSeparator(int elementEnd) {
+            pos = skipWhitespace(json, elementEnd, end);
+            if (pos >= end) {
+                throw new SQL4JsonExecutionException(
+                        "Failed to parse JSON at position " + pos + ": Unexpected end of input in array");
+            }
+            byte b = json[pos];
+            if (b == ']') {
+                done = true;
+            } else if (b == ',') {
+                pos = skipWhitespace(json, pos + 1, end);
+                if (pos < end && json[pos] == ']') {
+                    throw new SQL4JsonExecutionException(
+                            "Failed to parse JSON at position " + pos + ": Trailing comma in array");
+                }
+            } else {
+                throw new SQL4JsonExecutionException(
+                        "Failed to parse JSON at position " + pos + ": Expected ',' or ']' after array element");
+            }
+        }
+
+        private int findElementEnd() {
+            if (pos >= end) {
+                throw new SQL4JsonExecutionException(
+                        "Failed to parse JSON at position " + pos + ": Unexpected end of input in array");
+            }
+            byte b = json[pos];
+            if (b == '{' || b == '[' || b == '"') {
+                return skipIndexed(b);
+            }
+            return skipBareValue(pos);
+        }
+
+        // Strings and composites start on an index entry; their end is the matching entry.
+        private int skipIndexed(byte opening) {
+            int size = index.size();
+            while (cursor < size && index.position(cursor) < pos) {
+                cursor++;
+            }
+            int close = index.close(json, cursor, end);
+            if (close < 0) {
+                String message = opening != '"' && !index.endsInString()
+                        ? "Unterminated object or array"
+                        : "Unterminated string";
+                throw new SQL4JsonExecutionException("Failed to parse JSON at position " + end + ": " + message);
+            }
+            cursor = close + 1;
+            return index.position(close) + 1;
+        }
+
+        private int skipBareValue(int start) {
+            int p = start;
+            while (p < end) {
+                byte b = json[p];
+                if (b == ',' || b == ']' || b == '}' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                    return p;
+                }
+                p++;
+            }
+            throw new SQL4JsonExecutionException(
+                    "Failed to parse JSON at position " + p + ": Unexpected end of input in array");
+        }
+    }
+
+    /** Iterator that yields one parsed JsonValue per non-blank line of an NDJSON string. */
+    private static final class LineIterator implements Iterator<JsonValue> {
+
+        private final String text;
+        private final DefaultJsonCodecSettings settings;
+        private final FieldProjection projection;
+        private int pos;
+        private long line;
+        private JsonValue next;
+
+        LineIterator(String text, DefaultJsonCodecSettings settings, FieldProjection projection) {
+            this.text = text;
+            this.settings = settings;
+            this.projection = projection;
+            this.pos = !text.isEmpty() && text.charAt(0) == '\uFEFF' ? 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && pos < text.length()) {
+                line++;
+                int newline = text.indexOf('\n', pos);
+                int end = newline < 0 ? text.length() : newline;
+                if (end - pos > settings.maxInputLength()) {
+                    throw new SQL4JsonExecutionException("Failed to parse JSON at position " + pos
+                            + ": Line length exceeds configured maximum (" + settings.maxInputLength() + ")");
+                }
+                if (skipWhitespace(text, pos) < end) {
+                    next = parseLine(end);
+                }
+                pos = end + 1;
+            }
+            return next != null;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            JsonValue value = next;
+            next = null;
+            return value;
+        }
+
+        private JsonValue parseLine(int end) {
+            try {
+                return JsonParser.parseRegion(text, pos, end, settings, projection);
+            } catch (SQL4JsonExecutionException e) {
+                throw new SQL4JsonExecutionException(e.getMessage() + " (line " + line + ")", e);
+            }
+        }
+    }
+
     private static int skipWhitespace(String json, int pos) {
         while (pos < json.length()) {
             char c = json.charAt(pos);
@@ -268,4 +825,13 @@ public final class StreamingJsonParser {
         }
         return pos;
     }
+
+    private static int skipWhitespace(byte[] json, int pos, int end) {
+        while (pos < end) {
+            byte b = json[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') break;
+            pos++;
+        }
+        return pos;
+    }
 }
@@ -7,6 +7,7 @@ import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -32,6 +33,7 @@ public final class StreamingSerializer {
             Stream<RowAccessor> rows, List<SelectColumnDef> columns, FunctionRegistry functionRegistry, int maxRows) {
         StringBuilder sb = new StringBuilder();
         sb.append('[');
+        Function<RowAccessor, JsonValue> projector = JsonUnflattener.rowProjector(columns, functionRegistry);
         boolean[] first = {true};
         int[] count = {0};
         rows.forEach(row -> {
@@ -42,7 +44,7 @@ public final class StreamingSerializer {
             count[0]++;
             if (!first[0]) sb.append(',');
             first[0] = false;
-            JsonValue rowValue = JsonUnflattener.unflattenRow(row, columns, functionRegistry);
+            JsonValue rowValue = projector.apply(row);
             JsonSerializer.writeTo(sb, rowValue);
         });
         sb.append(']');
@@ -0,0 +1,193 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Sorted positions of the structural characters of a UTF-8 JSON region: {@code { } [ ] : ,} outside strings, plus every
+ * unescaped {@code '"'} (opening and closing). Built in one pass, simdjson "stage 1" style — the region is read as
+ * 64-byte blocks of eight little-endian words, each word is classified with SWAR byte compares into 64-bit masks, and
+ * in-string state is carried across blocks with a prefix-XOR of the quote mask. Backslash runs are resolved per block,
+ * so escape-free blocks cost nothing extra.
+ *
+ * <p>Once built, finding the end of a value is a walk over structural positions only: a string ends at the next index
+ * entry, and a composite at the entry where bracket depth returns to zero — the bytes in between are never looked at
+ * again. The element scanners, parallel splitting and projection skips share one index.
+ *
+ * <p>Like the character scanners it replaces, the index is structural only: it does not validate the JSON, and brackets
+ * are matched by depth, not kind. Immutable after {@link #build}, so parse tasks on other threads may read it.
+ */
+final class StructuralIndex {
+
+    private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101_0101_0101_0101L;
+    private static final long LOW7 = 0x7F7F_7F7F_7F7F_7F7FL;
+    // Gathers the low bit of each byte into the top byte: byte k lands on bit 56 + k.
+    private static final long GATHER = 0x0102_0408_1020_4080L;
+
+    private static final long QUOTES = '"' * ONES;
+    private static final long BACKSLASHES = '\\' * ONES;
+    private static final long COLONS = ':' * ONES;
+    private static final long COMMAS = ',' * ONES;
+    private static final long CASE_BIT = 0x20 * ONES; // '[' | 0x20 == '{', ']' | 0x20 == '}'
+    private static final long OPEN_BRACES = '{' * ONES;
+    private static final long CLOSE_BRACES = '}' * ONES;
+
+    private final int[] positions;
+    private final int size;
+    private final boolean endsInString;
+
+    private StructuralIndex(int[] positions, int size, boolean endsInString) {
+        this.positions = positions;
+        this.size = size;
+        this.endsInString = endsInString;
+    }
+
+    /**
+     * Indexes {@code json[from, to)}; {@code from} must lie outside any string.
+     *
+     * @param json UTF-8 input
+     * @param from first byte to index
+     * @param to end of the region, exclusive
+     * @return the index
+     */
+    static StructuralIndex build(byte[] json, int from, int to) {
+        int[] out = new int[Math.max(64, (to - from) >>> 3)];
+        int size = 0;
+        boolean escapeCarry = false; // previous block ended in an unescaped backslash
+        long stringCarry = 0; // all ones while a string is open across a block boundary
+        for (int block = from; block < to; block += 64) {
+            long quote = 0;
+            long backslash = 0;
+            long operator = 0;
+            if (to - block >= 64) {
+                for (int w = 0; w < 8; w++) {
+                    long word = (long) WORDS.get(json, block + (w << 3));
+                    int shift = w << 3;
+                    quote |= matches(word, QUOTES) << shift;
+                    backslash |= matches(word, BACKSLASHES) << shift;
+                    long folded = word | CASE_BIT;
+                    operator |= (matches(folded, OPEN_BRACES)
+                                    | matches(folded, CLOSE_BRACES)
+                                    | matches(word, COLONS)
+                                    | matches(word, COMMAS))
+                            << shift;
+                }
+            } else {
+                for (int i = 0, n = to - block; i < n; i++) {
+                    byte b = json[block + i];
+                    long bit = 1L << i;
+                    if (b == '"') {
+                        quote |= bit;
+                    } else if (b == '\\') {
+                        backslash |= bit;
+                    } else if (b == '{' || b == '}' || b == '[' || b == ']' || b == ':' || b == ',') {
+                        operator |= bit;
+                    }
+                }
+            }
+
+            long escaped = 0;
+            if (escapeCarry) {
+                escaped = 1L;
+                backslash &= ~1L;
+                escapeCarry = false;
+            }
+            while (backslash != 0) {
+                int i = Long.numberOfTrailingZeros(backslash);
+                if (i == 63) {
+                    escapeCarry = true;
+                    break;
+                }
+                escaped |= 1L << (i + 1);
+                backslash &= ~(3L << i); // the escaped byte cannot start an escape of its own
+            }
+
+            quote &= ~escaped;
+            operator &= ~escaped;
+            long inString = prefixXor(quote) ^ stringCarry; // opening quote set, closing quote clear
+            stringCarry = inString >> 63;
+            long structural = (operator & ~inString) | quote;
+
+            if (out.length - size < 64) {
+                out = Arrays.copyOf(out, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(out.length * 2L, size + 64L)));
+            }
+            while (structural != 0) {
+                out[size++] = block + Long.numberOfTrailingZeros(structural);
+                structural &= structural - 1;
+            }
+        }
+        return new StructuralIndex(out, size, stringCarry != 0);
+    }
+
+    // 0x01-per-byte mask of the bytes of word equal to the byte repeated in pattern, gathered into 8 bits.
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        long zero = ~(((x & LOW7) + LOW7) | x | LOW7); // 0x80 exactly in the zero bytes
+        return ((zero >>> 7) * GATHER) >>> 56;
+    }
+
+    private static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int position(int i) {
+        return positions[i];
+    }
+
+    /** Whether the region ends inside an unterminated string. */
+    boolean endsInString() {
+        return endsInString;
+    }
+
+    /**
+     * Returns the index of the first entry at or after {@code pos}.
+     *
+     * @param pos a byte position
+     * @return an entry index, {@link #size()} when none follows
+     */
+    int find(int pos) {
+        int i = Arrays.binarySearch(positions, 0, size, pos);
+        return i >= 0 ? i : -(i + 1);
+    }
+
+    /**
+     * Returns the entry closing the string or composite that opens at entry {@code i}.
+     *
+     * @param json the indexed input
+     * @param i entry of an opening quote or bracket
+     * @param limit positions at or after it are out of range
+     * @return the entry index of the closing quote or bracket, or {@code -1} when it is not before {@code limit}
+     */
+    int close(byte[] json, int i, int limit) {
+        if (json[positions[i]] == '"') {
+            return i + 1 < size && positions[i + 1] < limit ? i + 1 : -1;
+        }
+        int depth = 0;
+        for (; i < size; i++) {
+            int p = positions[i];
+            if (p >= limit) return -1;
+            byte b = json[p];
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
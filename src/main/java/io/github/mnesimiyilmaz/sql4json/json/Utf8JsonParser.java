@@ -0,0 +1,951 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Recursive descent JSON parser (RFC 8259) that reads UTF-8 encoded bytes directly, without first decoding the whole
+ * document into a {@link String}. Produces the same {@link JsonValue} trees as {@link JsonParser} and enforces the same
+ * {@link DefaultJsonCodecSettings} limits; {@code maxInputLength} is measured in bytes.
+ *
+ * <p>All JSON structural characters are ASCII, so the parser scans bytes and only decodes string contents. Escape-free
+ * strings are decoded with a single {@code new String(bytes, off, len, UTF_8)} call; malformed UTF-8 sequences are
+ * replaced with {@code U+FFFD}, exactly as decoding the whole input up front would. Escape-free object keys are
+ * resolved through a small byte-range cache so repeated keys do not allocate. A leading UTF-8 byte order mark is
+ * skipped. Error positions are byte offsets.
+ */
+public final class Utf8JsonParser {
+
+    private static final int KEY_CACHE_SIZE = 512; // power of two
+    private static final int KEY_CACHE_PROBES = 8;
+
+    private final byte[] input;
+    private int endPos;
+    private int pos;
+    private int depth;
+    private final HashMap<String, String> keyPool = new HashMap<>();
+    private final ShapeRegistry shapes = new ShapeRegistry();
+    private final DefaultJsonCodecSettings settings;
+    private byte[][] keyCacheBytes;
+    private String[] keyCacheStrings;
+    private long positionShift; // added to reported positions when input is a window onto a larger stream
+
+    Utf8JsonParser(byte[] input, int startPos, int endPos, DefaultJsonCodecSettings settings) {
+        this.input = input;
+        this.pos = startPos;
+        this.endPos = endPos;
+        this.settings = settings;
+    }
+
+    /**
+     * Parses a UTF-8 encoded JSON document into a {@link JsonValue} tree using the given codec settings.
+     *
+     * @param json the UTF-8 encoded JSON bytes
+     * @param settings the codec settings controlling parsing limits
+     * @return the parsed JSON value tree
+     */
+    public static JsonValue parse(byte[] json, DefaultJsonCodecSettings settings) {
+        if (json == null) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        return parse(json, 0, json.length, settings);
+    }
+
+    /**
+     * Convenience overload that parses {@code json} using {@link DefaultJsonCodecSettings#defaults()}.
+     *
+     * @param json the UTF-8 encoded JSON bytes
+     * @return the parsed JSON value tree
+     */
+    public static JsonValue parse(byte[] json) {
+        return parse(json, DefaultJsonCodecSettings.defaults());
+    }
+
+    /**
+     * Parses the UTF-8 encoded JSON document held in {@code json[offset, offset + length)}.
+     *
+     * @param json the byte array holding the document
+     * @param offset index of the first byte of the document
+     * @param length number of bytes in the document
+     * @param settings the codec settings controlling parsing limits
+     * @return the parsed JSON value tree
+     */
+    public static JsonValue parse(byte[] json, int offset, int length, DefaultJsonCodecSettings settings) {
+        Objects.requireNonNull(settings, "settings");
+        if (json == null) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        Objects.checkFromIndexSize(offset, length, json.length);
+        if (length > settings.maxInputLength()) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input length exceeds configured maximum ("
+                    + settings.maxInputLength() + ")");
+        }
+        int start = skipByteOrderMark(json, offset, offset + length);
+        Utf8JsonParser parser = new Utf8JsonParser(json, start, offset + length, settings);
+        parser.skipWhitespace();
+        if (parser.pos >= parser.endPos) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        if (settings.lazyDocuments()) {
+            return parser.parseTapeDocument();
+        }
+        if (ParallelElementIterator.applies(length, settings) && json[parser.pos] == '[') {
+            return parser.parseArrayDocumentInParallel();
+        }
+        return parser.parseDocument();
+    }
+
+    /**
+     * Parses the UTF-8 encoded JSON document between the buffer's position and limit. The buffer's position, limit and
+     * mark are left untouched. Heap buffers are parsed in place; direct buffers are copied once into a heap array.
+     *
+     * @param json the buffer holding the document
+     * @param settings the codec settings controlling parsing limits
+     * @return the parsed JSON value tree
+     */
+    public static JsonValue parse(ByteBuffer json, DefaultJsonCodecSettings settings) {
+        if (json == null) {
+            throw new SQL4JsonExecutionException("Failed to parse JSON: input is null or blank");
+        }
+        if (json.hasArray()) {
+            return parse(json.array(), json.arrayOffset() + json.position(), json.remaining(), settings);
+        }
+        byte[] copy = new byte[json.remaining()];
+        json.duplicate().get(copy);
+        return parse(copy, 0, copy.length, settings);
+    }
+
+    static JsonValue parseRegion(byte[] input, int start, int end, DefaultJsonCodecSettings settings) {
+        Objects.requireNonNull(settings, "settings");
+        return new Utf8JsonParser(input, start, end, settings).parseDocument();
+    }
+
+    /**
+     * Parses a region of a buffer that holds a window of a larger input starting at input offset {@code bufferOrigin};
+     * error positions are reported relative to the whole input.
+     */
+    static JsonValue parseRegion(
+            byte[] input, int start, int end, DefaultJsonCodecSettings settings, long bufferOrigin) {
+        return parseRegion(input, start, end, settings, bufferOrigin, FieldProjection.ALL);
+    }
+
+    /**
+     * As {@link #parseRegion(byte[], int, int, DefaultJsonCodecSettings, long)}, keeping only the object members in
+     * {@code projection}; the others are skipped without building values for them, but validated as strictly as kept
+     * ones, so whether the region parses does not depend on the projection. Returns {@code null} when the projection's
+     * element filter rejects the value.
+     */
+    static JsonValue parseRegion(
+            byte[] input,
+            int start,
+            int end,
+            DefaultJsonCodecSettings settings,
+            long bufferOrigin,
+            FieldProjection projection) {
+        Objects.requireNonNull(settings, "settings");
+        if (projection.hasFilter()) {
+            return projection.parseElement(p -> parseProjected(input, start, end, settings, bufferOrigin, p));
+        }
+        return parseProjected(input, start, end, settings, bufferOrigin, projection);
+    }
+
+    private static JsonValue parseProjected(
+            byte[] input,
+            int start,
+            int end,
+            DefaultJsonCodecSettings settings,
+            long bufferOrigin,
+            FieldProjection projection) {
+        Utf8JsonParser parser = new Utf8JsonParser(input, start, end, settings);
+        parser.positionShift = bufferOrigin;
+        return parser.parseDocument(projection);
+    }
+
+    /**
+     * Validates the single JSON value in {@code input[start, end)} as {@link #parseRegion} would, without building it.
+     * Error positions are reported relative to {@code bufferOrigin}.
+     */
+    static void validateRegion(byte[] input, int start, int end, DefaultJsonCodecSettings settings, long bufferOrigin) {
+        Objects.requireNonNull(settings, "settings");
+        Utf8JsonParser parser = new Utf8JsonParser(input, start, end, settings);
+        parser.positionShift = bufferOrigin;
+        parser.skipValue();
+        parser.skipWhitespace();
+        if (parser.pos < parser.endPos) {
+            throw parser.error("Unexpected content after JSON value");
+        }
+    }
+
+    /** Convenience overload that parses the region using {@link DefaultJsonCodecSettings#defaults()}. */
+    static JsonValue parseRegion(byte[] input, int start, int end) {
+        return parseRegion(input, start, end, DefaultJsonCodecSettings.defaults());
+    }
+
+    static int skipByteOrderMark(byte[] input, int start, int end) {
+        if (end - start >= 3
+                && input[start] == (byte) 0xEF
+                && input[start + 1] == (byte) 0xBB
+                && input[start + 2] == (byte) 0xBF) {
+            return start + 3;
+        }
+        return start;
+    }
+
+    private JsonValue parseDocument() {
+        return parseDocument(FieldProjection.ALL);
+    }
+
+    private JsonValue parseDocument(FieldProjection projection) {
+        JsonValue result = parseValue(projection);
+        skipWhitespace();
+        if (pos < endPos) {
+            throw error("Unexpected content after JSON value");
+        }
+        return result;
+    }
+
+    private JsonValue parseValue() {
+        skipWhitespace();
+        if (pos >= endPos) {
+            throw error("Unexpected end of input");
+        }
+        return switch (input[pos]) {
+            case '{' -> parseObject(FieldProjection.ALL);
+            case '[' -> parseArray();
+            case '"' -> new JsonStringValue(parseRawString(settings.maxStringLength()));
+            case 't', 'f' -> parseBoolean();
+            case 'n' -> parseNull();
+            default -> {
+                byte b = input[pos];
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    yield parseNumber();
+                }
+                throw error("Unexpected character: '" + describe(b) + "'");
+            }
+        };
+    }
+
+    // Only objects narrow the projection; arrays and scalars under a partial projection are parsed in full.
+    private JsonValue parseValue(FieldProjection projection) {
+        if (projection.isAll()) {
+            return parseValue();
+        }
+        skipWhitespace();
+        if (pos < endPos && input[pos] == '{') {
+            return parseObject(projection);
+        }
+        return parseValue();
+    }
+
+    private JsonValue parseObject(FieldProjection projection) {
+        enterNested();
+        pos++; // consume '{'
+        skipWhitespace();
+
+        if (pos < endPos && input[pos] == '}') {
+            pos++;
+            leaveNested();
+            return new JsonObjectValue(Collections.emptyMap());
+        }
+
+        String[] keys = new String[8];
+        JsonValue[] values = new JsonValue[8];
+        int size = 0;
+        boolean reject = settings.duplicateKeyPolicy() == DuplicateKeyPolicy.REJECT;
+        String[] skipped = null; // keys of skipped members, kept only to reject repeats
+        int skippedSize = 0;
+        while (true) {
+            String key = readObjectKey();
+            FieldProjection member = projection.child(key);
+            if (member == null) {
+                skipValue();
+                if (reject) skipped = rejectRepeat(skipped, skippedSize++, key);
+            } else {
+                JsonValue value = parseValue(member);
+                int existingIdx = findKey(keys, size, key);
+                if (existingIdx >= 0) {
+                    applyDuplicatePolicy(existingIdx, key, value, values);
+                } else {
+                    if (size == keys.length) {
+                        int newCap = keys.length * 2;
+                        keys = Arrays.copyOf(keys, newCap);
+                        values = Arrays.copyOf(values, newCap);
+                    }
+                    keys[size] = key;
+                    values[size] = value;
+                    size++;
+                }
+            }
+            if (consumeObjectSeparator()) {
+                leaveNested();
+                JsonValue[] trimmed = (values.length != size) ? Arrays.copyOf(values, size) : values;
+                return new JsonObjectValue(new CompactStringMap<>(shapes.intern(keys, size), trimmed, size));
+            }
+        }
+    }
+
+    private String readObjectKey() {
+        skipWhitespace();
+        if (pos >= endPos || input[pos] != '"') {
+            throw error("Expected string key in object");
+        }
+        String key = parseKey(settings.maxPropertyNameLength());
+        skipWhitespace();
+        expect(':');
+        return key;
+    }
+
+    private static int findKey(String[] keys, int size, String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    private void applyDuplicatePolicy(int existingIdx, String key, JsonValue value, JsonValue[] values) {
+        switch (settings.duplicateKeyPolicy()) {
+            case REJECT -> throw error("Duplicate key '" + key + "' in object");
+            case LAST_WINS -> values[existingIdx] = value;
+            case FIRST_WINS -> {
+                // already kept first; ignore the new value
+            }
+        }
+    }
+
+    private boolean consumeObjectSeparator() {
+        skipWhitespace();
+        if (pos >= endPos) {
+            throw error("Unexpected end of input in object");
+        }
+        if (input[pos] == '}') {
+            pos++;
+            return true;
+        }
+        expect(',');
+        skipWhitespace();
+        if (pos < endPos && input[pos] == '}') {
+            throw error("Trailing comma in object");
+        }
+        return false;
+    }
+
+    // Root array under parseParallelism > 1: this thread finds element boundaries, and the elements are parsed in
+    // batches on the parse executor, each batch by a parser of its own. Same tree and limits as parseArray().
+    private JsonValue parseArrayDocumentInParallel() {
+        var scanner =
+                new StreamingJsonParser.Utf8ArrayElementIterator(input, pos, endPos, settings, FieldProjection.ALL);
+        var elements = new ParallelElementIterator(
+                scanner, () -> new Utf8JsonParser(input, 0, endPos, settings)::parseElement, settings);
+        var values = new ArrayList<JsonValue>();
+        while (elements.hasNext()) {
+            values.add(elements.next());
+            if (values.size() > settings.maxArrayElements()) {
+                throw error("Array element count exceeds configured maximum (" + settings.maxArrayElements() + ")");
+            }
+        }
+        pos = scanner.position() + 1; // consume ']'
+        skipWhitespace();
+        if (pos < endPos) {
+            throw error("Unexpected content after JSON value");
+        }
+        return new JsonArrayValue(values.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(values));
+    }
+
+    // Parses one root-array element in [start, end), one nesting level below the array.
+    private JsonValue parseElement(int start, int end) {
+        pos = start;
+        endPos = end;
+        depth = 1;
+        JsonValue value = parseValue();
+        if (pos < endPos) {
+            throw error("Expected ',' or ']' after array element");
+        }
+        return value;
+    }
+
+    private JsonValue parseArray() {
+        enterNested();
+        pos++; // consume '['
+        skipWhitespace();
+
+        if (pos < endPos && input[pos] == ']') {
+            pos++;
+            leaveNested();
+            return new JsonArrayValue(Collections.emptyList());
+        }
+
+        var elements = new ArrayList<JsonValue>();
+        while (true) {
+            elements.add(parseValue());
+            if (elements.size() > settings.maxArrayElements()) {
+                throw error("Array element count exceeds configured maximum (" + settings.maxArrayElements() + ")");
+            }
+            skipWhitespace();
+            if (pos >= endPos) {
+                throw error("Unexpected end of input in array");
+            }
+            if (input[pos] == ']') {
+                pos++;
+                leaveNested();
+                return new JsonArrayValue(Collections.unmodifiableList(elements));
+            }
+            expect(',');
+            skipWhitespace();
+            if (pos < endPos && input[pos] == ']') {
+                throw error("Trailing comma in array");
+            }
+        }
+    }
+
+    // ── Tape (lazy documents) ────────────────────────────────────────────
+
+    // Same grammar, limits and error positions as parseValue(), but records JsonTape entries instead of building
+    // values: strings and numbers are validated in place and decoded only when the document is read.
+    private JsonValue parseTapeDocument() {
+        JsonTape.Builder tape = new JsonTape.Builder();
+        int from = pos;
+        tapeValue(tape);
+        int to = pos;
+        skipWhitespace();
+        if (pos < endPos) {
+            throw error("Unexpected content after JSON value");
+        }
+        return tape.build(input, from, to, settings).root();
+    }
+
+    private void tapeValue(JsonTape.Builder tape) {
+        skipWhitespace();
+        if (pos >= endPos) {
+            throw error("Unexpected end of input");
+        }
+        switch (input[pos]) {
+            case '{' -> tapeObject(tape);
+            case '[' -> tapeArray(tape);
+            case '"' -> tapeString(tape);
+            case 't', 'f' -> tape.literal(parseBoolean() == JsonBooleanValue.TRUE ? JsonTape.TRUE : JsonTape.FALSE);
+            case 'n' -> {
+                parseNull();
+                tape.literal(JsonTape.NULL);
+            }
+            default -> {
+                byte b = input[pos];
+                if (b != '-' && (b < '0' || b > '9')) {
+                    throw error("Unexpected character: '" + describe(b) + "'");
+                }
+                int start = pos;
+                boolean fractional = scanNumber();
+                tape.scalar(fractional ? JsonTape.FRACTIONAL : JsonTape.INTEGER, start, pos);
+            }
+        }
+    }
+
+    private void tapeObject(JsonTape.Builder tape) {
+        enterNested();
+        pos++; // consume '{'
+        skipWhitespace();
+        int at = tape.open(JsonTape.OBJECT);
+
+        int count = 0;
+        if (pos < endPos && input[pos] == '}') {
+            pos++;
+        } else {
+            boolean reject = settings.duplicateKeyPolicy() == DuplicateKeyPolicy.REJECT;
+            do {
+                String key = readObjectKey();
+                int keyAt = tape.key(key);
+                tapeValue(tape);
+                if (reject && tape.repeatsKey(at, keyAt)) {
+                    throw error("Duplicate key '" + key + "' in object");
+                }
+                count++;
+            } while (!consumeObjectSeparator());
+        }
+        leaveNested();
+        tape.close(at, count);
+    }
+
+    private void tapeArray(JsonTape.Builder tape) {
+        enterNested();
+        pos++; // consume '['
+        skipWhitespace();
+        int at = tape.open(JsonTape.ARRAY);
+
+        int count = 0;
+        if (pos < endPos && input[pos] == ']') {
+            pos++;
+            leaveNested();
+            tape.close(at, count);
+            return;
+        }
+        while (true) {
+            tapeValue(tape);
+            if (++count > settings.maxArrayElements()) {
+                throw error("Array element count exceeds configured maximum (" + settings.maxArrayElements() + ")");
+            }
+            skipWhitespace();
+            if (pos >= endPos) {
+                throw error("Unexpected end of input in array");
+            }
+            if (input[pos] == ']') {
+                pos++;
+                leaveNested();
+                tape.close(at, count);
+                return;
+            }
+            expect(',');
+            skipWhitespace();
+            if (pos < endPos && input[pos] == ']') {
+                throw error("Trailing comma in array");
+            }
+        }
+    }
+
+    private void tapeString(JsonTape.Builder tape) {
+        int start = pos + 1;
+        boolean plain = skipString();
+        tape.scalar(plain ? JsonTape.STRING : JsonTape.ESCAPED_STRING, start, pos - 1);
+    }
+
+    /** Decodes the escaped string whose opening quote is at {@code quote}; {@code end} is just past the closing one. */
+    static String decodeString(byte[] input, int quote, int end, DefaultJsonCodecSettings settings) {
+        return new Utf8JsonParser(input, quote, end, settings).parseRawString(settings.maxStringLength());
+    }
+
+    // ── Skipping (projection) ────────────────────────────────────────────
+
+    // Steps over one value without building it. Same grammar, limits, duplicate-key policy and error positions as
+    // parseValue(), so a document is accepted or rejected regardless of which members the query reads.
+    private void skipValue() {
+        skipWhitespace();
+        if (pos >= endPos) {
+            throw error("Unexpected end of input");
+        }
+        switch (input[pos]) {
+            case '{' -> skipObject();
+            case '[' -> skipArray();
+            case '"' -> skipString();
+            case 't', 'f' -> parseBoolean();
+            case 'n' -> parseNull();
+            default -> {
+                byte b = input[pos];
+                if (b != '-' && (b < '0' || b > '9')) {
+                    throw error("Unexpected character: '" + describe(b) + "'");
+                }
+                scanNumber();
+            }
+        }
+    }
+
+    private void skipObject() {
+        enterNested();
+        pos++; // consume '{'
+        skipWhitespace();
+        if (pos < endPos && input[pos] == '}') {
+            pos++;
+            leaveNested();
+            return;
+        }
+        // Keys are only kept when a repeat must be rejected; the other policies accept any object
+        boolean reject = settings.duplicateKeyPolicy() == DuplicateKeyPolicy.REJECT;
+        String[] keys = null;
+        int size = 0;
+        do {
+            String key = readObjectKey();
+            skipValue();
+            if (reject) keys = rejectRepeat(keys, size++, key);
+        } while (!consumeObjectSeparator());
+        leaveNested();
+    }
+
+    // Throws if key is among keys[0, size); otherwise stores it at keys[size], growing (or creating) the array.
+    private String[] rejectRepeat(String[] keys, int size, String key) {
+        if (keys == null) {
+            keys = new String[8];
+        } else if (findKey(keys, size, key) >= 0) {
+            throw error("Duplicate key '" + key + "' in object");
+        } else if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        keys[size] = key;
+        return keys;
+    }
+
+    private void skipArray() {
+        enterNested();
+        pos++; // consume '['
+        skipWhitespace();
+        if (pos < endPos && input[pos] == ']') {
+            pos++;
+            leaveNested();
+            return;
+        }
+        int count = 0;
+        while (true) {
+            skipValue();
+            if (++count > settings.maxArrayElements()) {
+                throw error("Array element count exceeds configured maximum (" + settings.maxArrayElements() + ")");
+            }
+            skipWhitespace();
+            if (pos >= endPos) {
+                throw error("Unexpected end of input in array");
+            }
+            if (input[pos] == ']') {
+                pos++;
+                leaveNested();
+                return;
+            }
+            expect(',');
+            skipWhitespace();
+            if (pos < endPos && input[pos] == ']') {
+                throw error("Trailing comma in array");
+            }
+        }
+    }
+
+    // Validates the string value at pos and steps past it, decoding only escaped or possibly over-long strings.
+    // Returns whether the string is free of escapes.
+    private boolean skipString() {
+        int quote = pos;
+        int start = ++pos;
+        int end = scanPlainString();
+        if (end < 0) {
+            pos = quote;
+            parseRawString(settings.maxStringLength()); // validates escapes and the decoded length
+            return false;
+        }
+        // UTF-16 length never exceeds the UTF-8 byte count, so only long byte runs need decoding to check.
+        if (end - start > settings.maxStringLength() && decode(start, end).length() > settings.maxStringLength()) {
+            throw error("String value exceeds configured maximum length (" + settings.maxStringLength() + ")");
+        }
+        pos = end + 1;
+        return true;
+    }
+
+    // ── Strings ──────────────────────────────────────────────────────────
+
+    /**
+     * Scans an escape-free string body starting at {@code pos}. Returns the index of the closing quote, or
+     * {@code -(index + 1)} of the first backslash. Throws on control characters and on end of input.
+     */
+    private int scanPlainString() {
+        for (int i = pos; i < endPos; i++) {
+            byte b = input[i];
+            if (b == '"') return i;
+            if (b == '\\') return -(i + 1);
+            // Bytes >= 0x80 are negative as signed bytes — they belong to multi-byte
+            // sequences and are never control characters.
+            if (b >= 0 && b < 0x20) {
+                pos = i;
+                throw error("Unescaped control character in string: 0x" + Integer.toHexString(b));
+            }
+        }
+        pos = endPos;
+        throw error("Unterminated string");
+    }
+
+    private String parseRawString(int maxLength) {
+        pos++; // consume opening '"'
+        int start = pos;
+        int end = scanPlainString();
+        if (end < 0) {
+            return parseRawStringWithEscapes(start, -end - 1, maxLength);
+        }
+        String value = decode(start, end);
+        if (value.length() > maxLength) {
+            throw error("String value exceeds configured maximum length (" + maxLength + ")");
+        }
+        pos = end + 1;
+        return value;
+    }
+
+    private String parseKey(int maxLength) {
+        pos++; // consume opening '"'
+        int start = pos;
+        int end = scanPlainString();
+        if (end < 0) {
+            return internKey(parseRawStringWithEscapes(start, -end - 1, maxLength));
+        }
+        String key = cachedKey(start, end);
+        if (key.length() > maxLength) {
+            throw error("String value exceeds configured maximum length (" + maxLength + ")");
+        }
+        pos = end + 1;
+        return key;
+    }
+
+    private String parseRawStringWithEscapes(int start, int firstEscape, int maxLength) {
+        StringBuilder sb = new StringBuilder(Math.max(16, (firstEscape - start) + 16));
+        appendDecoded(sb, start, firstEscape);
+        pos = firstEscape;
+        while (pos < endPos) {
+            byte b = input[pos];
+            if (b == '"') {
+                pos++;
+                if (sb.length() > maxLength) {
+                    throw error("String value exceeds configured maximum length (" + maxLength + ")");
+                }
+                return sb.toString();
+            }
+            if (sb.length() >= maxLength) {
+                throw error("String value exceeds configured maximum length (" + maxLength + ")");
+            }
+            if (b == '\\') {
+                pos++;
+                appendEscapedChar(sb);
+            } else {
+                int runEnd = scanPlainString();
+                if (runEnd < 0) runEnd = -runEnd - 1;
+                appendDecoded(sb, pos, runEnd);
+                pos = runEnd;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void appendDecoded(StringBuilder sb, int from, int to) {
+        if (from < to) {
+            sb.append(decode(from, to));
+        }
+    }
+
+    private void appendEscapedChar(StringBuilder sb) {
+        if (pos >= endPos) {
+            throw error("Unexpected end of input in string escape");
+        }
+        byte esc = input[pos++];
+        switch (esc) {
+            case '"' -> sb.append('"');
+            case '\\' -> sb.append('\\');
+            case '/' -> sb.append('/');
+            case 'b' -> sb.append('\b');
+            case 'f' -> sb.append('\f');
+            case 'n' -> sb.append('\n');
+            case 'r' -> sb.append('\r');
+            case 't' -> sb.append('\t');
+            case 'u' -> appendUnicodeChar(sb);
+            default -> throw error("Invalid escape sequence: \\" + describe(esc));
+        }
+    }
+
+    private void appendUnicodeChar(StringBuilder sb) {
+        int cp = parseUnicodeEscape();
+        if (Character.isHighSurrogate((char) cp) && pos + 1 < endPos && input[pos] == '\\' && input[pos + 1] == 'u') {
+            pos += 2; // skip backslash-u
+            int low = parseUnicodeEscape();
+            sb.appendCodePoint(Character.toCodePoint((char) cp, (char) low));
+        } else {
+            sb.append((char) cp);
+        }
+    }
+
+    private int parseUnicodeEscape() {
+        if (pos + 4 > endPos) {
+            throw error("Incomplete unicode escape");
+        }
+        int cp = 0;
+        for (int i = pos; i < pos + 4; i++) {
+            int digit = Character.digit(input[i], 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape: \\u" + new String(input, pos, 4, StandardCharsets.ISO_8859_1));
+            }
+            cp = (cp << 4) | digit;
+        }
+        pos += 4;
+        return cp;
+    }
+
+    private String decode(int from, int to) {
+        return new String(input, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    // ── Numbers ──────────────────────────────────────────────────────────
+
+    private JsonValue parseNumber() {
+        int start = pos;
+        boolean fractional = scanNumber();
+        return numberValue(input, start, pos, fractional);
+    }
+
+    // Validates the number token at pos and steps past it. Returns whether it has a fraction or an exponent.
+    private boolean scanNumber() {
+        int start = pos;
+        if (input[pos] == '-') pos++;
+        consumeIntegerPart();
+        boolean hasFraction = consumeFractionPart();
+        int exponentDigits = consumeExponentPart();
+        boolean hasExponent = exponentDigits >= 0;
+
+        int len = pos - start;
+        if (len > settings.maxNumberLength()) {
+            throw error("Number token exceeds configured maximum length (" + settings.maxNumberLength() + ")");
+        }
+        if (exponentDigits > 4) { // exponent > 9999 is pathological for a data library
+            throw error("Number exponent magnitude too large");
+        }
+        return hasFraction || hasExponent;
+    }
+
+    /** Builds the value of the validated number token in {@code input[start, end)}. */
+    static JsonValue numberValue(byte[] input, int start, int end, boolean fractional) {
+        return JsonNumbers.parse(input, start, end, fractional);
+    }
+
+    private void consumeIntegerPart() {
+        if (pos >= endPos) throw error("Unexpected end of input in number");
+        byte b = input[pos];
+        if (b == '0') {
+            pos++;
+        } else if (b >= '1' && b <= '9') {
+            do pos++;
+            while (pos < endPos && isDigit(input[pos]));
+        } else {
+            throw error("Invalid number");
+        }
+    }
+
+    private boolean consumeFractionPart() {
+        if (pos >= endPos || input[pos] != '.') return false;
+        pos++;
+        if (pos >= endPos || !isDigit(input[pos])) {
+            throw error("Expected digit after decimal point");
+        }
+        while (pos < endPos && isDigit(input[pos])) pos++;
+        return true;
+    }
+
+    // Returns the number of exponent digits, or -1 when the token has no exponent.
+    private int consumeExponentPart() {
+        if (pos >= endPos || (input[pos] != 'e' && input[pos] != 'E')) return -1;
+        pos++;
+        if (pos < endPos && (input[pos] == '+' || input[pos] == '-')) pos++;
+        if (pos >= endPos || !isDigit(input[pos])) {
+            throw error("Expected digit in exponent");
+        }
+        int digitsStart = pos;
+        while (pos < endPos && isDigit(input[pos])) pos++;
+        return pos - digitsStart;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    // ── Literals ─────────────────────────────────────────────────────────
+
+    private JsonValue parseBoolean() {
+        if (matchesLiteral("true")) {
+            pos += 4;
+            return JsonBooleanValue.TRUE;
+        }
+        if (matchesLiteral("false")) {
+            pos += 5;
+            return JsonBooleanValue.FALSE;
+        }
+        throw error("Expected 'true' or 'false'");
+    }
+
+    // JSON null has a single canonical value; the alternative is to throw. Shape kept
+    // parallel to parseBoolean / parseNumber for symmetry in parseValue.
+    @SuppressWarnings("SameReturnValue")
+    private JsonValue parseNull() {
+        if (matchesLiteral("null")) {
+            pos += 4;
+            return JsonNullValue.INSTANCE;
+        }
+        throw error("Expected 'null'");
+    }
+
+    private boolean matchesLiteral(String literal) {
+        int len = literal.length();
+        if (pos + len > endPos) return false;
+        for (int i = 0; i < len; i++) {
+            if (input[pos + i] != literal.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────
+
+    /**
+     * Resolves an escape-free key from its raw byte range. Hits return the previously decoded {@link String} without
+     * allocating; misses decode once and remember the bytes. The table is a small open-addressing array with bounded
+     * probing — when a neighbourhood is full the key is decoded and pooled through {@link #internKey(String)} instead.
+     */
+    private String cachedKey(int from, int to) {
+        if (keyCacheBytes == null) {
+            keyCacheBytes = new byte[KEY_CACHE_SIZE][];
+            keyCacheStrings = new String[KEY_CACHE_SIZE];
+        }
+        int h = 1;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + input[i];
+        }
+        int mask = KEY_CACHE_SIZE - 1;
+        int slot = (h ^ (h >>> 16)) & mask;
+        for (int probe = 0; probe < KEY_CACHE_PROBES; probe++) {
+            byte[] cached = keyCacheBytes[slot];
+            if (cached == null) {
+                String key = internKey(decode(from, to));
+                keyCacheBytes[slot] = Arrays.copyOfRange(input, from, to);
+                keyCacheStrings[slot] = key;
+                return key;
+            }
+            if (Arrays.equals(cached, 0, cached.length, input, from, to)) {
+                return keyCacheStrings[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return internKey(decode(from, to));
+    }
+
+    private String internKey(String key) {
+        String existing = keyPool.get(key);
+        if (existing != null) return existing;
+        keyPool.put(key, key);
+        return key;
+    }
+
+    private void skipWhitespace() {
+        while (pos < endPos) {
+            byte b = input[pos];
+            if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        if (pos >= endPos || input[pos] != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    private void enterNested() {
+        if (++depth > settings.maxNestingDepth()) {
+            throw error("Nesting depth exceeds configured maximum (" + settings.maxNestingDepth() + ")");
+        }
+    }
+
+    private void leaveNested() {
+        depth--;
+    }
+
+    /** Renders a byte for an error message: ASCII as-is, anything else as a hex escape. */
+    private static String describe(byte b) {
+        return (b >= 0x20 && b < 0x7F) ? String.valueOf((char) b) : "0x" + Integer.toHexString(b & 0xFF);
+    }
+
+    private SQL4JsonExecutionException error(String message) {
+        return new SQL4JsonExecutionException(
+                "Failed to parse JSON at position " + (positionShift + pos) + ": " + message);
+    }
+}
@@ -788,6 +788,7 @@ class SQL4JsonParserListener extends SQL4JsonBaseListener {
             var castExpr = castCtx.castExpr();
             String typeName = castExpr.castType().getText().toUpperCase();
             Expression inner = buildExpression(castExpr.columnExpr());
+            trackReferencedFields(inner);
             return new Expression.ScalarFnCall(
                     "cast", List.of(inner, new Expression.LiteralVal(new SqlString(typeName))));
         }
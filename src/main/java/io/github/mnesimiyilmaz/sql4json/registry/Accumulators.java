@@ -0,0 +1,144 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import io.github.mnesimiyilmaz.sql4json.registry.AggregateFunction.Accumulator;
+import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Incremental states of the built-in aggregates. Each yields exactly what the matching list reduction in
+ * {@link FunctionRegistry} returns for the same values: SUM and AVG sum with the same compensated summation as
+ * {@code DoubleStream.sum()}, and MIN / MAX keep the first of several equal extremes.
+ */
+final class Accumulators {
+
+    private Accumulators() {}
+
+    static Accumulator buffering(Function<List<SqlValue>, SqlValue> apply) {
+        return new Buffering(apply);
+    }
+
+    static Accumulator count() {
+        return new Count();
+    }
+
+    static Accumulator sum() {
+        return new Sum(false);
+    }
+
+    static Accumulator avg() {
+        return new Sum(true);
+    }
+
+    static Accumulator min() {
+        return new Extreme(-1);
+    }
+
+    static Accumulator max() {
+        return new Extreme(1);
+    }
+
+    private static final class Buffering implements Accumulator {
+        private final Function<List<SqlValue>, SqlValue> apply;
+        private final List<SqlValue> values = new ArrayList<>();
+
+        Buffering(Function<List<SqlValue>, SqlValue> apply) {
+            this.apply = apply;
+        }
+
+        @Override
+        public void accumulate(SqlValue value) {
+            values.add(value);
+        }
+
+        @Override
+        public void merge(Accumulator other) {
+            values.addAll(((Buffering) other).values);
+        }
+
+        @Override
+        public SqlValue finish() {
+            return apply.apply(values);
+        }
+    }
+
+    private static final class Count implements Accumulator {
+        private long count;
+
+        @Override
+        public void accumulate(SqlValue value) {
+            count++;
+        }
+
+        @Override
+        public void merge(Accumulator other) {
+            count += ((Count) other).count;
+        }
+
+        @Override
+        public SqlValue finish() {
+            return SqlNumber.of(count);
+        }
+    }
+
+    /** SUM and AVG: non-numeric values are skipped, as in the list reductions. */
+    private static final class Sum implements Accumulator {
+        private final boolean average;
+        private final DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+
+        Sum(boolean average) {
+            this.average = average;
+        }
+
+        @Override
+        public void accumulate(SqlValue value) {
+            if (value instanceof SqlNumber n) stats.accept(n.doubleValue());
+        }
+
+        @Override
+        public void merge(Accumulator other) {
+            stats.combine(((Sum) other).stats);
+        }
+
+        @Override
+        public SqlValue finish() {
+            if (!average) return SqlNumber.of(stats.getSum());
+            if (stats.getCount() == 0) return SqlNull.INSTANCE;
+            return SqlNumber.of(stats.getSum() / stats.getCount());
+        }
+    }
+
+    /** MIN ({@code sign = -1}) and MAX ({@code sign = 1}) over non-null values. */
+    private static final class Extreme implements Accumulator {
+        private final int sign;
+        private SqlValue best;
+
+        Extreme(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public void accumulate(SqlValue value) {
+            if (value.isNull()) return;
+            // Replace only on a strict improvement so the first of equal values wins
+            if (best == null || sign * SqlValueComparator.compare(value, best) > 0) best = value;
+        }
+
+        @Override
+        public void merge(Accumulator other) {
+            SqlValue theirs = ((Extreme) other).best;
+            if (theirs != null) accumulate(theirs);
+        }
+
+        @Override
+        public SqlValue finish() {
+            return best != null ? best : SqlNull.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rewrites a criteria tree so that chains of AND / OR evaluate their operands in the order that rejects (AND) or
+ * accepts (OR) rows most cheaply, learned from the rows themselves rather than from the order the query was written in.
+ *
+ * <p>Nested {@link AndNode}s are flattened into one conjunction and nested {@link OrNode}s into one disjunction. Each
+ * junction evaluates every operand, timed, on a window of {@value #SAMPLE_ROWS} sample rows, then sorts the operands by
+ * expected cost per decided row — {@code cost / (1 - passRate)} for AND, {@code cost / passRate} for OR — and
+ * short-circuits in that order until the next sample window, every {@value #RESAMPLE_INTERVAL} rows.
+ *
+ * <p>When no operand throws, every order gives the written order's result, since the operands are side-effect free.
+ * Errors are another matter: SQL leaves the evaluation order of AND / OR operands undefined, and a reordered junction
+ * can short-circuit before an operand whose failure the written order would have reached, so such an error is silently
+ * skipped. The reverse does not happen — a row whose reordered evaluation throws is re-evaluated in the written order
+ * and fails only if that order fails too.
+ *
+ * <p>One junction instance is deliberately shared by every parallel worker filtering with it, so that all morsels
+ * profit from one learned order. The {@code rows}, {@code sampled}, {@code sampleNanos} and {@code samplePasses}
+ * statistics are plain, unsynchronized fields and those races are benign: a worker may lose or double-count a sample or
+ * start a window early, which only skews the ranking. The published order itself is a volatile, never-mutated array, so
+ * every worker evaluates some complete permutation of the operands.
+ *
+ * @since 1.4.0
+ */
+public final class AdaptiveCriteria {
+
+    static final int SAMPLE_ROWS = 64;
+    static final int RESAMPLE_INTERVAL = 4096;
+
+    private AdaptiveCriteria() {}
+
+    /**
+     * Returns an adaptive equivalent of {@code node}. Leaves and single conditions are returned unchanged.
+     *
+     * @param node the criteria tree
+     * @return a criteria node testing the same condition
+     */
+    public static CriteriaNode of(CriteriaNode node) {
+        if (node instanceof AndNode) {
+            return new Conjunction(adaptAll(flatten(node, AndNode.class)));
+        }
+        if (node instanceof OrNode) {
+            return new Disjunction(adaptAll(flatten(node, OrNode.class)));
+        }
+        return node;
+    }
+
+    private static List<CriteriaNode> flatten(CriteriaNode node, Class<? extends CriteriaNode> junction) {
+        List<CriteriaNode> out = new ArrayList<>();
+        collect(node, junction, out);
+        return out;
+    }
+
+    private static void collect(CriteriaNode node, Class<? extends CriteriaNode> junction, List<CriteriaNode> out) {
+        switch (node) {
+            case AndNode(var left, var right)
+            when junction == AndNode.class -> {
+                collect(left, junction, out);
+                collect(right, junction, out);
+            }
+            case OrNode(var left, var right)
+            when junction == OrNode.class -> {
+                collect(left, junction, out);
+                collect(right, junction, out);
+            }
+            default -> out.add(node);
+        }
+    }
+
+    private static CriteriaNode[] adaptAll(List<CriteriaNode> operands) {
+        return operands.stream().map(AdaptiveCriteria::of).toArray(CriteriaNode[]::new);
+    }
+
+    /** Shared sampling and reordering; subclasses supply the short-circuit value and the ranking. */
+    abstract static sealed class Junction implements CriteriaNode permits Conjunction, Disjunction {
+
+        private final CriteriaNode[] operands; // written order
+        private final int[] writtenOrder;
+        private volatile int[] order;
+        // Raced by parallel workers on purpose; see the class comment.
+        private final long[] sampleNanos;
+        private final int[] samplePasses;
+        private int sampled;
+        private long rows;
+
+        Junction(CriteriaNode[] operands) {
+            this.operands = operands;
+            this.writtenOrder = new int[operands.length];
+            Arrays.setAll(writtenOrder, i -> i);
+            this.order = writtenOrder;
+            this.sampleNanos = new long[operands.length];
+            this.samplePasses = new int[operands.length];
+        }
+
+        /** The operand result that decides the junction: {@code false} for AND, {@code true} for OR. */
+        abstract boolean decisive();
+
+        /** Expected cost of evaluating an operand per row it decides; lower runs first. */
+        abstract double rank(double nanos, double passRate);
+
+        @Override
+        public boolean test(RowAccessor row) {
+            if (rows++ % RESAMPLE_INTERVAL < SAMPLE_ROWS) {
+                return sample(row);
+            }
+            int[] current = order;
+            try {
+                return evaluate(row, current);
+            } catch (RuntimeException e) {
+                if (current == writtenOrder) throw e;
+                return evaluate(row, writtenOrder);
+            }
+        }
+
+        private boolean evaluate(RowAccessor row, int[] sequence) {
+            boolean decisive = decisive();
+            for (int i : sequence) {
+                if (operands[i].test(row) == decisive) return decisive;
+            }
+            return !decisive;
+        }
+
+        private boolean sample(RowAccessor row) {
+            boolean decisive = decisive();
+            boolean decided = false;
+            try {
+                for (int i = 0; i < operands.length; i++) {
+                    long start = System.nanoTime();
+                    boolean pass = operands[i].test(row);
+                    sampleNanos[i] += System.nanoTime() - start;
+                    if (pass) samplePasses[i]++;
+                    decided |= pass == decisive;
+                }
+            } catch (RuntimeException e) {
+                return evaluate(row, writtenOrder);
+            }
+            if (++sampled >= SAMPLE_ROWS) reorder();
+            return decided ? decisive : !decisive;
+        }
+
+        private void reorder() {
+            double[] ranks = new double[operands.length];
+            for (int i = 0; i < operands.length; i++) {
+                double passRate = (samplePasses[i] + 1.0) / (sampled + 2.0);
+                ranks[i] = rank((double) sampleNanos[i] / sampled, passRate);
+            }
+            order = Arrays.stream(writtenOrder)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i -> ranks[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            Arrays.fill(sampleNanos, 0);
+            Arrays.fill(samplePasses, 0);
+            sampled = 0;
+        }
+
+        /**
+         * Returns the operands in their current evaluation order.
+         *
+         * @return the operands, most promising first
+         */
+        List<CriteriaNode> evaluationOrder() {
+            return Arrays.stream(order).mapToObj(i -> operands[i]).toList();
+        }
+    }
+
+    /** Flattened AND: the operand most likely to reject a row per nanosecond runs first. */
+    static final class Conjunction extends Junction {
+
+        Conjunction(CriteriaNode[] operands) {
+            super(operands);
+        }
+
+        @Override
+        boolean decisive() {
+            return false;
+        }
+
+        @Override
+        double rank(double nanos, double passRate) {
+            return nanos / (1.0 - passRate);
+        }
+    }
+
+    /** Flattened OR: the operand most likely to accept a row per nanosecond runs first. */
+    static final class Disjunction extends Junction {
+
+        Disjunction(CriteriaNode[] operands) {
+            super(operands);
+        }
+
+        @Override
+        boolean decisive() {
+            return true;
+        }
+
+        @Override
+        double rank(double nanos, double passRate) {
+            return nanos / passRate;
+        }
+    }
+}
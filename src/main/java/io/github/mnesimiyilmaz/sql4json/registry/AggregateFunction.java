@@ -4,11 +4,74 @@ package io.github.mnesimiyilmaz.sql4json.registry;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * An aggregate SQL function (COUNT, SUM, AVG, MIN, MAX) that reduces a list of values to one.
  *
+ * <p>Besides the list form used by window functions, every aggregate can be computed incrementally: {@link #init()}
+ * creates an {@link Accumulator} that is fed one value at a time, so GROUP BY keeps one small state per group instead
+ * of the group's rows. Functions registered without an accumulator get one that buffers the values and calls
+ * {@link #apply()} on {@link Accumulator#finish()}.
+ *
  * @param name function name (case-insensitive)
  * @param apply reduction logic: takes a list of per-row values, returns the aggregate result
+ * @param accumulator creates a fresh incremental state; must produce the same result as {@code apply} for the same
+ *     values in the same order
  */
-public record AggregateFunction(String name, Function<List<SqlValue>, SqlValue> apply) implements SqlFunction {}
+public record AggregateFunction(
+        String name, Function<List<SqlValue>, SqlValue> apply, Supplier<Accumulator> accumulator)
+        implements SqlFunction {
+
+    /**
+     * Creates an aggregate that accumulates by buffering values and reducing them with {@code apply}. Kept for source
+     * compatibility with 1.3.
+     *
+     * @param name function name (case-insensitive)
+     * @param apply reduction logic: takes a list of per-row values, returns the aggregate result
+     */
+    public AggregateFunction(String name, Function<List<SqlValue>, SqlValue> apply) {
+        this(name, apply, () -> Accumulators.buffering(apply));
+    }
+
+    /**
+     * Creates an empty accumulator for one group.
+     *
+     * @return a new accumulator
+     * @since 1.4.0
+     */
+    public Accumulator init() {
+        return accumulator.get();
+    }
+
+    /**
+     * Incremental state of one aggregate over one group. Not thread-safe: each worker accumulates its own instance and
+     * the partial states are combined with {@link #merge(Accumulator)}.
+     *
+     * @since 1.4.0
+     */
+    public interface Accumulator {
+
+        /**
+         * Adds one per-row value.
+         *
+         * @param value the value, possibly {@code SqlNull}
+         */
+        void accumulate(SqlValue value);
+
+        /**
+         * Folds in the state of {@code other}, which was created by the same function and accumulated values that come
+         * after this accumulator's values in input order.
+         *
+         * @param other accumulator of the same function
+         */
+        void merge(Accumulator other);
+
+        /**
+         * Returns the aggregate of the values accumulated so far.
+         *
+         * @return the aggregate result
+         */
+        SqlValue finish();
+    }
+}
@@ -1,8 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.registry;
 
-import io.github.mnesimiyilmaz.sql4json.engine.Expression;
-import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.function.BiPredicate;
 
@@ -25,21 +25,23 @@ public final class BetweenConditionHandler implements ConditionHandler {
     public CriteriaNode handle(ConditionContext ctx, OperatorRegistry operators, FunctionRegistry functions) {
         SqlValue lowerLiteral = ctx.lowerBound();
         SqlValue upperLiteral = ctx.upperBound();
-        Expression lowerExpr = ctx.lowerBoundExpr();
-        Expression upperExpr = ctx.upperBoundExpr();
+        CompiledExpression lowerExpr =
+                ctx.lowerBoundExpr() != null ? ExpressionCompiler.compile(ctx.lowerBoundExpr(), functions) : null;
+        CompiledExpression upperExpr =
+                ctx.upperBoundExpr() != null ? ExpressionCompiler.compile(ctx.upperBoundExpr(), functions) : null;
         boolean negate = ctx.type() == ConditionContext.ConditionType.NOT_BETWEEN;
-        Expression lhs = ctx.lhsExpression();
+        CompiledExpression lhs = ExpressionCompiler.compile(ctx.lhsExpression(), functions);
 
         BiPredicate<SqlValue, SqlValue> gte = operators.getPredicate(">=");
         BiPredicate<SqlValue, SqlValue> lte = operators.getPredicate("<=");
 
         return row -> {
-            SqlValue fieldVal = ExpressionEvaluator.evaluate(lhs, row, functions);
+            SqlValue fieldVal = lhs.evaluate(row);
             if (fieldVal.isNull()) return false;
             // Evaluate bounds: use literal when available, otherwise evaluate expression per-row
             // (covers ParameterRef after substitution and NowRef for dynamic value functions).
-            SqlValue lower = lowerExpr != null ? ExpressionEvaluator.evaluate(lowerExpr, row, functions) : lowerLiteral;
-            SqlValue upper = upperExpr != null ? ExpressionEvaluator.evaluate(upperExpr, row, functions) : upperLiteral;
+            SqlValue lower = lowerExpr != null ? lowerExpr.evaluate(row) : lowerLiteral;
+            SqlValue upper = upperExpr != null ? upperExpr.evaluate(row) : upperLiteral;
             if (lower == null || upper == null || lower.isNull() || upper.isNull()) return false;
             boolean inRange = gte.test(fieldVal, lower) && lte.test(fieldVal, upper);
             return negate != inRange;
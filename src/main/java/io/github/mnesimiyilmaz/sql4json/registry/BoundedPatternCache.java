@@ -5,10 +5,9 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 
 /**
- * Bounded LRU cache for compiled LIKE {@link Pattern} instances.
+ * Bounded LRU cache for compiled LIKE patterns ({@link LikeMatcher} instances).
  *
  * <p>Replaces the previous unbounded {@code ConcurrentHashMap} that lived inside {@link LikeConditionHandler}. One
  * instance is shared between both the LIKE and NOT LIKE handlers inside a single {@link ConditionHandlerRegistry}.
@@ -17,10 +16,12 @@ import java.util.regex.Pattern;
  * {@code computeIfAbsent}. This is a deliberate departure from {@code ConcurrentHashMap.computeIfAbsent} — access-order
  * LRU and {@code removeEldestEntry} both require holding a lock across the get-then-put, which CHM cannot provide
  * atomically.
+ *
+ * @param <V> the compiled pattern type
  */
-final class BoundedPatternCache {
+final class BoundedPatternCache<V> {
 
-    private final Map<String, Pattern> cache;
+    private final Map<String, V> cache;
 
     BoundedPatternCache(int capacity) {
         if (capacity <= 0) {
@@ -28,13 +29,13 @@ final class BoundedPatternCache {
         }
         this.cache = Collections.synchronizedMap(new LinkedHashMap<>(capacity, 0.75f, true) {
             @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Pattern> e) {
+            protected boolean removeEldestEntry(Map.Entry<String, V> e) {
                 return size() > capacity;
             }
         });
     }
 
-    Pattern computeIfAbsent(String key, Function<String, Pattern> compiler) {
+    V computeIfAbsent(String key, Function<String, V> compiler) {
         synchronized (cache) {
             return cache.computeIfAbsent(key, compiler);
         }
@@ -1,9 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.registry;
 
-import io.github.mnesimiyilmaz.sql4json.engine.Expression;
-import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
-import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.function.BiPredicate;
 
@@ -24,23 +23,14 @@ public final class ComparisonConditionHandler implements ConditionHandler {
     @Override
     public CriteriaNode handle(ConditionContext ctx, OperatorRegistry operators, FunctionRegistry functions) {
         BiPredicate<SqlValue, SqlValue> predicate = operators.getPredicate(ctx.operator());
-        Expression lhs = ctx.lhsExpression();
-        Expression rhs = ctx.rhsExpression();
+        CompiledExpression lhs = ExpressionCompiler.compileGroupAware(ctx.lhsExpression(), functions);
+        CompiledExpression rhs = ExpressionCompiler.compileGroupAware(ctx.rhsExpression(), functions);
 
         return row -> {
-            SqlValue lhsVal = evaluateExpr(lhs, row, functions);
-            SqlValue rhsVal = evaluateExpr(rhs, row, functions);
+            SqlValue lhsVal = lhs.evaluate(row);
+            SqlValue rhsVal = rhs.evaluate(row);
             if (lhsVal.isNull() || rhsVal.isNull()) return false;
             return predicate.test(lhsVal, rhsVal);
         };
     }
-
-    private static SqlValue evaluateExpr(Expression expr, RowAccessor row, FunctionRegistry functions) {
-        if (expr.containsAggregate()) {
-            return row.sourceGroup()
-                    .map(group -> ExpressionEvaluator.evaluateAggregate(expr, group, functions))
-                    .orElseGet(() -> ExpressionEvaluator.evaluate(expr, row, functions));
-        }
-        return ExpressionEvaluator.evaluate(expr, row, functions);
-    }
 }
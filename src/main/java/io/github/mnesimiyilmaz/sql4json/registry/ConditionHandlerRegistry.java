@@ -84,7 +84,7 @@ public final class ConditionHandlerRegistry {
     private static ConditionHandlerRegistry build(int likePatternCacheSize) {
         var ops = OperatorRegistry.getDefault();
         var fns = FunctionRegistry.getDefault();
-        var patternCache = new BoundedPatternCache(likePatternCacheSize);
+        var patternCache = new BoundedPatternCache<LikeMatcher>(likePatternCacheSize);
         var r = new ConditionHandlerRegistry(ops, fns);
         r.register(new ComparisonConditionHandler());
         r.register(new LikeConditionHandler(patternCache));
@@ -432,38 +432,44 @@ public final class FunctionRegistry {
     // ── Aggregate functions ──────────────────────────────────────────────
 
     private static void registerAggregateFunctions(FunctionRegistry r) {
-        r.registerAggregate(new AggregateFunction("count", values -> SqlNumber.of(values.size())));
+        r.registerAggregate(new AggregateFunction("count", values -> SqlNumber.of(values.size()), Accumulators::count));
 
         r.registerAggregate(new AggregateFunction(
                 "sum",
                 values -> SqlNumber.of(values.stream()
                         .filter(SqlNumber.class::isInstance)
                         .mapToDouble(v -> ((SqlNumber) v).doubleValue())
-                        .sum())));
-
-        r.registerAggregate(new AggregateFunction("avg", values -> {
-            List<SqlNumber> nums = values.stream()
-                    .filter(SqlNumber.class::isInstance)
-                    .map(v -> (SqlNumber) v)
-                    .toList();
-            if (nums.isEmpty()) return SqlNull.INSTANCE;
-            return SqlNumber.of(
-                    nums.stream().mapToDouble(SqlNumber::doubleValue).sum() / nums.size());
-        }));
+                        .sum()),
+                Accumulators::sum));
+
+        r.registerAggregate(new AggregateFunction(
+                "avg",
+                values -> {
+                    List<SqlNumber> nums = values.stream()
+                            .filter(SqlNumber.class::isInstance)
+                            .map(v -> (SqlNumber) v)
+                            .toList();
+                    if (nums.isEmpty()) return SqlNull.INSTANCE;
+                    return SqlNumber.of(
+                            nums.stream().mapToDouble(SqlNumber::doubleValue).sum() / nums.size());
+                },
+                Accumulators::avg));
 
         r.registerAggregate(new AggregateFunction(
                 "min",
                 values -> values.stream()
                         .filter(v -> !v.isNull())
                         .min(SqlValueComparator::compare)
-                        .orElse(SqlNull.INSTANCE)));
+                        .orElse(SqlNull.INSTANCE),
+                Accumulators::min));
 
         r.registerAggregate(new AggregateFunction(
                 "max",
                 values -> values.stream()
                         .filter(v -> !v.isNull())
                         .max(SqlValueComparator::compare)
-                        .orElse(SqlNull.INSTANCE)));
+                        .orElse(SqlNull.INSTANCE),
+                Accumulators::max));
     }
 
     // ── Core string function bodies ────────────────────────────────────
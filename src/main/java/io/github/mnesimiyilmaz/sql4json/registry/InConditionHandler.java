@@ -1,8 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.registry;
 
-import io.github.mnesimiyilmaz.sql4json.engine.Expression;
-import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
 import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
 import java.util.List;
@@ -23,32 +23,34 @@ public final class InConditionHandler implements ConditionHandler {
     @Override
     public CriteriaNode handle(ConditionContext ctx, OperatorRegistry operators, FunctionRegistry functions) {
         List<SqlValue> valueList = ctx.valueList();
-        List<Expression> valueExprs = ctx.valueExpressions();
         boolean negate = ctx.type() == ConditionContext.ConditionType.NOT_IN;
-        Expression lhs = ctx.lhsExpression();
+        CompiledExpression lhs = ExpressionCompiler.compile(ctx.lhsExpression(), functions);
 
         if (valueList != null) {
-            // All-literal path: fast static check against pre-built value list
+            // All-literal path: one hash probe against a type-partitioned set built once per plan
+            InValueSet values = new InValueSet(valueList);
             return row -> {
-                SqlValue fieldVal = ExpressionEvaluator.evaluate(lhs, row, functions);
+                SqlValue fieldVal = lhs.evaluate(row);
                 if (fieldVal.isNull()) return false;
-                boolean found = valueList.stream()
-                        .filter(v -> !v.isNull())
-                        .anyMatch(v -> SqlValueComparator.compare(fieldVal, v) == 0);
-                return negate != found;
+                return negate != values.contains(fieldVal);
             };
         }
         // Expression path: evaluates each element per-row. Only reachable for non-parameterized
         // queries with a non-literal element (e.g. NOW()) — when a BoundParameters substitution
         // runs, ParameterSubstitutor resolves every element (ParameterRef and NowRef) to literals
         // before this handler is invoked, so the all-literal branch above is taken instead.
+        CompiledExpression[] valueExprs = ExpressionCompiler.compileAll(ctx.valueExpressions(), functions);
         return row -> {
-            SqlValue fieldVal = ExpressionEvaluator.evaluate(lhs, row, functions);
+            SqlValue fieldVal = lhs.evaluate(row);
             if (fieldVal.isNull()) return false;
-            boolean found = valueExprs.stream()
-                    .map(e -> ExpressionEvaluator.evaluate(e, row, functions))
-                    .filter(v -> !v.isNull())
-                    .anyMatch(v -> SqlValueComparator.compare(fieldVal, v) == 0);
+            boolean found = false;
+            for (CompiledExpression e : valueExprs) {
+                SqlValue v = e.evaluate(row);
+                if (!v.isNull() && SqlValueComparator.compare(fieldVal, v) == 0) {
+                    found = true;
+                    break;
+                }
+            }
             return negate != found;
         };
     }
@@ -0,0 +1,127 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plan-time membership structure for the literal list of an IN / NOT IN condition, partitioned by value type so each
+ * lookup is one hash probe with no allocation.
+ *
+ * <p>Membership is exactly {@code SqlValueComparator.compare(value, element) == 0} for some non-null element. For
+ * numbers that means: two {@link SqlLong}s compare as longs, every other numeric pair compares as doubles under
+ * {@link Double#compare}. The numeric partition therefore keeps three primitive sets — the {@code SqlLong} elements,
+ * the canonical double bits of the non-{@code SqlLong} elements, and the canonical double bits of all numeric elements
+ * — and a probe picks the ones that rule applies to. Strings, dates and date-times use their {@code equals}, which
+ * agrees with their {@code compareTo}.
+ */
+final class InValueSet {
+
+    private final LongSet longs = new LongSet();
+    private final LongSet nonLongDoubleBits = new LongSet();
+    private final LongSet allDoubleBits = new LongSet();
+    private final Set<String> strings = new HashSet<>();
+    private final Set<LocalDate> dates = new HashSet<>();
+    private final Set<LocalDateTime> dateTimes = new HashSet<>();
+    private boolean hasTrue;
+    private boolean hasFalse;
+
+    /**
+     * Builds the set from a literal IN list. Null elements never match and are skipped.
+     *
+     * @param values the literal values
+     */
+    InValueSet(List<SqlValue> values) {
+        for (SqlValue v : values) {
+            switch (v) {
+                case SqlNull ignored -> {}
+                case SqlLong(long l) -> {
+                    longs.add(l);
+                    allDoubleBits.add(Double.doubleToLongBits(l));
+                }
+                case SqlNumber n -> {
+                    long bits = Double.doubleToLongBits(n.doubleValue());
+                    nonLongDoubleBits.add(bits);
+                    allDoubleBits.add(bits);
+                }
+                case SqlString(var s) -> strings.add(s);
+                case SqlDate(var d) -> dates.add(d);
+                case SqlDateTime(var dt) -> dateTimes.add(dt);
+                case SqlBoolean(var b) -> {
+                    if (b) hasTrue = true;
+                    else hasFalse = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether {@code value} equals some element of the list.
+     *
+     * @param value a non-null SQL value
+     * @return {@code true} when the list contains an element comparing equal to {@code value}
+     */
+    boolean contains(SqlValue value) {
+        return switch (value) {
+            case SqlNull ignored -> false;
+            case SqlLong(long l) -> longs.contains(l) || nonLongDoubleBits.contains(Double.doubleToLongBits(l));
+            case SqlNumber n -> allDoubleBits.contains(Double.doubleToLongBits(n.doubleValue()));
+            case SqlString(var s) -> strings.contains(s);
+            case SqlDate(var d) -> dates.contains(d);
+            case SqlDateTime(var dt) -> dateTimes.contains(dt);
+            case SqlBoolean(var b) -> b ? hasTrue : hasFalse;
+        };
+    }
+
+    /** Open-addressing set of primitive longs with linear probing. Never shrinks; sized for small literal lists. */
+    private static final class LongSet {
+
+        private long[] keys = new long[8];
+        private boolean[] used = new boolean[8];
+        private int size;
+
+        void add(long key) {
+            if ((size + 1) * 2 > keys.length) grow();
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) return;
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = key;
+            size++;
+        }
+
+        boolean contains(long key) {
+            if (size == 0) return false;
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) return true;
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) add(oldKeys[i]);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
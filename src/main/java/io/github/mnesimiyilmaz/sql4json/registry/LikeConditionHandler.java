@@ -1,18 +1,18 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.registry;
 
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
 import io.github.mnesimiyilmaz.sql4json.engine.Expression;
-import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
 import io.github.mnesimiyilmaz.sql4json.types.SqlString;
 import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
-import java.util.regex.Pattern;
 
 final class LikeConditionHandler implements ConditionHandler {
 
     // Pattern cache — avoids recompiling the same LIKE pattern on every row.
-    private final BoundedPatternCache patternCache;
+    private final BoundedPatternCache<LikeMatcher> patternCache;
 
-    LikeConditionHandler(BoundedPatternCache cache) {
+    LikeConditionHandler(BoundedPatternCache<LikeMatcher> cache) {
         this.patternCache = cache;
     }
 
@@ -31,47 +31,31 @@ final class LikeConditionHandler implements ConditionHandler {
      * LIKE).
      */
     static CriteriaNode buildPatternNode(
-            Expression lhs, Expression rhs, BoundedPatternCache cache, FunctionRegistry functions, boolean negate) {
+            Expression lhs,
+            Expression rhs,
+            BoundedPatternCache<LikeMatcher> cache,
+            FunctionRegistry functions,
+            boolean negate) {
+        CompiledExpression lhsC = ExpressionCompiler.compile(lhs, functions);
         // Static pattern: pre-compile for performance
         if (rhs instanceof Expression.LiteralVal(var val) && val instanceof SqlString(var pat)) {
-            Pattern compiled = cache.computeIfAbsent(pat, LikeConditionHandler::compilePattern);
+            LikeMatcher compiled = cache.computeIfAbsent(pat, LikeMatcher::compile);
             return row -> {
-                SqlValue value = ExpressionEvaluator.evaluate(lhs, row, functions);
+                SqlValue value = lhsC.evaluate(row);
                 if (!(value instanceof SqlString(var str))) return false;
-                return negate != compiled.matcher(str).matches();
+                return negate != compiled.matches(str);
             };
         }
 
         // Dynamic pattern: evaluate per-row (column ref or function result)
+        CompiledExpression rhsC = ExpressionCompiler.compile(rhs, functions);
         return row -> {
-            SqlValue value = ExpressionEvaluator.evaluate(lhs, row, functions);
+            SqlValue value = lhsC.evaluate(row);
             if (!(value instanceof SqlString(var str))) return false;
-            SqlValue patternVal = ExpressionEvaluator.evaluate(rhs, row, functions);
+            SqlValue patternVal = rhsC.evaluate(row);
             if (!(patternVal instanceof SqlString(var patStr))) return false;
-            Pattern compiled = cache.computeIfAbsent(patStr, LikeConditionHandler::compilePattern);
-            return negate != compiled.matcher(str).matches();
+            LikeMatcher compiled = cache.computeIfAbsent(patStr, LikeMatcher::compile);
+            return negate != compiled.matches(str);
         };
     }
-
-    /**
-     * Compiles a SQL LIKE pattern to a regex Pattern.
-     *
-     * <p>ReDoS safety: every literal character (non-wildcard) is wrapped with Pattern.quote() so regex metacharacters
-     * (., +, *, [, ], (, ), etc.) are treated as literals. Only % and _ retain their wildcard meaning.
-     *
-     * <p>Case-insensitive: LIKE comparisons are case-insensitive per SQL convention.
-     */
-    static Pattern compilePattern(String likePattern) {
-        StringBuilder regex = new StringBuilder("^");
-        for (int i = 0; i < likePattern.length(); i++) {
-            char c = likePattern.charAt(i);
-            switch (c) {
-                case '%' -> regex.append(".*");
-                case '_' -> regex.append(".");
-                default -> regex.append(Pattern.quote(String.valueOf(c)));
-            }
-        }
-        regex.append("$");
-        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
-    }
 }
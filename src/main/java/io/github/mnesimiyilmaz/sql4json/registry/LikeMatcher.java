@@ -0,0 +1,197 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled SQL LIKE pattern, matched directly against the string without {@code java.util.regex}.
+ *
+ * <p>The pattern is split on {@code %} into segments; {@code _} inside a segment matches any single code point. The
+ * first segment is anchored at the start unless the pattern begins with {@code %}, the last at the end unless it ends
+ * with {@code %}, and every other segment is placed at its leftmost occurrence after the previous one. Because each
+ * segment is placed once and never revisited, matching never backtracks. The common shapes — exact, {@code abc%},
+ * {@code %abc}, {@code %abc%} — are classified at compile time and take a single comparison or scan.
+ *
+ * <p>A segment without {@code _} is searched for with Knuth–Morris–Pratt over its precomputed failure table, so a match
+ * is linear in the length of the string. A segment with {@code _} is tried at each offset in turn, which costs O(n·m)
+ * for a string of length n and a segment of length m: a {@code _} may consume one or two {@code char}s (a surrogate
+ * pair), so a failed attempt's partial match cannot be reused the way KMP reuses it.
+ *
+ * <p>Matching is case-insensitive for ASCII letters only and treats line terminators like any other character, which is
+ * exactly what the previous {@code Pattern.CASE_INSENSITIVE | Pattern.DOTALL} translation did.
+ */
+final class LikeMatcher {
+
+    private enum Kind {
+        ANY,
+        EXACT,
+        PREFIX,
+        SUFFIX,
+        CONTAINS,
+        GENERAL
+    }
+
+    private static final char ANY_CHAR = '_';
+
+    private final Kind kind;
+    private final char[][] segments; // ASCII letters lower-cased; '_' is the single-character wildcard
+    private final int[][] failures; // KMP failure table per segment; null for a segment containing '_'
+    private final boolean anchoredStart;
+    private final boolean anchoredEnd;
+
+    private LikeMatcher(Kind kind, char[][] segments, boolean anchoredStart, boolean anchoredEnd) {
+        this.kind = kind;
+        this.segments = segments;
+        this.anchoredStart = anchoredStart;
+        this.anchoredEnd = anchoredEnd;
+        this.failures = new int[segments.length][];
+        for (int s = 0; s < segments.length; s++) {
+            if (!containsAnyChar(segments[s])) failures[s] = failure(segments[s]);
+        }
+    }
+
+    /**
+     * Compiles a SQL LIKE pattern. {@code %} matches any sequence of characters, {@code _} any single character; every
+     * other character is literal.
+     *
+     * @param likePattern the LIKE pattern
+     * @return the compiled matcher
+     */
+    static LikeMatcher compile(String likePattern) {
+        List<char[]> segments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            if (c == '%') {
+                if (!current.isEmpty()) {
+                    segments.add(current.toString().toCharArray());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(foldAscii(c));
+            }
+        }
+        if (!current.isEmpty()) segments.add(current.toString().toCharArray());
+
+        boolean anchoredStart = likePattern.isEmpty() || likePattern.charAt(0) != '%';
+        boolean anchoredEnd = likePattern.isEmpty() || likePattern.charAt(likePattern.length() - 1) != '%';
+        char[][] segs = segments.toArray(char[][]::new);
+        Kind kind;
+        if (segs.length == 0) kind = anchoredStart ? Kind.EXACT : Kind.ANY;
+        else if (segs.length > 1) kind = Kind.GENERAL;
+        else if (anchoredStart && anchoredEnd) kind = Kind.EXACT;
+        else if (anchoredStart) kind = Kind.PREFIX;
+        else if (anchoredEnd) kind = Kind.SUFFIX;
+        else kind = Kind.CONTAINS;
+        return new LikeMatcher(kind, segs, anchoredStart, anchoredEnd);
+    }
+
+    /**
+     * Tests whether the whole of {@code text} matches the pattern.
+     *
+     * @param text the string to test
+     * @return {@code true} on a match
+     */
+    boolean matches(String text) {
+        return switch (kind) {
+            case ANY -> true;
+            case EXACT -> segments.length == 0 ? text.isEmpty() : matchAt(text, 0, segments[0]) == text.length();
+            case PREFIX -> matchAt(text, 0, segments[0]) >= 0;
+            case SUFFIX -> matchesSuffix(text, 0, segments[0]);
+            case CONTAINS -> find(text, 0, 0) >= 0;
+            case GENERAL -> matchesGeneral(text);
+        };
+    }
+
+    private boolean matchesGeneral(String text) {
+        int pos = 0;
+        int last = segments.length - 1;
+        for (int s = 0; s <= last; s++) {
+            char[] seg = segments[s];
+            if (s == 0 && anchoredStart) {
+                pos = matchAt(text, 0, seg);
+            } else if (s == last && anchoredEnd) {
+                return matchesSuffix(text, pos, seg);
+            } else {
+                pos = find(text, pos, s);
+            }
+            if (pos < 0) return false;
+        }
+        return true;
+    }
+
+    /** Matches {@code seg} at {@code pos}; returns the end index, or -1 when it does not match there. */
+    private static int matchAt(String text, int pos, char[] seg) {
+        int n = text.length();
+        int i = pos;
+        for (char p : seg) {
+            if (i >= n) return -1;
+            char c = text.charAt(i);
+            if (p == ANY_CHAR) {
+                i += Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1)) ? 2 : 1;
+            } else if (p == c || p == foldAscii(c)) {
+                i++;
+            } else {
+                return -1;
+            }
+        }
+        return i;
+    }
+
+    /** Places segment {@code s} at its leftmost occurrence at or after {@code from}; returns its end index, or -1. */
+    private int find(String text, int from, int s) {
+        char[] seg = segments[s];
+        int[] fail = failures[s];
+        int n = text.length();
+        if (fail != null) {
+            for (int i = from, k = 0; i < n; i++) {
+                char c = foldAscii(text.charAt(i));
+                while (k > 0 && c != seg[k]) k = fail[k - 1];
+                if (c == seg[k] && ++k == seg.length) return i + 1;
+            }
+            return -1;
+        }
+        for (int start = from; start + seg.length <= n; start++) {
+            int end = matchAt(text, start, seg);
+            if (end >= 0) return end;
+        }
+        return -1;
+    }
+
+    /** KMP failure table: entry i is the length of the longest proper prefix of seg[0..i] that is also its suffix. */
+    private static int[] failure(char[] seg) {
+        int[] fail = new int[seg.length];
+        for (int i = 1, k = 0; i < seg.length; i++) {
+            while (k > 0 && seg[i] != seg[k]) k = fail[k - 1];
+            if (seg[i] == seg[k]) k++;
+            fail[i] = k;
+        }
+        return fail;
+    }
+
+    /** Tests whether {@code seg} matches a suffix of {@code text} that starts at or after {@code from}. */
+    private static boolean matchesSuffix(String text, int from, char[] seg) {
+        int n = text.length();
+        if (!containsAnyChar(seg)) {
+            int start = n - seg.length;
+            return start >= from && matchAt(text, start, seg) == n;
+        }
+        // '_' may span a surrogate pair, so the suffix length is not fixed and each start is tried: O(n·m)
+        for (int start = from; start + seg.length <= n; start++) {
+            if (matchAt(text, start, seg) == n) return true;
+        }
+        return false;
+    }
+
+    private static boolean containsAnyChar(char[] seg) {
+        for (char p : seg) {
+            if (p == ANY_CHAR) return true;
+        }
+        return false;
+    }
+
+    private static char foldAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -3,9 +3,9 @@ package io.github.mnesimiyilmaz.sql4json.registry;
 
 final class NotLikeConditionHandler implements ConditionHandler {
 
-    private final BoundedPatternCache patternCache;
+    private final BoundedPatternCache<LikeMatcher> patternCache;
 
-    NotLikeConditionHandler(BoundedPatternCache cache) {
+    NotLikeConditionHandler(BoundedPatternCache<LikeMatcher> cache) {
         this.patternCache = cache;
     }
 
@@ -1,9 +1,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.registry;
 
-import io.github.mnesimiyilmaz.sql4json.engine.Expression;
-import io.github.mnesimiyilmaz.sql4json.engine.ExpressionEvaluator;
-import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import io.github.mnesimiyilmaz.sql4json.engine.CompiledExpression;
+import io.github.mnesimiyilmaz.sql4json.engine.ExpressionCompiler;
 
 /**
  * Handles IS NULL and IS NOT NULL conditions by evaluating whether the left-hand expression resolves to a null value.
@@ -23,11 +22,8 @@ public final class NullCheckConditionHandler implements ConditionHandler {
 
     @Override
     public CriteriaNode handle(ConditionContext ctx, OperatorRegistry operators, FunctionRegistry functions) {
-        Expression lhs = ctx.lhsExpression();
+        CompiledExpression lhs = ExpressionCompiler.compile(ctx.lhsExpression(), functions);
         boolean checkNull = ctx.type() == ConditionContext.ConditionType.IS_NULL;
-        return row -> {
-            SqlValue value = ExpressionEvaluator.evaluate(lhs, row, functions);
-            return checkNull == value.isNull();
-        };
+        return row -> checkNull == lhs.evaluate(row).isNull();
     }
 }
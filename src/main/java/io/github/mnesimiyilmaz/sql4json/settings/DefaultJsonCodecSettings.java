@@ -2,6 +2,7 @@
 package io.github.mnesimiyilmaz.sql4json.settings;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * Security and resource limits for the built-in {@link io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec}.
@@ -25,13 +26,20 @@ import java.util.Objects;
  *
  * <p>Thread-safe: immutable record; a single instance may be shared across threads.
  *
- * @param maxInputLength maximum JSON input length in chars (default 10 MiB)
+ * @param maxInputLength maximum JSON input length in chars, or in bytes for UTF-8 input; applied per array element for
+ *     memory-mapped file input (default 10 MiB)
  * @param maxNestingDepth maximum object/array nesting depth (default {@code 64})
  * @param maxStringLength maximum length of a single JSON string value in chars (default 1 MiB)
  * @param maxNumberLength maximum length of a numeric literal in chars (default {@code 64})
  * @param maxPropertyNameLength maximum length of a JSON object key in chars (default {@code 1_024})
  * @param maxArrayElements maximum number of elements in a single JSON array (default {@code 1_000_000})
  * @param duplicateKeyPolicy policy for duplicate keys in a JSON object (default {@link DuplicateKeyPolicy#REJECT})
+ * @param parseParallelism number of batches of top-level array elements parsed concurrently; {@code 1} parses on the
+ *     calling thread (default {@code 1})
+ * @param parseExecutor executor running parallel parse tasks, or {@code null} for the common
+ *     {@link java.util.concurrent.ForkJoinPool} (default {@code null})
+ * @param lazyDocuments whether whole-document UTF-8 parses return tape-backed values decoded on access (default
+ *     {@code false})
  * @see io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec
  * @see DuplicateKeyPolicy
  * @see Sql4jsonSettings
@@ -43,18 +51,24 @@ public record DefaultJsonCodecSettings(
         int maxNumberLength,
         int maxPropertyNameLength,
         int maxArrayElements,
-        DuplicateKeyPolicy duplicateKeyPolicy) {
+        DuplicateKeyPolicy duplicateKeyPolicy,
+        int parseParallelism,
+        Executor parseExecutor,
+        boolean lazyDocuments) {
 
     /**
      * Canonical constructor — validates that all limits are positive and the policy is non-null.
      *
-     * @param maxInputLength maximum JSON input length in chars
+     * @param maxInputLength maximum JSON input length in chars, or in bytes for UTF-8 input
      * @param maxNestingDepth maximum object/array nesting depth
      * @param maxStringLength maximum length of a single JSON string value in chars
      * @param maxNumberLength maximum length of a numeric literal in chars
      * @param maxPropertyNameLength maximum length of a JSON object key in chars
      * @param maxArrayElements maximum number of elements in a single JSON array
      * @param duplicateKeyPolicy policy for duplicate keys in a JSON object
+     * @param parseParallelism number of batches of top-level array elements parsed concurrently
+     * @param parseExecutor executor running parallel parse tasks, or {@code null} for the common pool
+     * @param lazyDocuments whether whole-document UTF-8 parses return tape-backed values
      */
     public DefaultJsonCodecSettings {
         positive(maxInputLength, "maxInputLength");
@@ -64,6 +78,39 @@ public record DefaultJsonCodecSettings(
         positive(maxPropertyNameLength, "maxPropertyNameLength");
         positive(maxArrayElements, "maxArrayElements");
         Objects.requireNonNull(duplicateKeyPolicy, "duplicateKeyPolicy");
+        positive(parseParallelism, "parseParallelism");
+    }
+
+    /**
+     * Sequential-parsing constructor, kept for source compatibility with 1.3.
+     *
+     * @param maxInputLength maximum JSON input length in chars, or in bytes for UTF-8 input
+     * @param maxNestingDepth maximum object/array nesting depth
+     * @param maxStringLength maximum length of a single JSON string value in chars
+     * @param maxNumberLength maximum length of a numeric literal in chars
+     * @param maxPropertyNameLength maximum length of a JSON object key in chars
+     * @param maxArrayElements maximum number of elements in a single JSON array
+     * @param duplicateKeyPolicy policy for duplicate keys in a JSON object
+     */
+    public DefaultJsonCodecSettings(
+            int maxInputLength,
+            int maxNestingDepth,
+            int maxStringLength,
+            int maxNumberLength,
+            int maxPropertyNameLength,
+            int maxArrayElements,
+            DuplicateKeyPolicy duplicateKeyPolicy) {
+        this(
+                maxInputLength,
+                maxNestingDepth,
+                maxStringLength,
+                maxNumberLength,
+                maxPropertyNameLength,
+                maxArrayElements,
+                duplicateKeyPolicy,
+                1,
+                null,
+                false);
     }
 
     @SuppressWarnings("PointlessArithmeticExpression")
@@ -74,7 +121,10 @@ public record DefaultJsonCodecSettings(
             64, // maxNumberLength         — chars in a numeric literal
             1_024, // maxPropertyNameLength   — chars in an object key
             1_000_000, // maxArrayElements        — elements per array (breadth)
-            DuplicateKeyPolicy.REJECT); // duplicateKeyPolicy      — fail-safe
+            DuplicateKeyPolicy.REJECT, // duplicateKeyPolicy      — fail-safe
+            1, // parseParallelism        — sequential
+            null, // parseExecutor           — common ForkJoinPool
+            false); // lazyDocuments           — object trees
 
     /**
      * Returns the shared default codec settings singleton.
@@ -117,6 +167,9 @@ public record DefaultJsonCodecSettings(
         private int maxPropertyNameLength;
         private int maxArrayElements;
         private DuplicateKeyPolicy duplicateKeyPolicy;
+        private int parseParallelism;
+        private Executor parseExecutor;
+        private boolean lazyDocuments;
 
         Builder(DefaultJsonCodecSettings src) {
             this.maxInputLength = src.maxInputLength;
@@ -126,6 +179,9 @@ public record DefaultJsonCodecSettings(
             this.maxPropertyNameLength = src.maxPropertyNameLength;
             this.maxArrayElements = src.maxArrayElements;
             this.duplicateKeyPolicy = src.duplicateKeyPolicy;
+            this.parseParallelism = src.parseParallelism;
+            this.parseExecutor = src.parseExecutor;
+            this.lazyDocuments = src.lazyDocuments;
         }
 
         /**
@@ -139,7 +195,7 @@ public record DefaultJsonCodecSettings(
          * <p><b>Acceptable range:</b> Must be positive ({@code > 0}). Non-positive values throw
          * {@link IllegalArgumentException}.
          *
-         * @param v maximum raw JSON string length in characters, must be positive
+         * @param v maximum raw JSON string length in characters (bytes for UTF-8 input), must be positive
          * @return this builder
          * @throws IllegalArgumentException if {@code v <= 0}
          */
@@ -268,6 +324,67 @@ public record DefaultJsonCodecSettings(
             return this;
         }
 
+        /**
+         * Sets how many batches of top-level array elements are parsed concurrently.
+         *
+         * <p><b>Default:</b> {@code 1} — every element is parsed on the calling thread.
+         *
+         * <p>Above {@code 1}, a root array larger than a few hundred KiB is cut into element batches by a structural
+         * pre-scan on the calling thread, and the batches are parsed on {@link #parseExecutor(Executor)}. Element order
+         * is preserved, and every limit still applies per element. Applies to {@code JsonParser} /
+         * {@code Utf8JsonParser} whole-document parsing and to {@code StreamingJsonParser} over in-memory input; a
+         * streaming consumer keeps at most {@code 2 × parseParallelism} batches in flight.
+         *
+         * <p><b>Acceptable range:</b> Must be positive ({@code > 0}). Non-positive values throw
+         * {@link IllegalArgumentException}.
+         *
+         * @param v number of concurrent parse batches, typically the number of available cores; must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if {@code v <= 0}
+         * @since 1.4.0
+         */
+        public Builder parseParallelism(int v) {
+            this.parseParallelism = positive(v, "parseParallelism");
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs parallel parse tasks.
+         *
+         * <p><b>Default:</b> {@code null} — the common {@link java.util.concurrent.ForkJoinPool}.
+         *
+         * @param executor executor for parse tasks, or {@code null} for the common pool
+         * @return this builder
+         * @since 1.4.0
+         */
+        public Builder parseExecutor(Executor executor) {
+            this.parseExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets whether whole-document parses of UTF-8 input return lazily decoded documents.
+         *
+         * <p><b>Default:</b> {@code false} — every object, array, string and number becomes its own {@code JsonValue}.
+         *
+         * <p>When {@code true}, {@code DefaultJsonCodec.parse(byte[])} / {@code parse(ByteBuffer)} validate the input
+         * exactly as before but record it as a flat {@code long[]} tape of offsets into the source bytes; objects and
+         * arrays are read-only views over the tape, and strings and numbers are decoded each time they are read. This
+         * suits large datasets bound to a {@code SQL4JsonEngine} through {@code data(byte[])}, which then keeps the
+         * tape rather than pre-flattened rows, and queries that read few fields per row: far fewer long-lived objects,
+         * at the cost of holding a copy of the source bytes and re-decoding values on every read. The copy keeps
+         * documents immutable: the caller may reuse its buffer once the parse returns. Takes precedence over
+         * {@link #parseParallelism(int)} for those parses; {@code String} input and streaming queries are unaffected.
+         *
+         * @param v {@code true} to build tape-backed documents
+         * @return this builder
+         * @since 1.4.0
+         */
+        public Builder lazyDocuments(boolean v) {
+            this.lazyDocuments = v;
+            return this;
+        }
+
         /**
          * Builds an immutable {@link DefaultJsonCodecSettings} from the current builder state.
          *
@@ -281,7 +398,10 @@ public record DefaultJsonCodecSettings(
                     maxNumberLength,
                     maxPropertyNameLength,
                     maxArrayElements,
-                    duplicateKeyPolicy);
+                    duplicateKeyPolicy,
+                    parseParallelism,
+                    parseExecutor,
+                    lazyDocuments);
         }
     }
 }
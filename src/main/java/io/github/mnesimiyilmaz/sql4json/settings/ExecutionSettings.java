@@ -0,0 +1,279 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.settings;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/**
+ * Execution subsection of {@link Sql4jsonSettings}: configures intra-query parallelism of the row pipeline and spilling
+ * of large intermediate state to disk.
+ *
+ * <p>With {@link #parallelism()} above {@code 1}, the rows entering each run of row-local stages (WHERE, HAVING, the
+ * SELECT projection) are cut into morsels of {@link #morselSize()} rows that are processed on {@link #executor()} and
+ * merged back in input order, so results are identical to sequential execution. GROUP BY aggregates morsels into
+ * per-task partial tables and merges them partition by partition; groups and their values match sequential execution,
+ * except that floating-point SUM / AVG may differ in the last digits. An in-memory ORDER BY evaluates and sorts the
+ * keys of contiguous row ranges concurrently and merges the sorted ranges; ORDER BY ... LIMIT reduces each morsel to
+ * its own top rows and merges those. Both keep ties in input order, so their results match sequential execution. Other
+ * stages that need the whole input (DISTINCT, window functions) and order-dependent ones (LIMIT / OFFSET) consume the
+ * merged rows.
+ *
+ * <p>With a finite {@link #spillThresholdBytes()}, GROUP BY and DISTINCT keep an estimate of the memory held by their
+ * hash tables. Once it exceeds the threshold, rows of keys not yet in memory are written to temporary files in
+ * {@link #spillDirectory()}, split into hash partitions, and each partition is aggregated after the input ends, so the
+ * table never holds more than about the threshold. Results stay exact. GROUP BY returns the groups held in memory
+ * first, then those of each partition. DISTINCT keeps the order in which rows first appeared, so it still follows an
+ * ORDER BY: its rows are sorted back by the input position of their first occurrence, spilling sorted runs in turn. A
+ * spilling GROUP BY runs on the calling thread. ORDER BY, and window functions whose windows share a PARTITION BY
+ * expression, sort externally instead: sorted runs of about the threshold are written to temporary files and merged as
+ * the result is consumed. ORDER BY output is unchanged; window output comes grouped by partition. The
+ * {@code maxRowsPerQuery} limit still applies independently.
+ *
+ * <p>With {@link #normalizedSortKeys()}, ORDER BY encodes each row's key tuple into one byte string whose unsigned byte
+ * order is the sort order, and compares those instead of comparing values column by column. This mostly pays off for
+ * sorts on several columns.
+ *
+ * <p>Usage example:
+ *
+ * <pre>{@code
+ * Sql4jsonSettings settings = Sql4jsonSettings.builder()
+ *     .execution(e -> e.parallelism(Runtime.getRuntime().availableProcessors()))
+ *     .build();
+ * }</pre>
+ *
+ * <p>Thread-safe: immutable record; a single instance may be shared across threads.
+ *
+ * @param parallelism number of morsels processed concurrently; {@code 1} runs the pipeline on the calling thread
+ *     (default {@code 1})
+ * @param executor executor running morsel tasks, or {@code null} for the common
+ *     {@link java.util.concurrent.ForkJoinPool} (default {@code null})
+ * @param morselSize number of rows per morsel (default {@code 1_024})
+ * @param spillThresholdBytes estimated bytes of hash-table or sort-buffer state above which GROUP BY, DISTINCT, ORDER
+ *     BY and window functions spill to disk; {@link Long#MAX_VALUE} never spills (default {@link Long#MAX_VALUE})
+ * @param spillDirectory directory for spill files, or {@code null} for the system temporary directory (default
+ *     {@code null})
+ * @param normalizedSortKeys whether ORDER BY compares rows by byte-encoded key tuples (default {@code false})
+ * @see Sql4jsonSettings
+ * @since 1.4.0
+ */
+public record ExecutionSettings(
+        int parallelism,
+        Executor executor,
+        int morselSize,
+        long spillThresholdBytes,
+        Path spillDirectory,
+        boolean normalizedSortKeys) {
+
+    /**
+     * Canonical constructor — validates that parallelism, morsel size and spill threshold are positive.
+     *
+     * @param parallelism number of morsels processed concurrently
+     * @param executor executor running morsel tasks, or {@code null} for the common pool
+     * @param morselSize number of rows per morsel
+     * @param spillThresholdBytes estimated bytes of hash-table or sort-buffer state above which stages spill
+     * @param spillDirectory directory for spill files, or {@code null} for the system temporary directory
+     * @param normalizedSortKeys whether ORDER BY compares rows by byte-encoded key tuples
+     */
+    public ExecutionSettings {
+        positive(parallelism, "parallelism");
+        positive(morselSize, "morselSize");
+        positive(spillThresholdBytes, "spillThresholdBytes");
+    }
+
+    private static final ExecutionSettings DEFAULTS = new ExecutionSettings(
+            1, // parallelism — sequential
+            null, // executor    — common ForkJoinPool
+            1_024, // morselSize
+            Long.MAX_VALUE, // spillThresholdBytes — never spill
+            null, // spillDirectory — java.io.tmpdir
+            false); // normalizedSortKeys
+
+    /**
+     * Returns the shared default execution settings singleton.
+     *
+     * @return default execution settings
+     */
+    public static ExecutionSettings defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Creates a new builder pre-populated with {@link #defaults()}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(DEFAULTS);
+    }
+
+    /**
+     * Creates a builder pre-populated with this instance's values.
+     *
+     * @return a new builder seeded from this settings
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Whether queries run with more than one worker.
+     *
+     * @return {@code true} when {@link #parallelism()} is above {@code 1}
+     */
+    public boolean isParallel() {
+        return parallelism > 1;
+    }
+
+    /**
+     * Whether GROUP BY, DISTINCT, ORDER BY and window functions may spill to disk.
+     *
+     * @return {@code true} when {@link #spillThresholdBytes()} is finite
+     */
+    public boolean canSpill() {
+        return spillThresholdBytes != Long.MAX_VALUE;
+    }
+
+    private static int positive(int v, String name) {
+        if (v <= 0) throw new IllegalArgumentException(name + " must be positive, got: " + v);
+        return v;
+    }
+
+    private static long positive(long v, String name) {
+        if (v <= 0) throw new IllegalArgumentException(name + " must be positive, got: " + v);
+        return v;
+    }
+
+    /** Mutable builder for {@link ExecutionSettings}. */
+    public static final class Builder {
+        private int parallelism;
+        private Executor executor;
+        private int morselSize;
+        private long spillThresholdBytes;
+        private Path spillDirectory;
+        private boolean normalizedSortKeys;
+
+        Builder(ExecutionSettings src) {
+            this.parallelism = src.parallelism;
+            this.executor = src.executor;
+            this.morselSize = src.morselSize;
+            this.spillThresholdBytes = src.spillThresholdBytes;
+            this.spillDirectory = src.spillDirectory;
+            this.normalizedSortKeys = src.normalizedSortKeys;
+        }
+
+        /**
+         * Sets how many morsels of rows are processed concurrently.
+         *
+         * <p><b>Default:</b> {@code 1} — the whole pipeline runs on the calling thread.
+         *
+         * <p>Above {@code 1}, at most {@code 2 × parallelism} morsels are in flight, so a lazily consumed result stream
+         * holds a bounded window of rows. Inputs of a single morsel are processed on the calling thread.
+         *
+         * <p><b>Acceptable range:</b> Must be positive ({@code > 0}). Non-positive values throw
+         * {@link IllegalArgumentException}.
+         *
+         * @param v number of concurrent morsels, typically the number of available cores; must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if {@code v <= 0}
+         */
+        public Builder parallelism(int v) {
+            this.parallelism = positive(v, "parallelism");
+            return this;
+        }
+
+        /**
+         * Sets the executor that runs morsel tasks.
+         *
+         * <p><b>Default:</b> {@code null} — the common {@link java.util.concurrent.ForkJoinPool}.
+         *
+         * @param executor executor for morsel tasks, or {@code null} for the common pool
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows per morsel.
+         *
+         * <p><b>Default:</b> {@code 1_024}.
+         *
+         * <p>Larger morsels amortise task hand-off; smaller ones balance uneven rows better and shorten the time to the
+         * first result row.
+         *
+         * <p><b>Acceptable range:</b> Must be positive ({@code > 0}). Non-positive values throw
+         * {@link IllegalArgumentException}.
+         *
+         * @param v rows per morsel, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if {@code v <= 0}
+         */
+        public Builder morselSize(int v) {
+            this.morselSize = positive(v, "morselSize");
+            return this;
+        }
+
+        /**
+         * Sets the estimated size of GROUP BY / DISTINCT hash-table state, or of buffered ORDER BY / window rows, above
+         * which rows are spilled to disk.
+         *
+         * <p><b>Default:</b> {@link Long#MAX_VALUE} — never spill.
+         *
+         * <p>The estimate counts retained rows, keys and aggregate states, not exact heap usage; leave headroom for the
+         * query result, which is not covered. Spilled rows are written to temporary files that are deleted once read.
+         *
+         * <p><b>Acceptable range:</b> Must be positive ({@code > 0}). Non-positive values throw
+         * {@link IllegalArgumentException}.
+         *
+         * @param v spill threshold in bytes, must be positive
+         * @return this builder
+         * @throws IllegalArgumentException if {@code v <= 0}
+         */
+        public Builder spillThresholdBytes(long v) {
+            this.spillThresholdBytes = positive(v, "spillThresholdBytes");
+            return this;
+        }
+
+        /**
+         * Sets the directory that spill files are created in.
+         *
+         * <p><b>Default:</b> {@code null} — the system temporary directory ({@code java.io.tmpdir}).
+         *
+         * @param directory existing directory for spill files, or {@code null} for the system temporary directory
+         * @return this builder
+         */
+        public Builder spillDirectory(Path directory) {
+            this.spillDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Sets whether ORDER BY compares rows by normalized keys: each row's key tuple encoded once into a byte string
+         * whose unsigned byte order matches the sort order.
+         *
+         * <p><b>Default:</b> {@code false} — rows are compared value by value.
+         *
+         * <p>Encoding costs one pass and a byte array per row, and saves type dispatch and column-by-column comparison
+         * on each of the {@code n log n} comparisons, so it suits sorts on several columns. Results are identical.
+         * Sorts on integers beyond ±2<sup>53</sup>, which have no exact byte encoding, compare values instead.
+         *
+         * @param v whether to sort on normalized keys
+         * @return this builder
+         */
+        public Builder normalizedSortKeys(boolean v) {
+            this.normalizedSortKeys = v;
+            return this;
+        }
+
+        /**
+         * Builds an immutable {@link ExecutionSettings} from the current builder state.
+         *
+         * @return a new execution settings instance
+         */
+        public ExecutionSettings build() {
+            return new ExecutionSettings(
+                    parallelism, executor, morselSize, spillThresholdBytes, spillDirectory, normalizedSortKeys);
+        }
+    }
+}
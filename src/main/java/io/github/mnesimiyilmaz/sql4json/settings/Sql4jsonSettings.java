@@ -8,7 +8,7 @@ import java.util.function.Consumer;
 
 /**
  * Top-level immutable configuration for SQL4Json: composes security policy, numeric limits, cache configuration,
- * object-mapping behavior, and the JSON codec instance.
+ * object-mapping behavior, the JSON codec instance, and intra-query execution.
  *
  * <p>Obtain via {@link #defaults()} for safe defaults, or {@link #builder()} to customize specific subsections.
  *
@@ -35,10 +35,12 @@ import java.util.function.Consumer;
  * @param cache cache configuration subsection (LIKE-pattern cache, query-result cache)
  * @param mapping object-mapping subsection (missing-field policy, etc.)
  * @param codec JSON codec used for parsing and serialization
+ * @param execution intra-query execution subsection (parallelism, executor, morsel size, spilling)
  * @see SecuritySettings
  * @see LimitsSettings
  * @see CacheSettings
  * @see MappingSettings
+ * @see ExecutionSettings
  * @see DefaultJsonCodecSettings
  * @see DefaultJsonCodec
  */
@@ -47,7 +49,8 @@ public record Sql4jsonSettings(
         LimitsSettings limits,
         CacheSettings cache,
         MappingSettings mapping,
-        JsonCodec codec) {
+        JsonCodec codec,
+        ExecutionSettings execution) {
 
     /**
      * Canonical constructor — validates that no component is {@code null}.
@@ -57,6 +60,7 @@ public record Sql4jsonSettings(
      * @param cache cache configuration subsection
      * @param mapping object-mapping subsection
      * @param codec JSON codec for parsing and serialization
+     * @param execution intra-query execution subsection
      */
     public Sql4jsonSettings {
         Objects.requireNonNull(security, "security");
@@ -64,6 +68,25 @@ public record Sql4jsonSettings(
         Objects.requireNonNull(cache, "cache");
         Objects.requireNonNull(mapping, "mapping");
         Objects.requireNonNull(codec, "codec");
+        Objects.requireNonNull(execution, "execution");
+    }
+
+    /**
+     * Sequential-execution constructor, kept for source compatibility with 1.3.
+     *
+     * @param security security policy subsection
+     * @param limits SQL parser and pipeline limits subsection
+     * @param cache cache configuration subsection
+     * @param mapping object-mapping subsection
+     * @param codec JSON codec for parsing and serialization
+     */
+    public Sql4jsonSettings(
+            SecuritySettings security,
+            LimitsSettings limits,
+            CacheSettings cache,
+            MappingSettings mapping,
+            JsonCodec codec) {
+        this(security, limits, cache, mapping, codec, ExecutionSettings.defaults());
     }
 
     private static final Sql4jsonSettings DEFAULTS = new Sql4jsonSettings(
@@ -71,7 +94,8 @@ public record Sql4jsonSettings(
             LimitsSettings.defaults(),
             CacheSettings.defaults(),
             MappingSettings.defaults(),
-            new DefaultJsonCodec());
+            new DefaultJsonCodec(),
+            ExecutionSettings.defaults());
 
     /**
      * Returns the shared default settings singleton.
@@ -107,6 +131,7 @@ public record Sql4jsonSettings(
         private final CacheSettings.Builder cache;
         private final MappingSettings.Builder mapping;
         private JsonCodec codec;
+        private final ExecutionSettings.Builder execution;
 
         Builder(Sql4jsonSettings src) {
             this.security = src.security.toBuilder();
@@ -114,6 +139,7 @@ public record Sql4jsonSettings(
             this.cache = src.cache.toBuilder();
             this.mapping = src.mapping.toBuilder();
             this.codec = src.codec;
+            this.execution = src.execution.toBuilder();
         }
 
         /**
@@ -166,6 +192,19 @@ public record Sql4jsonSettings(
             return this;
         }
 
+        /**
+         * Customizes the {@link ExecutionSettings} subsection.
+         *
+         * @param fn consumer that receives the mutable builder; call setters on it to override execution defaults
+         * @return this builder
+         * @see ExecutionSettings
+         * @since 1.4.0
+         */
+        public Builder execution(Consumer<ExecutionSettings.Builder> fn) {
+            fn.accept(execution);
+            return this;
+        }
+
         /**
          * Replaces the JSON codec used by this settings instance.
          *
@@ -188,7 +227,8 @@ public record Sql4jsonSettings(
          * @return a new settings instance
          */
         public Sql4jsonSettings build() {
-            return new Sql4jsonSettings(security.build(), limits.build(), cache.build(), mapping.build(), codec);
+            return new Sql4jsonSettings(
+                    security.build(), limits.build(), cache.build(), mapping.build(), codec, execution.build());
         }
     }
 }
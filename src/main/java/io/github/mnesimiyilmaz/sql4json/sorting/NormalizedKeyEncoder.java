@@ -0,0 +1,121 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.sorting;
+
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Encodes an ORDER BY key tuple into a single byte string whose unsigned lexicographic order
+ * ({@link Arrays#compareUnsigned(byte[], byte[])}) is the order {@link SortKeys#comparator(boolean[])} gives the
+ * tuples, so a multi-column sort compares one array instead of walking the columns and dispatching on value types.
+ *
+ * <p>Each value is a type byte, ranked as {@link SqlValueComparator} ranks types (NULL first), followed by its value:
+ * numbers as the order-preserving bits of their {@code double} value, dates and date-times as sign-flipped big-endian
+ * epoch values, and strings as big-endian UTF-16 code units with zero bytes escaped and a two-byte terminator, so no
+ * value's encoding is a prefix of another's. A DESC column has all its bytes inverted.
+ *
+ * <p>Integers beyond ±2<sup>53</sup> have no exact {@code double}, and the comparator orders them differently against
+ * integers than against doubles; {@link #encode} returns {@code null} for tuples holding one, and callers fall back to
+ * comparing values. Not thread-safe: the encoder reuses a buffer.
+ *
+ * @since 1.4.0
+ */
+public final class NormalizedKeyEncoder {
+
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private final boolean[] descending;
+    private byte[] buffer = new byte[64];
+    private int length;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param descending per key, whether it sorts in descending order
+     */
+    public NormalizedKeyEncoder(boolean[] descending) {
+        this.descending = descending.clone();
+    }
+
+    /**
+     * Encodes a key tuple.
+     *
+     * @param key one value per key, most significant first
+     * @return the encoded key, or {@code null} when a value cannot be encoded exactly
+     */
+    public byte[] encode(SqlValue[] key) {
+        length = 0;
+        for (int c = 0; c < descending.length; c++) {
+            int start = length;
+            if (!append(key[c])) return null;
+            if (descending[c]) {
+                for (int i = start; i < length; i++) buffer[i] = (byte) ~buffer[i];
+            }
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private boolean append(SqlValue value) {
+        switch (value) {
+            case SqlNull ignored -> put(0);
+            case SqlBoolean(var v) -> {
+                put(1);
+                put(v ? 1 : 0);
+            }
+            case SqlLong(long v) -> {
+                if (v > MAX_EXACT_DOUBLE || v < -MAX_EXACT_DOUBLE) return false;
+                putDouble(v);
+            }
+            case SqlNumber n -> putDouble(n.doubleValue());
+            case SqlString(var s) -> {
+                put(3);
+                for (int i = 0; i < s.length(); i++) {
+                    char ch = s.charAt(i);
+                    putEscaped(ch >>> 8);
+                    putEscaped(ch & 0xFF);
+                }
+                put(0);
+                put(0);
+            }
+            case SqlDate(var d) -> {
+                put(4);
+                putLong(d.toEpochDay());
+            }
+            case SqlDateTime(LocalDateTime dt) -> {
+                put(5);
+                putLong(dt.toEpochSecond(ZoneOffset.UTC));
+                putLong(dt.getNano());
+            }
+        }
+        return true;
+    }
+
+    // Double.compare order: flip every bit of negatives, only the sign bit of the rest.
+    private void putDouble(double v) {
+        put(2);
+        long bits = Double.doubleToLongBits(v);
+        bits ^= (bits >> 63) | Long.MIN_VALUE;
+        putRaw(bits);
+    }
+
+    private void putLong(long v) {
+        putRaw(v ^ Long.MIN_VALUE);
+    }
+
+    private void putRaw(long bits) {
+        for (int shift = 56; shift >= 0; shift -= 8) put((int) (bits >>> shift));
+    }
+
+    // A zero byte becomes 0x00 0xFF, so the 0x00 0x00 terminator sorts below every continuation.
+    private void putEscaped(int b) {
+        put(b);
+        if (b == 0) put(0xFF);
+    }
+
+    private void put(int b) {
+        if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+        buffer[length++] = (byte) b;
+    }
+}
@@ -0,0 +1,430 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.sorting;
+
+import io.github.mnesimiyilmaz.sql4json.engine.Futures;
+import io.github.mnesimiyilmaz.sql4json.types.SqlDouble;
+import io.github.mnesimiyilmaz.sql4json.types.SqlLong;
+import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntToLongFunction;
+
+/**
+ * The ORDER BY keys of a materialized list of rows, evaluated once per row and stored column by column, so that sorting
+ * compares stored keys instead of re-evaluating expressions. A column whose non-null values are all {@link SqlLong} or
+ * all {@link SqlDouble} is stored as a primitive array; other columns keep their {@link SqlValue}s and compare through
+ * {@link SqlValueComparator}. Either way rows compare exactly as {@link SqlValueComparator} orders their keys, with
+ * nulls first (last when descending). A column of strings with at most {@value #MAX_DICTIONARY_SIZE} distinct values is
+ * stored as dictionary codes ranked in sort order. {@link #normalized} stores byte-encoded key tuples instead.
+ *
+ * <p>The sort algorithm follows from how the most significant key is stored. Primitive columns sort by an LSD radix
+ * sort over the order-preserving unsigned 64-bit form of their values, and dictionary-coded columns by a counting sort
+ * over their codes; both are stable and linear in the row count. Rows tying on that key are then ordered by the
+ * remaining keys with a merge sort. Other columns, such as ones mixing value types, sort by comparisons from the start.
+ *
+ * <p>Stored keys are immutable, so {@link #sortedIndices(int, Executor)} can sort disjoint ranges of the indices
+ * concurrently and merge them.
+ *
+ * @since 1.4.0
+ */
+public final class SortKeys {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int DISTRIBUTION_SORT_THRESHOLD = 256;
+    private static final int MAX_DICTIONARY_SIZE = 1024;
+
+    private final Column[] columns;
+    private final int size;
+
+    private SortKeys(Column[] columns, int size) {
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Stores key columns.
+     *
+     * @param keys {@code keys[c][row]} is the value of key {@code c} for {@code row}, most significant key first; at
+     *     least one key, and every column has one entry per row
+     * @param descending per key, whether it sorts in descending order
+     * @return the stored keys
+     */
+    public static SortKeys of(SqlValue[][] keys, boolean[] descending) {
+        if (keys.length == 0 || keys.length != descending.length) {
+            throw new IllegalArgumentException("Expected at least one sort key and one direction per key");
+        }
+        int size = keys[0].length;
+        Column[] columns = new Column[keys.length];
+        for (int c = 0; c < keys.length; c++) columns[c] = column(keys[c], descending[c]);
+        return new SortKeys(columns, size);
+    }
+
+    /**
+     * Stores normalized keys, one per row, as produced by {@link NormalizedKeyEncoder}. Rows compare by unsigned byte
+     * order of their keys.
+     *
+     * @param keys {@code keys[row]} is the encoded key tuple of {@code row}
+     * @return the stored keys
+     */
+    public static SortKeys normalized(byte[][] keys) {
+        return new SortKeys(new Column[] {new BytesColumn(keys)}, keys.length);
+    }
+
+    private static Column column(SqlValue[] values, boolean descending) {
+        boolean longs = true;
+        boolean doubles = true;
+        for (SqlValue v : values) {
+            if (v.isNull()) continue;
+            longs &= v instanceof SqlLong;
+            doubles &= v instanceof SqlDouble;
+        }
+        int sign = descending ? -1 : 1;
+        if (longs) {
+            long[] primitive = new long[values.length];
+            boolean[] nulls = new boolean[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof SqlLong(long v)) primitive[i] = v;
+                else nulls[i] = true;
+            }
+            return new LongColumn(primitive, nulls, sign);
+        }
+        if (doubles) {
+            double[] primitive = new double[values.length];
+            boolean[] nulls = new boolean[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof SqlDouble(double v)) primitive[i] = v;
+                else nulls[i] = true;
+            }
+            return new DoubleColumn(primitive, nulls, sign);
+        }
+        CodeColumn codes = dictionaryCoded(values, descending);
+        return codes != null ? codes : new ValueColumn(values, sign);
+    }
+
+    // Codes rank values in sort order, nulls included, or null when the column holds non-strings or too many strings.
+    private static CodeColumn dictionaryCoded(SqlValue[] values, boolean descending) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        for (SqlValue v : values) {
+            if (v.isNull()) continue;
+            if (!(v instanceof SqlString(var s))) return null;
+            if (dictionary.putIfAbsent(s, 0) == null && dictionary.size() > MAX_DICTIONARY_SIZE) return null;
+        }
+        String[] distinct = dictionary.keySet().toArray(String[]::new);
+        Arrays.sort(distinct);
+        int cardinality = distinct.length + 1;
+        // Ascending: null is 0 and the strings 1..n; descending: the strings n-1..0 and null n
+        for (int rank = 0; rank < distinct.length; rank++) {
+            dictionary.put(distinct[rank], descending ? distinct.length - 1 - rank : rank + 1);
+        }
+        int nullCode = descending ? distinct.length : 0;
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            codes[i] = values[i] instanceof SqlString(var s) ? dictionary.get(s) : nullCode;
+        }
+        return new CodeColumn(codes, cardinality);
+    }
+
+    /**
+     * Returns a comparator of key tuples held row by row, ordering them as {@link #compare} orders stored rows.
+     *
+     * @param descending per key, whether it sorts in descending order
+     * @return a comparator of key arrays with one value per key
+     */
+    public static Comparator<SqlValue[]> comparator(boolean[] descending) {
+        boolean[] directions = descending.clone();
+        return (a, b) -> {
+            for (int i = 0; i < directions.length; i++) {
+                int c = SqlValueComparator.compare(a[i], b[i]);
+                if (c != 0) return directions[i] ? -c : c;
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compares the keys of two rows.
+     *
+     * @param i the first row
+     * @param j the second row
+     * @return negative, zero, or positive as row {@code i} sorts before, with, or after row {@code j}
+     */
+    public int compare(int i, int j) {
+        for (Column column : columns) {
+            int c = column.compare(i, j);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the row indices in key order. The sort is stable: rows with equal keys keep their index order.
+     *
+     * @return a new array holding every row index once
+     */
+    public int[] sortedIndices() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        sort(order, 0, size);
+        return order;
+    }
+
+    /**
+     * Returns the row indices in key order, sorting on up to {@code parallelism} tasks. The indices are cut into
+     * {@code parallelism} contiguous ranges that are sorted on {@code executor}, then adjacent ranges are merged
+     * pairwise, again on {@code executor}, until one remains. Merges take the left range's row on ties, so the result
+     * is the same stable order as {@link #sortedIndices()}.
+     *
+     * @param parallelism the number of ranges to sort concurrently; {@code 1} sorts on the calling thread
+     * @param executor executor running the range sorts and merges
+     * @return a new array holding every row index once
+     */
+    public int[] sortedIndices(int parallelism, Executor executor) {
+        int parts = Math.min(parallelism, size / INSERTION_SORT_THRESHOLD);
+        if (parts < 2) return sortedIndices();
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        int[] bounds = new int[parts + 1];
+        for (int p = 0; p <= parts; p++) bounds[p] = (int) ((long) size * p / parts);
+
+        List<CompletableFuture<Void>> sorts = new ArrayList<>(parts);
+        for (int p = 0; p < parts; p++) {
+            int from = bounds[p];
+            int to = bounds[p + 1];
+            sorts.add(CompletableFuture.runAsync(() -> sort(order, from, to), executor));
+        }
+        Futures.joinAll(sorts);
+
+        int[] source = order;
+        int[] target = new int[size];
+        while (bounds.length > 2) {
+            int[] merged = new int[bounds.length];
+            List<CompletableFuture<Void>> merges = new ArrayList<>();
+            int m = 0;
+            for (int p = 0; p + 1 < bounds.length; p += 2) {
+                int from = bounds[p];
+                int mid = bounds[p + 1];
+                // An odd range out is copied over as it is
+                int to = p + 2 < bounds.length ? bounds[p + 2] : mid;
+                int[] src = source;
+                int[] dst = target;
+                merges.add(CompletableFuture.runAsync(() -> merge(src, dst, from, mid, to), executor));
+                merged[m++] = from;
+            }
+            merged[m] = size;
+            Futures.joinAll(merges);
+            bounds = Arrays.copyOf(merged, m + 1);
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        return source;
+    }
+
+    /**
+     * Stably sorts a range of an index array by key.
+     *
+     * @param order row indices
+     * @param from first position to sort, inclusive
+     * @param to last position to sort, exclusive
+     */
+    public void sort(int[] order, int from, int to) {
+        if (to - from < 2) return;
+        if (to - from < DISTRIBUTION_SORT_THRESHOLD || !distributionSort(order, from, to)) {
+            comparisonSort(order, new int[to], from, to);
+            return;
+        }
+        if (columns.length == 1) return;
+        Column leading = columns[0];
+        int[] scratch = null;
+        for (int start = from, end = from + 1; end <= to; end++) {
+            if (end < to && leading.compare(order[end - 1], order[end]) == 0) continue;
+            if (end - start > 1) {
+                if (scratch == null) scratch = new int[to];
+                comparisonSort(order, scratch, start, end);
+            }
+            start = end;
+        }
+    }
+
+    private void comparisonSort(int[] order, int[] scratch, int from, int to) {
+        System.arraycopy(order, from, scratch, from, to - from);
+        mergeSort(order, scratch, from, to);
+    }
+
+    // Stably sorts [from, to) by the leading key alone, or returns false when that key has no linear-time sort.
+    private boolean distributionSort(int[] order, int from, int to) {
+        switch (columns[0]) {
+            case LongColumn(var values, var nulls, int sign) ->
+                radixSort(order, from, to, i -> values[i] ^ Long.MIN_VALUE, nulls, sign < 0);
+            // Double.compare order: flip every bit of negatives, only the sign bit of the rest
+            case DoubleColumn(var values, var nulls, int sign) ->
+                radixSort(
+                        order,
+                        from,
+                        to,
+                        i -> {
+                            long bits = Double.doubleToLongBits(values[i]);
+                            return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+                        },
+                        nulls,
+                        sign < 0);
+            case CodeColumn(var codes, int cardinality) -> countingSort(order, from, to, codes, cardinality);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // LSD radix sort by unsigned 64-bit keys, a byte per pass; passes where every key shares the byte are skipped.
+    private static void radixSort(
+            int[] order, int from, int to, IntToLongFunction unsignedKey, boolean[] nulls, boolean descending) {
+        int n = to - from;
+        int[] rows = new int[n];
+        long[] keys = new long[n];
+        int[][] counts = new int[Long.BYTES][256];
+        long flip = descending ? -1L : 0L;
+        int m = 0;
+        int nullCount = 0;
+        for (int k = from; k < to; k++) {
+            int row = order[k];
+            if (nulls[row]) {
+                order[from + nullCount++] = row;
+                continue;
+            }
+            long key = unsignedKey.applyAsLong(row) ^ flip;
+            for (int d = 0; d < Long.BYTES; d++) counts[d][(int) (key >>> (d * 8)) & 0xFF]++;
+            rows[m] = row;
+            keys[m++] = key;
+        }
+        // Nulls were gathered in order at the front; descending, they sort last
+        if (descending) System.arraycopy(order, from, order, to - nullCount, nullCount);
+        int[] rowsAux = new int[m];
+        long[] keysAux = new long[m];
+        for (int d = 0; d < Long.BYTES && m > 0; d++) {
+            int shift = d * 8;
+            int[] count = counts[d];
+            if (count[(int) (keys[0] >>> shift) & 0xFF] == m) continue;
+            for (int b = 0, sum = 0; b < count.length; b++) {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < m; i++) {
+                int at = count[(int) (keys[i] >>> shift) & 0xFF]++;
+                rowsAux[at] = rows[i];
+                keysAux[at] = keys[i];
+            }
+            int[] swapRows = rows;
+            rows = rowsAux;
+            rowsAux = swapRows;
+            long[] swapKeys = keys;
+            keys = keysAux;
+            keysAux = swapKeys;
+        }
+        System.arraycopy(rows, 0, order, descending ? from : from + nullCount, m);
+    }
+
+    private static void countingSort(int[] order, int from, int to, int[] codes, int cardinality) {
+        int[] starts = new int[cardinality + 1];
+        for (int k = from; k < to; k++) starts[codes[order[k]] + 1]++;
+        for (int c = 0; c < cardinality; c++) starts[c + 1] += starts[c];
+        int[] sorted = new int[to - from];
+        for (int k = from; k < to; k++) sorted[starts[codes[order[k]]]++] = order[k];
+        System.arraycopy(sorted, 0, order, from, sorted.length);
+    }
+
+    // Top-down merge sort; {@code scratch} holds the same indices as {@code order} over [from, to) on entry.
+    private void mergeSort(int[] order, int[] scratch, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(order, from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(scratch, order, from, mid);
+        mergeSort(scratch, order, mid, to);
+        if (compare(scratch[mid - 1], scratch[mid]) <= 0) {
+            System.arraycopy(scratch, from, order, from, to - from);
+            return;
+        }
+        for (int k = from, a = from, b = mid; k < to; k++) {
+            order[k] = b >= to || (a < mid && compare(scratch[a], scratch[b]) <= 0) ? scratch[a++] : scratch[b++];
+        }
+    }
+
+    // Merges the sorted ranges [from, mid) and [mid, to) of source into target, left first on ties.
+    private void merge(int[] source, int[] target, int from, int mid, int to) {
+        for (int k = from, a = from, b = mid; k < to; k++) {
+            target[k] = b >= to || (a < mid && compare(source[a], source[b]) <= 0) ? source[a++] : source[b++];
+        }
+    }
+
+    private void insertionSort(int[] order, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int row = order[i];
+            int j = i - 1;
+            while (j >= from && compare(order[j], row) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = row;
+        }
+    }
+
+    private sealed interface Column permits LongColumn, DoubleColumn, CodeColumn, ValueColumn, BytesColumn {
+        int compare(int i, int j);
+    }
+
+    private record LongColumn(long[] values, boolean[] nulls, int sign) implements Column {
+        @Override
+        public int compare(int i, int j) {
+            if (nulls[i] || nulls[j]) return sign * Boolean.compare(nulls[j], nulls[i]);
+            return sign * Long.compare(values[i], values[j]);
+        }
+    }
+
+    private record DoubleColumn(double[] values, boolean[] nulls, int sign) implements Column {
+        @Override
+        public int compare(int i, int j) {
+            if (nulls[i] || nulls[j]) return sign * Boolean.compare(nulls[j], nulls[i]);
+            return sign * Double.compare(values[i], values[j]);
+        }
+    }
+
+    private record CodeColumn(int[] codes, int cardinality) implements Column {
+        @Override
+        public int compare(int i, int j) {
+            return Integer.compare(codes[i], codes[j]);
+        }
+    }
+
+    private record BytesColumn(byte[][] values) implements Column {
+        @Override
+        public int compare(int i, int j) {
+            return Arrays.compareUnsigned(values[i], values[j]);
+        }
+    }
+
+    private record ValueColumn(SqlValue[] values, int sign) implements Column {
+        @Override
+        public int compare(int i, int j) {
+            return sign * SqlValueComparator.compare(values[i], values[j]);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 // SPDX-License-Identifier: Apache-2.0
 package io.github.mnesimiyilmaz.sql4json.types;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Strategy interface for JSON parsing and serialization.
  *
@@ -25,6 +28,36 @@ public interface JsonCodec {
      */
     JsonValue parse(String json);
 
+    /**
+     * Parse UTF-8 encoded JSON bytes into a {@link JsonValue}. The default implementation decodes the bytes into a
+     * {@link String} and delegates to {@link #parse(String)}; codecs that can read bytes directly should override it.
+     *
+     * @param utf8Json UTF-8 encoded JSON
+     * @return parsed JsonValue
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException on malformed input
+     * @since 1.4.0
+     */
+    default JsonValue parse(byte[] utf8Json) {
+        return parse(utf8Json == null ? null : new String(utf8Json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse the UTF-8 encoded JSON between the buffer's position and limit into a {@link JsonValue}. The buffer's
+     * position is not modified. The default implementation decodes the bytes into a {@link String} and delegates to
+     * {@link #parse(String)}.
+     *
+     * @param utf8Json buffer holding UTF-8 encoded JSON
+     * @return parsed JsonValue
+     * @throws io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException on malformed input
+     * @since 1.4.0
+     */
+    default JsonValue parse(ByteBuffer utf8Json) {
+        return parse(
+                utf8Json == null
+                        ? null
+                        : StandardCharsets.UTF_8.decode(utf8Json.duplicate()).toString());
+    }
+
     /**
      * Serialize a {@link JsonValue} to a compact JSON string.
      *
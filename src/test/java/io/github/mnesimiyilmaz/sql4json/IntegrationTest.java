@@ -1205,6 +1205,21 @@ class IntegrationTest {
             var result = query("SELECT DISTINCT dept, COUNT(*) AS cnt FROM $r GROUP BY dept");
             assertEquals(3, result.asArray().orElseThrow().size()); // IT, HR, Sales
         }
+
+        @Test
+        void havingAndOrderBy_onAggregatesAbsentFromSelect() {
+            // GROUP BY keeps no rows, so aggregates used only by HAVING / ORDER BY must be accumulated too
+            var result = query("SELECT dept FROM $r GROUP BY dept HAVING MIN(age) < 30 ORDER BY MAX(salary) DESC");
+            // IT: min 25, max 60000; HR: min 28, max 55000; Sales: min 40 → filtered
+            var rows = result.asArray().orElseThrow();
+            assertEquals(2, rows.size());
+            assertEquals(
+                    "IT",
+                    rows.get(0).asObject().orElseThrow().get("dept").asString().orElseThrow());
+            assertEquals(
+                    "HR",
+                    rows.get(1).asObject().orElseThrow().get("dept").asString().orElseThrow());
+        }
     }
 
     // ══════════════════════════════════════════════════════════════════════
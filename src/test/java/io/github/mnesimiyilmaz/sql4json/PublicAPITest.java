@@ -4,9 +4,21 @@ package io.github.mnesimiyilmaz.sql4json;
 import static org.junit.jupiter.api.Assertions.*;
 
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonException;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryDefinition;
 import io.github.mnesimiyilmaz.sql4json.parser.QueryParser;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -14,6 +26,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class PublicAPITest {
 
@@ -166,6 +179,339 @@ class PublicAPITest {
         }
     }
 
+    @Nested
+    class FileInputTests {
+
+        private static final String JSON = "{\"data\":[{\"name\":\"Alice\",\"age\":30},{\"name\":\"Bob\",\"age\":20}]}";
+
+        @TempDir
+        Path tmp;
+
+        private Path writeFile() throws IOException {
+            Path file = tmp.resolve("data.json");
+            Files.writeString(file, JSON, StandardCharsets.UTF_8);
+            return file;
+        }
+
+        @Test
+        void query_path_matchesStringQuery() throws IOException {
+            String sql = "SELECT name FROM $r.data WHERE age > 25";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.query(sql, writeFile()));
+        }
+
+        @Test
+        void queryAsJsonValue_path_withSubquery() throws IOException {
+            JsonValue result =
+                    SQL4Json.queryAsJsonValue("SELECT name FROM (SELECT * FROM $r.data WHERE age < 25)", writeFile());
+            assertEquals(1, result.asArray().orElseThrow().size());
+        }
+
+        @Test
+        void preparedQuery_executePath() throws IOException {
+            PreparedQuery q = SQL4Json.prepare("SELECT name FROM $r.data ORDER BY name DESC");
+            assertEquals(q.execute(JSON), q.execute(writeFile()));
+        }
+
+        @Test
+        void path_withCustomCodec_readsBytes() throws IOException {
+            JsonCodec inner = new DefaultJsonCodec();
+            JsonCodec custom = new JsonCodec() {
+                @Override
+                public JsonValue parse(String json) {
+                    return inner.parse(json);
+                }
+
+                @Override
+                public String serialize(JsonValue value) {
+                    return inner.serialize(value);
+                }
+            };
+            var settings = Sql4jsonSettings.builder().codec(custom).build();
+            Path file = writeFile();
+            String sql = "SELECT name FROM $r.data WHERE age > 25";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.query(sql, file, settings));
+            assertEquals(SQL4Json.queryAsJsonValue(sql, JSON), SQL4Json.queryAsJsonValue(sql, file, settings));
+            assertEquals(
+                    SQL4Json.query(sql, JSON), SQL4Json.prepare(sql, settings).execute(file));
+        }
+
+        @Test
+        void path_missingFile_throws() {
+            Path missing = tmp.resolve("missing.json");
+            assertThrows(SQL4JsonExecutionException.class, () -> SQL4Json.query("SELECT * FROM $r", missing));
+            var settings = Sql4jsonSettings.builder()
+                    .codec(new JsonCodec() {
+                        @Override
+                        public JsonValue parse(String json) {
+                            throw new AssertionError("not reached");
+                        }
+
+                        @Override
+                        public String serialize(JsonValue value) {
+                            throw new AssertionError("not reached");
+                        }
+                    })
+                    .build();
+            assertThrows(SQL4JsonExecutionException.class, () -> SQL4Json.query("SELECT * FROM $r", missing, settings));
+        }
+
+        @Test
+        void path_null_throws() {
+            assertThrows(SQL4JsonException.class, () -> SQL4Json.query("SELECT * FROM $r", (Path) null));
+        }
+    }
+
+    @Nested
+    class StreamInputTests {
+
+        private static final String JSON = "[{\"name\":\"Alice\",\"age\":30},{\"name\":\"Bob\",\"age\":20}]";
+
+        private static InputStream stream() {
+            return new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void query_inputStream_matchesStringQuery() {
+            String sql = "SELECT name FROM $r WHERE age > 25";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.query(sql, stream()));
+            assertEquals(SQL4Json.queryAsJsonValue(sql, JSON), SQL4Json.queryAsJsonValue(sql, stream()));
+        }
+
+        @Test
+        void preparedQuery_executeStreamAndChannel() {
+            PreparedQuery q = SQL4Json.prepare("SELECT name FROM $r ORDER BY name DESC");
+            assertEquals(q.execute(JSON), q.execute(stream()));
+            assertEquals(q.execute(JSON), q.execute(Channels.newChannel(stream())));
+        }
+
+        @Test
+        void inputStream_withCustomCodec_readsBytes() {
+            JsonCodec inner = new DefaultJsonCodec();
+            JsonCodec custom = new JsonCodec() {
+                @Override
+                public JsonValue parse(String json) {
+                    return inner.parse(json);
+                }
+
+                @Override
+                public String serialize(JsonValue value) {
+                    return inner.serialize(value);
+                }
+            };
+            var settings = Sql4jsonSettings.builder().codec(custom).build();
+            String sql = "SELECT name FROM $r WHERE age > 25";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.query(sql, stream(), settings));
+            assertEquals(
+                    SQL4Json.query(sql, JSON), SQL4Json.prepare(sql, settings).execute(stream()));
+        }
+
+        @Test
+        void inputStream_readFailure_throws() {
+            InputStream failing = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("disk gone");
+                }
+            };
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> SQL4Json.query("SELECT * FROM $r", failing));
+            assertEquals("Failed to read JSON input: disk gone", ex.getMessage());
+        }
+
+        @Test
+        void inputStream_null_throws() {
+            assertThrows(SQL4JsonException.class, () -> SQL4Json.query("SELECT * FROM $r", (InputStream) null));
+        }
+    }
+
+    @Nested
+    class ProjectionPushdownTests {
+
+        private static final String JSON = "["
+                + "{\"id\":1,\"name\":\"Alice\",\"score\":91,\"dept\":\"eng\",\"bio\":\"x\",\"tags\":[\"a\",\"b\"],"
+                + "\"address\":{\"city\":\"Izmir\",\"zip\":\"35000\",\"geo\":{\"lat\":38.4}}},"
+                + "{\"id\":2,\"name\":\"Bob\",\"score\":72,\"dept\":\"ops\",\"bio\":null,\"tags\":[\"c\"],"
+                + "\"address\":{\"city\":\"Ankara\",\"zip\":\"06000\",\"geo\":{\"lat\":39.9}}},"
+                + "{\"id\":3,\"name\":\"Cem\",\"score\":85,\"dept\":\"eng\",\"extra\":{\"deep\":[1,[2]]},"
+                + "\"address\":{\"city\":\"Izmir\",\"zip\":\"35100\"}}"
+                + "]";
+
+        // The tree path builds complete rows, so it is the reference for the projected streaming path.
+        private void assertSameAsTreePath(String sql) {
+            JsonValue expected = SQL4Json.queryAsJsonValue(sql, new DefaultJsonCodec().parse(JSON));
+            assertEquals(expected, SQL4Json.queryAsJsonValue(sql, JSON), sql);
+            assertEquals(
+                    expected,
+                    SQL4Json.queryAsJsonValue(sql, new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8))),
+                    sql);
+        }
+
+        @Test
+        void projectedQueries_matchTreePath() {
+            for (String sql : List.of(
+                    "SELECT id, score FROM $r WHERE score > 80",
+                    "SELECT name, address.city FROM $r ORDER BY address.geo.lat DESC",
+                    "SELECT address FROM $r WHERE id = 2",
+                    "SELECT name, tags FROM $r WHERE tags IS NOT NULL",
+                    "SELECT dept, COUNT(*) AS n, AVG(score) AS meanScore FROM $r GROUP BY dept HAVING COUNT(*) > 0",
+                    "SELECT name, ROW_NUMBER() OVER (PARTITION BY dept ORDER BY score DESC) AS rn FROM $r",
+                    "SELECT name FROM $r WHERE score > CAST(id AS NUMBER)",
+                    "SELECT name, CASE WHEN address.city = 'Izmir' THEN 'west' ELSE 'other' END AS region FROM $r",
+                    "SELECT DISTINCT dept FROM $r",
+                    "SELECT name FROM (SELECT name, score FROM $r WHERE dept = 'eng') WHERE score > 86",
+                    "SELECT * FROM $r WHERE id = 3",
+                    "SELECT name FROM $r WHERE dept IN ('eng') AND name LIKE 'C%'",
+                    "SELECT id FROM $r WHERE bio IS NULL OR score < 80",
+                    "SELECT id, name FROM $r WHERE address.city NOT IN ('Ankara') ORDER BY id DESC",
+                    "SELECT * FROM $r WHERE extra IS NOT NULL",
+                    "SELECT name FROM $r WHERE score > id AND (dept = 'ops' OR LOWER(name) = 'alice')",
+                    "SELECT dept, COUNT(*) AS n FROM $r WHERE score >= 85 GROUP BY dept")) {
+                assertSameAsTreePath(sql);
+            }
+        }
+
+        @Test
+        void aliasedRoot_isNotNarrowed() {
+            assertSameAsTreePath("SELECT u.name, u.address.city FROM $r AS u WHERE u.score > 80");
+        }
+
+        @TempDir
+        Path tmp;
+
+        // Skipping a member the query never reads must not relax the grammar or the codec limits.
+        private void assertRejectedFromEveryInput(String json, Sql4jsonSettings settings) throws IOException {
+            PreparedQuery query = SQL4Json.prepare("SELECT a FROM $r", settings);
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Path file = Files.write(tmp.resolve("invalid.json"), bytes);
+            assertThrows(SQL4JsonExecutionException.class, () -> query.execute(json), json);
+            assertThrows(SQL4JsonExecutionException.class, () -> query.execute(bytes), json);
+            assertThrows(SQL4JsonExecutionException.class, () -> query.execute(file), json);
+            assertThrows(SQL4JsonExecutionException.class, () -> query.execute(new ByteArrayInputStream(bytes)), json);
+        }
+
+        @Test
+        void invalidUnreferencedMembers_areRejected() throws IOException {
+            Sql4jsonSettings defaults = Sql4jsonSettings.defaults();
+            for (String json : List.of(
+                    "[{\"b\":1,\"b\":2,\"a\":1}]",
+                    "[{\"a\":1,\"b\":{\"c\":1,\"c\":2}}]",
+                    "[{\"a\":1,\"b\":01}]",
+                    "[{\"a\":1,\"b\":-}]",
+                    "[{\"a\":1,\"b\":1.}]",
+                    "[{\"a\":1,\"b\":tru}]",
+                    "[{\"a\":1,\"b\":nul}]",
+                    "[{\"a\":1,\"b\":\"\\q\"}]",
+                    "[{\"a\":1,\"b\":\"\\u12G4\"}]",
+                    "[{\"a\":1,\"b\":{\"c\":1,}}]",
+                    "[{\"a\":1,\"b\":[1,]}]",
+                    "[{\"a\":1,\"b\":\"x\ty\"}]",
+                    "[{\"a\":1,\"b\":[\"x\ny\"]}]")) {
+                assertRejectedFromEveryInput(json, defaults);
+            }
+        }
+
+        @Test
+        void unreferencedMembers_stillCountTowardsCodecLimits() throws IOException {
+            var limited = Sql4jsonSettings.builder()
+                    .codec(new DefaultJsonCodec(DefaultJsonCodecSettings.builder()
+                            .maxStringLength(8)
+                            .maxArrayElements(3)
+                            .build()))
+                    .build();
+            assertEquals(
+                    "[{\"a\":1}]",
+                    SQL4Json.prepare("SELECT a FROM $r", limited).execute("[{\"a\":1,\"b\":\"short\",\"c\":[1,2]}]"));
+            assertRejectedFromEveryInput("[{\"a\":1,\"b\":\"much too long\"}]", limited);
+            assertRejectedFromEveryInput("[{\"a\":1,\"b\":\"\\u0041much too long\"}]", limited);
+            assertRejectedFromEveryInput("[{\"a\":1,\"b\":[1,2,3,4]}]", limited);
+        }
+
+        @Test
+        void parallelParse_matchesTreePath() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < 20_000; i++) {
+                if (i > 0) sb.append(',');
+                sb.append("{\"id\":").append(i).append(",\"dept\":\"d").append(i % 7);
+                sb.append("\",\"score\":").append(i % 101).append(",\"bio\":\"lorem ipsum dolor\"}");
+            }
+            String json = sb.append(']').toString();
+            var parallel = Sql4jsonSettings.builder()
+                    .codec(new DefaultJsonCodec(DefaultJsonCodecSettings.builder()
+                            .parseParallelism(4)
+                            .build()))
+                    .build();
+            for (String sql : List.of(
+                    "SELECT * FROM $r",
+                    "SELECT id, dept FROM $r WHERE score > 90 ORDER BY id DESC",
+                    "SELECT dept, COUNT(*) AS n FROM $r WHERE dept IN ('d1', 'd3') GROUP BY dept",
+                    "SELECT id FROM $r WHERE id >= 19990")) {
+                JsonValue expected = SQL4Json.queryAsJsonValue(sql, new DefaultJsonCodec().parse(json));
+                assertEquals(expected, SQL4Json.queryAsJsonValue(sql, json, parallel), sql);
+            }
+        }
+    }
+
+    @Nested
+    class NdjsonTests {
+
+        private static final String NDJSON = "{\"name\":\"Alice\",\"age\":30}\n{\"name\":\"Bob\",\"age\":20}\n";
+        private static final String JSON = "[{\"name\":\"Alice\",\"age\":30},{\"name\":\"Bob\",\"age\":20}]";
+
+        private static InputStream stream() {
+            return new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void queryNdjson_matchesArrayQuery() {
+            String sql = "SELECT name, age FROM $r WHERE age > 25";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.queryNdjson(sql, NDJSON));
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.queryNdjson(sql, stream()));
+            assertEquals(SQL4Json.queryAsJsonValue(sql, JSON), SQL4Json.queryNdjsonAsJsonValue(sql, NDJSON));
+            assertEquals(SQL4Json.queryAsJsonValue(sql, JSON), SQL4Json.queryNdjsonAsJsonValue(sql, stream()));
+        }
+
+        @Test
+        void queryNdjson_subquery() {
+            String sql = "SELECT name FROM (SELECT * FROM $r WHERE age < 25)";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.queryNdjson(sql, NDJSON));
+        }
+
+        @Test
+        void preparedQuery_executeNdjson() {
+            PreparedQuery q = SQL4Json.prepare("SELECT name FROM $r ORDER BY name DESC");
+            assertEquals(q.execute(JSON), q.executeNdjson(NDJSON));
+            assertEquals(q.execute(JSON), q.executeNdjson(stream()));
+        }
+
+        @Test
+        void ndjson_withCustomCodec_parsesEachLine() {
+            JsonCodec inner = new DefaultJsonCodec();
+            List<String> parsed = new ArrayList<>();
+            JsonCodec custom = new JsonCodec() {
+                @Override
+                public JsonValue parse(String json) {
+                    parsed.add(json);
+                    return inner.parse(json);
+                }
+
+                @Override
+                public String serialize(JsonValue value) {
+                    return inner.serialize(value);
+                }
+            };
+            var settings = Sql4jsonSettings.builder().codec(custom).build();
+            String sql = "SELECT name FROM $r WHERE age > 25";
+            assertEquals(SQL4Json.query(sql, JSON), SQL4Json.queryNdjson(sql, NDJSON, settings));
+            assertEquals(2, parsed.size());
+            assertEquals(
+                    SQL4Json.query(sql, JSON), SQL4Json.prepare(sql, settings).executeNdjson(stream()));
+        }
+
+        @Test
+        void ndjson_null_throws() {
+            assertThrows(SQL4JsonException.class, () -> SQL4Json.queryNdjson("SELECT * FROM $r", (String) null));
+        }
+    }
+
     @Nested
     class NonDeterministicDetectionTests {
 
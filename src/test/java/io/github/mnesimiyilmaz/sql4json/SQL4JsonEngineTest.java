@@ -8,6 +8,8 @@ import io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec;
 import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -464,4 +466,70 @@ class SQL4JsonEngineTest {
                 io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException.class,
                 () -> engine.query("SELECT u.id FROM users u JOIN orders o ON u.id = o.user_id"));
     }
+
+    // ── UTF-8 byte input ───────────────────────────────────────────────────
+
+    @Test
+    void data_fromUtf8Bytes() {
+        SQL4JsonEngine engine =
+                SQL4Json.engine().data(JSON.getBytes(StandardCharsets.UTF_8)).build();
+        assertEquals(
+                SQL4Json.query("SELECT name FROM $r WHERE age > 25", JSON),
+                engine.query("SELECT name FROM $r WHERE age > 25"));
+    }
+
+    @Test
+    void data_fromUtf8Bytes_reparsesForSubquery() {
+        SQL4JsonEngine engine =
+                SQL4Json.engine().data(JSON.getBytes(StandardCharsets.UTF_8)).build();
+        String result = engine.query("SELECT name FROM (SELECT * FROM $r WHERE age < 25)");
+        assertTrue(result.contains("Bob"));
+        assertFalse(result.contains("Alice"));
+    }
+
+    @Test
+    void data_nullBytes_throws() {
+        assertThrows(SQL4JsonException.class, () -> SQL4Json.engine().data((byte[]) null));
+    }
+
+    @Test
+    void builder_namedSource_bytes() {
+        SQL4JsonEngine engine = SQL4Json.engine()
+                .data("users", "[{\"id\":1,\"name\":\"Ayşe\"}]".getBytes(StandardCharsets.UTF_8))
+                .data("orders", "[{\"user_id\":1,\"product\":\"Widget\"}]")
+                .build();
+        String result = engine.query("SELECT u.name FROM users u JOIN orders o ON u.id = o.user_id");
+        assertTrue(result.contains("Ayşe"));
+    }
+
+    @Test
+    void prepare_executeBytes_matchesString() {
+        PreparedQuery q = SQL4Json.prepare("SELECT name FROM $r WHERE age > 25");
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        assertEquals(q.execute(JSON), q.execute(bytes));
+        assertEquals(q.execute(JSON), q.execute(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    void prepare_executeBytes_withCustomCodec() {
+        JsonCodec codec = new JsonCodec() {
+            private final JsonCodec inner = new DefaultJsonCodec();
+
+            @Override
+            public JsonValue parse(String json) {
+                return inner.parse(json);
+            }
+
+            @Override
+            public String serialize(JsonValue value) {
+                return inner.serialize(value);
+            }
+        };
+        PreparedQuery q = SQL4Json.prepare(
+                "SELECT name FROM $r WHERE age > 25",
+                Sql4jsonSettings.builder().codec(codec).build());
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        assertEquals(q.execute(JSON), q.execute(bytes));
+        assertEquals(q.execute(JSON), q.execute(ByteBuffer.wrap(bytes)));
+    }
 }
@@ -248,6 +248,44 @@ class ArgParserTest {
         }
     }
 
+    @Nested
+    class Format {
+
+        @Test
+        void parse_noFormat_defaultsToJson() {
+            assertFalse(ArgParser.parse(new String[] {"-q", "x"}).ndjson());
+        }
+
+        @Test
+        void parse_formatNdjson_setsFlag() {
+            assertTrue(ArgParser.parse(new String[] {"-q", "x", "--format", "ndjson"})
+                    .ndjson());
+            assertFalse(ArgParser.parse(new String[] {"-q", "x", "--format", "json"})
+                    .ndjson());
+        }
+
+        @Test
+        void parse_unknownFormat_throwsUsage() {
+            UsageException ex = assertThrows(
+                    UsageException.class, () -> ArgParser.parse(new String[] {"-q", "x", "--format", "csv"}));
+            assertTrue(ex.getMessage().contains("csv"));
+        }
+
+        @Test
+        void parse_repeatedFormat_throwsUsage() {
+            assertThrows(
+                    UsageException.class,
+                    () -> ArgParser.parse(new String[] {"-q", "x", "--format", "json", "--format", "ndjson"}));
+        }
+
+        @Test
+        void parse_ndjsonWithData_throwsUsage() {
+            assertThrows(
+                    UsageException.class,
+                    () -> ArgParser.parse(new String[] {"-q", "x", "--format", "ndjson", "--data", "u=u.json"}));
+        }
+    }
+
     @Nested
     class PrettyAndUnknown {
 
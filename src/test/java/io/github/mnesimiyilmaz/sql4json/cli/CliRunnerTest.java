@@ -176,6 +176,63 @@ class CliRunnerTest {
         }
     }
 
+    @Nested
+    class Ndjson {
+
+        private static final String NDJSON = "{\"name\":\"Alice\",\"age\":30}\n{\"name\":\"Bob\",\"age\":20}\n";
+
+        @TempDir
+        Path tmp;
+
+        @Test
+        void run_ndjsonFile_queriesEachLine() throws Exception {
+            Path data = tmp.resolve("data.ndjson");
+            Files.writeString(data, NDJSON, StandardCharsets.UTF_8);
+            int code = CliRunner.run(
+                    new String[] {
+                        "-q", "SELECT name FROM $r WHERE age > 25", "-f", data.toString(), "--format", "ndjson"
+                    },
+                    stdin,
+                    outStream,
+                    errStream);
+            assertEquals(0, code);
+            assertEquals("[{\"name\":\"Alice\"}]", stdout().trim());
+        }
+
+        @Test
+        void run_ndjsonFromStdin() {
+            InputStream in = new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8));
+            int code = CliRunner.run(
+                    new String[] {"-q", "SELECT age FROM $r WHERE name = 'Alice'", "--format", "ndjson"},
+                    in,
+                    outStream,
+                    errStream);
+            assertEquals(0, code);
+            assertEquals("[{\"age\":30}]", stdout().trim());
+        }
+
+        @Test
+        void run_ndjsonWithNamedParam_filtersResult() {
+            InputStream in = new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8));
+            int code = CliRunner.run(
+                    new String[] {"-q", "SELECT name FROM $r WHERE age < :max", "--format", "ndjson", "-p", "max=25"},
+                    in,
+                    outStream,
+                    errStream);
+            assertEquals(0, code);
+            assertEquals("[{\"name\":\"Bob\"}]", stdout().trim());
+        }
+
+        @Test
+        void run_ndjsonMalformedLine_returnsExit1() {
+            InputStream in = new ByteArrayInputStream("{\"a\":1}\n{oops}\n".getBytes(StandardCharsets.UTF_8));
+            int code = CliRunner.run(
+                    new String[] {"-q", "SELECT * FROM $r", "--format", "ndjson"}, in, outStream, errStream);
+            assertEquals(1, code);
+            assertTrue(stderr().contains("(line 2)"));
+        }
+    }
+
     @Nested
     class MultiSource {
 
@@ -0,0 +1,55 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.json.JsonLongValue;
+import io.github.mnesimiyilmaz.sql4json.json.JsonObjectValue;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ColumnBindingTest {
+
+    private static final RowSchema AB = RowSchema.of(List.of(FieldKey.of("a"), FieldKey.of("b")));
+    private static final RowSchema BA = RowSchema.of(List.of(FieldKey.of("b"), FieldKey.of("a")));
+
+    @Test
+    void flatRows_readByBoundOrdinal_andRebindOnSchemaChange() {
+        var ref = new Expression.ColumnRef("b");
+        FlatRow first = FlatRow.of(AB, new Object[] {new SqlString("x"), SqlNumber.of(1L)});
+        FlatRow second = FlatRow.of(AB, new Object[] {new SqlString("y"), SqlNumber.of(2L)});
+        FlatRow swapped = FlatRow.of(BA, new Object[] {SqlNumber.of(3L), new SqlString("z")});
+        assertEquals(SqlNumber.of(1L), ref.binding().get(first));
+        assertEquals(SqlNumber.of(2L), ref.binding().get(second));
+        assertEquals(SqlNumber.of(3L), ref.binding().get(swapped));
+        assertEquals(SqlNumber.of(2L), ref.binding().get(second));
+    }
+
+    @Test
+    void flatRows_missingColumn_isSqlNull() {
+        var ref = new Expression.ColumnRef("missing");
+        assertSame(SqlNull.INSTANCE, ref.binding().get(FlatRow.of(AB, new Object[2])));
+    }
+
+    @Test
+    void lazyRows_readThroughPrebuiltKey() {
+        var ref = new Expression.ColumnRef("a");
+        Row row = Row.lazy(new JsonObjectValue(Map.of("a", new JsonLongValue(7))), new FieldKey.Interner());
+        assertEquals(SqlNumber.of(7L), ref.binding().get(row));
+        assertSame(ref.binding().key(), ref.binding().key());
+    }
+
+    @Test
+    void binding_doesNotAffectExpressionEquality() {
+        var one = new Expression.ColumnRef("a.b");
+        var two = new Expression.ColumnRef("a.b");
+        one.binding().get(FlatRow.of(AB, new Object[2]));
+        assertEquals(one, two);
+        assertEquals(one.hashCode(), two.hashCode());
+        assertNotEquals(one, new Expression.ColumnRef("a"));
+    }
+}
@@ -0,0 +1,90 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.*;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ExpressionCompilerTest {
+
+    private static final FunctionRegistry FUNCTIONS = FunctionRegistry.getDefault();
+
+    private static final Row ROW = Row.eager(Map.of(
+            FieldKey.of("name"),
+            new SqlString("  Alice  "),
+            FieldKey.of("dept"),
+            new SqlString("eng"),
+            FieldKey.of("salary"),
+            SqlNumber.of(1234.5678),
+            FieldKey.of("n"),
+            SqlNumber.of(3L)));
+
+    private static void assertSameAsInterpreter(Expression expr) {
+        assertEquals(
+                ExpressionEvaluator.evaluate(expr, ROW, FUNCTIONS),
+                ExpressionCompiler.compile(expr, FUNCTIONS).evaluate(ROW),
+                expr.toString());
+    }
+
+    @Test
+    void compiled_matchesInterpreter() {
+        var name = new ColumnRef("name");
+        var salary = new ColumnRef("salary");
+        List<Expression> exprs = List.of(
+                name,
+                new ColumnRef("missing"),
+                new LiteralVal(SqlNumber.of(42L)),
+                new ScalarFnCall("upper", List.of(new ScalarFnCall("trim", List.of(name)))),
+                new ScalarFnCall("round", List.of(salary, new LiteralVal(SqlNumber.of(2L)))),
+                new ScalarFnCall("round", List.of(salary, new ColumnRef("n"))),
+                new ScalarFnCall("concat", List.of(new ColumnRef("dept"), new LiteralVal(new SqlString("-")), name)),
+                new SimpleCaseWhen(
+                        new ColumnRef("dept"),
+                        List.of(
+                                new WhenClause.ValueWhen(
+                                        new LiteralVal(new SqlString("ops")), new LiteralVal(SqlNumber.of(1L))),
+                                new WhenClause.ValueWhen(
+                                        new LiteralVal(new SqlString("eng")), new LiteralVal(SqlNumber.of(2L)))),
+                        null),
+                new SimpleCaseWhen(
+                        new ColumnRef("missing"),
+                        List.of(new WhenClause.ValueWhen(new LiteralVal(SqlNull.INSTANCE), salary)),
+                        new LiteralVal(new SqlString("else"))));
+        exprs.forEach(ExpressionCompilerTest::assertSameAsInterpreter);
+    }
+
+    @Test
+    void errors_surfaceOnEvaluationNotCompilation() {
+        var unknown = ExpressionCompiler.compile(new ScalarFnCall("nope", List.of(new ColumnRef("name"))), FUNCTIONS);
+        var ex = assertThrows(SQL4JsonExecutionException.class, () -> unknown.evaluate(ROW));
+        assertEquals("Unknown scalar function: nope", ex.getMessage());
+
+        var noArgs = ExpressionCompiler.compile(new ScalarFnCall("upper", List.of()), FUNCTIONS);
+        assertThrows(SQL4JsonExecutionException.class, () -> noArgs.evaluate(ROW));
+
+        var aggregate = ExpressionCompiler.compile(new AggregateFnCall("sum", new ColumnRef("n")), FUNCTIONS);
+        assertThrows(SQL4JsonExecutionException.class, () -> aggregate.evaluate(ROW));
+    }
+
+    @Test
+    void groupAware_aggregatesOverSourceGroup() {
+        var schema = RowSchema.of(List.of(FieldKey.of("n")));
+        List<RowAccessor> group = List.of(
+                FlatRow.of(schema, new Object[] {SqlNumber.of(2L)}),
+                FlatRow.of(schema, new Object[] {SqlNumber.of(5L)}));
+        FlatRow aggregated = FlatRow.aggregated(schema, new Object[] {SqlNumber.of(2L)}, group);
+        var sum = ExpressionCompiler.compileGroupAware(new AggregateFnCall("sum", new ColumnRef("n")), FUNCTIONS);
+        assertEquals(0, SqlValueComparator.compare(SqlNumber.of(7L), sum.evaluate(aggregated)));
+        var plain = ExpressionCompiler.compileGroupAware(new ColumnRef("n"), FUNCTIONS);
+        assertEquals(SqlNumber.of(2L), plain.evaluate(aggregated));
+    }
+}
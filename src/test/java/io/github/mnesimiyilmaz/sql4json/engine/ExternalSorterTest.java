@@ -0,0 +1,242 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.SQL4Json;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonException;
+import io.github.mnesimiyilmaz.sql4json.json.JsonArrayValue;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExternalSorterTest {
+
+    private static final FieldKey KEY = FieldKey.of("k");
+    private static final FieldKey NAME = FieldKey.of("name");
+    private static final FieldKey SEQ = FieldKey.of("seq");
+
+    @TempDir
+    Path dir;
+
+    private static List<RowAccessor> rows(int count, int keys, long seed) {
+        var random = new Random(seed);
+        var rows = new ArrayList<RowAccessor>(count);
+        for (int i = 0; i < count; i++) {
+            SqlValue key = random.nextInt(20) == 0 ? SqlNull.INSTANCE : SqlNumber.of(random.nextInt(keys));
+            rows.add(
+                    Row.eager(Map.of(KEY, key, NAME, new SqlString("n" + random.nextInt(keys)), SEQ, SqlNumber.of(i))));
+        }
+        return rows;
+    }
+
+    private static ExternalSorter sorter(ExecutionSettings settings) {
+        return new ExternalSorter(
+                List.of(row -> row.get(KEY), row -> row.get(NAME)), new boolean[] {false, true}, settings);
+    }
+
+    // The stable in-memory order the sorter must reproduce
+    private static List<Long> expected(List<RowAccessor> input) {
+        Comparator<RowAccessor> byKey = (a, b) -> SqlValueComparator.compare(a.get(KEY), b.get(KEY));
+        Comparator<RowAccessor> byNameDesc = (a, b) -> SqlValueComparator.compare(b.get(NAME), a.get(NAME));
+        return input.stream()
+                .sorted(byKey.thenComparing(byNameDesc))
+                .map(ExternalSorterTest::seq)
+                .toList();
+    }
+
+    private static long seq(RowAccessor row) {
+        return ((SqlNumber) row.get(SEQ)).longValue();
+    }
+
+    private ExecutionSettings spilling(long thresholdBytes) {
+        return ExecutionSettings.builder()
+                .spillThresholdBytes(thresholdBytes)
+                .spillDirectory(dir)
+                .build();
+    }
+
+    private long filesInDir() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void without_spilling_sorts_stably_in_memory() throws IOException {
+        List<RowAccessor> input = rows(3_000, 50, 1);
+        List<Long> sorted = sorter(ExecutionSettings.defaults())
+                .sort(input.iterator())
+                .map(ExternalSorterTest::seq)
+                .toList();
+        assertEquals(expected(input), sorted);
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void spilled_runs_merge_to_the_stable_order_and_are_deleted() throws IOException {
+        List<RowAccessor> input = rows(5_000, 40, 2);
+        List<Long> sorted = sorter(spilling(20_000))
+                .sort(input.iterator())
+                .map(ExternalSorterTest::seq)
+                .toList();
+        assertEquals(expected(input), sorted);
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void more_runs_than_the_merge_width_are_merged_in_passes() throws IOException {
+        List<RowAccessor> input = rows(4_000, 30, 3);
+        // A few rows per run: well over a hundred runs
+        List<Long> sorted = sorter(spilling(1_000))
+                .sort(input.iterator())
+                .map(ExternalSorterTest::seq)
+                .toList();
+        assertEquals(expected(input), sorted);
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void closing_the_stream_early_deletes_unread_runs() throws IOException {
+        List<RowAccessor> input = rows(3_000, 100, 4);
+        try (Stream<RowAccessor> sorted = sorter(spilling(20_000)).sort(input.iterator())) {
+            assertEquals(
+                    expected(input).subList(0, 10),
+                    sorted.limit(10).map(ExternalSorterTest::seq).toList());
+            assertTrue(filesInDir() > 0);
+        }
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void a_failing_key_deletes_the_runs_written_so_far() throws IOException {
+        List<RowAccessor> input = rows(3_000, 100, 5);
+        var failing = new ExternalSorter(
+                List.of(row -> {
+                    if (seq(row) == 2_500) throw new IllegalStateException("boom");
+                    return row.get(KEY);
+                }),
+                new boolean[] {false},
+                spilling(20_000));
+        var ex = assertThrows(IllegalStateException.class, () -> failing.sort(input.iterator()));
+        assertEquals("boom", ex.getMessage());
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void rows_keyed_by_the_caller_sort_by_their_keys() throws IOException {
+        List<RowAccessor> input = rows(3_000, 100, 6);
+        var sorter = new ExternalSorter(new boolean[] {false, true}, spilling(20_000));
+        List<Long> sorted = sorter.sortKeyed(input.stream()
+                        .map(row -> new ExternalSorter.KeyedRow(new SqlValue[] {row.get(KEY), row.get(NAME)}, row))
+                        .iterator())
+                .map(ExternalSorterTest::seq)
+                .toList();
+        assertEquals(expected(input), sorted);
+        assertEquals(0, filesInDir());
+        assertThrows(IllegalStateException.class, () -> sorter.sort(input.iterator()));
+    }
+
+    private static String json(int rows) {
+        var random = new Random(9);
+        var sb = new StringBuilder("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":")
+                    .append(i)
+                    .append(",\"dept\":\"d")
+                    .append(random.nextInt(40))
+                    .append("\",\"tier\":")
+                    .append(random.nextInt(3))
+                    .append(",\"salary\":")
+                    .append(random.nextInt(10_000))
+                    .append(",\"score\":")
+                    .append(random.nextInt(10) == 0 ? "null" : String.valueOf(random.nextInt(500) / 4.0))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private Sql4jsonSettings spillingQueries() {
+        return Sql4jsonSettings.builder()
+                .execution(e -> e.spillThresholdBytes(16 * 1024).spillDirectory(dir))
+                .build();
+    }
+
+    @Test
+    void orderBy_query_spills_to_the_same_rows() throws IOException {
+        String data = json(5_000);
+        for (String sql : List.of(
+                "SELECT * FROM $r ORDER BY score DESC, dept",
+                "SELECT id, dept FROM $r WHERE tier > 0 ORDER BY dept, salary DESC",
+                "SELECT dept, SUM(salary) AS total FROM $r GROUP BY dept ORDER BY AVG(salary) DESC")) {
+            assertEquals(SQL4Json.query(sql, data), SQL4Json.query(sql, data, spillingQueries()), sql);
+        }
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void window_query_spills_by_shared_partition_to_the_same_rows() throws IOException {
+        String data = json(5_000);
+        for (String sql : List.of(
+                "SELECT id, ROW_NUMBER() OVER (PARTITION BY dept ORDER BY salary DESC) AS rn, "
+                        + "LAG(salary) OVER (PARTITION BY dept ORDER BY salary DESC) AS prev FROM $r",
+                "SELECT id, RANK() OVER (PARTITION BY dept, tier ORDER BY score) AS r, "
+                        + "SUM(salary) OVER (PARTITION BY dept) AS total FROM $r",
+                "SELECT id, ROW_NUMBER() OVER (ORDER BY salary) AS rn FROM $r",
+                "SELECT dept, tier, COUNT(*) AS n, ROW_NUMBER() OVER (PARTITION BY dept ORDER BY tier) AS r "
+                        + "FROM $r GROUP BY dept, tier")) {
+            var expected = (JsonArrayValue) SQL4Json.queryAsJsonValue(sql, data);
+            var spilled = (JsonArrayValue) SQL4Json.queryAsJsonValue(sql, data, spillingQueries());
+            assertEquals(expected.elements().size(), spilled.elements().size(), sql);
+            assertEquals(new HashSet<>(expected.elements()), new HashSet<>(spilled.elements()), sql);
+        }
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void partly_read_and_failing_queries_delete_their_spill_files() throws IOException {
+        String data = json(5_000);
+        var parallel = Sql4jsonSettings.builder()
+                .execution(e ->
+                        e.spillThresholdBytes(16 * 1024).spillDirectory(dir).parallelism(4))
+                .build();
+        for (Sql4jsonSettings settings : List.of(spillingQueries(), parallel)) {
+            String limited = "SELECT dept, ROW_NUMBER() OVER (PARTITION BY dept ORDER BY salary) AS rn FROM $r LIMIT 3";
+            // spilled windows come out partition by partition, so only the row count is compared
+            assertEquals(
+                    3,
+                    ((JsonArrayValue) SQL4Json.queryAsJsonValue(limited, data, settings))
+                            .elements()
+                            .size());
+            assertTrue(SQL4Json.query(limited, data, settings).startsWith("[{"));
+            assertEquals(0, filesInDir());
+            for (String sql : List.of(
+                    // fails while the sorted rows are read
+                    "SELECT id, CAST(dept AS NUMBER) AS n FROM $r ORDER BY salary",
+                    // fails inside ORDER BY, with the window's runs upstream
+                    "SELECT dept, ROW_NUMBER() OVER (PARTITION BY dept ORDER BY salary) AS rn FROM $r "
+                            + "ORDER BY CAST(dept AS NUMBER)")) {
+                assertThrows(SQL4JsonException.class, () -> SQL4Json.query(sql, data, settings), sql);
+                assertThrows(SQL4JsonException.class, () -> SQL4Json.queryAsJsonValue(sql, data, settings), sql);
+                assertEquals(0, filesInDir(), sql);
+            }
+        }
+    }
+}
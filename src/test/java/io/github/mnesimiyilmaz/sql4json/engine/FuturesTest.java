@@ -0,0 +1,55 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+
+class FuturesTest {
+
+    @Test
+    void join_returnsResult() {
+        assertEquals("a", Futures.join(CompletableFuture.completedFuture("a")));
+    }
+
+    @Test
+    void join_unwrapsUncheckedExceptionsAndErrors() {
+        IllegalStateException failure = new IllegalStateException("boom");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> Futures.join(failed(failure))));
+        AssertionError error = new AssertionError("bad");
+        assertSame(error, assertThrows(AssertionError.class, () -> Futures.join(failed(error))));
+    }
+
+    @Test
+    void join_keepsWrapperOfCheckedException() {
+        Exception checked = new Exception("checked");
+        CompletionException e = assertThrows(CompletionException.class, () -> Futures.join(failed(checked)));
+        assertSame(checked, e.getCause());
+    }
+
+    @Test
+    void joinAll_returnsResultsInOrder() {
+        assertEquals(
+                List.of(1, 2, 3),
+                Futures.joinAll(List.of(
+                        CompletableFuture.completedFuture(1),
+                        CompletableFuture.supplyAsync(() -> 2),
+                        CompletableFuture.completedFuture(3))));
+    }
+
+    @Test
+    void joinAll_rethrowsEarliestFailure() {
+        RuntimeException first = new RuntimeException("first");
+        RuntimeException second = new RuntimeException("second");
+        List<CompletableFuture<Integer>> futures =
+                List.of(CompletableFuture.completedFuture(1), failed(first), failed(second));
+        assertSame(first, assertThrows(RuntimeException.class, () -> Futures.joinAll(futures)));
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable cause) {
+        return CompletableFuture.failedFuture(cause);
+    }
+}
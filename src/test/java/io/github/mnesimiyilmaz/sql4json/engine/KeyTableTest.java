@@ -0,0 +1,167 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.grouping.GroupKey;
+import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class KeyTableTest {
+
+    private static int findOrAdd(KeyTable table, SqlValue... values) {
+        table.clearKey();
+        for (SqlValue v : values) table.addKey(v);
+        return table.findOrAdd();
+    }
+
+    private static int find(KeyTable table, SqlValue... values) {
+        table.clearKey();
+        for (SqlValue v : values) table.addKey(v);
+        return table.find();
+    }
+
+    @Test
+    void ids_are_dense_in_insertion_order() {
+        var table = new KeyTable(KeyTable.Equality.EXACT);
+        assertEquals(0, findOrAdd(table, SqlNumber.of(7)));
+        assertEquals(1, findOrAdd(table, new SqlString("a")));
+        assertEquals(0, findOrAdd(table, SqlNumber.of(7)));
+        assertEquals(2, findOrAdd(table, SqlNull.INSTANCE));
+        assertEquals(3, table.size());
+        assertEquals(1, find(table, new SqlString("a")));
+        assertEquals(-1, find(table, new SqlString("b")));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void exact_keeps_number_types_apart() {
+        var table = new KeyTable(KeyTable.Equality.EXACT);
+        int longId = findOrAdd(table, SqlNumber.of(1));
+        assertNotEquals(longId, findOrAdd(table, SqlNumber.of(1.0)));
+        int decimalId = findOrAdd(table, SqlNumber.of(new BigDecimal("1.0")));
+        assertNotEquals(decimalId, findOrAdd(table, SqlNumber.of(new BigDecimal("1.00"))));
+        assertEquals(decimalId, findOrAdd(table, SqlNumber.of(new BigDecimal("1.0"))));
+    }
+
+    @Test
+    void numeric_matches_integer_and_double() {
+        var table = new KeyTable(KeyTable.Equality.NUMERIC);
+        int id = findOrAdd(table, SqlNumber.of(1), new SqlString("x"));
+        assertEquals(id, find(table, SqlNumber.of(1.0), new SqlString("x")));
+        assertEquals(id, find(table, SqlNumber.of(new BigDecimal("1.00")), new SqlString("x")));
+        assertEquals(-1, find(table, SqlNumber.of(1), new SqlString("y")));
+        assertEquals(id + 1, findOrAdd(table, SqlNull.INSTANCE, new SqlString("x")));
+        assertEquals(id + 1, find(table, SqlNull.INSTANCE, new SqlString("x")));
+    }
+
+    @Test
+    void comparable_keeps_longs_beyond_double_precision_exact() {
+        var table = new KeyTable(KeyTable.Equality.COMPARABLE);
+        long big = (1L << 53) + 1;
+        int id = findOrAdd(table, SqlNumber.of(big));
+        assertNotEquals(id, findOrAdd(table, SqlNumber.of(big - 1)));
+        assertEquals(id, find(table, SqlNumber.of(big)));
+        int one = findOrAdd(table, SqlNumber.of(1));
+        assertEquals(one, find(table, SqlNumber.of(1.0)));
+        assertNotEquals(findOrAdd(table, SqlNumber.of(Long.MAX_VALUE)), findOrAdd(table, SqlNumber.of(0x1p63)));
+    }
+
+    @Test
+    void key_length_is_part_of_the_key() {
+        var table = new KeyTable(KeyTable.Equality.EXACT);
+        int single = findOrAdd(table, SqlNull.INSTANCE);
+        int pair = findOrAdd(table, SqlNull.INSTANCE, SqlNull.INSTANCE);
+        assertNotEquals(single, pair);
+        assertEquals(-1, find(table));
+    }
+
+    @Test
+    void random_keys_match_reference_semantics() {
+        var random = new Random(42);
+        for (var equality : KeyTable.Equality.values()) {
+            var table = new KeyTable(equality);
+            var reference = new HashMap<Object, Integer>();
+            for (int i = 0; i < 20_000; i++) {
+                var values = new ArrayList<SqlValue>();
+                int width = 1 + random.nextInt(3);
+                for (int c = 0; c < width; c++) values.add(randomValue(random));
+                Object key = referenceKey(equality, values);
+                int expected = reference.computeIfAbsent(key, k -> reference.size());
+                assertEquals(expected, findOrAdd(table, values.toArray(SqlValue[]::new)), equality + " " + values);
+            }
+            assertEquals(reference.size(), table.size());
+        }
+    }
+
+    @Test
+    void find_or_add_from_copies_keys_between_tables() {
+        var random = new Random(7);
+        var source = new KeyTable(KeyTable.Equality.EXACT);
+        var keys = new ArrayList<SqlValue[]>();
+        for (int i = 0; i < 5_000; i++) {
+            SqlValue[] key = {randomValue(random), randomValue(random)};
+            if (findOrAdd(source, key) == keys.size()) keys.add(key);
+        }
+        var target = new KeyTable(KeyTable.Equality.EXACT);
+        findOrAdd(target, keys.get(10));
+        for (int id = 0; id < source.size(); id++) {
+            int copied = target.findOrAddFrom(source, id);
+            assertEquals(copied, find(target, keys.get(id)));
+            assertEquals(source.hash(id), target.hash(copied));
+        }
+        assertEquals(source.size(), target.size());
+        assertEquals(0, target.findOrAddFrom(source, 10));
+    }
+
+    private static SqlValue randomValue(Random random) {
+        return switch (random.nextInt(9)) {
+            case 0 -> SqlNull.INSTANCE;
+            case 1 -> SqlBoolean.of(random.nextBoolean());
+            case 2 -> SqlNumber.of((long) random.nextInt(50));
+            case 3 -> SqlNumber.of((double) random.nextInt(50));
+            case 4 -> SqlNumber.of(random.nextInt(50) / 2.0);
+            case 5 -> SqlNumber.of(BigDecimal.valueOf(random.nextInt(50), random.nextInt(2)));
+            case 6 -> new SqlString("s" + random.nextInt(50));
+            case 7 -> new SqlDate(LocalDate.of(2024, 1, 1 + random.nextInt(28)));
+            default -> new SqlDateTime(LocalDateTime.of(2024, 1, 1, random.nextInt(24), 0));
+        };
+    }
+
+    // The key objects each equality mode stands in for
+    private static Object referenceKey(KeyTable.Equality equality, List<SqlValue> values) {
+        return switch (equality) {
+            case EXACT -> new GroupKey(values);
+            case NUMERIC -> JoinKey.of(values);
+            case COMPARABLE -> new ComparableKey(values);
+        };
+    }
+
+    private record ComparableKey(List<SqlValue> values) {
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ComparableKey(var other)) || other.size() != values.size()) return false;
+            for (int i = 0; i < values.size(); i++) {
+                if (SqlValueComparator.compare(values.get(i), other.get(i)) != 0) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (SqlValue v : values) {
+                hash = 31 * hash + (v instanceof SqlNumber n ? Double.hashCode(n.doubleValue()) : v.hashCode());
+            }
+            return hash;
+        }
+    }
+}
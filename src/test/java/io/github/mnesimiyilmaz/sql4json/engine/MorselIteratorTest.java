@@ -0,0 +1,107 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.SQL4Json;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class MorselIteratorTest {
+
+    private static final FieldKey N = FieldKey.of("n");
+
+    private static Stream<RowAccessor> rows(int count) {
+        return IntStream.range(0, count).mapToObj(i -> Row.eager(Map.of(N, SqlNumber.of(i))));
+    }
+
+    private static long n(RowAccessor row) {
+        return ((SqlNumber) row.get(N)).longValue();
+    }
+
+    private static ExecutionSettings parallel(ExecutorService pool, int morselSize) {
+        return ExecutionSettings.builder()
+                .parallelism(4)
+                .executor(pool)
+                .morselSize(morselSize)
+                .build();
+    }
+
+    @Test
+    void morsels_runOnExecutor_andMergeInInputOrder() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            LazyPipelineStage evens = input -> input.filter(row -> {
+                threads.add(Thread.currentThread().getName());
+                return n(row) % 2 == 0;
+            });
+            List<Long> out = MorselIterator.apply(rows(10_000), List.of(evens), parallel(pool, 64))
+                    .map(MorselIteratorTest::n)
+                    .toList();
+            assertEquals(IntStream.range(0, 5_000).mapToObj(i -> 2L * i).toList(), out);
+            String caller = Thread.currentThread().getName();
+            assertTrue(threads.stream().anyMatch(t -> !t.equals(caller)), threads::toString);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void singleMorsel_staysOnCallingThread() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        LazyPipelineStage record =
+                input -> input.peek(row -> threads.add(Thread.currentThread().getName()));
+        long count = MorselIterator.apply(rows(10), List.of(record), parallel(Executors.newSingleThreadExecutor(), 64))
+                .count();
+        assertEquals(10, count);
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    void failures_surfaceAfterEarlierRows() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            LazyPipelineStage failAt = input -> input.peek(row -> {
+                if (n(row) == 700) throw new IllegalStateException("row 700");
+            });
+            var iterator = MorselIterator.apply(rows(2_000), List.of(failAt), parallel(pool, 100))
+                    .iterator();
+            for (int i = 0; i < 700; i++) {
+                assertTrue(iterator.hasNext());
+                assertEquals(i, n(iterator.next()));
+            }
+            var ex = assertThrows(IllegalStateException.class, iterator::hasNext);
+            assertEquals("row 700", ex.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelQuery_matchesSequential() {
+        String json = IntStream.range(0, 20_000)
+                .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"n" + i + "\",\"dept\":\"d" + (i % 7) + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        var parallel = Sql4jsonSettings.builder()
+                .execution(e -> e.parallelism(4).morselSize(256))
+                .build();
+        for (String sql : List.of(
+                "SELECT id, UPPER(name) AS n FROM $r WHERE dept = 'd3' OR name LIKE '%99%'",
+                "SELECT id FROM $r WHERE id > 100 ORDER BY id DESC LIMIT 50 OFFSET 5",
+                "SELECT dept, COUNT(*) AS c FROM $r WHERE id > 10 GROUP BY dept HAVING COUNT(*) > 10")) {
+            assertEquals(SQL4Json.query(sql, json), SQL4Json.query(sql, json, parallel), sql);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.json.DefaultJsonCodec;
+import io.github.mnesimiyilmaz.sql4json.parser.QueryParser;
+import io.github.mnesimiyilmaz.sql4json.registry.AndNode;
+import io.github.mnesimiyilmaz.sql4json.registry.CriteriaNode;
+import io.github.mnesimiyilmaz.sql4json.registry.OrNode;
+import io.github.mnesimiyilmaz.sql4json.registry.SingleConditionNode;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PredicatePushdownTest {
+
+    private static CriteriaNode pushed(String where) {
+        return PredicatePushdown.pushable(
+                QueryParser.parse("SELECT * FROM $r WHERE " + where).whereClause());
+    }
+
+    private static boolean test(CriteriaNode node, String json) {
+        return node.test(Row.lazy(new DefaultJsonCodec().parse(json), new FieldKey.Interner()));
+    }
+
+    @Test
+    void simpleScalarTests_arePushed() {
+        for (String where : new String[] {
+            "score >= 80", "status = 'x'", "bio IS NULL", "bio IS NOT NULL", "dept IN ('a', 'b')", "id NOT IN (1, 2)"
+        }) {
+            assertInstanceOf(SingleConditionNode.class, pushed(where), where);
+        }
+    }
+
+    @Test
+    void otherConditions_areNotPushed() {
+        assertNull(pushed("name LIKE 'A%'"));
+        assertNull(pushed("score BETWEEN 1 AND 5"));
+        assertNull(pushed("LOWER(name) = 'x'"));
+    }
+
+    @Test
+    void and_keepsPushableSides() {
+        CriteriaNode both = pushed("score > 80 AND dept = 'eng'");
+        assertInstanceOf(AndNode.class, both);
+        CriteriaNode one = pushed("name LIKE 'A%' AND score > 80");
+        assertInstanceOf(SingleConditionNode.class, one);
+        assertTrue(test(one, "{\"name\":\"Bob\",\"score\":90}"));
+        assertFalse(test(one, "{\"name\":\"Al\",\"score\":10}"));
+    }
+
+    @Test
+    void or_needsBothSides() {
+        assertInstanceOf(OrNode.class, pushed("score > 80 OR dept IS NULL"));
+        assertNull(pushed("score > 80 OR name LIKE 'A%'"));
+        assertNull(pushed("name LIKE 'A%' OR score > 80"));
+        CriteriaNode mixed = pushed("(score > 80 OR name LIKE 'A%') AND id = 1");
+        assertInstanceOf(SingleConditionNode.class, mixed);
+    }
+
+    @Test
+    void referencedFields_coverLhsAndRhsColumns() {
+        CriteriaNode node = pushed("score > bonus AND address.city IN ('Izmir') AND bio IS NULL");
+        assertEquals(Set.of("score", "bonus", "address.city", "bio"), PredicatePushdown.referencedFields(node));
+    }
+}
@@ -0,0 +1,156 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.json.*;
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpillFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static final List<SqlValue> EVERY_TYPE = List.of(
+            SqlNull.INSTANCE,
+            SqlBoolean.TRUE,
+            SqlBoolean.FALSE,
+            SqlNumber.of(0),
+            SqlNumber.of(-1),
+            SqlNumber.of(Long.MIN_VALUE),
+            SqlNumber.of(Long.MAX_VALUE),
+            SqlNumber.of(-0.0),
+            SqlNumber.of(Double.NaN),
+            SqlNumber.of(3.25),
+            SqlNumber.of(new BigDecimal("-12345678901234567890.00100")),
+            new SqlString(""),
+            new SqlString("héllo ✓ 😀"),
+            new SqlDate(LocalDate.of(1969, 12, 31)),
+            new SqlDateTime(LocalDateTime.of(2026, 10, 17, 23, 59, 59, 999_999_999)));
+
+    private long filesIn(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void flat_rows_roundTrip_everyValueType() throws IOException {
+        var columns = new ArrayList<FieldKey>();
+        for (int i = 0; i < EVERY_TYPE.size(); i++) columns.add(FieldKey.of("c" + i));
+        RowSchema schema = RowSchema.of(columns);
+        Object[] values = EVERY_TYPE.stream().map(v -> v.isNull() ? null : v).toArray();
+        FlatRow written = FlatRow.of(schema, values);
+
+        List<RowAccessor> read;
+        try (SpillFile file = SpillFile.create(dir)) {
+            file.write(written);
+            file.write(written);
+            assertEquals(2, file.rows());
+            read = readAll(file.read());
+        }
+        assertEquals(2, read.size());
+        for (RowAccessor row : read) {
+            FlatRow flat = assertInstanceOf(FlatRow.class, row);
+            assertSame(schema, flat.schema());
+            assertFalse(flat.isAggregated());
+            assertTrue(flat.originalValue().isEmpty());
+            for (int i = 0; i < EVERY_TYPE.size(); i++) assertEquals(EVERY_TYPE.get(i), flat.get(i), "c" + i);
+        }
+        assertEquals(0, filesIn(dir));
+    }
+
+    @Test
+    void lazy_rows_roundTrip_asLazyRowsOverTheOriginal() throws IOException {
+        var inner = new LinkedHashMap<String, JsonValue>();
+        inner.put("city", new JsonStringValue("İzmir"));
+        inner.put("zip", JsonNullValue.INSTANCE);
+        var fields = new LinkedHashMap<String, JsonValue>();
+        fields.put("id", new JsonLongValue(42));
+        fields.put("score", new JsonDoubleValue(9.5));
+        fields.put("price", new JsonDecimalValue(new BigDecimal("1.10")));
+        fields.put("active", JsonBooleanValue.TRUE);
+        fields.put("address", new JsonObjectValue(inner));
+        fields.put("tags", new JsonArrayValue(List.of(new JsonStringValue("a"), new JsonLongValue(-7))));
+        JsonValue original = new JsonObjectValue(fields);
+        Row lazy = Row.lazy(original, new FieldKey.Interner());
+
+        RowAccessor read;
+        try (SpillFile file = SpillFile.create(dir)) {
+            file.write(lazy);
+            read = file.read().next();
+        }
+        Row row = assertInstanceOf(Row.class, read);
+        assertEquals(original, row.originalValue().orElseThrow());
+        assertEquals(lazy.get(FieldKey.of("address.city")), row.get(FieldKey.of("address.city")));
+        assertEquals(Map.copyOf(entries(lazy)), Map.copyOf(entries(row)));
+    }
+
+    @Test
+    void eager_rows_and_flat_row_flags_roundTrip() {
+        Row eager = Row.eager(Map.of(FieldKey.of("a"), SqlNumber.of(1), FieldKey.of("b"), new SqlString("x")));
+        RowSchema schema = RowSchema.of(List.of(FieldKey.of("total")));
+        JsonValue original = new JsonObjectValue(Map.of("total", new JsonLongValue(3)));
+        FlatRow aggregated = FlatRow.aggregated(schema, new Object[] {SqlNumber.of(3)}, List.of(eager));
+        FlatRow withOriginal = FlatRow.materialize(Row.lazy(original, new FieldKey.Interner()), schema);
+
+        List<RowAccessor> read;
+        try (SpillFile file = SpillFile.create(dir)) {
+            file.write(eager);
+            file.write(aggregated);
+            file.write(withOriginal);
+            read = readAll(file.read());
+        }
+        assertEquals(entries(eager), entries(read.get(0)));
+        assertTrue(read.get(1).isAggregated());
+        assertTrue(read.get(1).aggregatedGroup().isEmpty());
+        assertEquals(SqlNumber.of(3), read.get(1).get(FieldKey.of("total")));
+        assertFalse(read.get(2).isAggregated());
+        assertEquals(original, read.get(2).originalValue().orElseThrow());
+    }
+
+    @Test
+    void close_before_reading_deletes_the_file() throws IOException {
+        SpillFile file = SpillFile.create(dir);
+        file.write(Row.eager(Map.of(FieldKey.of("a"), SqlNumber.of(1))));
+        assertEquals(1, filesIn(dir));
+        file.close();
+        file.close();
+        assertEquals(0, filesIn(dir));
+    }
+
+    @Test
+    void estimatedBytes_grows_with_row_content() {
+        RowSchema schema = RowSchema.of(List.of(FieldKey.of("s")));
+        long small = SpillFile.estimatedBytes(FlatRow.of(schema, new Object[] {new SqlString("a")}));
+        long large = SpillFile.estimatedBytes(FlatRow.of(schema, new Object[] {new SqlString("a".repeat(1_000))}));
+        assertTrue(small > 0);
+        assertTrue(large >= small + 999);
+    }
+
+    private static List<RowAccessor> readAll(Iterator<RowAccessor> it) {
+        var rows = new ArrayList<RowAccessor>();
+        it.forEachRemaining(rows::add);
+        return rows;
+    }
+
+    private static Map<FieldKey, SqlValue> entries(RowAccessor row) {
+        var map = new LinkedHashMap<FieldKey, SqlValue>();
+        row.entries().forEach(e -> map.put(e.getKey(), e.getValue()));
+        return map;
+    }
+}
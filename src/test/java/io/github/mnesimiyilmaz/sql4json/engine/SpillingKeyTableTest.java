@@ -0,0 +1,270 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.SQL4Json;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonException;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpillingKeyTableTest {
+
+    private static final FieldKey KEY = FieldKey.of("k");
+    private static final FieldKey SEQ = FieldKey.of("seq");
+
+    @TempDir
+    Path dir;
+
+    /** Per key: first sequence number, first input position and row count. */
+    private static final class Counter {
+        final long first;
+        final long position;
+        long count;
+
+        Counter(long first, long position) {
+            this.first = first;
+            this.position = position;
+        }
+    }
+
+    private static class Counting implements SpillingKeyTable.Handler<Counter> {
+        @Override
+        public void writeKey(RowAccessor row, KeyTable keys) {
+            keys.clearKey();
+            keys.addKey(row.get(KEY));
+        }
+
+        @Override
+        public Counter create(RowAccessor row, long position) {
+            return new Counter(seq(row), position);
+        }
+
+        @Override
+        public void update(Counter state, RowAccessor row) {
+            state.count++;
+        }
+
+        @Override
+        public long estimatedBytes(Counter state) {
+            return 100;
+        }
+    }
+
+    private static long seq(RowAccessor row) {
+        return ((SqlNumber) row.get(SEQ)).longValue();
+    }
+
+    private static List<RowAccessor> rows(int count, int keys, long seed) {
+        var random = new Random(seed);
+        var rows = new ArrayList<RowAccessor>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(Row.eager(Map.of(KEY, SqlNumber.of(random.nextInt(keys)), SEQ, SqlNumber.of(i))));
+        }
+        return rows;
+    }
+
+    private ExecutionSettings spilling(long thresholdBytes) {
+        return ExecutionSettings.builder()
+                .spillThresholdBytes(thresholdBytes)
+                .spillDirectory(dir)
+                .build();
+    }
+
+    private long filesInDir() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static Map<Long, Long[]> byKey(List<RowAccessor> rows) {
+        var expected = new HashMap<Long, Long[]>();
+        for (RowAccessor row : rows) {
+            long key = ((SqlNumber) row.get(KEY)).longValue();
+            expected.computeIfAbsent(key, k -> new Long[] {seq(row), 0L})[1]++;
+        }
+        return expected;
+    }
+
+    @Test
+    void without_spilling_states_come_in_first_seen_order() {
+        List<RowAccessor> input = rows(5_000, 300, 1);
+        List<Counter> states = new SpillingKeyTable<>(
+                        KeyTable.Equality.EXACT, new Counting(), ExecutionSettings.defaults())
+                .process(input.iterator())
+                .toList();
+        assertEquals(byKey(input).size(), states.size());
+        for (int i = 1; i < states.size(); i++) assertTrue(states.get(i - 1).first < states.get(i).first);
+    }
+
+    @Test
+    void spilling_keeps_every_key_exact_and_deletes_its_files() throws IOException {
+        List<RowAccessor> input = rows(20_000, 3_000, 2);
+        // Seven states per pass: partitions spill again, several levels deep
+        List<Counter> states = new SpillingKeyTable<>(KeyTable.Equality.EXACT, new Counting(), spilling(1_000))
+                .process(input.iterator())
+                .toList();
+        Map<Long, Long[]> expected = byKey(input);
+        assertEquals(expected.size(), states.size());
+        Map<Long, Long> countByFirst = new HashMap<>();
+        for (Counter state : states) {
+            assertNull(countByFirst.put(state.first, state.count));
+            // Positions survive the spill files: a key's first row is its first input row
+            assertEquals(state.first, state.position);
+        }
+        for (Long[] firstAndCount : expected.values()) {
+            assertEquals(firstAndCount[1], countByFirst.get(firstAndCount[0]));
+        }
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void in_memory_states_come_first() {
+        List<RowAccessor> input = rows(2_000, 500, 3);
+        // 148 bytes per state: the tenth goes over the threshold
+        List<Counter> states = new SpillingKeyTable<>(KeyTable.Equality.EXACT, new Counting(), spilling(1_479))
+                .process(input.iterator())
+                .toList();
+        // The first ten keys seen fit in memory and are returned as the first ten states
+        List<Long> firstSeen =
+                byKey(input).values().stream().map(v -> v[0]).sorted().limit(10).toList();
+        assertEquals(firstSeen, states.subList(0, 10).stream().map(s -> s.first).toList());
+    }
+
+    @Test
+    void closing_the_stream_early_deletes_unread_partitions() throws IOException {
+        Iterator<RowAccessor> input = rows(5_000, 2_000, 4).iterator();
+        try (Stream<Counter> states =
+                new SpillingKeyTable<>(KeyTable.Equality.EXACT, new Counting(), spilling(1_000)).process(input)) {
+            assertEquals(5, states.limit(5).count());
+            assertTrue(filesInDir() > 0);
+        }
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void a_failing_handler_deletes_the_partitions_written_so_far() throws IOException {
+        var failing = new Counting() {
+            @Override
+            public void update(Counter state, RowAccessor row) {
+                if (seq(row) == 4_000) throw new IllegalStateException("boom");
+                super.update(state, row);
+            }
+        };
+        var table = new SpillingKeyTable<>(KeyTable.Equality.EXACT, failing, spilling(1_000));
+        List<RowAccessor> input = rows(5_000, 1, 5);
+        List<RowAccessor> withNewKeys = new ArrayList<>(input.subList(0, 4_000));
+        withNewKeys.addAll(rows(1_000, 1_000, 6).stream()
+                .map(r -> (RowAccessor) Row.eager(
+                        Map.of(KEY, SqlNumber.of(1_000 + ((SqlNumber) r.get(KEY)).longValue()), SEQ, SqlNumber.of(-1))))
+                .toList());
+        withNewKeys.addAll(input.subList(4_000, 5_000));
+        var ex = assertThrows(IllegalStateException.class, () -> table.process(withNewKeys.iterator()));
+        assertEquals("boom", ex.getMessage());
+        assertEquals(0, filesInDir());
+    }
+
+    private static String json(int rows) {
+        var random = new Random(9);
+        var sb = new StringBuilder("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":")
+                    .append(i)
+                    .append(",\"dept\":\"d")
+                    .append(random.nextInt(700))
+                    .append("\",\"tier\":")
+                    .append(random.nextInt(3))
+                    .append(",\"salary\":")
+                    .append(random.nextInt(10_000))
+                    .append(",\"tags\":[\"t")
+                    .append(random.nextInt(4))
+                    .append("\"]}");
+        }
+        return sb.append(']').toString();
+    }
+
+    private Sql4jsonSettings spillingQueries() {
+        return Sql4jsonSettings.builder()
+                .execution(e -> e.spillThresholdBytes(16 * 1024).spillDirectory(dir))
+                .build();
+    }
+
+    @Test
+    void groupBy_query_spills_to_the_same_groups() throws IOException {
+        String data = json(6_000);
+        String sql = "SELECT dept, tier, COUNT(*) AS n, SUM(salary) AS total, MIN(id) AS first FROM $r "
+                + "GROUP BY dept, tier HAVING COUNT(*) > 1 ORDER BY dept, tier";
+        assertEquals(SQL4Json.query(sql, data), SQL4Json.query(sql, data, spillingQueries()));
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void partly_read_and_failing_groupBy_queries_delete_their_partitions() throws IOException {
+        String data = json(6_000);
+        for (String sql : List.of(
+                "SELECT dept AS k, COUNT(*) AS c FROM $r GROUP BY dept LIMIT 3",
+                "SELECT DISTINCT dept, tier FROM $r LIMIT 3")) {
+            assertEquals(SQL4Json.query(sql, data), SQL4Json.query(sql, data, spillingQueries()), sql);
+            assertEquals(
+                    SQL4Json.queryAsJsonValue(sql, data), SQL4Json.queryAsJsonValue(sql, data, spillingQueries()), sql);
+            assertEquals(0, filesInDir(), sql);
+        }
+        String failing = "SELECT CAST(dept AS NUMBER) AS k, COUNT(*) AS c FROM $r GROUP BY dept";
+        assertThrows(SQL4JsonException.class, () -> SQL4Json.query(failing, data, spillingQueries()));
+        assertThrows(SQL4JsonException.class, () -> SQL4Json.queryAsJsonValue(failing, data, spillingQueries()));
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void distinct_query_spills_to_the_same_rows_in_the_same_order() throws IOException {
+        String data = json(6_000);
+        for (String sql : List.of(
+                "SELECT DISTINCT dept, tier FROM $r",
+                "SELECT DISTINCT * FROM $r WHERE tier = 1",
+                "SELECT DISTINCT dept, tags FROM $r")) {
+            assertEquals(SQL4Json.query(sql, data), SQL4Json.query(sql, data, spillingQueries()), sql);
+        }
+        assertEquals(0, filesInDir());
+    }
+
+    @Test
+    void distinct_after_orderBy_stays_sorted_when_spilling() throws IOException {
+        String data = json(2_000);
+        var tinyThreshold = Sql4jsonSettings.builder()
+                .execution(e -> e.spillThresholdBytes(1).spillDirectory(dir))
+                .build();
+        var smallThreshold = Sql4jsonSettings.builder()
+                .execution(e -> e.spillThresholdBytes(2_000).spillDirectory(dir))
+                .build();
+        var parallel = Sql4jsonSettings.builder()
+                .execution(e -> e.parallelism(4)
+                        .morselSize(256)
+                        .spillThresholdBytes(2_000)
+                        .spillDirectory(dir))
+                .build();
+        for (String sql : List.of(
+                "SELECT DISTINCT dept, tier FROM $r ORDER BY dept, tier",
+                "SELECT DISTINCT tier, dept FROM $r ORDER BY tier DESC, dept",
+                "SELECT DISTINCT dept FROM $r WHERE salary > 100 ORDER BY dept DESC LIMIT 300")) {
+            String expected = SQL4Json.query(sql, data);
+            assertEquals(expected, SQL4Json.query(sql, data, tinyThreshold), sql);
+            assertEquals(expected, SQL4Json.query(sql, data, smallThreshold), sql);
+            assertEquals(expected, SQL4Json.query(sql, data, parallel), sql);
+        }
+        assertEquals(0, filesInDir());
+    }
+}
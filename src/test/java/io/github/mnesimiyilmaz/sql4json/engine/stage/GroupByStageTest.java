@@ -4,15 +4,23 @@ package io.github.mnesimiyilmaz.sql4json.engine.stage;
 import static org.junit.jupiter.api.Assertions.*;
 
 import io.github.mnesimiyilmaz.sql4json.engine.Expression;
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.AggregateFnCall;
 import io.github.mnesimiyilmaz.sql4json.engine.Expression.ColumnRef;
 import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
 import io.github.mnesimiyilmaz.sql4json.engine.Row;
 import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
 import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
@@ -41,6 +49,78 @@ class GroupByStageTest {
         result.forEach(r -> assertTrue(r.isAggregated()));
     }
 
+    @Test
+    void incremental_matches_retained_aggregation() {
+        Random rnd = new Random(3);
+        List<RowAccessor> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            var fields = new HashMap<FieldKey, SqlValue>();
+            fields.put(FieldKey.of("dept"), new SqlString("d" + rnd.nextInt(7)));
+            if (rnd.nextInt(5) > 0) fields.put(FieldKey.of("sal"), SqlNumber.of(rnd.nextInt(1_000)));
+            rows.add(Row.eager(fields));
+        }
+        var columns = List.of(
+                SelectColumnDef.column("dept"),
+                SelectColumnDef.aggregate("COUNT", "*", "all_rows"),
+                SelectColumnDef.aggregate("COUNT", "sal", "cnt"),
+                SelectColumnDef.aggregate("SUM", "sal", "total"),
+                SelectColumnDef.aggregate("AVG", "sal", "mean"),
+                SelectColumnDef.aggregate("MIN", "sal", "lo"),
+                SelectColumnDef.aggregate("MAX", "sal", "hi"));
+        List<Expression> groupBy = List.of(new ColumnRef("dept"));
+        var calls = new ArrayList<AggregateFnCall>();
+        columns.forEach(c -> c.expression().collectAggregateCalls(calls));
+
+        List<RowAccessor> retained = new GroupByStage(groupBy, columns, fn, NO_LIMIT)
+                .apply(rows.stream())
+                .toList();
+        List<RowAccessor> incremental = new GroupByStage(
+                        groupBy, columns, calls, fn, NO_LIMIT, ExecutionSettings.defaults())
+                .apply(rows.stream())
+                .toList();
+
+        assertEquals(retained.size(), incremental.size());
+        for (int i = 0; i < retained.size(); i++) {
+            assertEquals(
+                    retained.get(i).entries().toList(),
+                    incremental.get(i).entries().toList());
+            assertTrue(incremental.get(i).sourceGroup().isEmpty());
+        }
+    }
+
+    @Test
+    void incremental_group_answers_planned_calls_outside_select() {
+        var rows = Stream.<RowAccessor>of(
+                Row.eager(Map.of(FieldKey.of("dept"), new SqlString("IT"), FieldKey.of("sal"), SqlNumber.of(5))),
+                Row.eager(Map.of(FieldKey.of("dept"), new SqlString("IT"), FieldKey.of("sal"), SqlNumber.of(9))));
+        var having = new AggregateFnCall("MAX", new ColumnRef("sal"));
+        var stage = new GroupByStage(
+                List.<Expression>of(new ColumnRef("dept")),
+                List.of(SelectColumnDef.column("dept")),
+                List.of(having),
+                fn,
+                NO_LIMIT,
+                ExecutionSettings.defaults());
+        RowAccessor group = stage.apply(rows).findFirst().orElseThrow();
+        assertEquals(SqlNumber.of(9), group.aggregatedGroup().orElseThrow().aggregate(having, fn));
+    }
+
+    @Test
+    void incremental_aggregation_enforces_row_limit() {
+        var stage = new GroupByStage(
+                List.<Expression>of(new ColumnRef("dept")),
+                List.of(SelectColumnDef.column("dept")),
+                List.of(),
+                fn,
+                2,
+                ExecutionSettings.defaults());
+        var rows = Stream.<RowAccessor>of(
+                Row.eager(Map.of(FieldKey.of("dept"), new SqlString("IT"))),
+                Row.eager(Map.of(FieldKey.of("dept"), new SqlString("IT"))),
+                Row.eager(Map.of(FieldKey.of("dept"), new SqlString("HR"))));
+        assertThrows(SQL4JsonExecutionException.class, () -> stage.apply(rows));
+    }
+
     @Test
     void group_by_stage_is_not_lazy() {
         assertFalse(new GroupByStage(
@@ -9,10 +9,14 @@ import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
 import io.github.mnesimiyilmaz.sql4json.parser.OrderByColumnDef;
 import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNull;
 import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
 import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 
@@ -224,4 +228,80 @@ class OrderByStageTest {
         // so the slice is empty. The point of this test is that we don't crash.
         assertTrue(result.isEmpty());
     }
+
+    // ── Parallel ────────────────────────────────────────────────────────
+
+    private static final List<OrderByColumnDef> GROUP_THEN_AGE_DESC =
+            List.of(OrderByColumnDef.of("grp", "ASC"), OrderByColumnDef.of("age", "DESC"));
+
+    private static final ExecutionSettings PARALLEL =
+            ExecutionSettings.builder().parallelism(4).morselSize(64).build();
+
+    // Few distinct keys, so most rows tie and the seq field shows their relative order
+    private static List<RowAccessor> tiedRows(int count) {
+        var random = new Random(7);
+        var rows = new ArrayList<RowAccessor>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(Row.eager(Map.of(
+                    FieldKey.of("grp"),
+                    random.nextInt(10) == 0 ? SqlNull.INSTANCE : new SqlString("g" + random.nextInt(4)),
+                    FieldKey.of("age"),
+                    SqlNumber.of(random.nextInt(5)),
+                    FieldKey.of("seq"),
+                    SqlNumber.of(i))));
+        }
+        return rows;
+    }
+
+    private static List<Double> seqs(List<RowAccessor> rows) {
+        return rows.stream()
+                .map(r -> ((SqlNumber) r.get(FieldKey.of("seq"))).doubleValue())
+                .toList();
+    }
+
+    @Test
+    void parallel_sort_matches_the_stable_sequential_sort() {
+        List<RowAccessor> rows = tiedRows(5_000);
+        var sequential = new OrderByStage(GROUP_THEN_AGE_DESC, fn, NO_LIMIT).apply(rows.stream());
+        var parallel = new OrderByStage(GROUP_THEN_AGE_DESC, fn, NO_LIMIT, PARALLEL).apply(rows.stream());
+        assertEquals(seqs(sequential.toList()), seqs(parallel.toList()));
+    }
+
+    @Test
+    void parallel_normalized_sort_matches_the_sequential_sort() {
+        List<RowAccessor> rows = tiedRows(3_000);
+        var normalized = ExecutionSettings.builder()
+                .parallelism(3)
+                .morselSize(100)
+                .normalizedSortKeys(true)
+                .build();
+        var sequential = new OrderByStage(GROUP_THEN_AGE_DESC, fn, NO_LIMIT).apply(rows.stream());
+        var parallel = new OrderByStage(GROUP_THEN_AGE_DESC, fn, NO_LIMIT, normalized).apply(rows.stream());
+        assertEquals(seqs(sequential.toList()), seqs(parallel.toList()));
+    }
+
+    @Test
+    void top_n_breaks_ties_by_input_order() {
+        List<RowAccessor> rows = tiedRows(2_000);
+        List<Double> fullSort = seqs(new OrderByStage(GROUP_THEN_AGE_DESC, fn, NO_LIMIT)
+                .apply(rows.stream())
+                .toList());
+        for (int[] slice : new int[][] {{0, 1}, {0, 50}, {30, 100}, {1_990, 100}}) {
+            List<Double> expected = fullSort.subList(slice[0], Math.min(slice[0] + slice[1], fullSort.size()));
+            var sequential = new TopNOrderByStage(GROUP_THEN_AGE_DESC, slice[0], slice[1], fn, NO_LIMIT);
+            var parallel = new TopNOrderByStage(GROUP_THEN_AGE_DESC, slice[0], slice[1], fn, NO_LIMIT, PARALLEL);
+            assertEquals(expected, seqs(sequential.apply(rows.stream()).toList()));
+            assertEquals(expected, seqs(parallel.apply(rows.stream()).toList()));
+        }
+    }
+
+    @Test
+    void parallel_top_n_enforces_max_rows_on_input() {
+        var stage = new TopNOrderByStage(List.of(OrderByColumnDef.of("age", "ASC")), 0, 2, fn, 1_000, PARALLEL);
+        var ex = assertThrows(
+                SQL4JsonExecutionException.class,
+                () -> stage.apply(tiedRows(1_001).stream()).toList());
+        assertTrue(ex.getMessage().contains("1000"));
+        assertEquals(2, stage.apply(tiedRows(1_000).stream()).count());
+    }
 }
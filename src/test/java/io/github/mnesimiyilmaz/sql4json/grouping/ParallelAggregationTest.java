@@ -0,0 +1,155 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.grouping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.SQL4Json;
+import io.github.mnesimiyilmaz.sql4json.engine.Expression;
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.AggregateFnCall;
+import io.github.mnesimiyilmaz.sql4json.engine.Expression.ColumnRef;
+import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
+import io.github.mnesimiyilmaz.sql4json.engine.Row;
+import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.engine.stage.GroupByStage;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.parser.SelectColumnDef;
+import io.github.mnesimiyilmaz.sql4json.registry.FunctionRegistry;
+import io.github.mnesimiyilmaz.sql4json.settings.ExecutionSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import io.github.mnesimiyilmaz.sql4json.types.SqlString;
+import io.github.mnesimiyilmaz.sql4json.types.SqlValue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelAggregationTest {
+
+    private static final FieldKey KEY = FieldKey.of("k");
+    private static final FieldKey VAL = FieldKey.of("v");
+
+    private final FunctionRegistry fn = FunctionRegistry.getDefault();
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private ExecutionSettings parallel(int morselSize) {
+        return ExecutionSettings.builder()
+                .parallelism(4)
+                .executor(pool)
+                .morselSize(morselSize)
+                .build();
+    }
+
+    private static List<RowAccessor> rows(int count, int groups, long seed) {
+        Random rnd = new Random(seed);
+        List<RowAccessor> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var fields = new HashMap<FieldKey, SqlValue>();
+            fields.put(KEY, new SqlString("g" + rnd.nextInt(groups)));
+            // Integers and ties between 3 and 3.0: sums stay exact, MIN / MAX must keep the first of equal values
+            if (rnd.nextInt(6) > 0) {
+                int v = rnd.nextInt(100);
+                fields.put(VAL, rnd.nextBoolean() ? SqlNumber.of(v) : SqlNumber.of((double) v));
+            }
+            rows.add(Row.eager(fields));
+        }
+        return rows;
+    }
+
+    private List<List<Map.Entry<FieldKey, SqlValue>>> groupBy(List<RowAccessor> rows, ExecutionSettings execution) {
+        var columns = List.of(
+                SelectColumnDef.column("k"),
+                SelectColumnDef.aggregate("COUNT", "*", "n"),
+                SelectColumnDef.aggregate("COUNT", "v", "nv"),
+                SelectColumnDef.aggregate("SUM", "v", "total"),
+                SelectColumnDef.aggregate("AVG", "v", "mean"),
+                SelectColumnDef.aggregate("MIN", "v", "lo"),
+                SelectColumnDef.aggregate("MAX", "v", "hi"));
+        var calls = new ArrayList<AggregateFnCall>();
+        columns.forEach(c -> c.expression().collectAggregateCalls(calls));
+        var stage = new GroupByStage(
+                List.<Expression>of(new ColumnRef("k")), columns, calls, fn, Integer.MAX_VALUE, execution);
+        return stage.apply(rows.stream()).map(r -> r.entries().toList()).toList();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 300, 5_000})
+    void parallel_matchesSequential_includingGroupOrder(int groups) {
+        List<RowAccessor> rows = rows(20_000, groups, groups);
+        var sequential = groupBy(rows, ExecutionSettings.defaults());
+        var parallel = groupBy(rows, parallel(97));
+        assertEquals(sequential, parallel);
+        // Typed equality: MIN / MAX must pick the same representation among equal values
+        for (int i = 0; i < sequential.size(); i++) {
+            for (int j = 0; j < sequential.get(i).size(); j++) {
+                assertSame(
+                        sequential.get(i).get(j).getValue().getClass(),
+                        parallel.get(i).get(j).getValue().getClass());
+            }
+        }
+    }
+
+    @Test
+    void singleMorselInput_isAggregatedOnCallingThread() {
+        List<RowAccessor> rows = rows(50, 5, 1);
+        assertEquals(groupBy(rows, ExecutionSettings.defaults()), groupBy(rows, parallel(1_024)));
+    }
+
+    @Test
+    void rowLimit_isEnforced() {
+        var stage = new GroupByStage(
+                List.<Expression>of(new ColumnRef("k")),
+                List.of(SelectColumnDef.column("k")),
+                List.of(),
+                fn,
+                1_000,
+                parallel(64));
+        var ex = assertThrows(SQL4JsonExecutionException.class, () -> stage.apply(rows(1_001, 10, 2).stream()));
+        assertTrue(ex.getMessage().contains("GROUP BY row count exceeds"), ex.getMessage());
+    }
+
+    @Test
+    void earliestFailingMorsel_surfacesFirst() {
+        List<RowAccessor> rows = rows(10_000, 50, 3);
+        var aggregation = new ParallelAggregation(
+                (row, keys) -> {
+                    if (row == rows.get(3_000)) throw new IllegalStateException("first");
+                    if (row == rows.get(9_000)) throw new IllegalArgumentException("second");
+                    keys.clearKey();
+                    keys.addKey(row.get(KEY));
+                },
+                row -> row,
+                AggregatePlan.of(List.of(), fn),
+                parallel(64),
+                Integer.MAX_VALUE);
+        var ex = assertThrows(IllegalStateException.class, () -> aggregation.aggregate(rows.iterator()));
+        assertEquals("first", ex.getMessage());
+    }
+
+    @Test
+    void query_withParallelSettings_matchesSequential() {
+        String json = IntStream.range(0, 3_000)
+                .mapToObj(i -> "{\"dept\":\"d" + (i * 7919 % 97) + "\",\"sal\":" + (i % 1_000) + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+        String sql = "SELECT dept, COUNT(*) AS n, SUM(sal) AS total, MAX(sal) AS top FROM $r"
+                + " GROUP BY dept HAVING MIN(sal) < 20";
+        var settings = Sql4jsonSettings.builder()
+                .execution(e -> e.parallelism(4).executor(pool).morselSize(128))
+                .build();
+        assertEquals(SQL4Json.query(sql, json), SQL4Json.query(sql, json, settings));
+    }
+}
@@ -2,9 +2,14 @@
 package io.github.mnesimiyilmaz.sql4json.json;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonCodec;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 
 class DefaultJsonCodecTest {
@@ -41,4 +46,38 @@ class DefaultJsonCodecTest {
         JsonValue v = custom.parse(json);
         assertEquals(json, custom.serialize(v));
     }
+
+    @Test
+    void parse_bytes_matches_string_parse() {
+        String json = "{\"name\":\"Jürgen\",\"scores\":[90,85,92]}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertEquals(codec.parse(json), codec.parse(bytes));
+        assertEquals(codec.parse(json), codec.parse(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    void parse_bytes_applies_codec_settings() {
+        JsonCodec limited = new DefaultJsonCodec(
+                DefaultJsonCodecSettings.builder().maxNestingDepth(1).build());
+        byte[] bytes = "[[1]]".getBytes(StandardCharsets.UTF_8);
+        assertThrows(SQL4JsonExecutionException.class, () -> limited.parse(bytes));
+    }
+
+    @Test
+    void custom_codec_bytes_default_decodes_to_string() {
+        JsonCodec custom = new JsonCodec() {
+            @Override
+            public JsonValue parse(String json) {
+                return new JsonStringValue(json);
+            }
+
+            @Override
+            public String serialize(JsonValue value) {
+                return value.toString();
+            }
+        };
+        byte[] bytes = "ü".getBytes(StandardCharsets.UTF_8);
+        assertEquals(new JsonStringValue("ü"), custom.parse(bytes));
+        assertEquals(new JsonStringValue("ü"), custom.parse(ByteBuffer.wrap(bytes)));
+    }
 }
@@ -0,0 +1,61 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class FieldProjectionTest {
+
+    @Test
+    void all_keepsEveryMember() {
+        assertTrue(FieldProjection.ALL.isAll());
+        assertSame(FieldProjection.ALL, FieldProjection.ALL.child("anything"));
+    }
+
+    @Test
+    void of_topLevelPaths() {
+        FieldProjection p = FieldProjection.of(List.of("id", "name"));
+        assertFalse(p.isAll());
+        assertTrue(p.child("id").isAll());
+        assertTrue(p.child("name").isAll());
+        assertNull(p.child("other"));
+    }
+
+    @Test
+    void of_nestedPath_narrowsIntermediateObjects() {
+        FieldProjection p = FieldProjection.of(List.of("address.city", "address.geo.lat"));
+        FieldProjection address = p.child("address");
+        assertFalse(address.isAll());
+        assertTrue(address.child("city").isAll());
+        assertNull(address.child("street"));
+        assertTrue(address.child("geo").child("lat").isAll());
+        assertNull(address.child("geo").child("lng"));
+    }
+
+    @Test
+    void of_prefixPath_keepsWholeSubtree() {
+        FieldProjection p = FieldProjection.of(List.of("address.city", "address"));
+        assertTrue(p.child("address").isAll());
+        assertTrue(FieldProjection.of(List.of("address", "address.city"))
+                .child("address")
+                .isAll());
+    }
+
+    @Test
+    void of_indexedSegment_keepsWholeArray() {
+        FieldProjection p = FieldProjection.of(List.of("tags[0]", "items[1].name"));
+        assertTrue(p.child("tags").isAll());
+        assertTrue(p.child("items").isAll());
+        assertNull(p.child("tags[0]"));
+    }
+
+    @Test
+    void of_empty_keepsNothing() {
+        FieldProjection p = FieldProjection.of(Set.of());
+        assertFalse(p.isAll());
+        assertNull(p.child("id"));
+    }
+}
@@ -0,0 +1,205 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IncrementalJsonReaderTest {
+
+    // A tiny buffer fed a few bytes per read forces compaction, growth and elements straddling refills.
+    private static final int SMALL_BUFFER = 8;
+
+    private static final DefaultJsonCodecSettings DEFAULTS = DefaultJsonCodecSettings.defaults();
+
+    private static IncrementalJsonReader.ByteSource trickle(String json, int chunk) {
+        InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        return (dst, off, len) -> in.read(dst, off, Math.min(len, chunk));
+    }
+
+    private static List<JsonValue> stream(String json, String rootPath, DefaultJsonCodecSettings settings) {
+        return new IncrementalJsonReader(trickle(json, 3), settings, SMALL_BUFFER)
+                .streamArray(rootPath, FieldProjection.ALL)
+                .toList();
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "[]",
+                "[1, 2, 3]",
+                "[{\"id\":1,\"name\":\"Ünal Çelik\"},{\"id\":2,\"name\":\"日本語テキスト\"}]",
+                "  [ \"a]b\" , {\"s\":\"x\\\"}\"}, [1,[2,[3]]], null, true, -1.5e3 ]  ",
+                "{\"only\":\"object\"}"
+            })
+    void streamArray_matchesStringStreaming(String json) {
+        assertEquals(StreamingJsonParser.streamArray(json).toList(), stream(json, null, DEFAULTS));
+    }
+
+    @Test
+    void streamArray_primitiveRoot_isEmpty() {
+        assertTrue(stream("42", null, DEFAULTS).isEmpty());
+    }
+
+    @Test
+    void streamArray_skipsByteOrderMark() {
+        assertEquals(2, stream("﻿[1,2]", null, DEFAULTS).size());
+    }
+
+    @Test
+    void streamArray_nestedRootPath_readsWholeDocument() {
+        String json = "{\"meta\":{\"items\":[9]},\"data\":{\"items\":[{\"a\":1},{\"a\":2}]}}";
+        assertEquals(
+                StreamingJsonParser.streamArray(json, "$r.data.items").toList(),
+                stream(json, "$r.data.items", DEFAULTS));
+    }
+
+    @Test
+    void streamArray_elementsLargerThanBuffer() {
+        String big = "x".repeat(5_000);
+        List<JsonValue> elements = stream("[\"" + big + "\",{\"k\":\"" + big + "\"},1]", null, DEFAULTS);
+        assertEquals(big, elements.get(0).asString().orElseThrow());
+        assertEquals(3, elements.size());
+    }
+
+    @Test
+    void streamArray_isLazy() {
+        int[] reads = {0};
+        InputStream in = new ByteArrayInputStream("[1,2,3,4,5,6,7,8,9,10]".getBytes(StandardCharsets.UTF_8));
+        IncrementalJsonReader.ByteSource source = (dst, off, len) -> {
+            reads[0]++;
+            return in.read(dst, off, Math.min(len, 2));
+        };
+        var first = new IncrementalJsonReader(source, DEFAULTS, SMALL_BUFFER)
+                .streamArray(null, FieldProjection.ALL)
+                .findFirst();
+        assertEquals(1, first.orElseThrow().asNumber().orElseThrow().intValue());
+        assertTrue(reads[0] < 5, "read " + reads[0] + " chunks for the first element");
+    }
+
+    @Test
+    void streamArray_maxInputLength_appliesPerElement() {
+        var settings = DefaultJsonCodecSettings.builder().maxInputLength(10).build();
+        assertEquals(
+                4,
+                stream("[{\"a\":1},{\"a\":2},{\"a\":3},{\"a\":4}]", null, settings)
+                        .size());
+        var ex = assertThrows(SQL4JsonExecutionException.class, () -> stream("[{\"abcdefghij\":1}]", null, settings));
+        assertTrue(ex.getMessage().contains("Element length exceeds configured maximum (10)"));
+    }
+
+    @Test
+    void streamArray_maxInputLength_boundsWholeDocumentFallback() {
+        var settings = DefaultJsonCodecSettings.builder().maxInputLength(10).build();
+        var ex = assertThrows(
+                SQL4JsonExecutionException.class, () -> stream("{\"data\":[1,2,3,4,5]}", "$r.data", settings));
+        assertTrue(ex.getMessage().contains("input length exceeds configured maximum (10)"));
+    }
+
+    @Test
+    void streamArray_malformed_throws() {
+        for (String json : List.of("[1,2,]", "[1 2]", "[{\"a\":1", "[\"abc", "[1,2")) {
+            assertThrows(SQL4JsonExecutionException.class, () -> stream(json, null, DEFAULTS), json);
+        }
+    }
+
+    @Test
+    void streamArray_errorPosition_countsDiscardedBytes() {
+        var ex = assertThrows(
+                SQL4JsonExecutionException.class, () -> stream("[1111111,2222222,3333333 4]", null, DEFAULTS));
+        assertTrue(ex.getMessage().startsWith("Failed to parse JSON at position 25:"), ex.getMessage());
+    }
+
+    @Test
+    void streamArray_blankInput_throws() {
+        var ex = assertThrows(SQL4JsonExecutionException.class, () -> stream("  \n", null, DEFAULTS));
+        assertEquals("Failed to parse JSON: input is null or blank", ex.getMessage());
+    }
+
+    @Test
+    void streamArray_readFailure_isWrapped() {
+        IncrementalJsonReader.ByteSource failing = (dst, off, len) -> {
+            throw new IOException("boom");
+        };
+        var reader = new IncrementalJsonReader(failing, DEFAULTS, SMALL_BUFFER);
+        var ex = assertThrows(SQL4JsonExecutionException.class, () -> reader.streamArray(null, FieldProjection.ALL));
+        assertEquals("Failed to read JSON input: boom", ex.getMessage());
+    }
+
+    @Test
+    void streamArray_inputStreamAndChannel() {
+        String json = "[{\"a\":1},{\"a\":2}]";
+        var expected = StreamingJsonParser.streamArray(json).toList();
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(
+                                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), null, DEFAULTS)
+                        .toList());
+        var channel = Channels.newChannel(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(channel, null, DEFAULTS).toList());
+    }
+
+    @Test
+    void streamArray_nonBlockingChannel_rejected() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (var source = pipe.source();
+                var sink = pipe.sink()) {
+            source.configureBlocking(false);
+            assertThrows(IllegalArgumentException.class, () -> StreamingJsonParser.streamArray(source, null, DEFAULTS));
+        }
+    }
+
+    @Test
+    void streamLines_matchesStringLines() {
+        String ndjson = "﻿{\"id\":1,\"name\":\"Ünal\"}\r\n\n{\"id\":2,\"tags\":[\"x\",\"y\"]}\n  \n\"日本語\"";
+        List<JsonValue> expected = StreamingJsonParser.streamLines(ndjson.substring(1), null, DEFAULTS)
+                .toList();
+        assertEquals(
+                expected,
+                new IncrementalJsonReader(trickle(ndjson, 3), DEFAULTS, SMALL_BUFFER)
+                        .streamLines(null, FieldProjection.ALL)
+                        .toList());
+        assertEquals(3, expected.size());
+    }
+
+    @Test
+    void streamLines_longLinesGrowBuffer() {
+        String big = "x".repeat(5_000);
+        String ndjson = "{\"k\":\"" + big + "\"}\n1\n";
+        List<JsonValue> records = new IncrementalJsonReader(trickle(ndjson, 7), DEFAULTS, SMALL_BUFFER)
+                .streamLines(null, FieldProjection.ALL)
+                .toList();
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    void streamLines_malformedLine_reportsLineAndInputPosition() {
+        var stream = new IncrementalJsonReader(trickle("[1]\n[2]\n[3,]\n", 2), DEFAULTS, SMALL_BUFFER)
+                .streamLines(null, FieldProjection.ALL);
+        var ex = assertThrows(SQL4JsonExecutionException.class, stream::toList);
+        assertTrue(ex.getMessage().startsWith("Failed to parse JSON at position 11:"), ex.getMessage());
+        assertTrue(ex.getMessage().endsWith("(line 3)"), ex.getMessage());
+    }
+
+    @Test
+    void streamLines_maxInputLength_appliesPerLine() {
+        var settings = DefaultJsonCodecSettings.builder().maxInputLength(8).build();
+        var reader = new IncrementalJsonReader(trickle("[1]\n{\"abcdefgh\":1}\n", 3), settings, SMALL_BUFFER);
+        var stream = reader.streamLines(null, FieldProjection.ALL);
+        assertThrows(SQL4JsonExecutionException.class, stream::toList);
+    }
+}
@@ -0,0 +1,113 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class JsonNumbersTest {
+
+    private static JsonNumberValue parse(String token) {
+        boolean fractional = token.indexOf('.') >= 0 || token.indexOf('e') >= 0 || token.indexOf('E') >= 0;
+        JsonNumberValue fromString = JsonNumbers.parse(token, 0, token.length(), fractional);
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(fromString, JsonNumbers.parse(bytes, 0, bytes.length, fractional), token);
+        return fromString;
+    }
+
+    private static void assertDouble(String token) {
+        JsonNumberValue v = parse(token);
+        JsonDoubleValue d = assertInstanceOf(JsonDoubleValue.class, v, token);
+        assertEquals(
+                Double.doubleToRawLongBits(Double.parseDouble(token)),
+                Double.doubleToRawLongBits(d.value()),
+                () -> token + " -> " + d.value());
+    }
+
+    @Test
+    void integers_keepLongAndDecimalTyping() {
+        assertSame(parse("0"), parse("0"));
+        assertSame(parse("255"), parse("255"));
+        assertEquals(new JsonLongValue(0), parse("-0"));
+        assertEquals(new JsonLongValue(-42), parse("-42"));
+        assertEquals(new JsonLongValue(999_999_999_999_999_999L), parse("999999999999999999"));
+        assertEquals(new JsonLongValue(Long.MAX_VALUE), parse("9223372036854775807"));
+        assertEquals(new JsonLongValue(Long.MIN_VALUE), parse("-9223372036854775808"));
+        assertEquals(new JsonDecimalValue(new BigDecimal("9223372036854775808")), parse("9223372036854775808"));
+        assertEquals(new JsonDecimalValue(new BigDecimal("-9223372036854775809")), parse("-9223372036854775809"));
+        assertEquals(new JsonDecimalValue(new BigDecimal("9999999999999999999")), parse("9999999999999999999"));
+        assertEquals(new JsonDecimalValue(new BigDecimal("12345678901234567890")), parse("12345678901234567890"));
+    }
+
+    @Test
+    void doubles_edgeCasesMatchParseDouble() {
+        for (String token : List.of(
+                "0.0",
+                "-0.0",
+                "0e9999",
+                "-0E-9999",
+                "1.5",
+                "-1.5e3",
+                "0.1",
+                "0.3",
+                "3.14159",
+                "41.0082",
+                "28.9784",
+                "1e22",
+                "1e23",
+                "9007199254740993.0",
+                "9007199254740995.0",
+                "1.7976931348623157e308",
+                "1.7976931348623158e308",
+                "1.7976931348623159e308",
+                "1e309",
+                "2.2250738585072011e-308",
+                "2.2250738585072012e-308",
+                "4.9e-324",
+                "2.4703282292062327e-324",
+                "2.4703282292062328e-324",
+                "1e-400",
+                "7.2057594037927933e16",
+                "0.000000000000000000000000000000000000000000001",
+                "123456789012345678901234567890.5",
+                "1.00000000000000011102230246251565404236316680908203125",
+                "9999999999999999999.0",
+                "1E+2",
+                "5e-1")) {
+            assertDouble(token);
+        }
+    }
+
+    @Test
+    void doubles_randomBitPatternsRoundTrip() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d)) continue;
+            assertDouble(Double.toString(d));
+        }
+    }
+
+    @Test
+    void doubles_randomDecimalsMatchParseDouble() {
+        Random random = new Random(11);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextBoolean()) sb.append('-');
+            sb.append(random.nextInt(10));
+            int fraction = random.nextInt(22);
+            if (fraction > 0) {
+                sb.append('.');
+                for (int f = 0; f < fraction; f++) sb.append(random.nextInt(10));
+            }
+            if (fraction == 0 || random.nextInt(3) == 0) {
+                sb.append('e').append(random.nextInt(700) - 350);
+            }
+            assertDouble(sb.toString());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.SQL4Json;
+import io.github.mnesimiyilmaz.sql4json.SQL4JsonEngine;
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonTapeTest {
+
+    private static final DefaultJsonCodecSettings LAZY =
+            DefaultJsonCodecSettings.builder().lazyDocuments(true).build();
+
+    private static final String DOC = "[{\"id\":1,\"name\":\"Ünal\",\"esc\":\"a\\\"b\\\\c\\u00e9\\ud83d\\ude00\","
+            + "\"big\":123456789012345678901234,\"max\":9223372036854775807,\"neg\":-5,\"f\":-1.5e3,"
+            + "\"ok\":true,\"no\":false,\"nil\":null,\"empty\":{},\"none\":[],"
+            + "\"nested\":{\"a\":[1,[2,{\"b\":\"c\"}]],\"d\":{\"e\":0.25}}},"
+            + " {\"id\":2, \"name\" : \"日本\" , \"tags\":[\"x\",\"y\",\"z\"]}, 7, \"s\", null]";
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void lazyDocument_equalsTree() {
+        JsonValue tree = Utf8JsonParser.parse(utf8(DOC));
+        JsonValue tape = Utf8JsonParser.parse(utf8(DOC), LAZY);
+        assertEquals(tree, tape);
+        assertEquals(tape, tree);
+        assertEquals(tree.hashCode(), tape.hashCode());
+        assertEquals(JsonSerializer.serialize(tree), JsonSerializer.serialize(tape));
+    }
+
+    @Test
+    void lazyDocument_navigatesWithoutDecodingSiblings() {
+        List<JsonValue> rows = Utf8JsonParser.parse(utf8(DOC), LAZY).asArray().orElseThrow();
+        assertEquals(5, rows.size());
+        Map<String, JsonValue> first = rows.getFirst().asObject().orElseThrow();
+        assertEquals(13, first.size());
+        assertEquals(new JsonStringValue("a\"b\\cé😀"), first.get("esc"));
+        assertEquals(new JsonDecimalValue(new java.math.BigDecimal("123456789012345678901234")), first.get("big"));
+        assertEquals(new JsonLongValue(Long.MAX_VALUE), first.get("max"));
+        assertEquals(new JsonDoubleValue(-1500.0), first.get("f"));
+        assertNull(first.get("missing"));
+        assertTrue(first.containsKey("nil"));
+        assertEquals(JsonNullValue.INSTANCE, first.get("nil"));
+        assertEquals(
+                new JsonStringValue("z"),
+                rows.get(1)
+                        .asObject()
+                        .orElseThrow()
+                        .get("tags")
+                        .asArray()
+                        .orElseThrow()
+                        .get(2));
+        assertEquals(new JsonLongValue(7), rows.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> first.put("x", JsonNullValue.INSTANCE));
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.get(5));
+    }
+
+    @Test
+    void scalarRoot() {
+        assertEquals(new JsonStringValue("x"), Utf8JsonParser.parse(utf8(" \"x\" "), LAZY));
+        assertEquals(new JsonLongValue(42), Utf8JsonParser.parse(utf8("42"), LAZY));
+    }
+
+    @Test
+    void lazyDocument_isUnaffectedByLaterChangesToTheInput() {
+        byte[] buffer = utf8("  [{\"name\":\"Alice\",\"n\":12,\"e\":\"\\u0041\"}] ");
+        JsonValue expected = Utf8JsonParser.parse(buffer.clone());
+        JsonValue fromArray = Utf8JsonParser.parse(buffer, LAZY);
+        JsonValue fromOffset = Utf8JsonParser.parse(buffer, 2, buffer.length - 3, LAZY);
+        JsonValue fromBuffer = Utf8JsonParser.parse(ByteBuffer.wrap(buffer), LAZY);
+        Arrays.fill(buffer, (byte) 'X');
+        assertEquals(expected, fromArray);
+        assertEquals(expected, fromOffset);
+        assertEquals(expected, fromBuffer);
+        assertEquals("[{\"name\":\"Alice\",\"n\":12,\"e\":\"A\"}]", JsonSerializer.serialize(fromArray));
+    }
+
+    @Test
+    void errors_matchTreeParser() {
+        var tight = LAZY.toBuilder()
+                .maxNestingDepth(3)
+                .maxArrayElements(2)
+                .maxStringLength(3)
+                .maxNumberLength(4)
+                .build();
+        var tightTree = tight.toBuilder().lazyDocuments(false).build();
+        for (String json : List.of(
+                "[1,2",
+                "{\"a\":1,}",
+                "{\"a\" 1}",
+                "[1,]",
+                "{\"a\":1,\"a\":2}",
+                "[\"ab\u0001\"]",
+                "[\"\\x\"]",
+                "[tru]",
+                "[01]",
+                "[1.]",
+                "[1] x",
+                "[[[[1]]]]",
+                "[1,2,3]",
+                "[\"abcd\"]",
+                "[\"a\\nbc\"]",
+                "[12345]",
+                "[1e99999]")) {
+            var expected =
+                    assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8(json), tightTree));
+            var actual = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8(json), tight));
+            assertEquals(expected.getMessage(), actual.getMessage(), json);
+        }
+    }
+
+    @Test
+    void duplicateKeyPolicies_matchTreeParser() {
+        String json = "{\"a\":1,\"b\":2,\"a\":{\"x\":[1]},\"c\":3,\"b\":4}";
+        for (DuplicateKeyPolicy policy : List.of(DuplicateKeyPolicy.FIRST_WINS, DuplicateKeyPolicy.LAST_WINS)) {
+            var tree = DefaultJsonCodecSettings.builder()
+                    .duplicateKeyPolicy(policy)
+                    .build();
+            var lazy = tree.toBuilder().lazyDocuments(true).build();
+            JsonValue expected = Utf8JsonParser.parse(utf8(json), tree);
+            JsonValue actual = Utf8JsonParser.parse(utf8(json), lazy);
+            assertEquals(expected, actual, policy.name());
+            assertEquals(
+                    List.copyOf(expected.asObject().orElseThrow().keySet()),
+                    List.copyOf(actual.asObject().orElseThrow().keySet()));
+        }
+    }
+
+    @Test
+    void engineOverLazyDocument_matchesTreeResults() {
+        var lazySettings =
+                Sql4jsonSettings.builder().codec(new DefaultJsonCodec(LAZY)).build();
+        String data = "[{\"id\":1,\"dept\":\"eng\",\"score\":91,\"tags\":[\"a\"]},"
+                + "{\"id\":2,\"dept\":\"ops\",\"score\":72,\"tags\":[]},"
+                + "{\"id\":3,\"dept\":\"eng\",\"score\":85,\"tags\":[\"b\",\"c\"]}]";
+        SQL4JsonEngine lazy =
+                SQL4Json.engine().settings(lazySettings).data(utf8(data)).build();
+        JsonValue tree = Utf8JsonParser.parse(utf8(data));
+        for (String sql : List.of(
+                "SELECT * FROM $r",
+                "SELECT id, tags FROM $r WHERE score > 80 ORDER BY id DESC",
+                "SELECT dept, COUNT(*) AS n FROM $r GROUP BY dept",
+                "SELECT id, ROW_NUMBER() OVER (PARTITION BY dept ORDER BY score) AS rn FROM $r",
+                "SELECT id FROM (SELECT * FROM $r WHERE score > 80) ORDER BY id")) {
+            // The engine keeps the tape and flattens it per query, as a one-shot query over the tree does
+            assertEquals(SQL4Json.queryAsJsonValue(sql, tree), lazy.queryAsJsonValue(sql), sql);
+            assertEquals(SQL4Json.query(sql, data), lazy.query(sql), sql);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MappedJsonFileTest {
+
+    // Tiny segments force elements, strings and multi-byte characters to straddle segment boundaries.
+    private static final long SMALL_SEGMENT = 16;
+
+    private static final DefaultJsonCodecSettings DEFAULTS = DefaultJsonCodecSettings.defaults();
+
+    @TempDir
+    Path tmp;
+
+    private Path write(String content) throws IOException {
+        Path file = tmp.resolve("data.json");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private List<JsonValue> stream(String content, String rootPath) throws IOException {
+        return StreamingJsonParser.streamArray(write(content), rootPath, DEFAULTS, SMALL_SEGMENT)
+                .toList();
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "[]",
+                "[1, 2, 3]",
+                "[{\"id\":1,\"name\":\"Ünal Çelik\"},{\"id\":2,\"name\":\"日本語テキスト\"}]",
+                "  [ \"a]b\" , {\"s\":\"x\\\"}\"}, [1,[2,[3]]], null, true, -1.5e3 ]  ",
+                "{\"only\":\"object\"}"
+            })
+    void streamArray_matchesStringStreaming(String json) throws IOException {
+        assertEquals(StreamingJsonParser.streamArray(json).toList(), stream(json, null));
+    }
+
+    @Test
+    void streamArray_primitiveRoot_isEmpty() throws IOException {
+        assertTrue(stream("42", null).isEmpty());
+    }
+
+    @Test
+    void streamArray_skipsByteOrderMark() throws IOException {
+        assertEquals(2, stream("﻿[1,2]", null).size());
+    }
+
+    @Test
+    void streamArray_nestedRootPath_skipsSiblings() throws IOException {
+        String json =
+                "{\"meta\":{\"items\":[9]},\"note\":\"x\",\"data\":{\"count\":2,\"items\":[{\"a\":1},{\"a\":2}]}}";
+        List<JsonValue> elements = stream(json, "$r.data.items");
+        assertEquals(StreamingJsonParser.streamArray(json, "$r.data.items").toList(), elements);
+        assertEquals(2, elements.size());
+    }
+
+    @Test
+    void streamArray_rootPathToObject_yieldsSingleElement() throws IOException {
+        assertEquals(1, stream("{\"data\":{\"a\":1}}", "$r.data").size());
+    }
+
+    @Test
+    void streamArray_missingRootPath_isEmpty() throws IOException {
+        assertTrue(stream("{\"data\":{\"a\":1}}", "$r.nope.items").isEmpty());
+        assertTrue(stream("{}", "$r.data").isEmpty());
+        assertTrue(stream("[1,2]", "$r.data").isEmpty());
+    }
+
+    @Test
+    void streamArray_elementsLargerThanScratchBuffer() throws IOException {
+        String big = "x".repeat(20_000);
+        List<JsonValue> elements = stream("[\"" + big + "\",{\"k\":\"" + big + "\"}]", null);
+        assertEquals(big, elements.get(0).asString().orElseThrow());
+        assertEquals(2, elements.size());
+    }
+
+    @Test
+    void streamArray_maxInputLength_appliesPerElement() throws IOException {
+        var settings = DefaultJsonCodecSettings.builder().maxInputLength(10).build();
+        Path file = write("[{\"a\":1},{\"a\":2},{\"a\":3},{\"a\":4}]");
+        assertEquals(
+                4,
+                StreamingJsonParser.streamArray(file, null, settings, SMALL_SEGMENT)
+                        .count());
+        Path wide = write("[{\"abcdefgh\":1}]");
+        var stream = StreamingJsonParser.streamArray(wide, null, settings, SMALL_SEGMENT);
+        var ex = assertThrows(SQL4JsonExecutionException.class, stream::toList);
+        assertTrue(ex.getMessage().contains("Element length exceeds configured maximum (10)"));
+    }
+
+    @Test
+    void streamArray_malformed_throws() throws IOException {
+        for (String json : List.of("[1,2,]", "[1 2]", "[{\"a\":1", "[\"abc")) {
+            Path file = write(json);
+            var stream = StreamingJsonParser.streamArray(file, null, DEFAULTS, SMALL_SEGMENT);
+            assertThrows(SQL4JsonExecutionException.class, stream::toList, json);
+        }
+        Path badKey = write("{1:2}");
+        assertThrows(
+                SQL4JsonExecutionException.class,
+                () -> StreamingJsonParser.streamArray(badKey, "$r.a", DEFAULTS, SMALL_SEGMENT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "[{\"a\":1},{\"b\":tru}]",
+                "  [1, 2, {\"c\":{\"d\":01}}]",
+                "{\"data\":{\"items\":[true,[1,{\"x\":\"\\q\"}]]}}"
+            })
+    void streamArray_malformedElement_reportsFilePosition(String json) throws IOException {
+        String rootPath = json.startsWith("{") ? "$r.data.items" : null;
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Path file = write(json);
+        String expected = assertThrows(
+                        SQL4JsonExecutionException.class,
+                        () -> StreamingJsonParser.streamArray(json, rootPath, DEFAULTS)
+                                .toList())
+                .getMessage();
+        assertTrue(expected.startsWith("Failed to parse JSON at position "), expected);
+        for (var input : List.<Executable>of(
+                () -> StreamingJsonParser.streamArray(bytes, rootPath, DEFAULTS).toList(),
+                () -> StreamingJsonParser.streamArray(new ByteArrayInputStream(bytes), rootPath, DEFAULTS)
+                        .toList(),
+                () -> StreamingJsonParser.streamArray(file, rootPath, DEFAULTS, SMALL_SEGMENT)
+                        .toList())) {
+            assertEquals(
+                    expected,
+                    assertThrows(SQL4JsonExecutionException.class, input).getMessage());
+        }
+    }
+
+    // Outcome of a streaming call: the elements, or the message of the exception it threw.
+    private static String outcome(Executable call, List<List<JsonValue>> sink) {
+        try {
+            call.execute();
+            return sink.getLast().toString();
+        } catch (SQL4JsonExecutionException e) {
+            return "error: " + e.getMessage();
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "{\"data\":[{\"a\":1}],\"data\":[{\"a\":2}],\"junk\":[1,}]}",
+                "{\"data\":[{\"a\":1}],\"data\":[{\"a\":2}]}",
+                "{\"data\":{\"a\":1},\"data\":[{\"a\":2}]}",
+                "{\"meta\":{\"x\":1,\"x\":2},\"data\":[1]}",
+                "{\"data\":[1],\"junk\":[1,}]}",
+                "{\"junk\":tru,\"data\":[1]}",
+                "{\"data\":[1],\"data\":{\"x\":01}}",
+                "{\"data\":[1],}",
+                "{\"data\":[1]} []"
+            })
+    void streamArray_nestedRootPath_resolvesWrapperLikeOtherInputs(String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Path file = write(json);
+        for (DuplicateKeyPolicy policy : DuplicateKeyPolicy.values()) {
+            var settings = DefaultJsonCodecSettings.builder()
+                    .duplicateKeyPolicy(policy)
+                    .build();
+            List<List<JsonValue>> sink = new ArrayList<>();
+            String expected = outcome(
+                    () -> sink.add(StreamingJsonParser.streamArray(json, "$r.data", settings)
+                            .toList()),
+                    sink);
+            for (var input : List.<Executable>of(
+                    () -> sink.add(StreamingJsonParser.streamArray(bytes, "$r.data", settings)
+                            .toList()),
+                    () -> sink.add(StreamingJsonParser.streamArray(new ByteArrayInputStream(bytes), "$r.data", settings)
+                            .toList()),
+                    () -> sink.add(StreamingJsonParser.streamArray(file, "$r.data", settings, SMALL_SEGMENT)
+                            .toList()))) {
+                assertEquals(expected, outcome(input, sink), policy + " " + json);
+            }
+        }
+    }
+
+    @Test
+    void streamArray_blankFile_throws() throws IOException {
+        Path file = write("  \n");
+        var ex = assertThrows(
+                SQL4JsonExecutionException.class, () -> StreamingJsonParser.streamArray(file, null, DEFAULTS));
+        assertEquals("Failed to parse JSON: input is null or blank", ex.getMessage());
+    }
+
+    @Test
+    void streamArray_missingFile_throws() {
+        Path missing = tmp.resolve("missing.json");
+        var ex = assertThrows(
+                SQL4JsonExecutionException.class, () -> StreamingJsonParser.streamArray(missing, null, DEFAULTS));
+        assertTrue(ex.getMessage().startsWith("Failed to read JSON file"));
+    }
+
+    @Test
+    void map_rejectsInvalidSegmentSize() throws IOException {
+        Path file = write("[]");
+        assertThrows(IllegalArgumentException.class, () -> MappedJsonFile.map(file, 3));
+        assertThrows(IllegalArgumentException.class, () -> MappedJsonFile.map(file, 1L << 31));
+    }
+}
@@ -0,0 +1,139 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ParallelElementIteratorTest {
+
+    private static final DefaultJsonCodecSettings SEQUENTIAL = DefaultJsonCodecSettings.defaults();
+    private static final DefaultJsonCodecSettings PARALLEL =
+            DefaultJsonCodecSettings.builder().parseParallelism(4).build();
+
+    // Well above BATCH_SIZE so the array is cut into several batches.
+    private static String bigArray(int count) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(",\n");
+            sb.append("{\"id\":")
+                    .append(i)
+                    .append(",\"name\":\"Ünal \\\"")
+                    .append(i)
+                    .append("\\\" 日本\",\"tags\":[\"a]\",{\"b\":[1,2.5,null]}],\"ok\":")
+                    .append(i % 2 == 0)
+                    .append('}');
+        }
+        return sb.append("\n]").toString();
+    }
+
+    private static final String BIG = bigArray(12_000);
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void wholeDocumentParse_matchesSequential() {
+        assertTrue(BIG.length() > 3 * ParallelElementIterator.BATCH_SIZE);
+        JsonValue expected = JsonParser.parse(BIG, SEQUENTIAL);
+        assertEquals(expected, JsonParser.parse(BIG, PARALLEL));
+        assertEquals(expected, Utf8JsonParser.parse(utf8(BIG), PARALLEL));
+    }
+
+    @Test
+    void streamArray_matchesSequentialInOrder() {
+        List<JsonValue> expected =
+                StreamingJsonParser.streamArray(BIG, null, SEQUENTIAL).toList();
+        assertEquals(12_000, expected.size());
+        assertEquals(
+                expected, StreamingJsonParser.streamArray(BIG, null, PARALLEL).toList());
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(ByteBuffer.wrap(utf8(BIG)), null, PARALLEL)
+                        .toList());
+    }
+
+    @Test
+    void streamArray_earlyTermination() {
+        List<JsonValue> first =
+                StreamingJsonParser.streamArray(BIG, null, PARALLEL).limit(3).toList();
+        assertEquals(
+                StreamingJsonParser.streamArray(BIG, null, SEQUENTIAL).limit(3).toList(), first);
+    }
+
+    @Test
+    void customExecutor_runsParseTasks() {
+        AtomicInteger tasks = new AtomicInteger();
+        Executor counting = command -> {
+            tasks.incrementAndGet();
+            ForkJoinPool.commonPool().execute(command);
+        };
+        var settings = PARALLEL.toBuilder().parseExecutor(counting).build();
+        assertEquals(JsonParser.parse(BIG, SEQUENTIAL), JsonParser.parse(BIG, settings));
+        assertTrue(tasks.get() > 1, "expected several parse tasks, got " + tasks.get());
+    }
+
+    @Test
+    void smallInput_staysOnCallingThread() {
+        Executor failing = command -> fail("small input must not be handed to the executor");
+        var settings = PARALLEL.toBuilder().parseExecutor(failing).build();
+        assertEquals(JsonParser.parse("[1,2,3]"), JsonParser.parse("[1,2,3]", settings));
+    }
+
+    @Test
+    void errors_matchSequential() {
+        String badElement = BIG.replace("{\"id\":5000,", "{\"id\":5000 ");
+        String badSeparator = BIG.replace("},\n{\"id\":6000,", "}\n{\"id\":6000,");
+        String trailing = BIG + " x";
+        String earlyElementLateSeparator = badSeparator.replace("{\"id\":100,", "{\"id\":100 ");
+        for (String json : List.of(badElement, badSeparator, trailing, earlyElementLateSeparator)) {
+            // The whole-document scan words separator errors like the streaming parsers do, so positions are compared.
+            var sequential = assertThrows(SQL4JsonExecutionException.class, () -> JsonParser.parse(json, SEQUENTIAL));
+            var parallel = assertThrows(SQL4JsonExecutionException.class, () -> JsonParser.parse(json, PARALLEL));
+            assertEquals(position(sequential), position(parallel));
+            // Byte positions differ from char positions, so the UTF-8 path is compared with itself.
+            var utf8Sequential =
+                    assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8(json), SEQUENTIAL));
+            var utf8 = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8(json), PARALLEL));
+            assertEquals(position(utf8Sequential), position(utf8));
+            if (json == trailing) continue; // streams stop at the closing ']'
+
+            var streamed = assertThrows(
+                    SQL4JsonExecutionException.class,
+                    () -> StreamingJsonParser.streamArray(json, null, SEQUENTIAL)
+                            .toList());
+            var streamedParallel = assertThrows(
+                    SQL4JsonExecutionException.class,
+                    () -> StreamingJsonParser.streamArray(json, null, PARALLEL).toList());
+            assertEquals(streamed.getMessage(), streamedParallel.getMessage());
+        }
+    }
+
+    private static String position(Exception e) {
+        String message = e.getMessage();
+        return message.substring(0, message.indexOf(": "));
+    }
+
+    @Test
+    void limits_stillApply() {
+        var depthLimited = PARALLEL.toBuilder().maxNestingDepth(3).build();
+        // Root array + element object + "tags" array = 3 levels; the "b" object inside tags is the 4th.
+        assertThrows(SQL4JsonExecutionException.class, () -> JsonParser.parse(BIG, depthLimited));
+        var depthOk = PARALLEL.toBuilder().maxNestingDepth(5).build();
+        assertEquals(JsonParser.parse(BIG, SEQUENTIAL), JsonParser.parse(BIG, depthOk));
+
+        var countLimited = PARALLEL.toBuilder().maxArrayElements(11_999).build();
+        var ex = assertThrows(SQL4JsonExecutionException.class, () -> JsonParser.parse(BIG, countLimited));
+        assertTrue(ex.getMessage().contains("Array element count exceeds configured maximum (11999)"));
+    }
+}
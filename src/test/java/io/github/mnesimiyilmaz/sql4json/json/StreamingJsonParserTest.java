@@ -4,8 +4,12 @@ package io.github.mnesimiyilmaz.sql4json.json;
 import static org.junit.jupiter.api.Assertions.*;
 
 import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
 import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class StreamingJsonParserTest {
@@ -332,4 +336,221 @@ class StreamingJsonParserTest {
                 .build();
         assertThrows(SQL4JsonExecutionException.class, () -> StreamingJsonParser.streamArray("[1,2,3,4,5]", settings));
     }
+
+    // ── UTF-8 byte input ────────────────────────────────────────────────
+
+    @Test
+    void streamArray_bytes_matchesStringElements() {
+        String json = "[ {\"id\":1,\"name\":\"Ünal\"}, \"a]b\", 3.5, null, [1,[2]], {\"s\":\"x\\\"}\"} ]";
+        List<JsonValue> expected = StreamingJsonParser.streamArray(json).toList();
+        List<JsonValue> actual = StreamingJsonParser.streamArray(
+                        json.getBytes(StandardCharsets.UTF_8), null, DefaultJsonCodecSettings.defaults())
+                .toList();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void streamArray_bytes_rootPath_objectAndPrimitive() {
+        var settings = DefaultJsonCodecSettings.defaults();
+        byte[] wrapped = "{\"data\":{\"items\":[1,2,3]}}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(
+                3,
+                StreamingJsonParser.streamArray(wrapped, "$r.data.items", settings)
+                        .count());
+        assertEquals(1, StreamingJsonParser.streamArray(wrapped, "$r", settings).count());
+        assertEquals(
+                0,
+                StreamingJsonParser.streamArray("42".getBytes(StandardCharsets.UTF_8), null, settings)
+                        .count());
+    }
+
+    @Test
+    void streamArray_byteBuffer_readsRemainingOnly() {
+        ByteBuffer buffer = ByteBuffer.wrap("junk[1,2]".getBytes(StandardCharsets.UTF_8));
+        buffer.position(4);
+        assertEquals(
+                2,
+                StreamingJsonParser.streamArray(buffer, null, DefaultJsonCodecSettings.defaults())
+                        .count());
+        assertEquals(4, buffer.position());
+    }
+
+    @Test
+    void streamArray_bytes_malformed_throws() {
+        var settings = DefaultJsonCodecSettings.defaults();
+        var trailing = StreamingJsonParser.streamArray("[1,2,]".getBytes(StandardCharsets.UTF_8), null, settings);
+        assertThrows(SQL4JsonExecutionException.class, trailing::toList);
+        var missingComma = StreamingJsonParser.streamArray("[1 2]".getBytes(StandardCharsets.UTF_8), null, settings);
+        assertThrows(SQL4JsonExecutionException.class, missingComma::toList);
+        var unterminated =
+                StreamingJsonParser.streamArray("[{\"a\":1".getBytes(StandardCharsets.UTF_8), null, settings);
+        assertThrows(SQL4JsonExecutionException.class, unterminated::toList);
+        assertThrows(
+                SQL4JsonExecutionException.class,
+                () -> StreamingJsonParser.streamArray("   ".getBytes(StandardCharsets.UTF_8), null, settings));
+    }
+
+    @Test
+    void streamArray_bytes_maxInputLength_exceeded() {
+        var settings = DefaultJsonCodecSettings.builder().maxInputLength(5).build();
+        byte[] json = "[1,2,3,4,5]".getBytes(StandardCharsets.UTF_8);
+        assertThrows(SQL4JsonExecutionException.class, () -> StreamingJsonParser.streamArray(json, null, settings));
+    }
+
+    @Test
+    void streamLines_oneRecordPerLine() {
+        String ndjson = "{\"a\":1}\n{\"a\":2}\r\n\n  \n[3]\n\"four\"\n";
+        List<JsonValue> records = StreamingJsonParser.streamLines(ndjson, null, DefaultJsonCodecSettings.defaults())
+                .toList();
+        assertEquals(
+                StreamingJsonParser.streamArray("[{\"a\":1},{\"a\":2},[3],\"four\"]")
+                        .toList(),
+                records);
+    }
+
+    @Test
+    void streamLines_emptyInput_isEmpty() {
+        var settings = DefaultJsonCodecSettings.defaults();
+        assertEquals(0, StreamingJsonParser.streamLines("", null, settings).count());
+        assertEquals(0, StreamingJsonParser.streamLines("\n \n", "$r", settings).count());
+    }
+
+    @Test
+    void streamLines_nonRootPath_isEmpty() {
+        assertEquals(
+                0,
+                StreamingJsonParser.streamLines("{\"data\":[1]}", "$r.data", DefaultJsonCodecSettings.defaults())
+                        .count());
+    }
+
+    @Test
+    void streamLines_malformedLine_reportsLineNumber() {
+        var stream =
+                StreamingJsonParser.streamLines("{\"a\":1}\n{\"a\":}\n", null, DefaultJsonCodecSettings.defaults());
+        var ex = assertThrows(SQL4JsonExecutionException.class, stream::toList);
+        assertTrue(ex.getMessage().endsWith("(line 2)"), ex.getMessage());
+        var twoValues = StreamingJsonParser.streamLines("1 2", null, DefaultJsonCodecSettings.defaults());
+        assertThrows(SQL4JsonExecutionException.class, twoValues::toList);
+    }
+
+    @Test
+    void streamLines_maxInputLength_appliesPerLine() {
+        var settings = DefaultJsonCodecSettings.builder().maxInputLength(8).build();
+        assertEquals(
+                3,
+                StreamingJsonParser.streamLines("{\"a\":1}\n{\"a\":2}\n{\"a\":3}", null, settings)
+                        .count());
+        var wide = StreamingJsonParser.streamLines("{\"abcd\":1}", null, settings);
+        var ex = assertThrows(SQL4JsonExecutionException.class, wide::toList);
+        assertTrue(ex.getMessage().contains("Line length exceeds configured maximum (8)"));
+    }
+
+    private static final FieldProjection ID_AND_CITY = FieldProjection.of(List.of("id", "address.city"));
+
+    private static final String WIDE = "[{\"id\":1,\"bio\":\"long \\\"text\\\"\",\"tags\":[\"a\",{\"b\":[]}],"
+            + "\"address\":{\"city\":\"Izmir\",\"zip\":35000,\"geo\":{\"lat\":38.4}}},{\"id\":2,\"n\":null}]";
+
+    @Test
+    void streamArray_projection_skipsUnreferencedMembers() {
+        List<JsonValue> expected = StreamingJsonParser.streamArray(
+                        "[{\"id\":1,\"address\":{\"city\":\"Izmir\"}},{\"id\":2}]")
+                .toList();
+        DefaultJsonCodecSettings defaults = DefaultJsonCodecSettings.defaults();
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(WIDE, null, defaults, ID_AND_CITY)
+                        .toList());
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(
+                                ByteBuffer.wrap(WIDE.getBytes(StandardCharsets.UTF_8)), null, defaults, ID_AND_CITY)
+                        .toList());
+    }
+
+    @Test
+    void streamArray_projectionOnRootObject() {
+        String json = "{\"id\":7,\"skip\":[1,2,3],\"address\":{\"city\":\"Bursa\",\"zip\":16000}}";
+        List<JsonValue> elements = StreamingJsonParser.streamArray(
+                        json, null, DefaultJsonCodecSettings.defaults(), ID_AND_CITY)
+                .toList();
+        assertEquals(
+                StreamingJsonParser.streamArray("{\"id\":7,\"address\":{\"city\":\"Bursa\"}}")
+                        .toList(),
+                elements);
+    }
+
+    @Test
+    void streamLines_projection_skipsUnreferencedMembers() {
+        String ndjson = "{\"id\":1,\"x\":{\"y\":[true]}}\n{\"id\":2,\"x\":\"z\"}\n";
+        List<JsonValue> records = StreamingJsonParser.streamLines(
+                        ndjson, null, DefaultJsonCodecSettings.defaults(), FieldProjection.of(List.of("id")))
+                .toList();
+        assertEquals(StreamingJsonParser.streamArray("[{\"id\":1},{\"id\":2}]").toList(), records);
+    }
+
+    @Test
+    void streamArray_projection_skippedSubtreeStillStructurallyChecked() {
+        var settings = DefaultJsonCodecSettings.builder().maxNestingDepth(3).build();
+        var deep = StreamingJsonParser.streamArray("[{\"id\":1,\"x\":[[[[1]]]]}]", null, settings, ID_AND_CITY);
+        assertThrows(SQL4JsonExecutionException.class, deep::toList);
+        for (String json : List.of("[{\"id\":1,\"x\":\"abc}]", "[{\"id\":1,\"x\":{\"a\":1]", "[{\"id\":1,\"x\":}]")) {
+            var stream = StreamingJsonParser.streamArray(json, null, DefaultJsonCodecSettings.defaults(), ID_AND_CITY);
+            assertThrows(SQL4JsonExecutionException.class, stream::toList, json);
+        }
+    }
+
+    private static boolean idAboveOne(JsonValue element) {
+        return element.asObject()
+                        .orElseThrow()
+                        .get("id")
+                        .asNumber()
+                        .orElseThrow()
+                        .intValue()
+                > 1;
+    }
+
+    @Test
+    void streamArray_filter_dropsRejectedElements() {
+        String json = "[{\"id\":1,\"v\":\"a\"},{\"id\":2,\"v\":\"b\"},{\"id\":3,\"v\":\"c\"}]";
+        DefaultJsonCodecSettings defaults = DefaultJsonCodecSettings.defaults();
+        List<JsonValue> expected = StreamingJsonParser.streamArray("[{\"id\":2,\"v\":\"b\"},{\"id\":3,\"v\":\"c\"}]")
+                .toList();
+        FieldProjection probed =
+                FieldProjection.ALL.withFilter(FieldProjection.of(List.of("id")), StreamingJsonParserTest::idAboveOne);
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(json, null, defaults, probed).toList());
+        assertEquals(
+                expected,
+                StreamingJsonParser.streamArray(
+                                ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)), null, defaults, probed)
+                        .toList());
+        FieldProjection single = FieldProjection.of(List.of("id")).withFilter(StreamingJsonParserTest::idAboveOne);
+        assertEquals(
+                List.of(Set.of("id"), Set.of("id")),
+                StreamingJsonParser.streamArray(json, null, defaults, single)
+                        .map(e -> e.asObject().orElseThrow().keySet())
+                        .toList());
+    }
+
+    @Test
+    void streamArray_filter_rejectedRootObject_isEmpty() {
+        FieldProjection filter = FieldProjection.ALL.withFilter(StreamingJsonParserTest::idAboveOne);
+        assertTrue(StreamingJsonParser.streamArray("{\"id\":1}", null, DefaultJsonCodecSettings.defaults(), filter)
+                .toList()
+                .isEmpty());
+        assertEquals(
+                1,
+                StreamingJsonParser.streamArray("{\"id\":5}", null, DefaultJsonCodecSettings.defaults(), filter)
+                        .count());
+    }
+
+    @Test
+    void streamLines_filter_dropsRejectedRecords() {
+        FieldProjection filter = FieldProjection.ALL.withFilter(StreamingJsonParserTest::idAboveOne);
+        List<JsonValue> records = StreamingJsonParser.streamLines(
+                        "{\"id\":1}\n{\"id\":2}\n{\"id\":0}\n", null, DefaultJsonCodecSettings.defaults(), filter)
+                .toList();
+        assertEquals(StreamingJsonParser.streamArray("[{\"id\":2}]").toList(), records);
+    }
 }
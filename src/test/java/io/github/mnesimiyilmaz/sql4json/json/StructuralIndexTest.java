@@ -0,0 +1,144 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class StructuralIndexTest {
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> indexed(byte[] json, int from, int to) {
+        StructuralIndex index = StructuralIndex.build(json, from, to);
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < index.size(); i++) {
+            positions.add(index.position(i));
+        }
+        return positions;
+    }
+
+    // Byte-at-a-time reference with the same escape and string rules.
+    private static List<Integer> reference(byte[] json, int from, int to) {
+        List<Integer> positions = new ArrayList<>();
+        boolean inString = false;
+        for (int i = from; i < to; i++) {
+            byte b = json[i];
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                inString = !inString;
+                positions.add(i);
+            } else if (!inString && (b == '{' || b == '}' || b == '[' || b == ']' || b == ':' || b == ',')) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    void build_findsStructuralCharactersOutsideStrings() {
+        byte[] json = utf8("{\"a\":[1,2],\"b\":\"x,{]\"}");
+        assertEquals(List.of(0, 1, 3, 4, 5, 7, 9, 10, 11, 13, 14, 15, 20, 21), indexed(json, 0, json.length));
+    }
+
+    @Test
+    void build_handlesEscapesAndBlockBoundaries() {
+        for (int pad = 0; pad < 70; pad++) {
+            String prefix = "[\"" + "a".repeat(pad);
+            for (String tail : List.of(
+                    "\\\"],\"b\"]", "\\\\\",[1]]", "\\\\\\\"x\",{}]", "\\\\\\\\\",0]", "日本\\u0022\",{\"k\":[]}]")) {
+                byte[] json = utf8(prefix + tail);
+                assertEquals(reference(json, 0, json.length), indexed(json, 0, json.length), prefix + tail);
+            }
+        }
+    }
+
+    @Test
+    void build_matchesReferenceOnRandomInput() {
+        Random random = new Random(42);
+        byte[] alphabet = utf8("{}[]:,\"\\ a1é");
+        for (int round = 0; round < 500; round++) {
+            byte[] json = new byte[random.nextInt(300)];
+            for (int i = 0; i < json.length; i++) {
+                json[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            int from = json.length == 0 ? 0 : random.nextInt(json.length);
+            assertEquals(reference(json, from, json.length), indexed(json, from, json.length));
+        }
+    }
+
+    @Test
+    void endsInString() {
+        byte[] open = utf8("[\"abc");
+        assertTrue(StructuralIndex.build(open, 0, open.length).endsInString());
+        byte[] closed = utf8("[\"abc\"");
+        assertFalse(StructuralIndex.build(closed, 0, closed.length).endsInString());
+    }
+
+    @Test
+    void findAndClose() {
+        byte[] json = utf8("[{\"a\":[1,[2]]},\"s\",3]");
+        StructuralIndex index = StructuralIndex.build(json, 0, json.length);
+        int object = index.find(1);
+        assertEquals(1, index.position(object));
+        assertEquals(13, index.position(index.close(json, object, json.length)));
+        int string = index.find(15);
+        assertEquals(17, index.position(index.close(json, string, json.length)));
+        assertEquals(-1, index.close(json, object, 13));
+        assertEquals(index.size(), index.find(json.length));
+    }
+
+    @Test
+    void streamedBytes_useIndexForElementEndsAndSkips() {
+        String json = "[{\"id\":1,\"skip\":{\"x\":\"}]\\\"\",\"y\":[[{}]]},\"name\":\"a\"},"
+                + "{\"id\":2,\"skip\":[\"[\",{\"z\":\"\\\\\"}],\"name\":\"b\"}]";
+        var projection = FieldProjection.of(List.of("id", "name"));
+        var settings = DefaultJsonCodecSettings.defaults();
+        assertEquals(
+                StreamingJsonParser.streamArray(json, null, settings, projection)
+                        .toList(),
+                StreamingJsonParser.streamArray(ByteBuffer.wrap(utf8(json)), null, settings, projection)
+                        .toList());
+    }
+
+    @Test
+    void streamedBytes_errorsMatchStringPath() {
+        var settings = DefaultJsonCodecSettings.defaults();
+        for (String json : List.of("[{\"a\":1", "[{\"a\":\"x", "[\"abc", "[[1,2]")) {
+            var fromString = assertThrows(
+                    SQL4JsonExecutionException.class,
+                    () -> StreamingJsonParser.streamArray(json, null, settings).toList());
+            var fromBytes = assertThrows(
+                    SQL4JsonExecutionException.class,
+                    () -> StreamingJsonParser.streamArray(ByteBuffer.wrap(utf8(json)), null, settings)
+                            .toList());
+            assertEquals(fromString.getMessage(), fromBytes.getMessage(), json);
+        }
+    }
+
+    @Test
+    void projectedSkip_stillEnforcesNestingDepth() {
+        String json = "[{\"id\":1,\"deep\":[[[[[1]]]]]}]";
+        var settings = DefaultJsonCodecSettings.builder().maxNestingDepth(4).build();
+        var projection = FieldProjection.of(List.of("id"));
+        var ex = assertThrows(
+                SQL4JsonExecutionException.class,
+                () -> StreamingJsonParser.streamArray(ByteBuffer.wrap(utf8(json)), null, settings, projection)
+                        .toList());
+        var expected = assertThrows(
+                SQL4JsonExecutionException.class,
+                () -> StreamingJsonParser.streamArray(json, null, settings, projection)
+                        .toList());
+        assertEquals(expected.getMessage(), ex.getMessage());
+    }
+}
@@ -0,0 +1,249 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.json;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.exception.SQL4JsonExecutionException;
+import io.github.mnesimiyilmaz.sql4json.settings.DefaultJsonCodecSettings;
+import io.github.mnesimiyilmaz.sql4json.settings.DuplicateKeyPolicy;
+import io.github.mnesimiyilmaz.sql4json.types.JsonValue;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8JsonParserTest {
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    class SameTreeAsStringParser {
+
+        @ParameterizedTest
+        @ValueSource(
+                strings = {
+                    "\"hello\"",
+                    "\"line1\\nline2\\ttab\\\\backslash\\\"quote\"",
+                    "\"\\u0041\\u0042\"",
+                    "\"\\uD83D\\uDE00\"",
+                    "\"çğüşöı — ünïcödé 日本語 😀\"",
+                    "\"prefix ü\\n suffix 日本\"",
+                    "42",
+                    "-7",
+                    "0",
+                    "3.14",
+                    "-1.5e3",
+                    "1E+2",
+                    "9223372036854775807",
+                    "9223372036854775808",
+                    "123456789012345678901234567890",
+                    "true",
+                    "false",
+                    "null",
+                    "[]",
+                    "{}",
+                    "[1, \"two\", 3.0, null, true, {\"a\": [1, 2]}]",
+                    " { \"name\" : \"Ålice\", \"tags\": [\"x\", \"y\"], \"nested\": {\"k\": {\"deep\": 1}} } ",
+                    "[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"},{\"id\":3,\"name\":\"c\"}]",
+                    "{\"ké\\u0079\": 1, \"日本\": 2}"
+                })
+        void parse_matchesStringParser(String json) {
+            assertEquals(JsonParser.parse(json), Utf8JsonParser.parse(utf8(json)));
+        }
+
+        @Test
+        void parse_numberTypesMatch() {
+            assertInstanceOf(JsonLongValue.class, Utf8JsonParser.parse(utf8("12")));
+            assertInstanceOf(JsonDoubleValue.class, Utf8JsonParser.parse(utf8("1.0")));
+            JsonValue big = Utf8JsonParser.parse(utf8("123456789012345678901234567890"));
+            assertEquals(
+                    new BigDecimal("123456789012345678901234567890"),
+                    big.asNumber().orElseThrow());
+        }
+
+        @Test
+        void parse_manyDistinctKeys_beyondKeyCache() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < 2_000; i++) {
+                if (i > 0) sb.append(',');
+                sb.append("{\"key").append(i).append("\":").append(i).append('}');
+            }
+            String json = sb.append(']').toString();
+            assertEquals(JsonParser.parse(json), Utf8JsonParser.parse(utf8(json)));
+        }
+
+        @Test
+        void parse_repeatedShapes_shareKeyArrays() {
+            JsonValue v = Utf8JsonParser.parse(utf8("[{\"a\":1,\"b\":2},{\"a\":3,\"b\":4}]"));
+            var rows = v.asArray().orElseThrow();
+            var first = (CompactStringMap<?>) rows.get(0).asObject().orElseThrow();
+            var second = (CompactStringMap<?>) rows.get(1).asObject().orElseThrow();
+            assertSame(
+                    first.keySet().iterator().next(), second.keySet().iterator().next());
+        }
+    }
+
+    @Nested
+    class Encoding {
+
+        @Test
+        void parse_skipsByteOrderMark() {
+            byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+            byte[] body = utf8("{\"a\":1}");
+            byte[] json = new byte[bom.length + body.length];
+            System.arraycopy(bom, 0, json, 0, bom.length);
+            System.arraycopy(body, 0, json, bom.length, body.length);
+            assertEquals(JsonParser.parse("{\"a\":1}"), Utf8JsonParser.parse(json));
+        }
+
+        @Test
+        void parse_malformedUtf8_replacedLikeUpFrontDecoding() {
+            byte[] json = {'"', 'a', (byte) 0xFF, 'b', '"'};
+            assertEquals(JsonParser.parse(new String(json, StandardCharsets.UTF_8)), Utf8JsonParser.parse(json));
+        }
+
+        @Test
+        void parse_rawControlByte_throws() {
+            byte[] json = {'"', 'a', 0x01, '"'};
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(json));
+            assertTrue(ex.getMessage().contains("Unescaped control character"));
+        }
+
+        @Test
+        void parse_invalidUnicodeEscape_throws() {
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("\"\\u00ZZ\"")));
+            assertTrue(ex.getMessage().contains("Invalid unicode escape"));
+        }
+
+        @Test
+        void parse_unexpectedNonAsciiByte_reportsHex() {
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("ü")));
+            assertTrue(ex.getMessage().contains("0xc3"));
+        }
+    }
+
+    @Nested
+    class Inputs {
+
+        @Test
+        void parse_offsetAndLength() {
+            byte[] json = utf8("xx[1,2]yy");
+            JsonValue v = Utf8JsonParser.parse(json, 2, 5, DefaultJsonCodecSettings.defaults());
+            assertEquals(2, v.asArray().orElseThrow().size());
+        }
+
+        @Test
+        void parse_heapByteBufferSlice_leavesPositionUntouched() {
+            ByteBuffer buffer = ByteBuffer.wrap(utf8("xx{\"a\":1}"));
+            buffer.position(2);
+            JsonValue v = Utf8JsonParser.parse(buffer, DefaultJsonCodecSettings.defaults());
+            assertEquals(JsonParser.parse("{\"a\":1}"), v);
+            assertEquals(2, buffer.position());
+        }
+
+        @Test
+        void parse_directByteBuffer() {
+            byte[] body = utf8("[\"ö\"]");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(body.length);
+            buffer.put(body).flip();
+            assertEquals(
+                    JsonParser.parse("[\"ö\"]"), Utf8JsonParser.parse(buffer, DefaultJsonCodecSettings.defaults()));
+            assertEquals(0, buffer.position());
+        }
+
+        @Test
+        void parse_null_throws() {
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse((byte[]) null));
+        }
+
+        @Test
+        void parse_blank_throws() {
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("  \n ")));
+            assertEquals("Failed to parse JSON: input is null or blank", ex.getMessage());
+        }
+
+        @Test
+        void parse_trailingContent_throws() {
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("{} x")));
+            assertTrue(ex.getMessage().contains("Unexpected content after JSON value"));
+        }
+
+        @Test
+        void parse_unterminatedString_throws() {
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("\"abc")));
+        }
+    }
+
+    @Nested
+    class Limits {
+
+        @Test
+        void maxInputLength_countsBytes() {
+            var settings = DefaultJsonCodecSettings.builder().maxInputLength(4).build();
+            // "ü" is one char but two bytes — "\"ü\"" is 4 bytes, "\"üü\"" is 6.
+            assertDoesNotThrow(() -> Utf8JsonParser.parse(utf8("\"ü\""), settings));
+            var ex = assertThrows(
+                    SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("\"üü\""), settings));
+            assertTrue(ex.getMessage().contains("input length exceeds configured maximum (4)"));
+        }
+
+        @Test
+        void maxStringLength_countsChars() {
+            var settings = DefaultJsonCodecSettings.builder().maxStringLength(3).build();
+            assertDoesNotThrow(() -> Utf8JsonParser.parse(utf8("\"üüü\""), settings));
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("\"abcd\""), settings));
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("\"ab\\ncd\""), settings));
+        }
+
+        @Test
+        void maxPropertyNameLength() {
+            var settings =
+                    DefaultJsonCodecSettings.builder().maxPropertyNameLength(2).build();
+            assertDoesNotThrow(() -> Utf8JsonParser.parse(utf8("{\"ab\":1}"), settings));
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("{\"abc\":1}"), settings));
+        }
+
+        @Test
+        void maxNestingDepth() {
+            var settings = DefaultJsonCodecSettings.builder().maxNestingDepth(2).build();
+            assertDoesNotThrow(() -> Utf8JsonParser.parse(utf8("[[1]]"), settings));
+            var ex = assertThrows(
+                    SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("[[[1]]]"), settings));
+            assertTrue(ex.getMessage().contains("Nesting depth exceeds configured maximum (2)"));
+        }
+
+        @Test
+        void maxNumberLength_and_exponent() {
+            var settings = DefaultJsonCodecSettings.builder().maxNumberLength(3).build();
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("1234"), settings));
+            var ex = assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("1e99999")));
+            assertTrue(ex.getMessage().contains("Number exponent magnitude too large"));
+        }
+
+        @Test
+        void maxArrayElements() {
+            var settings =
+                    DefaultJsonCodecSettings.builder().maxArrayElements(2).build();
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(utf8("[1,2,3]"), settings));
+        }
+
+        @Test
+        void duplicateKeyPolicies() {
+            byte[] json = utf8("{\"a\":1,\"a\":2}");
+            assertThrows(SQL4JsonExecutionException.class, () -> Utf8JsonParser.parse(json));
+            var last = DefaultJsonCodecSettings.builder()
+                    .duplicateKeyPolicy(DuplicateKeyPolicy.LAST_WINS)
+                    .build();
+            var first = DefaultJsonCodecSettings.builder()
+                    .duplicateKeyPolicy(DuplicateKeyPolicy.FIRST_WINS)
+                    .build();
+            assertEquals(JsonParser.parse("{\"a\":2}"), Utf8JsonParser.parse(json, last));
+            assertEquals(JsonParser.parse("{\"a\":1}"), Utf8JsonParser.parse(json, first));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.registry.AggregateFunction.Accumulator;
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AccumulatorsTest {
+
+    private static final List<String> BUILT_INS = List.of("count", "sum", "avg", "min", "max");
+
+    private final FunctionRegistry registry = FunctionRegistry.getDefault();
+
+    private static SqlValue randomValue(Random rnd) {
+        return switch (rnd.nextInt(7)) {
+            case 0 -> SqlNull.INSTANCE;
+            case 1 -> SqlNumber.of(rnd.nextLong(-1_000, 1_000));
+            case 2 -> SqlNumber.of(rnd.nextDouble() * 1e6 - 5e5);
+            case 3 -> SqlNumber.of(BigDecimal.valueOf(rnd.nextInt(10_000), 2));
+            case 4 -> SqlNumber.of(rnd.nextInt(5)); // frequent ties
+            case 5 -> new SqlString("s" + rnd.nextInt(50));
+            default -> SqlBoolean.of(rnd.nextBoolean());
+        };
+    }
+
+    private static List<SqlValue> randomValues(Random rnd, boolean homogeneous) {
+        List<SqlValue> values = new ArrayList<>();
+        int n = rnd.nextInt(40);
+        for (int i = 0; i < n; i++) {
+            SqlValue v = randomValue(rnd);
+            // MIN / MAX only compare values of one family; keep numbers and nulls for them
+            if (homogeneous && !(v instanceof SqlNumber) && !v.isNull()) v = SqlNumber.of(i);
+            values.add(v);
+        }
+        return values;
+    }
+
+    private static SqlValue accumulate(AggregateFunction fn, List<SqlValue> values) {
+        Accumulator acc = fn.init();
+        values.forEach(acc::accumulate);
+        return acc.finish();
+    }
+
+    @Test
+    void builtIns_matchListReduction() {
+        Random rnd = new Random(17);
+        for (int i = 0; i < 2_000; i++) {
+            for (String name : BUILT_INS) {
+                var fn = registry.getAggregate(name).orElseThrow();
+                List<SqlValue> values = randomValues(rnd, name.startsWith("m"));
+                SqlValue expected = fn.apply().apply(values);
+                SqlValue actual = accumulate(fn, values);
+                assertEquals(expected, actual, name + " over " + values);
+                // Equal under comparison is not enough for MIN / MAX: the first of equal values is kept
+                if (expected instanceof SqlNumber) assertSame(expected.getClass(), actual.getClass());
+            }
+        }
+    }
+
+    @Test
+    void merge_matchesSingleAccumulator() {
+        Random rnd = new Random(4);
+        for (int i = 0; i < 1_000; i++) {
+            for (String name : List.of("count", "min", "max")) {
+                var fn = registry.getAggregate(name).orElseThrow();
+                List<SqlValue> values = randomValues(rnd, true);
+                int cut = values.isEmpty() ? 0 : rnd.nextInt(values.size() + 1);
+                Accumulator left = fn.init();
+                Accumulator right = fn.init();
+                values.subList(0, cut).forEach(left::accumulate);
+                values.subList(cut, values.size()).forEach(right::accumulate);
+                left.merge(right);
+                assertEquals(accumulate(fn, values), left.finish(), name);
+            }
+        }
+    }
+
+    @Test
+    void merge_sumAndAvg_combineTotals() {
+        for (String name : List.of("sum", "avg")) {
+            var fn = registry.getAggregate(name).orElseThrow();
+            Accumulator left = fn.init();
+            Accumulator right = fn.init();
+            left.accumulate(SqlNumber.of(1));
+            left.accumulate(SqlNumber.of(2));
+            right.accumulate(SqlNumber.of(6));
+            right.accumulate(new SqlString("ignored"));
+            left.merge(right);
+            assertEquals(SqlNumber.of(name.equals("sum") ? 9.0 : 3.0), left.finish());
+        }
+    }
+
+    @Test
+    void avg_withoutNumbers_isNull() {
+        Accumulator acc = registry.getAggregate("avg").orElseThrow().init();
+        acc.accumulate(SqlNull.INSTANCE);
+        assertEquals(SqlNull.INSTANCE, acc.finish());
+    }
+
+    @Test
+    void listOnlyFunction_accumulatesByBuffering() {
+        var concat = new AggregateFunction(
+                "concat_all",
+                values -> new SqlString(
+                        values.stream().map(v -> ((SqlString) v).value()).reduce("", String::concat)));
+        Accumulator left = concat.init();
+        Accumulator right = concat.init();
+        left.accumulate(new SqlString("a"));
+        right.accumulate(new SqlString("b"));
+        right.accumulate(new SqlString("c"));
+        left.merge(right);
+        assertEquals(new SqlString("abc"), left.finish());
+    }
+}
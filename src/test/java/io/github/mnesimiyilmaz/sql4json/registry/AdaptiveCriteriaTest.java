@@ -0,0 +1,108 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.engine.FieldKey;
+import io.github.mnesimiyilmaz.sql4json.engine.Row;
+import io.github.mnesimiyilmaz.sql4json.engine.RowAccessor;
+import io.github.mnesimiyilmaz.sql4json.types.SqlNumber;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveCriteriaTest {
+
+    private static final FieldKey N = FieldKey.of("n");
+
+    private static Row row(long n) {
+        return Row.eager(Map.of(N, SqlNumber.of(n)));
+    }
+
+    private static long n(RowAccessor row) {
+        return ((SqlNumber) row.get(N)).longValue();
+    }
+
+    /** A predicate that burns time and counts its evaluations. */
+    private static CriteriaNode slow(AtomicInteger calls, CriteriaNode inner) {
+        return row -> {
+            calls.incrementAndGet();
+            long x = 0;
+            for (int i = 0; i < 2_000; i++) x += Long.rotateLeft(i, (int) x);
+            return inner.test(row) || x == 42;
+        };
+    }
+
+    @Test
+    void leaves_areReturnedUnchanged() {
+        CriteriaNode leaf = row -> true;
+        assertSame(leaf, AdaptiveCriteria.of(leaf));
+    }
+
+    @Test
+    void conjunction_flattensAndMovesSelectiveCheapOperandFirst() {
+        AtomicInteger slowCalls = new AtomicInteger();
+        CriteriaNode expensiveAlwaysTrue = slow(slowCalls, row -> true);
+        CriteriaNode cheapRarelyTrue = row -> n(row) % 100 == 0;
+        CriteriaNode cheapAlwaysTrue = row -> true;
+        var adaptive = (AdaptiveCriteria.Junction)
+                AdaptiveCriteria.of(new AndNode(new AndNode(expensiveAlwaysTrue, cheapAlwaysTrue), cheapRarelyTrue));
+
+        for (int i = 0; i < AdaptiveCriteria.SAMPLE_ROWS; i++) adaptive.test(row(i));
+        assertEquals(cheapRarelyTrue, adaptive.evaluationOrder().getFirst());
+        assertEquals(3, adaptive.evaluationOrder().size());
+
+        slowCalls.set(0);
+        int matched = 0;
+        for (int i = 0; i < 1_000; i++) if (adaptive.test(row(i))) matched++;
+        assertEquals(10, matched);
+        assertEquals(10, slowCalls.get());
+    }
+
+    @Test
+    void disjunction_movesLikelyTrueOperandFirst() {
+        AtomicInteger slowCalls = new AtomicInteger();
+        CriteriaNode expensiveRarelyTrue = slow(slowCalls, row -> n(row) == 5);
+        CriteriaNode cheapUsuallyTrue = row -> n(row) % 10 != 0;
+        var adaptive =
+                (AdaptiveCriteria.Junction) AdaptiveCriteria.of(new OrNode(expensiveRarelyTrue, cheapUsuallyTrue));
+
+        for (int i = 0; i < AdaptiveCriteria.SAMPLE_ROWS; i++) adaptive.test(row(i));
+        assertEquals(List.of(cheapUsuallyTrue, expensiveRarelyTrue), adaptive.evaluationOrder());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 10 != 0 || i == 5, adaptive.test(row(i)));
+        }
+    }
+
+    @Test
+    void results_matchWrittenOrder_acrossResampling() {
+        CriteriaNode written = new OrNode(
+                new AndNode(row -> n(row) % 3 == 0, row -> n(row) % 5 != 0),
+                new AndNode(row -> n(row) > 9_000, new OrNode(row -> n(row) % 7 == 0, row -> n(row) % 11 == 0)));
+        CriteriaNode adaptive = AdaptiveCriteria.of(written);
+        for (int i = 0; i < 3 * AdaptiveCriteria.RESAMPLE_INTERVAL; i++) {
+            Row r = row(i);
+            assertEquals(written.test(r), adaptive.test(r), "row " + i);
+        }
+    }
+
+    @Test
+    void reorderedEvaluation_neverRaisesAnErrorTheWrittenOrderWouldNot() {
+        // Written order guards the throwing operand: it only runs for rows passing n < 1000
+        CriteriaNode guard = row -> n(row) < 1_000;
+        CriteriaNode throwsAbove = row -> {
+            if (n(row) >= 1_000) throw new IllegalStateException("boom");
+            return n(row) % 2 == 0;
+        };
+        CriteriaNode adaptive = AdaptiveCriteria.of(new AndNode(guard, throwsAbove));
+        for (int i = 0; i < 2 * AdaptiveCriteria.RESAMPLE_INTERVAL; i++) {
+            Row r = row(i);
+            boolean expected = i < 1_000 && i % 2 == 0;
+            assertEquals(expected, adaptive.test(r), "row " + i);
+        }
+        CriteriaNode unguarded = AdaptiveCriteria.of(new AndNode(throwsAbove, guard));
+        for (int i = 0; i < AdaptiveCriteria.SAMPLE_ROWS; i++) unguarded.test(row(i));
+        assertThrows(IllegalStateException.class, () -> unguarded.test(row(5_000)));
+    }
+}
@@ -11,7 +11,7 @@ class BoundedPatternCacheTests {
 
     @Test
     void computes_pattern_on_miss() {
-        var cache = new BoundedPatternCache(4);
+        var cache = new BoundedPatternCache<Pattern>(4);
         AtomicInteger compiles = new AtomicInteger();
         Pattern p = cache.computeIfAbsent(
                 "%a%",
@@ -25,7 +25,7 @@ class BoundedPatternCacheTests {
 
     @Test
     void returns_cached_pattern_on_hit() {
-        var cache = new BoundedPatternCache(4);
+        var cache = new BoundedPatternCache<Pattern>(4);
         AtomicInteger compiles = new AtomicInteger();
         cache.computeIfAbsent(
                 "%a%",
@@ -44,17 +44,17 @@ class BoundedPatternCacheTests {
 
     @Test
     void constructor_zeroCapacity_throws() {
-        assertThrows(IllegalArgumentException.class, () -> new BoundedPatternCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedPatternCache<Pattern>(0));
     }
 
     @Test
     void constructor_negativeCapacity_throws() {
-        assertThrows(IllegalArgumentException.class, () -> new BoundedPatternCache(-1));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedPatternCache<Pattern>(-1));
     }
 
     @Test
     void size_reflects_inserted_entries() {
-        var cache = new BoundedPatternCache(4);
+        var cache = new BoundedPatternCache<Pattern>(4);
         assertEquals(0, cache.size());
         cache.computeIfAbsent("a", k -> Pattern.compile("a"));
         cache.computeIfAbsent("b", k -> Pattern.compile("b"));
@@ -68,7 +68,7 @@ class BoundedPatternCacheTests {
 
     @Test
     void evicts_least_recently_used_when_capacity_exceeded() {
-        var cache = new BoundedPatternCache(2);
+        var cache = new BoundedPatternCache<Pattern>(2);
         cache.computeIfAbsent("a", k -> Pattern.compile("a"));
         cache.computeIfAbsent("b", k -> Pattern.compile("b"));
         // touch 'a' to make it MRU
@@ -0,0 +1,86 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.sorting.SqlValueComparator;
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class InValueSetTest {
+
+    private static boolean linearContains(List<SqlValue> list, SqlValue value) {
+        return list.stream().filter(v -> !v.isNull()).anyMatch(v -> SqlValueComparator.compare(value, v) == 0);
+    }
+
+    @Test
+    void numbers_matchAcrossNumericTypes() {
+        var set = new InValueSet(List.of(
+                SqlNumber.of(1L),
+                SqlNumber.of(2.5),
+                SqlNumber.of(new BigDecimal("3.0")),
+                SqlNumber.of(9007199254740993L)));
+        assertTrue(set.contains(SqlNumber.of(1.0)));
+        assertTrue(set.contains(SqlNumber.of(new BigDecimal("1"))));
+        assertTrue(set.contains(SqlNumber.of(3L)));
+        assertTrue(set.contains(SqlNumber.of(new BigDecimal("2.50"))));
+        assertTrue(set.contains(SqlNumber.of(9007199254740993L)));
+        // Long-to-long is exact; 2^53 only equals 2^53 + 1 once a double is involved
+        assertFalse(set.contains(SqlNumber.of(9007199254740992L)));
+        assertTrue(set.contains(SqlNumber.of(9007199254740992.0)));
+        assertFalse(set.contains(new SqlString("1")));
+    }
+
+    @Test
+    void otherTypes_andNulls() {
+        var set = new InValueSet(List.of(
+                new SqlString("a"),
+                SqlBoolean.TRUE,
+                new SqlDate(LocalDate.of(2024, 1, 2)),
+                new SqlDateTime(LocalDateTime.of(2024, 1, 2, 3, 4)),
+                SqlNull.INSTANCE));
+        assertTrue(set.contains(new SqlString("a")));
+        assertFalse(set.contains(new SqlString("b")));
+        assertTrue(set.contains(SqlBoolean.TRUE));
+        assertFalse(set.contains(SqlBoolean.FALSE));
+        assertTrue(set.contains(new SqlDate(LocalDate.of(2024, 1, 2))));
+        assertFalse(set.contains(new SqlDate(LocalDate.of(2024, 1, 3))));
+        assertTrue(set.contains(new SqlDateTime(LocalDateTime.of(2024, 1, 2, 3, 4))));
+        assertFalse(set.contains(SqlNull.INSTANCE));
+    }
+
+    @Test
+    void randomLists_agreeWithLinearScan() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<SqlValue> list = new ArrayList<>();
+            int size = random.nextInt(600);
+            for (int i = 0; i < size; i++) list.add(randomValue(random));
+            var set = new InValueSet(list);
+            for (int probe = 0; probe < 50; probe++) {
+                SqlValue value = randomValue(random);
+                if (value.isNull()) continue;
+                assertEquals(linearContains(list, value), set.contains(value), value::toString);
+            }
+        }
+    }
+
+    private static SqlValue randomValue(Random random) {
+        int n = random.nextInt(40) - 20;
+        return switch (random.nextInt(7)) {
+            case 0 -> SqlNumber.of((long) n);
+            case 1 -> SqlNumber.of(n / 2.0);
+            case 2 -> SqlNumber.of(BigDecimal.valueOf(n, 1));
+            case 3 -> new SqlString("s" + n);
+            case 4 -> SqlBoolean.of(n > 0);
+            case 5 -> new SqlDate(LocalDate.of(2024, 1, 1).plusDays(n));
+            default -> SqlNull.INSTANCE;
+        };
+    }
+}
@@ -17,7 +17,7 @@ import org.junit.jupiter.api.Test;
 
 class LikeConditionHandlerTest {
 
-    private final LikeConditionHandler handler = new LikeConditionHandler(new BoundedPatternCache(256));
+    private final LikeConditionHandler handler = new LikeConditionHandler(new BoundedPatternCache<>(256));
 
     // ── Helpers ──────────────────────────────────────────────────────────────
 
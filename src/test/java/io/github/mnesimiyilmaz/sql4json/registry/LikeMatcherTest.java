@@ -0,0 +1,112 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.registry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class LikeMatcherTest {
+
+    /** The regex translation LIKE used before the dedicated matcher; kept as the reference semantics. */
+    private static Pattern regexFor(String likePattern) {
+        StringBuilder regex = new StringBuilder("^");
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            switch (c) {
+                case '%' -> regex.append(".*");
+                case '_' -> regex.append(".");
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        regex.append("$");
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+
+    private static void assertLike(boolean expected, String pattern, String text) {
+        assertEquals(expected, LikeMatcher.compile(pattern).matches(text), pattern + " ~ " + text);
+        assertEquals(expected, regexFor(pattern).matcher(text).matches(), "reference: " + pattern + " ~ " + text);
+    }
+
+    @Test
+    void shapes() {
+        assertLike(true, "", "");
+        assertLike(false, "", "a");
+        assertLike(true, "%", "");
+        assertLike(true, "%%", "anything");
+        assertLike(true, "abc", "ABC");
+        assertLike(false, "abc", "abcd");
+        assertLike(true, "ab%", "AbXYZ");
+        assertLike(false, "ab%", "xab");
+        assertLike(true, "%yz", "xxYZ");
+        assertLike(false, "%yz", "yzx");
+        assertLike(true, "%mid%", "a MID b");
+        assertLike(false, "%mid%", "mi d");
+        assertLike(true, "a%b%c", "aXbYbZc");
+        assertLike(false, "a%b%c", "aXcYb");
+        assertLike(true, "a%a", "aa");
+        assertLike(false, "a%a", "a");
+        assertLike(true, "%a%a%", "xaxa");
+        assertLike(false, "%aa%aa%", "aaa");
+    }
+
+    @Test
+    void underscore_matchesOneCharacter() {
+        assertLike(true, "_", "x");
+        assertLike(false, "_", "");
+        assertLike(true, "a_c", "a\nc");
+        assertLike(true, "%_b", "ab");
+        assertLike(false, "%_b", "b");
+        assertLike(true, "___%", "abc");
+        assertLike(false, "___%", "ab");
+        assertLike(true, "_", "😀");
+        assertLike(true, "%_x", "😀x");
+    }
+
+    @Test
+    void caseFolding_isAsciiOnly() {
+        assertLike(true, "%HELLO%", "say hello");
+        assertLike(false, "é", "É");
+        assertLike(true, "ü%", "über");
+    }
+
+    @Test
+    void regexMetacharacters_areLiteral() {
+        assertLike(true, "a.b*(c)", "A.B*(C)");
+        assertLike(false, "a.b", "axb");
+        assertLike(true, "%[x]%", "1[x]2");
+    }
+
+    @Test
+    void selfOverlappingSegments_resumeAfterPartialMatch() {
+        assertLike(true, "%aab%", "aaab");
+        assertLike(true, "%abab%", "abaabab");
+        assertLike(false, "%abab%", "abaaba");
+        assertLike(true, "%AbAc%x", "ababacabx");
+        assertLike(true, "x%aaaa%", "x" + "a".repeat(10_000));
+        assertLike(false, "%aaab%", "a".repeat(10_000));
+    }
+
+    @Test
+    void randomPatterns_agreeWithRegexTranslation() {
+        Random random = new Random(7);
+        String patternAlphabet = "aAb%_";
+        String textAlphabet = "aAbB";
+        for (int round = 0; round < 20_000; round++) {
+            String pattern = randomString(random, patternAlphabet, 6);
+            String text = randomString(random, textAlphabet, 8);
+            assertEquals(
+                    regexFor(pattern).matcher(text).matches(),
+                    LikeMatcher.compile(pattern).matches(text),
+                    pattern + " ~ " + text);
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+}
@@ -20,6 +20,9 @@ class DefaultJsonCodecSettingsTests {
         assertEquals(1_024, s.maxPropertyNameLength());
         assertEquals(1_000_000, s.maxArrayElements());
         assertEquals(DuplicateKeyPolicy.REJECT, s.duplicateKeyPolicy());
+        assertEquals(1, s.parseParallelism());
+        assertNull(s.parseExecutor());
+        assertFalse(s.lazyDocuments());
     }
 
     @Test
@@ -41,6 +44,7 @@ class DefaultJsonCodecSettingsTests {
         assertThrows(IllegalArgumentException.class, () -> b.maxNumberLength(0));
         assertThrows(IllegalArgumentException.class, () -> b.maxPropertyNameLength(0));
         assertThrows(IllegalArgumentException.class, () -> b.maxArrayElements(0));
+        assertThrows(IllegalArgumentException.class, () -> b.parseParallelism(0));
     }
 
     @Test
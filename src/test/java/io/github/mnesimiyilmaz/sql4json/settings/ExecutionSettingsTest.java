@@ -0,0 +1,81 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.settings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.Test;
+
+class ExecutionSettingsTest {
+
+    @Test
+    void when_defaults_then_execution_is_sequential() {
+        ExecutionSettings s = ExecutionSettings.defaults();
+        assertEquals(1, s.parallelism());
+        assertNull(s.executor());
+        assertEquals(1_024, s.morselSize());
+        assertFalse(s.isParallel());
+        assertEquals(Long.MAX_VALUE, s.spillThresholdBytes());
+        assertNull(s.spillDirectory());
+        assertFalse(s.canSpill());
+        assertFalse(s.normalizedSortKeys());
+    }
+
+    @Test
+    void when_builder_sets_values_then_built_value_reflects_them() {
+        Executor direct = Runnable::run;
+        ExecutionSettings s = ExecutionSettings.builder()
+                .parallelism(8)
+                .executor(direct)
+                .morselSize(256)
+                .spillThresholdBytes(1L << 20)
+                .spillDirectory(Path.of("spill"))
+                .normalizedSortKeys(true)
+                .build();
+        assertEquals(8, s.parallelism());
+        assertSame(direct, s.executor());
+        assertEquals(256, s.morselSize());
+        assertTrue(s.isParallel());
+        assertEquals(1L << 20, s.spillThresholdBytes());
+        assertEquals(Path.of("spill"), s.spillDirectory());
+        assertTrue(s.canSpill());
+        assertTrue(s.normalizedSortKeys());
+        assertTrue(s.toBuilder().build().normalizedSortKeys());
+    }
+
+    @Test
+    void when_builder_rejects_non_positive_values() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ExecutionSettings.builder().parallelism(0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ExecutionSettings.builder().morselSize(-1));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ExecutionSettings.builder().spillThresholdBytes(0));
+        assertThrows(
+                IllegalArgumentException.class, () -> new ExecutionSettings(1, null, 0, Long.MAX_VALUE, null, false));
+    }
+
+    @Test
+    void when_execution_subsection_is_accessible_from_sql4json_settings() {
+        Sql4jsonSettings s =
+                Sql4jsonSettings.builder().execution(e -> e.parallelism(4)).build();
+        assertEquals(4, s.execution().parallelism());
+        assertEquals(4, s.toBuilder().build().execution().parallelism());
+    }
+
+    @Test
+    void when_sql4json_defaults_then_execution_is_defaults() {
+        assertSame(ExecutionSettings.defaults(), Sql4jsonSettings.defaults().execution());
+        Sql4jsonSettings legacy = new Sql4jsonSettings(
+                SecuritySettings.defaults(),
+                LimitsSettings.defaults(),
+                CacheSettings.defaults(),
+                MappingSettings.defaults(),
+                Sql4jsonSettings.defaults().codec());
+        assertSame(ExecutionSettings.defaults(), legacy.execution());
+    }
+}
@@ -0,0 +1,128 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.sorting;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.SQL4Json;
+import io.github.mnesimiyilmaz.sql4json.settings.Sql4jsonSettings;
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NormalizedKeyEncoderTest {
+
+    @TempDir
+    Path dir;
+
+    private static SqlValue randomValue(Random random) {
+        return switch (random.nextInt(10)) {
+            case 0 -> SqlNull.INSTANCE;
+            case 1 -> SqlBoolean.of(random.nextBoolean());
+            case 2 -> SqlNumber.of((long) random.nextInt(40) - 20);
+            case 3 -> SqlNumber.of(random.nextInt(40) / 4.0 - 5);
+            case 4 -> SqlNumber.of(BigDecimal.valueOf(random.nextInt(40) - 20, 1));
+            case 5 -> SqlNumber.of(random.nextBoolean() ? -0.0 : Double.NaN);
+            case 6 -> new SqlString(randomString(random));
+            case 7 -> new SqlDate(LocalDate.of(1960 + random.nextInt(80), 1 + random.nextInt(12), 1));
+            default -> new SqlDateTime(LocalDateTime.of(2026, 1, 1, random.nextInt(24), 0, 0, random.nextInt(3)));
+        };
+    }
+
+    // Short strings over characters that exercise the zero-byte escape
+    private static String randomString(Random random) {
+        char[] alphabet = {'\u0000', '\u0001', 'a', 'b', 'ÿ', 'Ā', '￿'};
+        var sb = new StringBuilder();
+        int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) sb.append(alphabet[random.nextInt(alphabet.length)]);
+        return sb.toString();
+    }
+
+    @Test
+    void byte_order_matches_the_tuple_comparator() {
+        var random = new Random(11);
+        for (boolean[] descending :
+                List.of(new boolean[] {false}, new boolean[] {true}, new boolean[] {false, true}, new boolean[] {
+                    true, false, true
+                })) {
+            var encoder = new NormalizedKeyEncoder(descending);
+            Comparator<SqlValue[]> comparator = SortKeys.comparator(descending);
+            for (int n = 0; n < 20_000; n++) {
+                SqlValue[] a = new SqlValue[descending.length];
+                SqlValue[] b = new SqlValue[descending.length];
+                for (int c = 0; c < a.length; c++) {
+                    a[c] = randomValue(random);
+                    b[c] = random.nextInt(4) == 0 ? a[c] : randomValue(random);
+                }
+                int expected = Integer.signum(comparator.compare(a, b));
+                int actual = Integer.signum(Arrays.compareUnsigned(encoder.encode(a), encoder.encode(b)));
+                assertEquals(expected, actual, Arrays.toString(a) + " vs " + Arrays.toString(b));
+            }
+        }
+    }
+
+    @Test
+    void integers_beyond_double_precision_are_not_encoded() {
+        var encoder = new NormalizedKeyEncoder(new boolean[] {false, false});
+        assertNotNull(encoder.encode(new SqlValue[] {SqlNumber.of(1L << 53), new SqlString("x")}));
+        assertNull(encoder.encode(new SqlValue[] {new SqlString("x"), SqlNumber.of((1L << 53) + 1)}));
+        assertNull(encoder.encode(new SqlValue[] {SqlNumber.of(Long.MIN_VALUE), SqlNull.INSTANCE}));
+    }
+
+    @Test
+    void string_prefixes_sort_first() {
+        var encoder = new NormalizedKeyEncoder(new boolean[] {false});
+        byte[] a = encoder.encode(new SqlValue[] {new SqlString("a")});
+        byte[] withZero = encoder.encode(new SqlValue[] {new SqlString("a\u0000")});
+        byte[] ab = encoder.encode(new SqlValue[] {new SqlString("ab")});
+        assertTrue(Arrays.compareUnsigned(a, withZero) < 0);
+        assertTrue(Arrays.compareUnsigned(withZero, ab) < 0);
+    }
+
+    private static String json(int rows) {
+        var random = new Random(3);
+        var sb = new StringBuilder("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":")
+                    .append(i)
+                    .append(",\"dept\":")
+                    .append(random.nextInt(8) == 0 ? "null" : "\"d" + random.nextInt(12) + "\"")
+                    .append(",\"score\":")
+                    .append(random.nextInt(5) == 0 ? String.valueOf(random.nextInt(50)) : random.nextInt(200) / 8.0)
+                    .append(",\"big\":")
+                    .append(random.nextInt(100) == 0 ? "9007199254740993" : String.valueOf(random.nextInt(3)))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    void orderBy_on_normalized_keys_returns_the_same_rows() {
+        String data = json(3_000);
+        var normalized = Sql4jsonSettings.builder()
+                .execution(e -> e.normalizedSortKeys(true))
+                .build();
+        var normalizedSpilling = Sql4jsonSettings.builder()
+                .execution(e -> e.normalizedSortKeys(true)
+                        .spillThresholdBytes(16 * 1024)
+                        .spillDirectory(dir))
+                .build();
+        for (String sql : List.of(
+                "SELECT id FROM $r ORDER BY dept DESC, score, id DESC",
+                "SELECT id, dept FROM $r ORDER BY score DESC, dept",
+                "SELECT id FROM $r ORDER BY big DESC, id",
+                "SELECT dept, COUNT(*) AS n FROM $r GROUP BY dept ORDER BY COUNT(*) DESC, dept")) {
+            String expected = SQL4Json.query(sql, data);
+            assertEquals(expected, SQL4Json.query(sql, data, normalized), sql);
+            assertEquals(expected, SQL4Json.query(sql, data, normalizedSpilling), sql);
+        }
+    }
+}
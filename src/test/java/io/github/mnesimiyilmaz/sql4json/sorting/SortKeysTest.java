@@ -0,0 +1,163 @@
+// SPDX-License-Identifier: Apache-2.0
+package io.github.mnesimiyilmaz.sql4json.sorting;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.mnesimiyilmaz.sql4json.types.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class SortKeysTest {
+
+    // Reference: a stable List.sort with SqlValueComparator, reversed per DESC column
+    private static List<Integer> expected(SqlValue[][] keys, boolean[] descending) {
+        Comparator<Integer> order = (a, b) -> 0;
+        for (int c = 0; c < keys.length; c++) {
+            SqlValue[] column = keys[c];
+            Comparator<Integer> byColumn = (a, b) -> SqlValueComparator.compare(column[a], column[b]);
+            order = order.thenComparing(descending[c] ? byColumn.reversed() : byColumn);
+        }
+        List<Integer> indices =
+                new ArrayList<>(IntStream.range(0, keys[0].length).boxed().toList());
+        indices.sort(order);
+        return indices;
+    }
+
+    private static SqlValue[] column(int rows, Random random, Function<Random, SqlValue> values) {
+        SqlValue[] column = new SqlValue[rows];
+        for (int i = 0; i < rows; i++) column[i] = random.nextInt(10) == 0 ? SqlNull.INSTANCE : values.apply(random);
+        return column;
+    }
+
+    private static void assertSortsLikeComparator(SqlValue[][] keys, boolean[] descending) {
+        int[] sorted = SortKeys.of(keys, descending).sortedIndices();
+        assertEquals(expected(keys, descending), IntStream.of(sorted).boxed().toList());
+    }
+
+    @Test
+    void long_and_double_columns_sort_like_the_comparator() {
+        var random = new Random(1);
+        int rows = 5_000;
+        SqlValue[] longs = column(rows, random, r -> SqlNumber.of((long) r.nextInt(100) - 50));
+        SqlValue[] doubles = column(rows, random, r -> SqlNumber.of(r.nextInt(40) / 4.0 - 5));
+        for (boolean[] descending :
+                List.of(new boolean[] {false, false}, new boolean[] {true, false}, new boolean[] {false, true})) {
+            assertSortsLikeComparator(new SqlValue[][] {longs, doubles}, descending);
+            assertSortsLikeComparator(new SqlValue[][] {doubles, longs}, descending);
+        }
+    }
+
+    @Test
+    void mixed_columns_sort_like_the_comparator() {
+        var random = new Random(2);
+        Function<Random, SqlValue> mixed = r -> switch (r.nextInt(6)) {
+            case 0 -> SqlNumber.of((long) r.nextInt(20));
+            case 1 -> SqlNumber.of(r.nextInt(20) / 2.0);
+            case 2 -> SqlNumber.of(BigDecimal.valueOf(r.nextInt(20), 1));
+            case 3 -> new SqlString("s" + r.nextInt(20));
+            case 4 -> SqlBoolean.of(r.nextBoolean());
+            default -> new SqlDate(LocalDate.of(2026, 1, 1 + r.nextInt(28)));
+        };
+        SqlValue[] first = column(3_000, random, mixed);
+        SqlValue[] second = column(3_000, random, r -> new SqlString("t" + r.nextInt(5)));
+        assertSortsLikeComparator(new SqlValue[][] {first, second}, new boolean[] {true, false});
+        assertSortsLikeComparator(new SqlValue[][] {second, first}, new boolean[] {false, true});
+    }
+
+    @Test
+    void extreme_numbers_radix_sort_like_the_comparator() {
+        var random = new Random(5);
+        long[] longs = {Long.MIN_VALUE, Long.MAX_VALUE, -1, 0, 1, 1L << 40, -(1L << 40)};
+        double[] doubles = {
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NaN, -0.0, 0.0, Double.MIN_VALUE, -1e300, 1e-300
+        };
+        SqlValue[] longColumn = column(2_000, random, r -> SqlNumber.of(longs[r.nextInt(longs.length)]));
+        SqlValue[] doubleColumn = column(2_000, random, r -> SqlNumber.of(doubles[r.nextInt(doubles.length)]));
+        for (boolean descending : new boolean[] {false, true}) {
+            assertSortsLikeComparator(new SqlValue[][] {longColumn}, new boolean[] {descending});
+            assertSortsLikeComparator(new SqlValue[][] {doubleColumn}, new boolean[] {descending});
+        }
+    }
+
+    @Test
+    void string_columns_sort_like_the_comparator_at_any_cardinality() {
+        var random = new Random(6);
+        for (int distinct : new int[] {1, 7, 1_024, 1_025, 5_000}) {
+            SqlValue[] strings = column(4_000, random, r -> new SqlString(Integer.toString(r.nextInt(distinct), 36)));
+            SqlValue[] ties = column(4_000, random, r -> SqlNumber.of((long) r.nextInt(3)));
+            for (boolean[] descending : List.of(new boolean[] {false, true}, new boolean[] {true, false})) {
+                assertSortsLikeComparator(new SqlValue[][] {strings, ties}, descending);
+            }
+        }
+    }
+
+    @Test
+    void equal_keys_keep_index_order() {
+        // Below and above the size where the sort switches from merge sort to radix sort
+        for (int rows : new int[] {100, 1_000}) {
+            SqlValue[] keys = new SqlValue[rows];
+            for (int i = 0; i < keys.length; i++) keys[i] = SqlNumber.of((long) (i % 3));
+            int[] sorted =
+                    SortKeys.of(new SqlValue[][] {keys}, new boolean[] {true}).sortedIndices();
+            for (int i = 1; i < sorted.length; i++) {
+                if (keys[sorted[i - 1]].equals(keys[sorted[i]])) assertTrue(sorted[i - 1] < sorted[i]);
+            }
+            assertEquals(SqlNumber.of(2L), keys[sorted[0]]);
+        }
+    }
+
+    @Test
+    void nulls_sort_first_ascending_and_last_descending() {
+        SqlValue[] keys = {SqlNumber.of(2L), SqlNull.INSTANCE, SqlNumber.of(1L)};
+        assertArrayEquals(
+                new int[] {1, 2, 0},
+                SortKeys.of(new SqlValue[][] {keys}, new boolean[] {false}).sortedIndices());
+        assertArrayEquals(
+                new int[] {0, 2, 1},
+                SortKeys.of(new SqlValue[][] {keys}, new boolean[] {true}).sortedIndices());
+    }
+
+    @Test
+    void comparator_orders_key_tuples_like_stored_keys() {
+        Comparator<SqlValue[]> order = SortKeys.comparator(new boolean[] {false, true});
+        SqlValue[] a = {new SqlString("x"), SqlNumber.of(1L)};
+        SqlValue[] b = {new SqlString("x"), SqlNumber.of(2L)};
+        SqlValue[] c = {SqlNull.INSTANCE, SqlNumber.of(0L)};
+        assertTrue(order.compare(b, a) < 0);
+        assertTrue(order.compare(c, a) < 0);
+        assertEquals(0, order.compare(a, a.clone()));
+    }
+
+    @Test
+    void parallel_sort_matches_the_sequential_sort() {
+        var random = new Random(4);
+        SqlValue[] keys = column(10_001, random, r -> new SqlString("s" + r.nextInt(30)));
+        SortKeys sortKeys = SortKeys.of(new SqlValue[][] {keys}, new boolean[] {true});
+        int[] sequential = sortKeys.sortedIndices();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int parallelism : new int[] {2, 3, 5, 8, 10_000}) {
+                assertArrayEquals(
+                        sequential, sortKeys.sortedIndices(parallelism, executor), "parallelism " + parallelism);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void no_rows_sort_to_nothing_and_no_keys_are_rejected() {
+        assertEquals(
+                0, SortKeys.of(new SqlValue[][] {{}}, new boolean[] {false}).sortedIndices().length);
+        assertThrows(IllegalArgumentException.class, () -> SortKeys.of(new SqlValue[0][], new boolean[0]));
+    }
+}